@@ -0,0 +1,39 @@
+
+package pdcpart2bench;
+
+import java.io.File;
+import pdcpart2.util.DatabaseInitializer;
+
+/**
+ * BenchDatabase locates and prepares the on-disk Derby database used by the
+ * benchmarks. The directory can be changed with -Dbench.db.dir and is created
+ * and seeded through DatabaseInitializer, exactly as the game does.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+final class BenchDatabase {
+
+    private BenchDatabase() {
+    }
+
+    /**
+     * Returns the path of the benchmark database, creating its parent directory.
+     *
+     * @return The Derby database path.
+     */
+    static String path() {
+        File dir = new File(System.getProperty("bench.db.dir", "build/bench/db"));
+        dir.mkdirs();
+        return new File(dir, "BenchQuestionDB").getPath();
+    }
+
+    /**
+     * Boots the benchmark database, creating and seeding its tables if needed.
+     *
+     * @return The DatabaseInitializer for the benchmark database.
+     */
+    static DatabaseInitializer open() {
+        return DatabaseInitializer.getInstance(path());
+    }
+}
@@ -0,0 +1,72 @@
+
+package pdcpart2bench;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pdcpart2.lifelines.FiftyFifty;
+import pdcpart2.lifelines.LifelineResult;
+import pdcpart2.model.PrizeLevel;
+import pdcpart2.model.Question;
+
+/**
+ * Measures the in-memory game logic that runs on every question: applying the
+ * 50:50 lifeline, checking an answer and looking up the prize for a level.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameLogicBenchmark {
+
+    private Question question;
+    private SplittableRandom random;
+    private int level;
+    private int option;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        question = new Question(
+                "What is the capital of France?",
+                "Paris",
+                "Berlin",
+                "Madrid",
+                "Rome",
+                "Paris",
+                "It's known as the city of love.");
+
+        random = new SplittableRandom(42);
+    }
+
+    @Benchmark
+    public LifelineResult fiftyFiftyUse() {
+        return new FiftyFifty(random).use(question);
+    }
+
+    @Benchmark
+    public boolean questionIsCorrect() {
+        option = (option + 1) & (Question.OPTION_COUNT - 1);
+        return question.isCorrect(option);
+    }
+
+    @Benchmark
+    public int prizeLevelGetAmountByQuestionLevel() {
+        level = level == 15 ? 1 : level + 1;
+        return PrizeLevel.getAmountByQuestionLevel(level);
+    }
+}
@@ -0,0 +1,179 @@
+
+package pdcpart2bench;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import pdcpart2.dao.GameResultDAO;
+import pdcpart2.model.GameResult;
+import pdcpart2.model.PlayerStats;
+import pdcpart2.util.DatabaseInitializer;
+
+/**
+ * Measures GameResultDAO against the on-disk Derby database: a single insert,
+ * reading the full results table at different table sizes, and looking up one
+ * player's stats from Player_Stats versus aggregating their history.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+@Fork(1)
+public class GameResultDAOBenchmark {
+
+    /**
+     * State for the insert benchmark. Rows accumulate over the trial and are
+     * removed again when it ends.
+     */
+    @State(Scope.Benchmark)
+    public static class InsertState {
+
+        DatabaseInitializer dbInitializer;
+        GameResultDAO gameResultDAO;
+        GameResult gameResult;
+
+        @Setup(Level.Trial)
+        public void setUp() throws SQLException {
+            dbInitializer = BenchDatabase.open();
+            gameResultDAO = new GameResultDAO();
+            gameResult = new GameResult("BenchPlayer", 1000, 5);
+            try (Connection connection = dbInitializer.getConnection()) {
+                clearGameResults(connection);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws SQLException {
+            try (Connection connection = dbInitializer.getConnection()) {
+                clearGameResults(connection);
+            }
+            dbInitializer.shutdownDatabase();
+        }
+    }
+
+    /**
+     * State for the read benchmark. The table is filled with the given number
+     * of rows once per trial.
+     */
+    @State(Scope.Benchmark)
+    public static class QueryState {
+
+        @Param({"1000", "100000", "1000000"})
+        int rows;
+
+        DatabaseInitializer dbInitializer;
+        GameResultDAO gameResultDAO;
+
+        @Setup(Level.Trial)
+        public void setUp() throws SQLException {
+            dbInitializer = BenchDatabase.open();
+            gameResultDAO = new GameResultDAO();
+            try (Connection connection = dbInitializer.getConnection()) {
+                clearGameResults(connection);
+                fillGameResults(connection, rows);
+            }
+            gameResultDAO.rebuildPlayerStats();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws SQLException {
+            try (Connection connection = dbInitializer.getConnection()) {
+                clearGameResults(connection);
+            }
+            dbInitializer.shutdownDatabase();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public void insertGameResult(InsertState state) throws SQLException {
+        state.gameResultDAO.insertGameResult(state.gameResult);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2, time = 5)
+    @Measurement(iterations = 3, time = 5)
+    public List<GameResult> getAllGameResults(QueryState state) throws SQLException {
+        return state.gameResultDAO.getAllGameResults();
+    }
+
+    /**
+     * A player's stats read from the Player_Stats aggregate.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public PlayerStats getPlayerStats(QueryState state) throws SQLException {
+        return state.gameResultDAO.getPlayerStats("Player1");
+    }
+
+    /**
+     * The same stats computed from the player's full history.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public PlayerStats aggregatePlayerHistory(QueryState state) throws SQLException {
+        PlayerStats stats = null;
+        for (GameResult result : state.gameResultDAO.getGameResultsByPlayerName("Player1")) {
+            stats = stats == null ? PlayerStats.of(result) : stats.combine(PlayerStats.of(result));
+        }
+        return stats;
+    }
+
+    private static void clearGameResults(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("DELETE FROM Game_Results");
+            stmt.executeUpdate("DELETE FROM Player_Stats");
+        }
+    }
+
+    /**
+     * Inserts the given number of rows in batches, committing every batch.
+     */
+    private static void fillGameResults(Connection connection, int rows) throws SQLException {
+        String insertSQL = "INSERT INTO Game_Results (player_name, score, last_question_index) VALUES (?, ?, ?)";
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (PreparedStatement pstmt = connection.prepareStatement(insertSQL)) {
+            for (int i = 1; i <= rows; i++) {
+                pstmt.setString(1, "Player" + (i % 1000));
+                pstmt.setInt(2, (i % 15) * 1000);
+                pstmt.setInt(3, i % 16);
+                pstmt.addBatch();
+                if (i % 10000 == 0) {
+                    pstmt.executeBatch();
+                    connection.commit();
+                }
+            }
+            pstmt.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+}
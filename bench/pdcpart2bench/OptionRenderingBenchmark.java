@@ -0,0 +1,114 @@
+package pdcpart2bench;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+import javax.swing.JButton;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import pdcpart2.gui.OptionTile;
+
+/**
+ * Measures showing the four options of a new question and repainting them,
+ * with the HTML button text the game used to set and with OptionTile.
+ *
+ * Painting is done offscreen in headless mode, so the numbers include layout
+ * and text rendering but not the screen.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class OptionRenderingBenchmark {
+
+    private static final int WIDTH = 440;
+    private static final int HEIGHT = 160;
+    private static final String[][] QUESTIONS = {
+        {"Paris", "Berlin", "Madrid", "Rome"},
+        {"The mitochondria of the cell", "A long-chain fatty acid", "Ribosomal RNA", "None of the above"},
+    };
+
+    private JButton[] htmlButtons;
+    private OptionTile[] tiles;
+    private BufferedImage image;
+    private Graphics2D graphics;
+    private int question;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Font font = new Font(Font.SANS_SERIF, Font.PLAIN, 16);
+        htmlButtons = new JButton[4];
+        tiles = new OptionTile[4];
+        for (int i = 0; i < 4; i++) {
+            htmlButtons[i] = new JButton();
+            htmlButtons[i].setFont(font);
+            htmlButtons[i].setBackground(Color.LIGHT_GRAY);
+            htmlButtons[i].setSize(WIDTH, HEIGHT);
+            tiles[i] = new OptionTile();
+            tiles[i].setFont(font);
+            tiles[i].setBackground(Color.LIGHT_GRAY);
+            tiles[i].setSize(WIDTH, HEIGHT);
+        }
+        image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        graphics = image.createGraphics();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        graphics.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage htmlButtonsNewQuestion() {
+        String[] options = QUESTIONS[question++ & 1];
+        for (int i = 0; i < 4; i++) {
+            htmlButtons[i].setText(html(options[i]));
+            htmlButtons[i].paint(graphics);
+        }
+        return image;
+    }
+
+    @Benchmark
+    public BufferedImage optionTilesNewQuestion() {
+        String[] options = QUESTIONS[question++ & 1];
+        for (int i = 0; i < 4; i++) {
+            tiles[i].setOptionText(options[i]);
+            tiles[i].paint(graphics);
+        }
+        return image;
+    }
+
+    @Benchmark
+    public BufferedImage optionTilesRepaint() {
+        for (OptionTile tile : tiles) {
+            tile.paint(graphics);
+        }
+        return image;
+    }
+
+    // The markup MillionaireGameGUI.formatButtonText produced
+    private static String html(String text) {
+        return "<html>"
+                + "<div style='display: table; height: 100%; width: 150px; text-align: center;'>"
+                + "<span style='display: table-cell; vertical-align: middle;'>" + text + "</span>"
+                + "</div>"
+                + "</html>";
+    }
+}
@@ -0,0 +1,55 @@
+
+package pdcpart2bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import pdcpart2.model.Question;
+import pdcpart2.util.DatabaseInitializer;
+import pdcpart2.util.QuestionLoader;
+
+/**
+ * Measures the cost of building a QuestionLoader, which is what every new game
+ * pays before its first question is shown.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuestionLoaderBenchmark {
+
+    private DatabaseInitializer dbInitializer;
+    private String databasePath;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        databasePath = BenchDatabase.path();
+        dbInitializer = BenchDatabase.open();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dbInitializer.shutdownDatabase();
+    }
+
+    @Benchmark
+    public List<Question> loadQuestions() {
+        return new QuestionLoader(databasePath).getQuestions();
+    }
+}
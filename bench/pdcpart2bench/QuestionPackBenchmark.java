@@ -0,0 +1,76 @@
+package pdcpart2bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pdcpart2.model.Question;
+import pdcpart2.util.QuestionPack;
+
+/**
+ * Measures opening a question pack and reading one game's worth of questions
+ * from it, against decoding the whole bank, which is the work a JDBC load into
+ * a list always does.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuestionPackBenchmark {
+
+    private static final int QUESTIONS_PER_GAME = 15;
+
+    @Param({"1000", "300000"})
+    int questions;
+
+    private Path packPath;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        File dir = new File(System.getProperty("bench.db.dir", "build/bench/db"));
+        dir.mkdirs();
+        packPath = new File(dir, "bench-" + questions + ".qpk").toPath();
+        try (QuestionPack.Writer writer = new QuestionPack.Writer(packPath)) {
+            for (int i = 0; i < questions; i++) {
+                writer.add(new Question("Benchmark question number " + i + "?",
+                        "Option A " + i, "Option B " + i, "Option C " + i, "Option D " + i,
+                        "Option C " + i, "A hint for question " + i));
+            }
+            writer.finish();
+        }
+    }
+
+    @Benchmark
+    public void openAndPlayOneGame(Blackhole blackhole) throws IOException {
+        List<Question> bank = QuestionPack.open(packPath).asList();
+        for (int i = 0; i < QUESTIONS_PER_GAME; i++) {
+            blackhole.consume(bank.get(i * (bank.size() / QUESTIONS_PER_GAME)));
+        }
+    }
+
+    @Benchmark
+    public void openAndDecodeAll(Blackhole blackhole) throws IOException {
+        for (Question question : QuestionPack.open(packPath).asList()) {
+            blackhole.consume(question);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package pdcpart2bench;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import pdcpart2.model.Question;
+import pdcpart2.util.DatabaseInitializer;
+import pdcpart2.util.TieredQuestionSelector;
+
+/**
+ * Measures picking one game's questions with TieredQuestionSelector at
+ * different bank sizes. The cost should not grow with the bank.
+ *
+ * The extra questions are added once per trial, spread over the tiers, and
+ * removed again when it ends.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TieredQuestionSelectorBenchmark {
+
+    private static final String BENCH_MARKER = "Bench question ";
+
+    @Param({"10000", "1000000"})
+    int questions;
+
+    private DatabaseInitializer dbInitializer;
+    private TieredQuestionSelector selector;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        dbInitializer = BenchDatabase.open();
+        selector = new TieredQuestionSelector(dbInitializer.getConnectionPool());
+        try (Connection connection = dbInitializer.getConnection()) {
+            clearQuestions(connection);
+            fillQuestions(connection, questions);
+        }
+        selector.selectGame(); // Read the tier bounds outside the measurement
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Connection connection = dbInitializer.getConnection()) {
+            clearQuestions(connection);
+        }
+        dbInitializer.shutdownDatabase();
+    }
+
+    @Benchmark
+    public List<Question> selectGame() throws SQLException {
+        return selector.selectGame();
+    }
+
+    private static void clearQuestions(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("DELETE FROM Questions WHERE question LIKE '" + BENCH_MARKER + "%'");
+        }
+    }
+
+    /**
+     * Inserts the given number of questions in batches, committing every batch.
+     */
+    private static void fillQuestions(Connection connection, int rows) throws SQLException {
+        String insertSQL = "INSERT INTO Questions (question, option_a, option_b, option_c, option_d, correct_answer, hint, difficulty) "
+                + "VALUES (?, 'A', 'B', 'C', 'D', 'C', 'A hint', ?)";
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (PreparedStatement pstmt = connection.prepareStatement(insertSQL)) {
+            for (int i = 1; i <= rows; i++) {
+                pstmt.setString(1, BENCH_MARKER + i + "?");
+                pstmt.setInt(2, 1 + i % Question.MAX_DIFFICULTY);
+                pstmt.addBatch();
+                if (i % 10000 == 0) {
+                    pstmt.executeBatch();
+                    connection.commit();
+                }
+            }
+            pstmt.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package pdcpart2bench;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import pdcpart2.model.Question;
+import pdcpart2.server.GameSession;
+import pdcpart2.server.InMemoryLineTransport;
+import pdcpart2.server.SessionRunner;
+
+/**
+ * Brings many game sessions to the point where each one has sent its first
+ * question and parked its virtual thread waiting for the answer, then reports
+ * how much heap each parked session holds.
+ *
+ * The time is how long it takes to start all sessions; the heapBytesPerSession
+ * and parkedSessions counters show that 100k waiting players fit in a bounded
+ * heap without an OS thread each.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx2g"})
+public class VirtualSessionBenchmark {
+
+    private static final long RECEIVE_TIMEOUT_MILLIS = 60_000;
+
+    @Param({"10000", "100000"})
+    int sessions;
+
+    private List<Question> questions;
+    private ExecutorService executor;
+    private InMemoryLineTransport[] transports;
+    private long baselineHeapBytes;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class SessionCounters {
+        public long heapBytesPerSession;
+        public long parkedSessions;
+    }
+
+    @Setup(Level.Trial)
+    public void setUpQuestions() {
+        List<Question> list = new ArrayList<>();
+        for (int i = 1; i <= 15; i++) {
+            list.add(new Question("Question " + i + "?", "A" + i, "B" + i, "C" + i, "D" + i, "C" + i, "Hint " + i));
+        }
+        questions = Collections.unmodifiableList(list);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        transports = new InMemoryLineTransport[sessions];
+        baselineHeapBytes = usedHeapAfterGc();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        for (InMemoryLineTransport transport : transports) {
+            if (transport != null) {
+                transport.send("QUIT");
+            }
+        }
+        executor.close(); // Waits for every session to finish
+        transports = null;
+    }
+
+    @Benchmark
+    public void parkSessions(SessionCounters counters) throws InterruptedException {
+        for (int i = 0; i < sessions; i++) {
+            InMemoryLineTransport transport = new InMemoryLineTransport();
+            transport.send("HELLO player" + i);
+            transports[i] = transport;
+            executor.execute(new SessionRunner(transport,
+                    new GameSession(() -> questions, gameResult -> { }), RECEIVE_TIMEOUT_MILLIS * 10));
+        }
+
+        long parked = 0;
+        for (InMemoryLineTransport transport : transports) {
+            String welcome = transport.receive(RECEIVE_TIMEOUT_MILLIS);
+            String question = transport.receive(RECEIVE_TIMEOUT_MILLIS);
+            if (welcome != null && welcome.startsWith("WELCOME") && question != null && question.startsWith("QUESTION")) {
+                parked++;
+            }
+        }
+
+        counters.parkedSessions = parked;
+        counters.heapBytesPerSession = (usedHeapAfterGc() - baselineHeapBytes) / sessions;
+    }
+
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
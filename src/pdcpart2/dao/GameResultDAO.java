@@ -2,29 +2,72 @@
 package pdcpart2.dao;
 
 import pdcpart2.model.GameResult;
+import pdcpart2.model.PlayerStats;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.ResultSet;
+import java.sql.Statement;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Map;
+import java.util.TreeMap;
+import pdcpart2.jfr.GameResultPersistedEvent;
+import pdcpart2.metrics.LatencyHistogram;
+import pdcpart2.metrics.MetricsRegistry;
+import pdcpart2.util.ConnectionPool;
 import pdcpart2.util.DatabaseInitializer;
 
 /**
- * Data Access Object for GameResult.
+ * Data Access Object for GameResult. Each call borrows a connection from the
+ * connection pool, so one DAO can be shared between threads.
+ *
+ * Every insert also updates the player's row in Player_Stats in the same
+ * transaction, so per-player totals can be read without scanning
+ * Game_Results.
+ *
+ * The latency of every public method is recorded in the shared
+ * MetricsRegistry under "GameResultDAO.methodName", and every insert is
+ * committed as a GameResultPersistedEvent for Flight Recorder.
  *
  * Author: Setefano Muller 
  *         Tharuka Rodrigo
  */
 public class GameResultDAO {
 
+    // Derby reports a primary key violation with this SQL state
+    private static final String DUPLICATE_KEY = "23505";
+
+    private static final LatencyHistogram INSERT_GAME_RESULT_LATENCY = latency("insertGameResult");
+    private static final LatencyHistogram INSERT_GAME_RESULTS_LATENCY = latency("insertGameResults");
+    private static final LatencyHistogram GET_PLAYER_STATS_LATENCY = latency("getPlayerStats");
+    private static final LatencyHistogram GET_ALL_PLAYER_STATS_LATENCY = latency("getAllPlayerStats");
+    private static final LatencyHistogram REBUILD_PLAYER_STATS_LATENCY = latency("rebuildPlayerStats");
+    private static final LatencyHistogram GET_ALL_GAME_RESULTS_LATENCY = latency("getAllGameResults");
+    private static final LatencyHistogram GET_GAME_RESULTS_PAGE_LATENCY = latency("getGameResultsPage");
+    private static final LatencyHistogram GET_GAME_RESULTS_AT_OFFSET_LATENCY = latency("getGameResultsAtOffset");
+    private static final LatencyHistogram COUNT_GAME_RESULTS_LATENCY = latency("countGameResults");
+    private static final LatencyHistogram COUNT_RECORDED_GAMES_LATENCY = latency("countRecordedGames");
+    private static final LatencyHistogram GET_TOP_SCORES_LATENCY = latency("getTopScores");
+    private static final LatencyHistogram GET_GAME_RESULTS_BY_PLAYER_NAME_LATENCY = latency("getGameResultsByPlayerName");
+
+    private ConnectionPool connectionPool;
     private Connection connection; // For Testing purposes
     
     /**
      * Default Constructor
      */
     public GameResultDAO(){
-        connection = DatabaseInitializer.getInstance("QuestionDB").getConnection();   
+        this(DatabaseInitializer.getInstance("QuestionDB").getConnectionPool());
+    }
+
+    /**
+     * Constructor that borrows connections from the given pool.
+     *
+     * @param connectionPool The pool to borrow connections from.
+     */
+    public GameResultDAO(ConnectionPool connectionPool) {
+        this.connectionPool = connectionPool;
     }
 
     /**
@@ -36,19 +79,203 @@ public class GameResultDAO {
         this.connection = connection;
     }
 
+    private static LatencyHistogram latency(String method) {
+        return MetricsRegistry.getShared().histogram("GameResultDAO." + method);
+    }
+
+    /**
+     * Borrows a connection from the pool, or returns the fixed test connection.
+     */
+    private Connection openConnection() throws SQLException {
+        return connectionPool != null ? connectionPool.getConnection() : connection;
+    }
+
+    /**
+     * Returns a borrowed connection to the pool. The fixed test connection is
+     * left open.
+     */
+    private void closeConnection(Connection conn) throws SQLException {
+        if (connectionPool != null) {
+            conn.close();
+        }
+    }
+
     /**
-     * Inserts a new game result into the database.
+     * Inserts a new game result into the database and adds it to the player's
+     * stats in the same transaction.
      *
      * @param gameResult The GameResult object to insert.
      * @throws SQLException If a database access error occurs.
      */
     public void insertGameResult(GameResult gameResult) throws SQLException {
         String insertSQL = "INSERT INTO Game_Results (player_name, score, last_question_index) VALUES (?, ?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(insertSQL)) {
+        long start = System.nanoTime();
+        GameResultPersistedEvent event = new GameResultPersistedEvent();
+        event.begin();
+        boolean committed = false;
+        Connection conn = openConnection();
+        boolean autoCommit = conn.getAutoCommit();
+        try (PreparedStatement pstmt = conn.prepareStatement(insertSQL)) {
+            conn.setAutoCommit(false);
             pstmt.setString(1, gameResult.getPlayerName());
             pstmt.setInt(2, gameResult.getScore());
             pstmt.setInt(3, gameResult.getLastQuestionIndex());
             pstmt.executeUpdate();
+            addToPlayerStats(conn, PlayerStats.of(gameResult));
+            conn.commit();
+            committed = true;
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+            closeConnection(conn);
+            INSERT_GAME_RESULT_LATENCY.recordSince(start);
+            event.finish(1, gameResult.getPlayerName(), committed);
+        }
+    }
+
+    /**
+     * Inserts several game results as one JDBC batch inside a single
+     * transaction. Either every result is stored or none is. The stats are
+     * aggregated per player first, so each player's row is updated once per
+     * batch.
+     *
+     * @param gameResults The GameResult objects to insert.
+     * @throws SQLException If a database access error occurs.
+     */
+    public void insertGameResults(List<GameResult> gameResults) throws SQLException {
+        if (gameResults.isEmpty()) {
+            return;
+        }
+        String insertSQL = "INSERT INTO Game_Results (player_name, score, last_question_index) VALUES (?, ?, ?)";
+        long start = System.nanoTime();
+        GameResultPersistedEvent event = new GameResultPersistedEvent();
+        event.begin();
+        boolean committed = false;
+        Connection conn = openConnection();
+        boolean autoCommit = conn.getAutoCommit();
+        try (PreparedStatement pstmt = conn.prepareStatement(insertSQL)) {
+            conn.setAutoCommit(false);
+            for (GameResult gameResult : gameResults) {
+                pstmt.setString(1, gameResult.getPlayerName());
+                pstmt.setInt(2, gameResult.getScore());
+                pstmt.setInt(3, gameResult.getLastQuestionIndex());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+
+            // Sorted by name so concurrent batches lock Player_Stats rows in the same order
+            Map<String, PlayerStats> statsByPlayer = new TreeMap<>();
+            for (GameResult gameResult : gameResults) {
+                statsByPlayer.merge(gameResult.getPlayerName(), PlayerStats.of(gameResult), PlayerStats::combine);
+            }
+            for (PlayerStats stats : statsByPlayer.values()) {
+                addToPlayerStats(conn, stats);
+            }
+            conn.commit();
+            committed = true;
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+            closeConnection(conn);
+            INSERT_GAME_RESULTS_LATENCY.recordSince(start);
+            event.finish(gameResults.size(), null, committed);
+        }
+    }
+
+    /**
+     * Adds games to a player's row in Player_Stats, creating the row for a
+     * new player. Must run inside the caller's transaction.
+     */
+    private void addToPlayerStats(Connection conn, PlayerStats stats) throws SQLException {
+        String updateSQL = "UPDATE Player_Stats SET games_played = games_played + ?, "
+                + "best_score = CASE WHEN best_score < ? THEN ? ELSE best_score END, "
+                + "total_score = total_score + ?, total_level = total_level + ? WHERE player_name = ?";
+        String insertSQL = "INSERT INTO Player_Stats (player_name, games_played, best_score, total_score, total_level) "
+                + "VALUES (?, ?, ?, ?, ?)";
+        try (PreparedStatement update = conn.prepareStatement(updateSQL)) {
+            update.setInt(1, stats.getGamesPlayed());
+            update.setInt(2, stats.getBestScore());
+            update.setInt(3, stats.getBestScore());
+            update.setLong(4, stats.getTotalScore());
+            update.setLong(5, stats.getTotalLevel());
+            update.setString(6, stats.getPlayerName());
+            if (update.executeUpdate() > 0) {
+                return;
+            }
+
+            try (PreparedStatement insert = conn.prepareStatement(insertSQL)) {
+                insert.setString(1, stats.getPlayerName());
+                insert.setInt(2, stats.getGamesPlayed());
+                insert.setInt(3, stats.getBestScore());
+                insert.setLong(4, stats.getTotalScore());
+                insert.setLong(5, stats.getTotalLevel());
+                insert.executeUpdate();
+            } catch (SQLException e) {
+                // Another transaction created the row first; add to it instead
+                if (!DUPLICATE_KEY.equals(e.getSQLState())) {
+                    throw e;
+                }
+                update.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * Retrieves the aggregated stats of one player.
+     *
+     * @param playerName The name of the player.
+     * @return The player's stats, or null if the player has no recorded games.
+     * @throws SQLException If a database access error occurs.
+     */
+    public PlayerStats getPlayerStats(String playerName) throws SQLException {
+        String querySQL = "SELECT player_name, games_played, best_score, total_score, total_level FROM Player_Stats WHERE player_name = ?";
+        List<PlayerStats> stats = queryPlayerStats(GET_PLAYER_STATS_LATENCY, querySQL, playerName);
+        return stats.isEmpty() ? null : stats.get(0);
+    }
+
+    /**
+     * Retrieves the aggregated stats of every player.
+     *
+     * @return A list of PlayerStats objects ordered by player name.
+     * @throws SQLException If a database access error occurs.
+     */
+    public List<PlayerStats> getAllPlayerStats() throws SQLException {
+        String querySQL = "SELECT player_name, games_played, best_score, total_score, total_level FROM Player_Stats ORDER BY player_name";
+        return queryPlayerStats(GET_ALL_PLAYER_STATS_LATENCY, querySQL);
+    }
+
+    /**
+     * Recomputes Player_Stats from Game_Results, for example after results
+     * were edited or deleted by hand. Game_Results is locked against writes
+     * until the rebuild commits.
+     *
+     * @return The number of players in the rebuilt table.
+     * @throws SQLException If a database access error occurs.
+     */
+    public int rebuildPlayerStats() throws SQLException {
+        long start = System.nanoTime();
+        Connection conn = openConnection();
+        boolean autoCommit = conn.getAutoCommit();
+        try (Statement stmt = conn.createStatement()) {
+            conn.setAutoCommit(false);
+            stmt.execute("LOCK TABLE Game_Results IN SHARE MODE");
+            stmt.executeUpdate("DELETE FROM Player_Stats");
+            int players = stmt.executeUpdate("INSERT INTO Player_Stats (player_name, games_played, best_score, total_score, total_level) "
+                    + "SELECT player_name, COUNT(*), MAX(score), SUM(CAST(score AS BIGINT)), SUM(CAST(last_question_index AS BIGINT)) "
+                    + "FROM Game_Results GROUP BY player_name");
+            conn.commit();
+            return players;
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+            closeConnection(conn);
+            REBUILD_PLAYER_STATS_LATENCY.recordSince(start);
         }
     }
 
@@ -59,22 +286,128 @@ public class GameResultDAO {
      * @throws SQLException If a database access error occurs.
      */
     public List<GameResult> getAllGameResults() throws SQLException {
-        List<GameResult> results = new ArrayList<>();
         String querySQL = "SELECT id, player_name, score, last_question_index, timestamp FROM Game_Results ORDER BY timestamp DESC";
-        try (PreparedStatement pstmt = connection.prepareStatement(querySQL);
+        return queryGameResults(GET_ALL_GAME_RESULTS_LATENCY, querySQL);
+    }
+
+    /**
+     * Retrieves one page of game results, newest first. Pages are found by
+     * seeking past the last row of the previous page on (timestamp, id), so
+     * the cost does not grow with how far the reader has paged.
+     *
+     * @param after The last GameResult of the previous page, or null for the first page.
+     * @param pageSize The maximum number of results to return.
+     * @return A list of at most pageSize GameResult objects.
+     * @throws SQLException If a database access error occurs.
+     */
+    public List<GameResult> getGameResultsPage(GameResult after, int pageSize) throws SQLException {
+        if (after == null) {
+            String querySQL = "SELECT id, player_name, score, last_question_index, timestamp FROM Game_Results "
+                    + "ORDER BY timestamp DESC, id DESC FETCH FIRST ? ROWS ONLY";
+            return queryGameResults(GET_GAME_RESULTS_PAGE_LATENCY, querySQL, pageSize);
+        }
+        // The first condition lets Derby start the index scan at the cursor
+        String querySQL = "SELECT id, player_name, score, last_question_index, timestamp FROM Game_Results "
+                + "WHERE timestamp <= ? AND (timestamp < ? OR id < ?) "
+                + "ORDER BY timestamp DESC, id DESC FETCH FIRST ? ROWS ONLY";
+        return queryGameResults(GET_GAME_RESULTS_PAGE_LATENCY, querySQL, after.getTimestamp(), after.getTimestamp(), after.getId(), pageSize);
+    }
+
+    /**
+     * Retrieves one page of game results that starts a number of rows past a
+     * known result, newest first. Derby seeks to the known result and only
+     * walks the skipped rows after it, so the cost grows with skip rather
+     * than with the position of the page.
+     *
+     * @param after A GameResult, or null to count from the newest result.
+     * @param skip The number of results after it to skip.
+     * @param pageSize The maximum number of results to return.
+     * @return A list of at most pageSize GameResult objects.
+     * @throws SQLException If a database access error occurs.
+     */
+    public List<GameResult> getGameResultsPage(GameResult after, int skip, int pageSize) throws SQLException {
+        if (skip == 0) {
+            return getGameResultsPage(after, pageSize);
+        }
+        if (after == null) {
+            return getGameResultsAtOffset(skip, pageSize);
+        }
+        String querySQL = "SELECT id, player_name, score, last_question_index, timestamp FROM Game_Results "
+                + "WHERE timestamp <= ? AND (timestamp < ? OR id < ?) "
+                + "ORDER BY timestamp DESC, id DESC OFFSET ? ROWS FETCH NEXT ? ROWS ONLY";
+        return queryGameResults(GET_GAME_RESULTS_AT_OFFSET_LATENCY, querySQL, after.getTimestamp(), after.getTimestamp(),
+                after.getId(), skip, pageSize);
+    }
+
+    /**
+     * Retrieves the page of game results starting at the given row, newest
+     * first. Derby still walks the skipped rows, so prefer
+     * getGameResultsPage(GameResult, int) when the previous page is known.
+     *
+     * @param offset The number of newest results to skip.
+     * @param pageSize The maximum number of results to return.
+     * @return A list of at most pageSize GameResult objects.
+     * @throws SQLException If a database access error occurs.
+     */
+    public List<GameResult> getGameResultsAtOffset(int offset, int pageSize) throws SQLException {
+        String querySQL = "SELECT id, player_name, score, last_question_index, timestamp FROM Game_Results "
+                + "ORDER BY timestamp DESC, id DESC OFFSET ? ROWS FETCH NEXT ? ROWS ONLY";
+        return queryGameResults(GET_GAME_RESULTS_AT_OFFSET_LATENCY, querySQL, offset, pageSize);
+    }
+
+    /**
+     * Counts the game results in the database.
+     *
+     * @return The number of stored game results.
+     * @throws SQLException If a database access error occurs.
+     */
+    public int countGameResults() throws SQLException {
+        String querySQL = "SELECT COUNT(*) FROM Game_Results";
+        long start = System.nanoTime();
+        Connection conn = openConnection();
+        try (PreparedStatement pstmt = conn.prepareStatement(querySQL);
              ResultSet rs = pstmt.executeQuery()) {
-            while (rs.next()) {
-                GameResult result = new GameResult(
-                        rs.getInt("id"),
-                        rs.getString("player_name"),
-                        rs.getInt("score"),
-                        rs.getInt("last_question_index"),
-                        rs.getTimestamp("timestamp")
-                );
-                results.add(result);
-            }
+            return rs.next() ? rs.getInt(1) : 0;
+        } finally {
+            closeConnection(conn);
+            COUNT_GAME_RESULTS_LATENCY.recordSince(start);
         }
-        return results;
+    }
+
+    /**
+     * Counts the game results from the per-player totals in Player_Stats,
+     * which reads one row per player instead of every result. It matches
+     * countGameResults() unless Game_Results was changed directly without
+     * rebuilding Player_Stats (see rebuildPlayerStats()).
+     *
+     * @return The number of recorded games.
+     * @throws SQLException If a database access error occurs.
+     */
+    public int countRecordedGames() throws SQLException {
+        String querySQL = "SELECT SUM(games_played) FROM Player_Stats";
+        long start = System.nanoTime();
+        Connection conn = openConnection();
+        try (PreparedStatement pstmt = conn.prepareStatement(querySQL);
+             ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        } finally {
+            closeConnection(conn);
+            COUNT_RECORDED_GAMES_LATENCY.recordSince(start);
+        }
+    }
+
+    /**
+     * Retrieves the highest scoring game results. Ties are broken by the most
+     * recent result.
+     *
+     * @param limit The maximum number of results to return.
+     * @return A list of at most limit GameResult objects, best score first.
+     * @throws SQLException If a database access error occurs.
+     */
+    public List<GameResult> getTopScores(int limit) throws SQLException {
+        String querySQL = "SELECT id, player_name, score, last_question_index, timestamp FROM Game_Results "
+                + "ORDER BY score DESC, id DESC FETCH FIRST ? ROWS ONLY";
+        return queryGameResults(GET_TOP_SCORES_LATENCY, querySQL, limit);
     }
 
     /**
@@ -85,10 +418,22 @@ public class GameResultDAO {
      * @throws SQLException If a database access error occurs.
      */
     public List<GameResult> getGameResultsByPlayerName(String playerName) throws SQLException {
-        List<GameResult> results = new ArrayList<>();
         String querySQL = "SELECT id, player_name, score, last_question_index, timestamp FROM Game_Results WHERE player_name = ? ORDER BY timestamp DESC";
-        try (PreparedStatement pstmt = connection.prepareStatement(querySQL)) {
-            pstmt.setString(1, playerName);
+        return queryGameResults(GET_GAME_RESULTS_BY_PLAYER_NAME_LATENCY, querySQL, playerName);
+    }
+
+    /**
+     * Runs a game result query with the given parameters, maps every row and
+     * records the time taken in the given histogram.
+     */
+    private List<GameResult> queryGameResults(LatencyHistogram latency, String querySQL, Object... parameters) throws SQLException {
+        long start = System.nanoTime();
+        List<GameResult> results = new ArrayList<>();
+        Connection conn = openConnection();
+        try (PreparedStatement pstmt = conn.prepareStatement(querySQL)) {
+            for (int i = 0; i < parameters.length; i++) {
+                pstmt.setObject(i + 1, parameters[i]);
+            }
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
                     GameResult result = new GameResult(
@@ -101,6 +446,39 @@ public class GameResultDAO {
                     results.add(result);
                 }
             }
+        } finally {
+            closeConnection(conn);
+            latency.recordSince(start);
+        }
+        return results;
+    }
+
+    /**
+     * Runs a player stats query with the given parameters, maps every row and
+     * records the time taken in the given histogram.
+     */
+    private List<PlayerStats> queryPlayerStats(LatencyHistogram latency, String querySQL, Object... parameters) throws SQLException {
+        long start = System.nanoTime();
+        List<PlayerStats> results = new ArrayList<>();
+        Connection conn = openConnection();
+        try (PreparedStatement pstmt = conn.prepareStatement(querySQL)) {
+            for (int i = 0; i < parameters.length; i++) {
+                pstmt.setObject(i + 1, parameters[i]);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    results.add(new PlayerStats(
+                            rs.getString("player_name"),
+                            rs.getInt("games_played"),
+                            rs.getInt("best_score"),
+                            rs.getLong("total_score"),
+                            rs.getLong("total_level")
+                    ));
+                }
+            }
+        } finally {
+            closeConnection(conn);
+            latency.recordSince(start);
         }
         return results;
     }
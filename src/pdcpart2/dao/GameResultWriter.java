@@ -0,0 +1,358 @@
+
+package pdcpart2.dao;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import pdcpart2.model.GameResult;
+
+/**
+ * GameResultWriter stores game results in the background (write-behind).
+ *
+ * Results are put on a bounded queue and a single writer thread inserts them
+ * with GameResultDAO.insertGameResults, one JDBC batch and one commit per
+ * flush. A flush happens when a batch is full or when the oldest queued result
+ * has waited for the maximum delay. If the queue is full the caller writes its
+ * result directly, so results are never dropped. Callers that must never
+ * block use offer() instead, which drops and counts a result that does not
+ * fit rather than writing it. close() wakes the writer
+ * thread, drains the queue and commits everything before it returns; a result
+ * queued while close() was draining is written by the thread that queued it.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class GameResultWriter implements AutoCloseable {
+
+    public static final int DEFAULT_CAPACITY = 10_000;
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    public static final long DEFAULT_MAX_DELAY_MILLIS = 200;
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final GameResultDAO gameResultDAO;
+    private final BlockingQueue<GameResult> queue;
+    private final int batchSize;
+    private final long maxDelayNanos;
+    private final Thread writerThread;
+    private final Object flushMonitor = new Object();
+    private final Object waitMonitor = new Object();
+    private volatile boolean running = true;
+    private boolean waiting; // The writer thread is blocked in poll(), guarded by waitMonitor
+    private long pending; // Results submitted but not yet written, guarded by flushMonitor
+
+    // Writer metrics
+    private final LongAdder writtenCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+    private final LongAdder flushCount = new LongAdder();
+    private final LongAdder totalFlushNanos = new LongAdder();
+    private final AtomicLong lastFlushNanos = new AtomicLong();
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+
+    /**
+     * Constructor to create a writer with the default thresholds.
+     *
+     * @param gameResultDAO The DAO used to insert the results.
+     */
+    public GameResultWriter(GameResultDAO gameResultDAO) {
+        this(gameResultDAO, DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE, DEFAULT_MAX_DELAY_MILLIS);
+    }
+
+    /**
+     * Constructor to create a writer and start its background thread.
+     *
+     * @param gameResultDAO The DAO used to insert the results.
+     * @param capacity The maximum number of results waiting in the queue.
+     * @param batchSize The number of results that triggers a flush.
+     * @param maxDelayMillis The longest a result waits before it is flushed.
+     */
+    public GameResultWriter(GameResultDAO gameResultDAO, int capacity, int batchSize, long maxDelayMillis) {
+        this.gameResultDAO = gameResultDAO;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.writerThread = new Thread(this::runWriter, "game-result-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Queues a game result to be written in the background. When the queue is
+     * full, or the writer has been closed, the result is written immediately
+     * on the calling thread instead.
+     *
+     * @param gameResult The GameResult to store.
+     * @throws SQLException If the result had to be written directly and failed.
+     */
+    public void submit(GameResult gameResult) throws SQLException {
+        synchronized (flushMonitor) {
+            pending++;
+        }
+        if (running && queue.offer(gameResult)) {
+            if (!running) {
+                writeLeftovers();
+            }
+            return;
+        }
+
+        // Back-pressure: write on the caller's thread
+        try {
+            gameResultDAO.insertGameResult(gameResult);
+            writtenCount.increment();
+        } finally {
+            written(1);
+        }
+    }
+
+    /**
+     * Queues a game result without writing on the calling thread, for callers
+     * that must not block, such as the game server's selector thread. A
+     * result that does not fit in the queue, or arrives after close(), is
+     * dropped and counted instead. Only while the writer is closing can a
+     * result queued here be written by the caller, as in submit().
+     *
+     * @param gameResult The GameResult to store.
+     * @return true if the result was queued, false if it was dropped.
+     */
+    public boolean offer(GameResult gameResult) {
+        synchronized (flushMonitor) {
+            pending++;
+        }
+        if (running && queue.offer(gameResult)) {
+            if (!running) {
+                writeLeftovers();
+            }
+            return true;
+        }
+        droppedCount.increment();
+        written(1);
+        return false;
+    }
+
+    /**
+     * Waits until every result submitted so far has been written.
+     *
+     * @param timeoutMillis The longest time to wait.
+     * @return true if everything was written, false if the wait timed out.
+     * @throws InterruptedException If the calling thread is interrupted.
+     */
+    public boolean flush(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (flushMonitor) {
+            while (pending > 0) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                flushMonitor.wait(remaining);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stops accepting queued results, writes everything still in the queue and
+     * waits for the writer thread to finish. If the writer thread is waiting
+     * for results it is interrupted so it does not wait out the maximum delay
+     * first; it is never interrupted while writing, where the interrupt would
+     * reach the JDBC driver.
+     */
+    @Override
+    public void close() {
+        running = false;
+        synchronized (waitMonitor) {
+            if (waiting) {
+                writerThread.interrupt();
+            }
+        }
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Write anything submitted while the writer thread was finishing
+        List<GameResult> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            writeBatch(remaining);
+        }
+    }
+
+    /**
+     * Writes whatever is in the queue on the calling thread. Used when a
+     * result was queued after close() may already have drained the queue.
+     */
+    private void writeLeftovers() {
+        List<GameResult> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            writeBatch(remaining);
+        }
+    }
+
+    /**
+     * Main loop of the writer thread. Collects a batch until it is full or the
+     * first result in it has waited maxDelay, then writes it.
+     */
+    private void runWriter() {
+        List<GameResult> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                GameResult first = poll(TimeUnit.MILLISECONDS.toNanos(IDLE_POLL_MILLIS));
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    GameResult next = poll(remaining);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Only close() interrupts the writer; write what it has and keep draining
+            }
+
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Waits for the next result on the writer thread. close() may interrupt
+     * the wait, but once it returns no interrupt is left pending, so none can
+     * reach the following writeBatch.
+     */
+    private GameResult poll(long timeoutNanos) throws InterruptedException {
+        synchronized (waitMonitor) {
+            if (!running) {
+                return queue.poll(); // Closing; only drain what is already queued
+            }
+            waiting = true;
+        }
+        try {
+            return queue.poll(timeoutNanos, TimeUnit.NANOSECONDS);
+        } finally {
+            synchronized (waitMonitor) {
+                waiting = false;
+                Thread.interrupted(); // Clear an interrupt that arrived as the poll returned
+            }
+        }
+    }
+
+    /**
+     * Writes one batch in a single transaction. If the batch is rejected, the
+     * results are retried one by one so a single bad row does not lose the
+     * rest.
+     */
+    private void writeBatch(List<GameResult> batch) {
+        long start = System.nanoTime();
+        try {
+            gameResultDAO.insertGameResults(batch);
+            writtenCount.add(batch.size());
+        } catch (SQLException batchError) {
+            for (GameResult gameResult : batch) {
+                try {
+                    gameResultDAO.insertGameResult(gameResult);
+                    writtenCount.increment();
+                } catch (SQLException e) {
+                    failedCount.increment();
+                    System.err.println("Failed to record game result for " + gameResult.getPlayerName() + ": " + e.getMessage());
+                }
+            }
+        } finally {
+            recordFlush(System.nanoTime() - start);
+            written(batch.size());
+        }
+    }
+
+    private void written(int count) {
+        synchronized (flushMonitor) {
+            pending -= count;
+            if (pending <= 0) {
+                flushMonitor.notifyAll();
+            }
+        }
+    }
+
+    private void recordFlush(long flushNanos) {
+        flushCount.increment();
+        totalFlushNanos.add(flushNanos);
+        lastFlushNanos.set(flushNanos);
+        maxFlushNanos.accumulateAndGet(flushNanos, Math::max);
+    }
+
+    /**
+     * @return The number of results waiting in the queue.
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * @return The number of results stored so far.
+     */
+    public long getWrittenCount() {
+        return writtenCount.sum();
+    }
+
+    /**
+     * @return The number of results that could not be stored.
+     */
+    public long getFailedCount() {
+        return failedCount.sum();
+    }
+
+    /**
+     * @return The number of results offer() dropped because the queue was
+     *         full or the writer was closed.
+     */
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * @return The number of batches flushed by the writer thread.
+     */
+    public long getFlushCount() {
+        return flushCount.sum();
+    }
+
+    /**
+     * @return How long the most recent flush took.
+     */
+    public double getLastFlushLatencyMillis() {
+        return lastFlushNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * @return How long the slowest flush took.
+     */
+    public double getMaxFlushLatencyMillis() {
+        return maxFlushNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * @return The average time a flush took.
+     */
+    public double getAverageFlushLatencyMillis() {
+        long flushes = flushCount.sum();
+        return flushes == 0 ? 0.0 : totalFlushNanos.sum() / 1_000_000.0 / flushes;
+    }
+}
@@ -0,0 +1,241 @@
+
+package pdcpart2.engine;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import pdcpart2.interfaces.GameControl;
+import pdcpart2.lifelines.AskTheAudience;
+import pdcpart2.lifelines.FiftyFifty;
+import pdcpart2.lifelines.Hint;
+import pdcpart2.lifelines.Lifeline;
+import pdcpart2.metrics.Counter;
+import pdcpart2.metrics.MetricsRegistry;
+import pdcpart2.model.GameResult;
+import pdcpart2.model.Player;
+import pdcpart2.model.PrizeLevel;
+import pdcpart2.model.Question;
+import pdcpart2.util.AnswerStatistics;
+
+/**
+ * GameEngine holds the rules and state of a single game session: the question
+ * sequence, the player's score and the lifelines. It has no dependency on
+ * Swing, timers or the database, so it can drive the GUI as well as headless
+ * simulations and server sessions.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class GameEngine implements GameControl {
+
+    private static final Counter CORRECT_ANSWERS = MetricsRegistry.getShared().counter("GameEngine.correctAnswers");
+    private static final Counter WRONG_ANSWERS = MetricsRegistry.getShared().counter("GameEngine.wrongAnswers");
+
+    private final Player player;
+    private final List<Question> questions;
+    private final Lifeline fiftyFiftyLifeline;
+    private final Lifeline hintLifeline;
+    private final Lifeline askTheAudienceLifeline;
+    private final AnswerStatistics answerStatistics;
+    private int currentQuestionIndex;
+    private boolean gameOver;
+
+    /**
+     * Constructor to initialize a game session for the given player.
+     *
+     * @param player The Player taking part in this session.
+     * @param questions The questions to ask, in order.
+     */
+    public GameEngine(Player player, List<Question> questions) {
+        this(player, questions, new SplittableRandom());
+    }
+
+    /**
+     * Constructor to initialize a game session whose lifelines draw from the
+     * given random source, so a seeded source replays the same game.
+     *
+     * @param player The Player taking part in this session.
+     * @param questions The questions to ask, in order.
+     * @param random The random source for the lifelines. Owned by this session.
+     */
+    public GameEngine(Player player, List<Question> questions, SplittableRandom random) {
+        this(player, questions, random, AnswerStatistics.getShared());
+    }
+
+    /**
+     * Constructor to initialize a game session that counts its answers in,
+     * and polls the audience from, the given statistics.
+     *
+     * @param player The Player taking part in this session.
+     * @param questions The questions to ask, in order.
+     * @param random The random source for the lifelines. Owned by this session.
+     * @param answerStatistics The answer counts shared by every session.
+     */
+    public GameEngine(Player player, List<Question> questions, SplittableRandom random, AnswerStatistics answerStatistics) {
+        this.player = player;
+        this.questions = questions;
+        this.answerStatistics = answerStatistics;
+        FiftyFifty fiftyFifty = new FiftyFifty(random);
+        this.fiftyFiftyLifeline = fiftyFifty;
+        this.hintLifeline = new Hint();
+        this.askTheAudienceLifeline = new AskTheAudience(answerStatistics, fiftyFifty);
+        this.gameOver = true; // Nothing can be answered until StartGame() is called
+    }
+
+    /**
+     * Starts the session from the first question with a zero score.
+     */
+    @Override
+    public void StartGame() {
+        currentQuestionIndex = 0;
+        player.setScore(0);
+        gameOver = questions.isEmpty();
+    }
+
+    /**
+     * Ends the session. Further answers are rejected.
+     */
+    @Override
+    public void StopGame() {
+        gameOver = true;
+    }
+
+    /**
+     * Returns the question currently awaiting an answer.
+     *
+     * @return The current Question, or null if there are no questions left.
+     */
+    public Question getCurrentQuestion() {
+        if (currentQuestionIndex < questions.size()) {
+            return questions.get(currentQuestionIndex);
+        }
+        return null;
+    }
+
+    /**
+     * Checks the selected answer against the current question. A correct answer
+     * awards the prize for this level and advances to the next question; a
+     * wrong answer ends the game.
+     *
+     * @param selectedAnswer The text of the answer selected by the player.
+     * @return true if the answer was correct, false otherwise.
+     * @throws IllegalStateException if the game is not in progress.
+     */
+    public boolean submitAnswer(String selectedAnswer) {
+        if (gameOver) {
+            throw new IllegalStateException("The game is not in progress.");
+        }
+
+        Question currentQuestion = questions.get(currentQuestionIndex);
+        int optionIndex = -1;
+        for (int i = 0; i < Question.OPTION_COUNT; i++) {
+            if (currentQuestion.getOption(i).equals(selectedAnswer)) {
+                optionIndex = i;
+                break;
+            }
+        }
+        return submitAnswer(optionIndex);
+    }
+
+    /**
+     * Checks the selected option against the current question. A correct
+     * answer awards the prize for this level and advances to the next
+     * question; a wrong answer ends the game.
+     *
+     * @param optionIndex The index of the option selected by the player, 0 for A.
+     * @return true if the answer was correct, false otherwise.
+     * @throws IllegalStateException if the game is not in progress.
+     */
+    public boolean submitAnswer(int optionIndex) {
+        if (gameOver) {
+            throw new IllegalStateException("The game is not in progress.");
+        }
+
+        Question currentQuestion = questions.get(currentQuestionIndex);
+        answerStatistics.recordAnswer(currentQuestion, optionIndex);
+        if (!currentQuestion.isCorrect(optionIndex)) {
+            WRONG_ANSWERS.increment();
+            gameOver = true;
+            return false;
+        }
+        CORRECT_ANSWERS.increment();
+
+        player.setScore(PrizeLevel.getAmountByQuestionLevel(currentQuestionIndex + 1));
+        currentQuestionIndex++;
+        if (currentQuestionIndex >= questions.size()) {
+            gameOver = true; // All questions answered correctly
+        }
+        return true;
+    }
+
+    /**
+     * Checks if the session has ended.
+     *
+     * @return true if no more answers are accepted.
+     */
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    /**
+     * Checks if the player answered every question correctly. A game with
+     * no questions is never won.
+     *
+     * @return true if the player won the game.
+     */
+    public boolean isWon() {
+        return !questions.isEmpty() && currentQuestionIndex >= questions.size();
+    }
+
+    /**
+     * Returns the number of questions the player has answered correctly so
+     * far, which is also the 0-based index of the current question.
+     *
+     * @return The current question index.
+     */
+    public int getCurrentQuestionIndex() {
+        return currentQuestionIndex;
+    }
+
+    /**
+     * Returns the index recorded as the last question answered.
+     *
+     * @return The last question index, capped at the number of questions.
+     */
+    public int getLastQuestionIndex() {
+        return Math.min(currentQuestionIndex, questions.size());
+    }
+
+    /**
+     * Returns the number of questions in this session.
+     *
+     * @return The question count.
+     */
+    public int getQuestionCount() {
+        return questions.size();
+    }
+
+    /**
+     * Creates the GameResult record for the current state of the session.
+     *
+     * @return A new GameResult for the player.
+     */
+    public GameResult createGameResult() {
+        return new GameResult(player.getName(), player.getScore(), getLastQuestionIndex());
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    public Lifeline getFiftyFiftyLifeline() {
+        return fiftyFiftyLifeline;
+    }
+
+    public Lifeline getHintLifeline() {
+        return hintLifeline;
+    }
+
+    public Lifeline getAskTheAudienceLifeline() {
+        return askTheAudienceLifeline;
+    }
+}
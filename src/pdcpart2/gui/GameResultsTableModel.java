@@ -0,0 +1,263 @@
+
+package pdcpart2.gui;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+import pdcpart2.dao.GameResultDAO;
+import pdcpart2.model.GameResult;
+
+/**
+ * GameResultsTableModel is a virtual table model for the game results table.
+ *
+ * Rows are fetched in pages only when the table asks for them, on a background
+ * thread, and the most recently used pages are kept in an LRU cache. A page is
+ * fetched by seeking past the last row of the page before it when that row is
+ * known. Otherwise (for example after dragging the scrollbar) it seeks to the
+ * nearest earlier page that is known and skips the rows in between by
+ * offset; Derby walks those rows, so only such a jump costs time in
+ * proportion to its distance, and the pages around it then seek again. The
+ * row count comes from the per-player totals in Player_Stats rather than a
+ * COUNT(*) over every result.
+ * All cached state is only touched on the Event Dispatch Thread, so the model
+ * needs no locking.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class GameResultsTableModel extends AbstractTableModel {
+
+    public static final int PAGE_SIZE = 100;
+    private static final int MAX_CACHED_PAGES = 50;
+    private static final int MAX_CACHED_CURSORS = 1000;
+    private static final String[] COLUMN_NAMES = {"Player Name", "Score", "Last Question Answered", "Date & Time"};
+
+    private final GameResultDAO gameResultDAO;
+    private final Consumer<Exception> errorHandler;
+    private final ExecutorService loader;
+    private final Map<Integer, List<GameResult>> pages = new LruMap<>(MAX_CACHED_PAGES);
+    private final Map<Integer, GameResult> pageCursors = new LruMap<>(MAX_CACHED_CURSORS);
+    private final Set<Integer> pendingPages = new HashSet<>();
+    private int rowCount;
+    private int generation; // Incremented by refresh() to discard late results
+    private boolean errorReported;
+
+    /**
+     * Constructor to create the model and start counting the results.
+     *
+     * @param gameResultDAO The DAO to load results with.
+     * @param errorHandler Called on the EDT the first time loading fails.
+     */
+    public GameResultsTableModel(GameResultDAO gameResultDAO, Consumer<Exception> errorHandler) {
+        this.gameResultDAO = gameResultDAO;
+        this.errorHandler = errorHandler;
+        this.loader = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "game-results-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresh();
+    }
+
+    /**
+     * Constructor to create the model from a count and first page that were
+     * already read, for example during start-up, so no query is needed
+     * before the first rows are shown.
+     *
+     * @param gameResultDAO The DAO to load the remaining pages with.
+     * @param errorHandler Called on the EDT the first time loading fails.
+     * @param rowCount The number of results.
+     * @param firstPage The newest PAGE_SIZE results, as returned by
+     *                  GameResultDAO.getGameResultsPage(null, PAGE_SIZE).
+     */
+    public GameResultsTableModel(GameResultDAO gameResultDAO, Consumer<Exception> errorHandler,
+            int rowCount, List<GameResult> firstPage) {
+        this.gameResultDAO = gameResultDAO;
+        this.errorHandler = errorHandler;
+        this.loader = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "game-results-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.rowCount = rowCount;
+        pages.put(0, firstPage);
+        if (!firstPage.isEmpty()) {
+            pageCursors.put(0, firstPage.get(firstPage.size() - 1));
+        }
+    }
+
+    /**
+     * Drops every cached page and counts the results again. Must be called on
+     * the EDT.
+     */
+    public void refresh() {
+        generation++;
+        pages.clear();
+        pageCursors.clear();
+        pendingPages.clear();
+        rowCount = 0;
+        fireTableDataChanged();
+
+        int requestGeneration = generation;
+        loader.submit(() -> {
+            try {
+                int count = gameResultDAO.countRecordedGames();
+                SwingUtilities.invokeLater(() -> {
+                    if (requestGeneration == generation) {
+                        rowCount = count;
+                        fireTableDataChanged();
+                    }
+                });
+            } catch (Exception e) {
+                reportError(e);
+            }
+        });
+    }
+
+    /**
+     * Stops the background loader thread.
+     */
+    public void dispose() {
+        loader.shutdownNow();
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        int pageIndex = row / PAGE_SIZE;
+        List<GameResult> page = pages.get(pageIndex);
+        if (page == null) {
+            requestPage(pageIndex);
+            return column == 0 ? "Loading..." : "";
+        }
+
+        int offset = row % PAGE_SIZE;
+        if (offset >= page.size()) {
+            return ""; // Rows were deleted since the count was taken
+        }
+        GameResult result = page.get(offset);
+        switch (column) {
+            case 0:
+                return result.getPlayerName();
+            case 1:
+                return "$" + result.getScore();
+            case 2:
+                return result.getLastQuestionIndex();
+            default:
+                return result.getTimestamp().toString();
+        }
+    }
+
+    /**
+     * Schedules a page to be loaded unless it is already on its way.
+     */
+    private void requestPage(int pageIndex) {
+        if (!pendingPages.add(pageIndex)) {
+            return;
+        }
+        // Start from the last row of the nearest earlier page that is known
+        int knownPage = -1;
+        for (int index : pageCursors.keySet()) {
+            if (index < pageIndex && index > knownPage) {
+                knownPage = index;
+            }
+        }
+        GameResult cursor = knownPage >= 0 ? pageCursors.get(knownPage) : null;
+        int skip = (pageIndex - knownPage - 1) * PAGE_SIZE;
+        int requestGeneration = generation;
+
+        loader.submit(() -> {
+            try {
+                List<GameResult> page = gameResultDAO.getGameResultsPage(cursor, skip, PAGE_SIZE);
+                SwingUtilities.invokeLater(() -> pageLoaded(requestGeneration, pageIndex, page));
+            } catch (Exception e) {
+                reportError(e);
+                SwingUtilities.invokeLater(() -> pageFailed(requestGeneration, pageIndex));
+            }
+        });
+    }
+
+    /**
+     * Forgets a page that failed to load, so it is asked for again the next
+     * time its rows are painted. Runs on the EDT.
+     */
+    private void pageFailed(int requestGeneration, int pageIndex) {
+        if (requestGeneration == generation) {
+            pendingPages.remove(pageIndex);
+        }
+    }
+
+    /**
+     * Stores a loaded page and repaints its rows. Runs on the EDT.
+     */
+    private void pageLoaded(int requestGeneration, int pageIndex, List<GameResult> page) {
+        if (requestGeneration != generation) {
+            return;
+        }
+        pendingPages.remove(pageIndex);
+        pages.put(pageIndex, page);
+        if (!page.isEmpty()) {
+            pageCursors.put(pageIndex, page.get(page.size() - 1));
+        }
+
+        int firstRow = pageIndex * PAGE_SIZE;
+        int lastRow = Math.min(firstRow + PAGE_SIZE, rowCount) - 1;
+        if (firstRow <= lastRow) {
+            fireTableRowsUpdated(firstRow, lastRow);
+        }
+    }
+
+    private void reportError(Exception e) {
+        e.printStackTrace();
+        SwingUtilities.invokeLater(() -> {
+            if (!errorReported && errorHandler != null) {
+                errorReported = true;
+                errorHandler.accept(e);
+            }
+        });
+    }
+
+    /**
+     * A LinkedHashMap in access order that drops its least recently used
+     * entry once it holds more than maxEntries.
+     */
+    private static final class LruMap<K, V> extends LinkedHashMap<K, V> {
+        private final int maxEntries;
+
+        private LruMap(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > maxEntries;
+        }
+    }
+}
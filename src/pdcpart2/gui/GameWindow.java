@@ -0,0 +1,123 @@
+package pdcpart2.gui;
+
+import javax.swing.*;
+import java.awt.*;
+
+import pdcpart2.model.Player;
+import pdcpart2.util.DatabaseInitializer;
+import pdcpart2.util.StartupOrchestrator;
+
+/**
+ * GameWindow is the game's only window. It holds the start screen and the
+ * game screen in a CardLayout and switches between them, so playing again
+ * resets the existing screens in place instead of disposing the frame and
+ * building every component, DAO and table model again.
+ *
+ * The start screen is built straight away; the game screen is built the
+ * first time a game starts and reused for every game after that.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class GameWindow extends JFrame {
+
+    private static final String START_CARD = "start";
+    private static final String GAME_CARD = "game";
+
+    private final CardLayout cards = new CardLayout();
+    private final JPanel cardPanel = new JPanel(cards);
+    private final StartScreenGUI startScreen;
+    private MillionaireGameGUI gameScreen;
+    private volatile DatabaseInitializer dbInitializer;
+
+    /**
+     * Constructor that shows the window with the start screen. Must be called
+     * on the EDT.
+     */
+    public GameWindow() {
+        StartupOrchestrator startup = new StartupOrchestrator();
+
+        // Frame setup
+        setSize(1000, 600); // Adjusted size for better balance
+        setDefaultCloseOperation(EXIT_ON_CLOSE);
+        setResizable(true); // Allow frame to be resizable
+        setMinimumSize(new Dimension(800, 600)); // Set minimum size
+
+        // Center the window on the screen
+        setLocationRelativeTo(null);
+
+        startScreen = new StartScreenGUI(this, startup);
+        cardPanel.add(startScreen, START_CARD);
+        add(cardPanel);
+
+        // Shut down the database when the window closes
+        addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowClosing(java.awt.event.WindowEvent windowEvent) {
+                shutdownDatabase();
+            }
+        });
+
+        showStartScreen();
+        setVisible(true);
+        startup.mark("firstFrame");
+        startup.whenDone();
+    }
+
+    /**
+     * Switches to the start screen and refreshes its results.
+     */
+    void showStartScreen() {
+        setTitle("Who Wants to Become a Millionaire");
+        startScreen.refresh();
+        cards.show(cardPanel, START_CARD);
+    }
+
+    /**
+     * Switches to the game screen and starts a new game for the player.
+     *
+     * @param player The player to start a game for.
+     */
+    void showGame(Player player) {
+        if (gameScreen == null) {
+            gameScreen = new MillionaireGameGUI(this);
+            cardPanel.add(gameScreen, GAME_CARD);
+        }
+        setTitle("Who Wants to be a Millionaire");
+        cards.show(cardPanel, GAME_CARD);
+        gameScreen.newGame(player);
+    }
+
+    /**
+     * Shuts down the database, if it was opened, and exits the application.
+     */
+    void exit() {
+        shutdownDatabase();
+        System.exit(0);
+    }
+
+    /**
+     * @return The database, or null while it is still starting up.
+     */
+    DatabaseInitializer getDatabase() {
+        return dbInitializer;
+    }
+
+    /**
+     * Called by the start screen once the database has started.
+     */
+    void setDatabase(DatabaseInitializer dbInitializer) {
+        this.dbInitializer = dbInitializer;
+    }
+
+    private void shutdownDatabase() {
+        if (dbInitializer != null) {
+            dbInitializer.shutdownDatabase();
+        }
+    }
+
+    public static void main(String[] args) {
+        // Initlize and Start game
+        SwingUtilities.invokeLater(GameWindow::new);
+    }
+}
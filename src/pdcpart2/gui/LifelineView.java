@@ -0,0 +1,35 @@
+
+package pdcpart2.gui;
+
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import pdcpart2.lifelines.LifelineResult;
+
+/**
+ * LifelineView shows the result of a lifeline in the game window: the message
+ * goes to the message label and every eliminated option's button is disabled.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public final class LifelineView {
+
+    private LifelineView() {
+    }
+
+    /**
+     * Applies a lifeline result to the game window's widgets.
+     *
+     * @param result The result to show.
+     * @param optionButtons The option buttons, in the question's option order.
+     * @param messageLabel The label to show the lifeline's message in.
+     */
+    public static void apply(LifelineResult result, JButton[] optionButtons, JLabel messageLabel) {
+        messageLabel.setText(result.getMessage());
+        for (int i = 0; i < optionButtons.length; i++) {
+            if (result.isEliminated(i)) {
+                optionButtons[i].setEnabled(false);
+            }
+        }
+    }
+}
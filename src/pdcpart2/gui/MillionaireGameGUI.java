@@ -1,28 +1,36 @@
 package pdcpart2.gui;
 
-import pdcpart2.dao.GameResultDAO;
+import pdcpart2.engine.GameEngine;
+import pdcpart2.jfr.AnswerSubmittedEvent;
+import pdcpart2.jfr.QuestionShownEvent;
+import pdcpart2.metrics.LatencyHistogram;
+import pdcpart2.metrics.MetricsRegistry;
 import pdcpart2.interfaces.TimerListener;
 import pdcpart2.interfaces.GameControl;
-import pdcpart2.lifelines.Hint;
-import pdcpart2.lifelines.Lifeline;
-import pdcpart2.lifelines.FiftyFifty;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.sql.SQLException;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.SplittableRandom;
 import pdcpart2.util.TimeUtil;
 import pdcpart2.model.Player;
-import pdcpart2.model.PrizeLevel;
 import pdcpart2.model.Question;
-import pdcpart2.util.QuestionLoader;
+import pdcpart2.util.TieredQuestionSelector;
 import pdcpart2.util.DatabaseInitializer;
 import pdcpart2.util.FontLoader;
 import pdcpart2.model.GameResult;
 
 /**
  * MillionaireGameGUI manages the main game interface, handling questions,
- * options, scores, lifelines, and player interactions using the Player object.
+ * options, scores, lifelines, and player interactions. The game rules and
+ * session state live in a GameEngine; this class only presents them.
+ *
+ * The screen is a card in the GameWindow. It is built once and reused: each
+ * new game gets a fresh GameEngine and resets the labels and buttons in
+ * place, and leaving a game switches the window back to the start screen.
  *
  * Implements the GameControl and TimerListener interfaces to control game flow
  * and respond to timer expiration events.
@@ -30,90 +38,122 @@ import pdcpart2.model.GameResult;
  * Author: Setefano Muller
  *         Tharuka Rodrigo
  */
-public class MillionaireGameGUI extends JFrame implements GameControl, TimerListener {
+public class MillionaireGameGUI extends JPanel implements GameControl, TimerListener {
 
+    private final GameWindow window;
     private JTextArea questionTextArea;
-    private JButton[] optionButtons = new JButton[4];
+    private OptionTile[] optionButtons = new OptionTile[4];
     private JLabel scoreLabel;
     private JLabel playerLabel;
     private JLabel messageLabel;
     private JLabel countdownLabel;
     private DatabaseInitializer dbInitializer;
-    private List<Question> questions;
-    private int currentQuestionIndex = 0;
-    private Lifeline fiftyFiftyLifeline;
-    private Lifeline hintLifeline;
+    private GameEngine engine;
     private TimeUtil countdownTimer;
     private Player player;
 
     // Lifeline buttons
     private JButton fiftyFiftyButton;
     private JButton hintButton;
+    private JButton audienceButton;
 
     // Additional Buttons
     private JButton quitGameButton;
     private JButton resetGameButton;
 
+    // Answer reveal timing and colors
+    private static final int SUSPENSE_MILLIS = 2000;
+    private static final int REVEAL_MILLIS = 1500;
+    private static final int PRIZE_MILLIS = 1500;
+    private static final Color OPTION_COLOR = new Color(173, 216, 230); // Light Blue
+    private static final Color SELECTED_COLOR = new Color(255, 191, 0); // Amber
+    private static final Color CORRECT_COLOR = new Color(50, 205, 50); // Lime Green
+    private static final Color WRONG_COLOR = new Color(220, 20, 60); // Crimson
+
+    // Time from the click to the checked answer reaching the EDT
+    private static final LatencyHistogram HANDLE_ANSWER_LATENCY =
+            MetricsRegistry.getShared().histogram("MillionaireGameGUI.handleAnswer");
+    private RevealPipeline revealPipeline;
+    private SwingWorker<List<Question>, Void> gameLoader; // Picks the questions for the game being started
+    private int gameGeneration; // Changes when a game starts or is reset, so callbacks of an old game are ignored
+    private long questionShownNanos; // For the answer time in AnswerSubmittedEvent
+
     // Database connection parameters for Embedded Mode
     private static final String DATABASE_PATH = "QuestionDB"; // Relative path to the database
 
-    // Custom font reference
-    private Font customFont;
+    /**
+     * Constructor to build the game screen. Call newGame to start a game.
+     *
+     * @param window The window showing this screen.
+     */
+    public MillionaireGameGUI(GameWindow window) {
+        this.window = window;
+        setLayout(new BorderLayout());
 
-    // GameResultDAO instance
-    private GameResultDAO gameResultDAO;
+        // Initialize GUI components
+        initializeGUIComponents();
+    }
 
     /**
-     * Constructor to initialize the MillionaireGameGUI.
+     * Starts a new game for a player, resetting the screen left by the
+     * previous game. The questions are picked from the database on a
+     * background thread and the game starts once they are ready.
      *
      * @param player The Player object containing player information.
      */
-    public MillionaireGameGUI(Player player) {
-        this.player = player; // Initialize with Player object
-        fiftyFiftyLifeline = new FiftyFifty();
-        hintLifeline = new Hint();
-
-        // Initialize GameResultDAO
-        gameResultDAO = new GameResultDAO();
-
-        // Load custom font using FontLoader
-        customFont = FontLoader.loadFont("src/pdcpart2/fonts/MesloLGS NF Regular.ttf", 18f); // Adjust path as needed
+    public void newGame(Player player) {
+        this.player = player;
+        gameGeneration++;
 
-        // Frame setup
-        setTitle("Who Wants to be a Millionaire");
-        setSize(1000, 600);
-        setDefaultCloseOperation(EXIT_ON_CLOSE);
-        setLayout(new BorderLayout());
-        setResizable(true); // Allow frame to be resizable
-        setMinimumSize(new Dimension(800, 600)); // Set minimum size
-
-        // Center the window on the screen
-        setLocationRelativeTo(null);
-
-        // Initialize and populate the database
+        // The database is already open; this only looks up the instance
         dbInitializer = DatabaseInitializer.getInstance(DATABASE_PATH);
 
-        // Load questions from the embedded database
-        QuestionLoader reader = new QuestionLoader(DATABASE_PATH);
-        questions = reader.getQuestions();
-
-        // Initialize GUI components
-        initializeGUIComponents();
-
-        // Start the game
-        StartGame();
+        revealPipeline = null;
+        playerLabel.setText("Player: " + player.getName());
+        scoreLabel.setText("Score: $" + player.getScore());
+        countdownLabel.setText("Time left: " + TimeUtil.QUESTION_SECONDS);
+        questionTextArea.setText("");
+        for (OptionTile button : optionButtons) {
+            button.setOptionText("");
+            button.setToolTipText(null);
+            button.setBackground(OPTION_COLOR);
+            button.setEnabled(false);
+        }
+        fiftyFiftyButton.setEnabled(false);
+        hintButton.setEnabled(false);
+        audienceButton.setEnabled(false);
+        messageLabel.setText("Loading questions...");
 
-        // Add a window listener to shut down the database when the window closes
-        addWindowListener(new java.awt.event.WindowAdapter() {
+        // Pick one question for each prize level; this queries the database, so keep it off the EDT
+        gameLoader = new SwingWorker<List<Question>, Void>() {
             @Override
-            public void windowClosing(java.awt.event.WindowEvent windowEvent) {
-                dbInitializer.shutdownDatabase();
-                System.exit(0); // Ensure the application exits after shutdown
+            protected List<Question> doInBackground() throws SQLException {
+                return TieredQuestionSelector.getInstance(DATABASE_PATH).selectGame();
             }
-        });
 
-        // Show frame
-        setVisible(true);
+            @Override
+            protected void done() {
+                if (isCancelled() || gameLoader != this) {
+                    return; // The game was reset, or another one started, while loading
+                }
+                gameLoader = null;
+                List<Question> questions;
+                try {
+                    questions = get();
+                } catch (InterruptedException | ExecutionException e) {
+                    e.printStackTrace();
+                    JOptionPane.showMessageDialog(MillionaireGameGUI.this, "Failed to load the questions.",
+                            "Error", JOptionPane.ERROR_MESSAGE);
+                    window.showStartScreen();
+                    return;
+                }
+                engine = new GameEngine(player, questions, new SplittableRandom(), dbInitializer.getAnswerStatistics());
+
+                // Start the game
+                StartGame();
+            }
+        };
+        gameLoader.execute();
     }
 
     /**
@@ -145,20 +185,20 @@ public class MillionaireGameGUI extends JFrame implements GameControl, TimerList
         infoPanel.setBackground(new Color(0, 102, 204)); // Example color: Blue
 
         // Player Label
-        playerLabel = new JLabel("Player: " + player.getName());
-        playerLabel.setFont(customFont.deriveFont(Font.BOLD, 16f));
+        playerLabel = new JLabel("Player: ");
+        playerLabel.setFont(FontLoader.getGameFont(Font.BOLD, 16f));
         playerLabel.setForeground(Color.WHITE);
         infoPanel.add(playerLabel);
 
         // Score Label
-        scoreLabel = new JLabel("Score: $" + player.getScore());
-        scoreLabel.setFont(customFont.deriveFont(Font.BOLD, 16f));
+        scoreLabel = new JLabel("Score: $0");
+        scoreLabel.setFont(FontLoader.getGameFont(Font.BOLD, 16f));
         scoreLabel.setForeground(Color.WHITE);
         infoPanel.add(scoreLabel);
 
         // Countdown Label
         countdownLabel = new JLabel("Time left: 15");
-        countdownLabel.setFont(customFont.deriveFont(Font.BOLD, 16f));
+        countdownLabel.setFont(FontLoader.getGameFont(Font.BOLD, 16f));
         countdownLabel.setForeground(Color.WHITE);
         infoPanel.add(countdownLabel);
 
@@ -181,7 +221,7 @@ public class MillionaireGameGUI extends JFrame implements GameControl, TimerList
         questionTextArea.setLineWrap(true);
         questionTextArea.setWrapStyleWord(true);
         questionTextArea.setEditable(false);
-        questionTextArea.setFont(customFont.deriveFont(18f));
+        questionTextArea.setFont(FontLoader.getGameFont(Font.PLAIN, 18f));
         questionTextArea.setFocusable(false);
         questionTextArea.setBackground(new Color(245, 245, 245));
         questionTextArea.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
@@ -196,10 +236,10 @@ public class MillionaireGameGUI extends JFrame implements GameControl, TimerList
         optionsPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
 
         for (int i = 0; i < 4; i++) {
-            optionButtons[i] = new JButton();
-            optionButtons[i].setFont(customFont.deriveFont(Font.PLAIN, 16f));
+            optionButtons[i] = new OptionTile();
+            optionButtons[i].setFont(FontLoader.getGameFont(Font.PLAIN, 16f));
             optionButtons[i].setFocusPainted(false);
-            optionButtons[i].setBackground(new Color(173, 216, 230)); // Example color: Light Blue
+            optionButtons[i].setBackground(OPTION_COLOR);
             optionButtons[i].setForeground(Color.BLACK);
             optionButtons[i].setMargin(new Insets(10, 10, 10, 10));
             optionsPanel.add(optionButtons[i]);
@@ -210,9 +250,7 @@ public class MillionaireGameGUI extends JFrame implements GameControl, TimerList
             button.addActionListener(new ActionListener() {
                 @Override
                 public void actionPerformed(ActionEvent e) {
-                    JButton sourceButton = (JButton) e.getSource();
-                    String selectedAnswer = sourceButton.getActionCommand();
-                    handleAnswer(selectedAnswer);
+                    handleAnswer((JButton) e.getSource());
                 }
             });
         }
@@ -239,18 +277,24 @@ public class MillionaireGameGUI extends JFrame implements GameControl, TimerList
         buttonsPanel.setBackground(new Color(0, 102, 204));
 
         fiftyFiftyButton = new JButton("50:50");
-        fiftyFiftyButton.setFont(customFont.deriveFont(Font.BOLD, 14f));
+        fiftyFiftyButton.setFont(FontLoader.getGameFont(Font.BOLD, 14f));
         fiftyFiftyButton.setForeground(Color.BLACK);
         fiftyFiftyButton.setPreferredSize(new Dimension(100, 40));
 
         hintButton = new JButton("Hint");
-        hintButton.setFont(customFont.deriveFont(Font.BOLD, 14f));
+        hintButton.setFont(FontLoader.getGameFont(Font.BOLD, 14f));
         hintButton.setForeground(Color.BLACK);
         hintButton.setPreferredSize(new Dimension(100, 40));
 
+        audienceButton = new JButton("Audience");
+        audienceButton.setFont(FontLoader.getGameFont(Font.BOLD, 14f));
+        audienceButton.setForeground(Color.BLACK);
+        audienceButton.setPreferredSize(new Dimension(110, 40));
+
         // Add lifeline buttons to the panel
         buttonsPanel.add(fiftyFiftyButton);
         buttonsPanel.add(hintButton);
+        buttonsPanel.add(audienceButton);
 
         // Additional Buttons Panel
         JPanel additionalButtonsPanel = new JPanel();
@@ -258,12 +302,12 @@ public class MillionaireGameGUI extends JFrame implements GameControl, TimerList
         additionalButtonsPanel.setBackground(new Color(0, 102, 204));
 
         quitGameButton = new JButton("Quit Game");
-        quitGameButton.setFont(customFont.deriveFont(Font.BOLD, 14f));
+        quitGameButton.setFont(FontLoader.getGameFont(Font.BOLD, 14f));
         quitGameButton.setForeground(Color.BLACK);
         quitGameButton.setPreferredSize(new Dimension(120, 40));
 
         resetGameButton = new JButton("Reset Game");
-        resetGameButton.setFont(customFont.deriveFont(Font.BOLD, 14f));
+        resetGameButton.setFont(FontLoader.getGameFont(Font.BOLD, 14f));
         resetGameButton.setForeground(Color.BLACK);
         resetGameButton.setPreferredSize(new Dimension(120, 40));
 
@@ -283,7 +327,7 @@ public class MillionaireGameGUI extends JFrame implements GameControl, TimerList
 
         // Message Label
         messageLabel = new JLabel("Select your answer or use a lifeline.");
-        messageLabel.setFont(customFont.deriveFont(Font.ITALIC, 14f));
+        messageLabel.setFont(FontLoader.getGameFont(Font.ITALIC, 14f));
         messageLabel.setForeground(Color.WHITE);
         messageLabel.setHorizontalAlignment(SwingConstants.CENTER);
         messageLabel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
@@ -294,8 +338,8 @@ public class MillionaireGameGUI extends JFrame implements GameControl, TimerList
         fiftyFiftyButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                if (!fiftyFiftyLifeline.isUsed()) {
-                    fiftyFiftyLifeline.useLifeline(questions.get(currentQuestionIndex), optionButtons, messageLabel);
+                if (!engine.getFiftyFiftyLifeline().isUsed()) {
+                    LifelineView.apply(engine.getFiftyFiftyLifeline().use(engine.getCurrentQuestion()), optionButtons, messageLabel);
                     fiftyFiftyButton.setEnabled(false);
                 } else {
                     showMessage("You have already used the 50:50 lifeline.");
@@ -306,8 +350,8 @@ public class MillionaireGameGUI extends JFrame implements GameControl, TimerList
         hintButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                if (!hintLifeline.isUsed()) {
-                    hintLifeline.useLifeline(questions.get(currentQuestionIndex), optionButtons, messageLabel);
+                if (!engine.getHintLifeline().isUsed()) {
+                    LifelineView.apply(engine.getHintLifeline().use(engine.getCurrentQuestion()), optionButtons, messageLabel);
                     hintButton.setEnabled(false);
                 } else {
                     showMessage("You have already used the Hint lifeline.");
@@ -315,6 +359,18 @@ public class MillionaireGameGUI extends JFrame implements GameControl, TimerList
             }
         });
 
+        audienceButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                if (!engine.getAskTheAudienceLifeline().isUsed()) {
+                    LifelineView.apply(engine.getAskTheAudienceLifeline().use(engine.getCurrentQuestion()), optionButtons, messageLabel);
+                    audienceButton.setEnabled(false);
+                } else {
+                    showMessage("You have already used the Ask the Audience lifeline.");
+                }
+            }
+        });
+
         // Add action listeners for additional buttons
         quitGameButton.addActionListener(new ActionListener() {
             @Override
@@ -344,19 +400,31 @@ public class MillionaireGameGUI extends JFrame implements GameControl, TimerList
 
     @Override
     public void StartGame() {
+        engine.StartGame();
         loadNextQuestion();  // Start by loading the first question
     }
 
     @Override
     public void StopGame() {
-        // Before showing the dialog, record the game result
-        recordGameResult();
+        int generation = gameGeneration;
+        // Nothing can be answered or revealed once the game has ended
+        if (revealPipeline != null) {
+            revealPipeline.cancel();
+        }
+        if (countdownTimer != null) {
+            countdownTimer.StopTimer();
+        }
+        setAnswerControlsEnabled(false);
+        engine.StopGame();
 
-        // Ensure that this is executed on the EDT
-        SwingUtilities.invokeLater(() -> {
+        // Record the game result first, then show the dialog once it has been handed over
+        recordGameResult(() -> {
+            if (generation != gameGeneration) {
+                return; // The game was reset while its result was being recorded
+            }
             // Create a message based on whether the player won or lost
             String message;
-            if (currentQuestionIndex >= questions.size()) {
+            if (engine.isWon()) {
                 message = "Congratulations " + player.getName() + "! You won $" + player.getScore() + ".\nDo you want to play again?";
             } else {
                 message = "Game Over! You won $" + player.getScore() + ".\nDo you want to play again?";
@@ -372,16 +440,11 @@ public class MillionaireGameGUI extends JFrame implements GameControl, TimerList
             );
 
             if (response == JOptionPane.YES_OPTION) {
-                // Player chose to play again
-                // Dispose of the current game window
-                this.dispose();
-
-                // Open the StartScreenGUI
-                new StartScreenGUI();
+                // Player chose to play again; go back to the start screen
+                window.showStartScreen();
             } else {
                 // Player chose not to play again; exit the application 
-                dbInitializer.shutdownDatabase();
-                System.exit(0);
+                window.exit();
             }
         });
     }
@@ -400,15 +463,14 @@ public class MillionaireGameGUI extends JFrame implements GameControl, TimerList
         );
 
         if (confirm == JOptionPane.YES_OPTION) {
-            dbInitializer.shutdownDatabase();
-            System.exit(0);
+            window.exit();
         }
     }
 
     /**
      * Handles the Reset Game functionality. Prompts the user for confirmation.
-     * If confirmed, does not save the game result and returns to
-     * StartScreenGUI.
+     * If confirmed, does not save the game result and returns to the start
+     * screen.
      */
     private void handleResetGame() {
         int confirm = JOptionPane.showConfirmDialog(
@@ -420,12 +482,19 @@ public class MillionaireGameGUI extends JFrame implements GameControl, TimerList
         );
 
         if (confirm == JOptionPane.YES_OPTION) {
-            // Dispose of the current game window without saving the result
-            countdownTimer.StopTimer();
-            this.dispose();
-
-            // Open the StartScreenGUI
-            new StartScreenGUI();
+            // Leave the game without saving the result; anything still running for it is ignored
+            gameGeneration++;
+            if (gameLoader != null) {
+                gameLoader.cancel(false);
+                gameLoader = null;
+            }
+            if (countdownTimer != null) {
+                countdownTimer.StopTimer();
+            }
+            if (revealPipeline != null) {
+                revealPipeline.cancel();
+            }
+            window.showStartScreen();
         }
     }
 
@@ -443,41 +512,33 @@ public class MillionaireGameGUI extends JFrame implements GameControl, TimerList
      * Loads the next question in the list.
      */
     private void loadNextQuestion() {
-        if (currentQuestionIndex < questions.size()) {
-            Question currentQuestion = questions.get(currentQuestionIndex);
+        if (!engine.isGameOver()) {
+            Question currentQuestion = engine.getCurrentQuestion();
             questionTextArea.setText(currentQuestion.getQuestionText());
 
-            // Set button texts with HTML for wrapping and assign ActionCommands
-            optionButtons[0].setText(formatButtonText(currentQuestion.getOptionA()));
-            optionButtons[0].setActionCommand(currentQuestion.getOptionA());
-
-            optionButtons[1].setText(formatButtonText(currentQuestion.getOptionB()));
-            optionButtons[1].setActionCommand(currentQuestion.getOptionB());
-
-            optionButtons[2].setText(formatButtonText(currentQuestion.getOptionC()));
-            optionButtons[2].setActionCommand(currentQuestion.getOptionC());
-
-            optionButtons[3].setText(formatButtonText(currentQuestion.getOptionD()));
-            optionButtons[3].setActionCommand(currentQuestion.getOptionD());
-
-            // Optionally, set tooltips to show full text
-            optionButtons[0].setToolTipText(currentQuestion.getOptionA());
-            optionButtons[1].setToolTipText(currentQuestion.getOptionB());
-            optionButtons[2].setToolTipText(currentQuestion.getOptionC());
-            optionButtons[3].setToolTipText(currentQuestion.getOptionD());
+            // The tiles wrap their own text; the button index is the option index
+            for (int i = 0; i < optionButtons.length; i++) {
+                optionButtons[i].setOptionText(currentQuestion.getOption(i));
+                // Optionally, set tooltips to show full text
+                optionButtons[i].setToolTipText(currentQuestion.getOption(i));
+            }
 
             // Re-enable all option buttons for the new question
             for (JButton button : optionButtons) {
                 button.setEnabled(true);
+                button.setBackground(OPTION_COLOR);
             }
 
             // Re-enable lifeline buttons if not used
-            if (!fiftyFiftyLifeline.isUsed()) {
+            if (!engine.getFiftyFiftyLifeline().isUsed()) {
                 fiftyFiftyButton.setEnabled(true);
             }
-            if (!hintLifeline.isUsed()) {
+            if (!engine.getHintLifeline().isUsed()) {
                 hintButton.setEnabled(true);
             }
+            if (!engine.getAskTheAudienceLifeline().isUsed()) {
+                audienceButton.setEnabled(true);
+            }
 
             // Initialize and start the countdown timer (e.g., 15 seconds to answer)
             countdownTimer = new TimeUtil(false, countdownLabel, this); // Pass 'this' as the listener
@@ -485,79 +546,171 @@ public class MillionaireGameGUI extends JFrame implements GameControl, TimerList
 
             // Reset message label for new question
             messageLabel.setText("Select your answer or use a lifeline.");
+            questionShownNanos = System.nanoTime();
+            QuestionShownEvent.emit(engine.getCurrentQuestionIndex() + 1, currentQuestion);
         } else {
             StopGame();
         }
     }
 
     /**
-     * Handles the answer selected by the player.
+     * Handles the answer selected by the player. The answer is checked on a
+     * background thread, then a RevealPipeline shows the suspense pause, the
+     * highlighted answer and the prize before moving on, without blocking the
+     * EDT at any point.
      *
-     * @param selectedAnswer The answer selected by the player.
+     * @param selectedButton The option button the player clicked.
      */
-    private void handleAnswer(String selectedAnswer) {
+    private void handleAnswer(JButton selectedButton) {
+        if (revealPipeline != null && revealPipeline.isRunning()) {
+            return; // An answer is already being revealed
+        }
+        if (engine.isGameOver()) {
+            return; // The game ended, for example when the timer ran out
+        }
+        long start = System.nanoTime();
+        long answerNanos = start - questionShownNanos;
+        AnswerSubmittedEvent event = new AnswerSubmittedEvent();
+        event.begin();
         if (countdownTimer != null) {
             countdownTimer.StopTimer();
         }
 
-        // Pause for a brief moment before showing the result
-        // Consider using a Swing Timer instead of Thread.sleep to avoid freezing the UI
-        countdownTimer.pause(2000);
+        // Lock in the answer
+        int selectedIndex = optionIndexOf(selectedButton);
+        GameEngine answeredEngine = engine;
+        int generation = gameGeneration;
+        Question currentQuestion = engine.getCurrentQuestion();
+        int level = engine.getCurrentQuestionIndex() + 1;
+        setAnswerControlsEnabled(false);
+        selectedButton.setBackground(SELECTED_COLOR);
+        messageLabel.setText("Final answer: " + currentQuestion.getOption(selectedIndex) + "...");
+
+        new SwingWorker<Boolean, Void>() {
+            @Override
+            protected Boolean doInBackground() {
+                return answeredEngine.submitAnswer(selectedIndex);
+            }
+
+            @Override
+            protected void done() {
+                HANDLE_ANSWER_LATENCY.recordSince(start);
+                if (generation != gameGeneration) {
+                    return; // The game was reset, or a new one started, while the answer was being checked
+                }
+                boolean correct;
+                try {
+                    correct = get();
+                } catch (InterruptedException | ExecutionException e) {
+                    e.printStackTrace();
+                    if (!engine.isGameOver()) {
+                        StopGame();
+                    }
+                    return;
+                }
+                event.finish(level, correct, answerNanos);
+                revealAnswer(selectedButton, currentQuestion, correct, generation);
+            }
+        }.execute();
+    }
 
-        Question currentQuestion = questions.get(currentQuestionIndex);
-        if (selectedAnswer.equals(currentQuestion.getCorrectAnswer())) {
-            int prizeAmount = PrizeLevel.getAmountByQuestionLevel(currentQuestionIndex + 1);
-            player.setScore(prizeAmount); // Update score in Player object
-            scoreLabel.setText("Score: $" + player.getScore());
-            JOptionPane.showMessageDialog(this, "Correct! You won $" + prizeAmount);
+    /**
+     * Plays the reveal sequence for a checked answer: suspense, highlight,
+     * prize update and then the next question or the end of the game. Each
+     * step is skipped once the game it belongs to has been reset.
+     */
+    private void revealAnswer(JButton selectedButton, Question question, boolean correct, int generation) {
+        revealPipeline = new RevealPipeline()
+                .then(SUSPENSE_MILLIS, inGame(generation, () -> {
+                    optionButtons[question.getCorrectIndex()].setBackground(CORRECT_COLOR);
+                    if (!correct) {
+                        selectedButton.setBackground(WRONG_COLOR);
+                    }
+                }));
+
+        if (correct) {
+            revealPipeline
+                    .then(REVEAL_MILLIS, inGame(generation, () -> {
+                        // The engine has already updated the score in the Player object
+                        scoreLabel.setText("Score: $" + player.getScore());
+                        messageLabel.setText("Correct! You won $" + player.getScore());
+                    }))
+                    .then(PRIZE_MILLIS, inGame(generation, this::loadNextQuestion));
         } else {
-            JOptionPane.showMessageDialog(this, "Wrong answer! The correct answer was: " + currentQuestion.getCorrectAnswer());
-            StopGame(); // End the game immediately on wrong answer
-            return; // Exit the method to prevent proceeding to the next question
+            revealPipeline
+                    .then(REVEAL_MILLIS, inGame(generation, () -> messageLabel.setText(
+                            "Wrong answer! The correct answer was: " + question.getCorrectAnswer())))
+                    .then(PRIZE_MILLIS, inGame(generation, this::StopGame)); // End the game on a wrong answer
         }
+        revealPipeline.start();
+    }
 
-        currentQuestionIndex++;
-        loadNextQuestion();
+    /**
+     * Wraps a step so it only runs while the given game is still the current one.
+     */
+    private Runnable inGame(int generation, Runnable step) {
+        return () -> {
+            if (generation == gameGeneration) {
+                step.run();
+            }
+        };
     }
 
     /**
-     * Formats the button text with HTML to enable text wrapping and alignment.
-     *
-     * @param text The original button text.
-     * @return The formatted HTML string.
+     * Enables or disables the option and lifeline buttons together.
      */
-    private String formatButtonText(String text) {
-        // Using table layout to center text vertically and horizontally
-        return "<html>"
-                + "<div style='display: table; height: 100%; width: 150px; text-align: center;'>"
-                + "<span style='display: table-cell; vertical-align: middle;'>" + text + "</span>"
-                + "</div>"
-                + "</html>";
+    private void setAnswerControlsEnabled(boolean enabled) {
+        for (JButton button : optionButtons) {
+            button.setEnabled(enabled);
+        }
+        fiftyFiftyButton.setEnabled(enabled && !engine.getFiftyFiftyLifeline().isUsed());
+        hintButton.setEnabled(enabled && !engine.getHintLifeline().isUsed());
+        audienceButton.setEnabled(enabled && !engine.getAskTheAudienceLifeline().isUsed());
     }
 
     /**
-     * Records the game result to the database.
+     * Finds the option index of an option button.
+     *
+     * @param button One of the option buttons.
+     * @return Its index, 0 for option A.
      */
-    private void recordGameResult() {
-        try {
-            int lastQuestionIndex = currentQuestionIndex;
-            // If the game was completed successfully, adjust the index
-            if (currentQuestionIndex >= questions.size()) {
-                lastQuestionIndex = questions.size();
+    private int optionIndexOf(JButton button) {
+        for (int i = 0; i < optionButtons.length; i++) {
+            if (optionButtons[i] == button) {
+                return i;
             }
+        }
+        throw new IllegalArgumentException("Not an option button.");
+    }
 
-            GameResult gameResult = new GameResult(
-                    player.getName(),
-                    player.getScore(),
-                    lastQuestionIndex
-            );
+    /**
+     * Records the game result to the database. The result is handed to the
+     * background writer from a worker thread, so the EDT never waits on it,
+     * even when the writer's queue is full and it writes directly.
+     *
+     * @param whenRecorded Runs on the EDT once the result has been handed over.
+     */
+    private void recordGameResult(Runnable whenRecorded) {
+        GameResult gameResult = engine.createGameResult();
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws Exception {
+                dbInitializer.getGameResultWriter().submit(gameResult);
+                return null;
+            }
 
-            gameResultDAO.insertGameResult(gameResult);
-        } catch (Exception e) {
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Failed to record game result.",
-                    "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+            @Override
+            protected void done() {
+                try {
+                    get();
+                } catch (InterruptedException | ExecutionException e) {
+                    e.printStackTrace();
+                    JOptionPane.showMessageDialog(MillionaireGameGUI.this, "Failed to record game result.",
+                            "Database Error", JOptionPane.ERROR_MESSAGE);
+                }
+                whenRecorded.run();
+            }
+        }.execute();
     }
 
     /**
@@ -0,0 +1,162 @@
+package pdcpart2.gui;
+
+import javax.swing.JButton;
+import javax.swing.UIManager;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Insets;
+import java.awt.RenderingHints;
+import java.awt.font.FontRenderContext;
+import java.awt.font.LineBreakMeasurer;
+import java.awt.font.TextAttribute;
+import java.awt.font.TextLayout;
+import java.text.AttributedString;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * OptionTile is an answer button that draws its option text itself, wrapped
+ * at word boundaries and centred both ways, instead of laying out an HTML
+ * label for every question.
+ *
+ * The text is broken into lines with a LineBreakMeasurer and the resulting
+ * TextLayouts are kept until the text, the font or the tile's width changes,
+ * so repaints (for example when the background colour changes during the
+ * answer reveal) only draw the cached lines. The button itself has no text;
+ * it still behaves as a normal JButton for clicks, enabling and colours, and
+ * the option text is exposed as its accessible name.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class OptionTile extends JButton {
+
+    private static final int PREFERRED_LINES = 2;
+
+    private String optionText = "";
+
+    // Layout cache, valid for the text, font, render context and width it was made for
+    private List<TextLayout> lines = new ArrayList<>();
+    private float linesHeight;
+    private Font layoutFont;
+    private FontRenderContext layoutContext;
+    private int layoutWidth = -1;
+
+    /**
+     * Constructor to create an empty tile.
+     */
+    public OptionTile() {
+        super();
+    }
+
+    /**
+     * Sets the option text shown on the tile.
+     *
+     * @param text The option text, drawn as plain text.
+     */
+    public void setOptionText(String text) {
+        String newText = text == null ? "" : text;
+        if (newText.equals(optionText)) {
+            return;
+        }
+        optionText = newText;
+        layoutWidth = -1;
+        getAccessibleContext().setAccessibleName(newText);
+        revalidate();
+        repaint();
+    }
+
+    /**
+     * @return The option text shown on the tile.
+     */
+    public String getOptionText() {
+        return optionText;
+    }
+
+    /**
+     * @return The number of lines the text was wrapped into when the tile
+     *         was last painted, or 0 if it has not been painted at its
+     *         current text and width.
+     */
+    public int getLineCount() {
+        return layoutWidth < 0 ? 0 : lines.size();
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        if (isPreferredSizeSet()) {
+            return super.getPreferredSize();
+        }
+        Dimension size = super.getPreferredSize();
+        Insets insets = getInsets();
+        FontMetrics metrics = getFontMetrics(getFont());
+        size.height = Math.max(size.height, insets.top + insets.bottom + metrics.getHeight() * PREFERRED_LINES);
+        return size;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g); // Background and border from the look and feel
+        if (optionText.isEmpty()) {
+            return;
+        }
+
+        Graphics2D g2 = (Graphics2D) g.create();
+        try {
+            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            Insets insets = getInsets();
+            int width = getWidth() - insets.left - insets.right;
+            int height = getHeight() - insets.top - insets.bottom;
+            if (width <= 0) {
+                return;
+            }
+            wrapLines(g2.getFontRenderContext(), width);
+
+            Color color = isEnabled() ? getForeground() : UIManager.getColor("Button.disabledText");
+            g2.setColor(color != null ? color : Color.GRAY);
+            g2.clipRect(insets.left, insets.top, width, height);
+
+            float y = insets.top + Math.max(0, (height - linesHeight) / 2);
+            for (TextLayout line : lines) {
+                y += line.getAscent();
+                float x = insets.left + (width - line.getVisibleAdvance()) / 2;
+                line.draw(g2, x, y);
+                y += line.getDescent() + line.getLeading();
+            }
+        } finally {
+            g2.dispose();
+        }
+    }
+
+    /**
+     * Breaks the text into lines for the given width, unless the cached
+     * lines were made for the same text, font, render context and width.
+     */
+    private void wrapLines(FontRenderContext context, int width) {
+        Font font = getFont();
+        if (width == layoutWidth && font.equals(layoutFont) && context.equals(layoutContext)) {
+            return;
+        }
+
+        AttributedString attributed = new AttributedString(optionText);
+        attributed.addAttribute(TextAttribute.FONT, font);
+        LineBreakMeasurer measurer = new LineBreakMeasurer(attributed.getIterator(), context);
+        List<TextLayout> newLines = new ArrayList<>();
+        float height = 0;
+        while (measurer.getPosition() < optionText.length()) {
+            TextLayout line = measurer.nextLayout(width);
+            newLines.add(line);
+            height += line.getAscent() + line.getDescent() + line.getLeading();
+        }
+
+        lines = newLines;
+        linesHeight = height;
+        layoutFont = font;
+        layoutContext = context;
+        layoutWidth = width;
+    }
+}
@@ -0,0 +1,104 @@
+
+package pdcpart2.gui;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import javax.swing.Timer;
+
+/**
+ * RevealPipeline runs a sequence of UI steps with a delay before each one,
+ * for example the suspense pause, the answer highlight, the prize update and
+ * the next question.
+ *
+ * The delays are driven by a single-shot Swing Timer, so every step runs on
+ * the Event Dispatch Thread and nothing sleeps while the UI waits. A pipeline
+ * can be cancelled at any point, which drops the steps that have not run yet.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class RevealPipeline {
+
+    private final Deque<Step> steps = new ArrayDeque<>();
+    private final Timer timer;
+    private Step current;
+    private boolean cancelled;
+
+    /**
+     * Constructor to create an empty pipeline.
+     */
+    public RevealPipeline() {
+        timer = new Timer(0, e -> runCurrent());
+        timer.setRepeats(false);
+    }
+
+    /**
+     * Adds a step to the end of the pipeline.
+     *
+     * @param delayMillis How long to wait after the previous step before this one runs.
+     * @param action The step to run on the EDT.
+     * @return This pipeline, for chaining.
+     */
+    public RevealPipeline then(int delayMillis, Runnable action) {
+        steps.add(new Step(delayMillis, action));
+        return this;
+    }
+
+    /**
+     * Starts running the steps. Must be called on the EDT.
+     */
+    public void start() {
+        scheduleNext();
+    }
+
+    /**
+     * Stops the pipeline; steps that have not run yet are skipped.
+     */
+    public void cancel() {
+        cancelled = true;
+        timer.stop();
+        steps.clear();
+    }
+
+    /**
+     * @return true while steps are still waiting to run.
+     */
+    public boolean isRunning() {
+        return !cancelled && (current != null || !steps.isEmpty());
+    }
+
+    private void scheduleNext() {
+        current = steps.poll();
+        if (current == null || cancelled) {
+            current = null;
+            return;
+        }
+        if (current.delayMillis <= 0) {
+            runCurrent();
+        } else {
+            timer.setInitialDelay(current.delayMillis);
+            timer.restart();
+        }
+    }
+
+    private void runCurrent() {
+        if (cancelled || current == null) {
+            return;
+        }
+        current.action.run();
+        scheduleNext();
+    }
+
+    /**
+     * A delay followed by an action.
+     */
+    private static final class Step {
+        private final int delayMillis;
+        private final Runnable action;
+
+        private Step(int delayMillis, Runnable action) {
+            this.delayMillis = delayMillis;
+            this.action = action;
+        }
+    }
+}
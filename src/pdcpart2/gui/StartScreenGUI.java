@@ -1,9 +1,11 @@
 package pdcpart2.gui;
 
 import javax.swing.*;
+import javax.swing.border.TitledBorder;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import pdcpart2.dao.GameResultDAO;
 import pdcpart2.interfaces.GameControl;
@@ -11,59 +13,150 @@ import pdcpart2.model.GameResult;
 import pdcpart2.model.Player;
 import pdcpart2.util.DatabaseInitializer;
 import pdcpart2.util.FontLoader;
+import pdcpart2.util.StartupOrchestrator;
+import pdcpart2.util.TieredQuestionSelector;
 
 /**
  * StartScreenGUI prompts the player to enter their name before starting the
- * game. It creates a Player object and passes it to the MillionaireGameGUI.
- * Utilizes Derby Embedded mode for database connectivity.
+ * game. It creates a Player object and asks the GameWindow to start a game
+ * for it on the MillionaireGameGUI screen. Utilizes Derby Embedded mode for
+ * database connectivity.
  *
- * Additionally, it displays a table of previous game results.
+ * Additionally, it displays a table of previous game results. The rows are
+ * loaded page by page as the table is scrolled, and the table is refreshed
+ * in place each time the player returns to this screen.
+ *
+ * The screen is shown straight away with a default font. Loading the custom
+ * font, booting the database and reading the first page of results run in
+ * parallel on a StartupOrchestrator, and the screen fills in as each one
+ * finishes: the font is applied, the start button is enabled and the results
+ * appear. Once the database is up, the question selector and the answer
+ * statistics are warmed up in the background so the first game starts quickly.
  *
  * Author: Setefano Muller
  *         Tharuka Rodrigo
  */
-public class StartScreenGUI extends JFrame implements GameControl {
+public class StartScreenGUI extends JPanel implements GameControl {
+
+    private static final String DATABASE_PATH = "QuestionDB";
+    private static final Font DEFAULT_FONT = new Font(Font.DIALOG, Font.PLAIN, 24); // Until the custom font is loaded
 
-    private DatabaseInitializer dbInitializer;
+    private final GameWindow window;
     private JTextField nameField;
     private JLabel titleLabel;
+    private JLabel nameLabel;
     private JButton startButton;
     private JButton quitButton;
-    private Font customFont;
+    private boolean customFontLoaded;
 
     // Components for displaying game results
     private JTable resultsTable;
-    private DefaultTableModel tableModel;
-
-    private GameResultDAO gameResultDAO;
+    private TitledBorder resultsBorder;
+    private GameResultsTableModel tableModel;
 
-    public StartScreenGUI() {
-        // Load custom font using FontLoader
-        customFont = FontLoader.loadFont("src/pdcpart2/fonts/MesloLGS NF Regular.ttf", 24f); // Adjust size as needed
-
-        // Initialize DAO
-        gameResultDAO = new GameResultDAO();
+    /**
+     * Constructor that builds the start screen and fills it in as the
+     * start-up phases complete. Must be called on the EDT.
+     *
+     * @param window The window showing this screen.
+     * @param startup The orchestrator to run the start-up phases on.
+     */
+    public StartScreenGUI(GameWindow window, StartupOrchestrator startup) {
+        this.window = window;
+
+        // Start the slow work first so it overlaps with building the frame
+        CompletableFuture<Font> font = startup.phase("font", () -> FontLoader.getGameFont(Font.PLAIN, 24f));
+        CompletableFuture<DatabaseInitializer> database = startup.phase("database",
+                () -> DatabaseInitializer.getInstance(DATABASE_PATH));
+        CompletableFuture<InitialResults> results = startup.phase("results", database, db -> {
+            GameResultDAO dao = new GameResultDAO(db.getConnectionPool());
+            return new InitialResults(dao, dao.countRecordedGames(),
+                    dao.getGameResultsPage(null, GameResultsTableModel.PAGE_SIZE));
+        });
+        startup.phase("warmup", database, db -> {
+            db.getAnswerStatistics();
+            return TieredQuestionSelector.getInstance(DATABASE_PATH).selectGame();
+        });
 
-        // Frame setup
-        setTitle("Who Wants to Become a Millionaire");
-        setSize(1000, 600); // Adjusted size for better balance
-        setDefaultCloseOperation(EXIT_ON_CLOSE);
+        // Create and add main panels
         setLayout(new BorderLayout());
-        setResizable(true); // Allow frame to be resizable
-        setMinimumSize(new Dimension(800, 600)); // Set minimum size
+        add(createTitlePanel(), BorderLayout.NORTH);
+        add(createMainContentPanel(), BorderLayout.CENTER);
+        applyFonts();
+
+        // Fill in the screen as each phase completes
+        font.thenAcceptAsync(loaded -> {
+            customFontLoaded = true;
+            applyFonts();
+        }, SwingUtilities::invokeLater);
+        database.whenCompleteAsync((db, error) -> {
+            if (error != null) {
+                error.printStackTrace();
+                JOptionPane.showMessageDialog(this, "Failed to open the game database.",
+                        "Database Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            window.setDatabase(db);
+            startButton.setText("Start Game");
+            startButton.setEnabled(true);
+        }, SwingUtilities::invokeLater);
+        results.whenCompleteAsync((loaded, error) -> {
+            if (error != null) {
+                error.printStackTrace();
+                JOptionPane.showMessageDialog(this, "Failed to load game results.",
+                        "Database Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            showResults(loaded);
+        }, SwingUtilities::invokeLater);
+    }
 
-        // Center the window on the screen
-        setLocationRelativeTo(null);
+    /**
+     * Prepares the screen for the next player: counts the results again,
+     * including the game just played, and clears the name. Must be called on
+     * the EDT.
+     */
+    public void refresh() {
+        if (tableModel != null) {
+            tableModel.refresh();
+        }
+        nameField.setText("");
+        nameField.requestFocusInWindow();
+    }
 
-        // Initialize and populate the database
-        dbInitializer = DatabaseInitializer.getInstance("QuestionDB");
+    /**
+     * Sets the fonts of every component. Called once with the default font
+     * and again when the custom font has loaded.
+     */
+    private void applyFonts() {
+        titleLabel.setFont(font(Font.BOLD, 32f));
+        nameLabel.setFont(font(Font.PLAIN, 18f));
+        nameField.setFont(font(Font.PLAIN, 16f));
+        startButton.setFont(font(Font.PLAIN, 16f));
+        quitButton.setFont(font(Font.PLAIN, 16f));
+        resultsBorder.setTitleFont(font(Font.BOLD, 20f));
+        resultsTable.setFont(font(Font.PLAIN, 14f));
+        resultsTable.getTableHeader().setFont(font(Font.BOLD, 16f));
+        repaint();
+    }
 
-        // Create and add main panels
-        add(createTitlePanel(), BorderLayout.NORTH);
-        add(createMainContentPanel(), BorderLayout.CENTER);
+    /**
+     * Returns the custom font in the given style and size once it has
+     * loaded, and the default font before that.
+     */
+    private Font font(int style, float size) {
+        return customFontLoaded ? FontLoader.getGameFont(style, size) : DEFAULT_FONT.deriveFont(style, size);
+    }
 
-        // Display the splash screen
-        setVisible(true);
+    /**
+     * Replaces the placeholder table model with the game results read during
+     * start-up.
+     */
+    private void showResults(InitialResults loaded) {
+        tableModel = new GameResultsTableModel(loaded.dao, e -> JOptionPane.showMessageDialog(
+                this, "Failed to load game results.", "Database Error", JOptionPane.ERROR_MESSAGE),
+                loaded.count, loaded.firstPage);
+        resultsTable.setModel(tableModel);
     }
 
     /**
@@ -77,7 +170,6 @@ public class StartScreenGUI extends JFrame implements GameControl {
         titlePanel.setLayout(new FlowLayout(FlowLayout.CENTER));
 
         titleLabel = new JLabel("Who Wants to Become a Millionaire");
-        titleLabel.setFont(customFont.deriveFont(Font.BOLD, 32f));
         titleLabel.setForeground(Color.WHITE);
         titlePanel.add(titleLabel);
 
@@ -114,23 +206,20 @@ public class StartScreenGUI extends JFrame implements GameControl {
         inputPanel.setLayout(new FlowLayout(FlowLayout.CENTER, 20, 10));
         inputPanel.setBackground(new Color(230, 230, 250)); // Match main content background
 
-        JLabel nameLabel = new JLabel("Enter your name: ");
-        nameLabel.setFont(customFont.deriveFont(18f));
+        nameLabel = new JLabel("Enter your name: ");
         nameLabel.setForeground(new Color(0, 0, 128));
 
         nameField = new JTextField(15);
-        nameField.setFont(customFont.deriveFont(16f));
 
-        // Start Button
-        startButton = new JButton("Start Game");
-        startButton.setFont(customFont.deriveFont(16f));
+        // Start Button, enabled once the database is ready
+        startButton = new JButton("Loading...");
+        startButton.setEnabled(false);
         startButton.setBackground(new Color(60, 179, 113));
         startButton.setForeground(Color.BLACK);
         startButton.setFocusPainted(false);
 
         // Quit Button
         quitButton = new JButton("Quit Game");
-        quitButton.setFont(customFont.deriveFont(16f));
         startButton.setBackground(new Color(60, 179, 113));
         startButton.setForeground(Color.BLACK);
         startButton.setFocusPainted(false);
@@ -162,42 +251,26 @@ public class StartScreenGUI extends JFrame implements GameControl {
         JPanel resultsPanel = new JPanel();
         resultsPanel.setLayout(new BorderLayout());
         resultsPanel.setBackground(new Color(230, 230, 250)); // Match main content background
-        resultsPanel.setBorder(BorderFactory.createTitledBorder(
+        resultsBorder = BorderFactory.createTitledBorder(
                 BorderFactory.createLineBorder(new Color(72, 61, 139)), // Example color: Dark Slate Blue
                 "Previous Game Results",
                 SwingConstants.CENTER,
                 SwingConstants.TOP,
-                customFont.deriveFont(Font.BOLD, 20f),
+                font(Font.BOLD, 20f),
                 new Color(72, 61, 139)
-        ));
-
-        // Table columns
-        String[] columnNames = {"Player Name", "Score", "Last Question Answered", "Date & Time"};
-
-        // Initialize table model
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            // Make cells non-editable
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        );
+        resultsPanel.setBorder(resultsBorder);
 
-        // Initialize JTable
-        resultsTable = new JTable(tableModel);
-        resultsTable.setFont(customFont.deriveFont(14f));
+        // Initialize JTable with a placeholder until the results are read
+        resultsTable = new JTable(new DefaultTableModel(new Object[]{"Loading game results..."}, 0));
         resultsTable.setRowHeight(25);
-        resultsTable.getTableHeader().setFont(customFont.deriveFont(Font.BOLD, 16f));
         resultsTable.getTableHeader().setForeground(Color.WHITE);
         resultsTable.getTableHeader().setBackground(new Color(72, 61, 139)); // Dark Slate Blue
         resultsTable.setFillsViewportHeight(true);
         resultsTable.setBackground(new Color(245, 245, 245)); // White Smoke
 
-        // Enable sorting
-        resultsTable.setAutoCreateRowSorter(true);
-
-        // Load game results and populate the table
-        loadGameResults();
+        // Sorting is not enabled: a row sorter would read every row and defeat
+        // the paged loading. Results are already shown newest first.
 
         // Add the table to a scroll pane
         JScrollPane tableScrollPane = new JScrollPane(resultsTable);
@@ -208,35 +281,12 @@ public class StartScreenGUI extends JFrame implements GameControl {
         return resultsPanel;
     }
 
-    /**
-     * Loads game results from the database and populates the table.
-     */
-    private void loadGameResults() {
-        try {
-            List<GameResult> results = gameResultDAO.getAllGameResults();
-            for (GameResult result : results) {
-                Object[] rowData = {
-                    result.getPlayerName(),
-                    "$" + result.getScore(),
-                    result.getLastQuestionIndex(),
-                    result.getTimestamp().toString()
-                };
-                tableModel.addRow(rowData);
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Failed to load game results.",
-                    "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
-    }
-
     @Override
     public void StartGame() {
         String playerName = nameField.getText().trim();
         if (!playerName.isEmpty()) {
             Player player = new Player(playerName); // Create Player object
-            dispose(); // Close the start screen
-            new MillionaireGameGUI(player); // Start the main game with Player object
+            window.showGame(player); // Start the main game with Player object
         } else {
             JOptionPane.showMessageDialog(StartScreenGUI.this, "Please enter your name to start the game.",
                     "Input Required", JOptionPane.WARNING_MESSAGE);
@@ -254,13 +304,22 @@ public class StartScreenGUI extends JFrame implements GameControl {
         );
 
         if (confirm == JOptionPane.YES_OPTION) {
-            dbInitializer.shutdownDatabase();
-            System.exit(0);
+            window.exit();
         }
     }
 
-    public static void main(String[] args) {
-        // Initlize and Start game
-        new StartScreenGUI();
+    /**
+     * The results count and first page read during start-up.
+     */
+    private static final class InitialResults {
+        private final GameResultDAO dao;
+        private final int count;
+        private final List<GameResult> firstPage;
+
+        private InitialResults(GameResultDAO dao, int count, List<GameResult> firstPage) {
+            this.dao = dao;
+            this.count = count;
+            this.firstPage = firstPage;
+        }
     }
 }
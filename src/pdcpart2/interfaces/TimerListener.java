@@ -13,5 +13,14 @@ public interface TimerListener {
      * This method is called when the countdown timer reaches zero.
      */
     void timerExpired();
+
+    /**
+     * This method is called while the countdown is running, each time the
+     * number of whole seconds left changes.
+     *
+     * @param secondsLeft The seconds left, rounded up.
+     */
+    default void timerTicked(int secondsLeft) {
+    }
 }
 
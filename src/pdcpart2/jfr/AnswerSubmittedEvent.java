@@ -0,0 +1,55 @@
+
+package pdcpart2.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event spanning an answer from the click until it has been
+ * checked and handed back to the event dispatch thread. The time the player
+ * took to answer is recorded as a field.
+ *
+ * Call begin() when the answer is submitted and finish(...) when it has been
+ * checked.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+@Name("pdcpart2.AnswerSubmitted")
+@Label("Answer Submitted")
+@Category({"PDCPart2", "Game"})
+@Description("An answer was submitted and checked")
+public final class AnswerSubmittedEvent extends Event {
+
+    @Label("Level")
+    private int level;
+
+    @Label("Correct")
+    private boolean correct;
+
+    @Label("Answer Time")
+    @Description("Time from the question being shown to the answer being submitted")
+    @Timespan(Timespan.NANOSECONDS)
+    private long answerTime;
+
+    /**
+     * Ends the event and commits it, if it is enabled and over its threshold.
+     *
+     * @param level The prize level of the question, starting at 1.
+     * @param correct Whether the answer was correct.
+     * @param answerNanos The time the player took to answer.
+     */
+    public void finish(int level, boolean correct, long answerNanos) {
+        end();
+        if (shouldCommit()) {
+            this.level = level;
+            this.correct = correct;
+            this.answerTime = answerNanos;
+            commit();
+        }
+    }
+}
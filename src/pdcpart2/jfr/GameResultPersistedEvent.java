@@ -0,0 +1,50 @@
+
+package pdcpart2.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event spanning one transaction that stores game results,
+ * from borrowing the connection to giving it back.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+@Name("pdcpart2.GameResultPersisted")
+@Label("Game Result Persisted")
+@Category({"PDCPart2", "Database"})
+@Description("Game results were written to Game_Results and Player_Stats")
+public final class GameResultPersistedEvent extends Event {
+
+    @Label("Results")
+    @Description("The number of results in the transaction")
+    private int results;
+
+    @Label("Player Name")
+    @Description("The player, when a single result was stored")
+    private String playerName;
+
+    @Label("Committed")
+    private boolean committed;
+
+    /**
+     * Ends the event and commits it, if it is enabled and over its threshold.
+     *
+     * @param results The number of results stored.
+     * @param playerName The player for a single result, or null for a batch.
+     * @param committed Whether the transaction was committed.
+     */
+    public void finish(int results, String playerName, boolean committed) {
+        end();
+        if (shouldCommit()) {
+            this.results = results;
+            this.playerName = playerName;
+            this.committed = committed;
+            commit();
+        }
+    }
+}
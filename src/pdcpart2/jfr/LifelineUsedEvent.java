@@ -0,0 +1,58 @@
+
+package pdcpart2.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event spanning one use of a lifeline. Lifelines call start()
+ * so that nothing is allocated while no recording has the event enabled.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+@Name("pdcpart2.LifelineUsed")
+@Label("Lifeline Used")
+@Category({"PDCPart2", "Game"})
+public final class LifelineUsedEvent extends Event {
+
+    private static final EventType TYPE = EventType.getEventType(LifelineUsedEvent.class);
+
+    @Label("Lifeline")
+    private String lifeline;
+
+    @Label("Applied")
+    private boolean applied;
+
+    /**
+     * Begins a new event if a recording has it enabled.
+     *
+     * @return The started event, or null if the event is disabled.
+     */
+    public static LifelineUsedEvent start() {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+        LifelineUsedEvent event = new LifelineUsedEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the event and commits it, if it is enabled and over its threshold.
+     *
+     * @param lifeline The lifeline's name.
+     * @param applied Whether the lifeline had any effect.
+     */
+    public void finish(String lifeline, boolean applied) {
+        end();
+        if (shouldCommit()) {
+            this.lifeline = lifeline;
+            this.applied = applied;
+            commit();
+        }
+    }
+}
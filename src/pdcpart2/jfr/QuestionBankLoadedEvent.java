@@ -0,0 +1,40 @@
+
+package pdcpart2.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event spanning a load of the whole question bank.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+@Name("pdcpart2.QuestionBankLoaded")
+@Label("Question Bank Loaded")
+@Category({"PDCPart2", "Database"})
+public final class QuestionBankLoadedEvent extends Event {
+
+    @Label("Questions")
+    private int questions;
+
+    @Label("Skipped")
+    private int skipped;
+
+    /**
+     * Ends the event and commits it, if it is enabled and over its threshold.
+     *
+     * @param questions The number of questions loaded.
+     * @param skipped The number of rows left out as invalid.
+     */
+    public void finish(int questions, int skipped) {
+        end();
+        if (shouldCommit()) {
+            this.questions = questions;
+            this.skipped = skipped;
+            commit();
+        }
+    }
+}
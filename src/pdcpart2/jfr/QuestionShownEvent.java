@@ -0,0 +1,49 @@
+
+package pdcpart2.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import pdcpart2.model.Question;
+
+/**
+ * Flight Recorder event committed when a question is put in front of the
+ * player.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+@Name("pdcpart2.QuestionShown")
+@Label("Question Shown")
+@Category({"PDCPart2", "Game"})
+@Description("A question was shown to the player")
+public final class QuestionShownEvent extends Event {
+
+    @Label("Level")
+    @Description("The prize level of the question, starting at 1")
+    private int level;
+
+    @Label("Difficulty")
+    private int difficulty;
+
+    @Label("Question")
+    private String question;
+
+    /**
+     * Records that a question was shown, if the event is enabled.
+     *
+     * @param level The prize level, starting at 1.
+     * @param shown The question shown.
+     */
+    public static void emit(int level, Question shown) {
+        QuestionShownEvent event = new QuestionShownEvent();
+        if (event.shouldCommit()) {
+            event.level = level;
+            event.difficulty = shown.getDifficulty();
+            event.question = shown.getQuestionText();
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,182 @@
+
+package pdcpart2.jfr;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import jdk.jfr.Configuration;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * RecordingSummary reads a Flight Recorder file and sums up every event type
+ * in it: how many events there were and how long they took in total, on
+ * average, at the 99th percentile and at most. The game's own events are
+ * listed first, then the JDK events from the bundled settings, so a slow
+ * answer can be compared with the lock waits and Derby I/O around it.
+ * Events committed on the event dispatch thread are also counted separately.
+ *
+ * Usage: java -cp ... pdcpart2.jfr.RecordingSummary recording.jfr
+ * or:    ant jfr-summary -Djfr.file=recording.jfr
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class RecordingSummary {
+
+    /**
+     * The name of the bundled Flight Recorder settings, on the classpath
+     * next to this class.
+     */
+    public static final String SETTINGS_RESOURCE = "pdcpart2.jfc";
+
+    private static final String GAME_EVENT_PREFIX = "pdcpart2.";
+    private static final String EDT_THREAD_PREFIX = "AWT-EventQueue";
+
+    private final Map<String, EventStats> statsByType = new TreeMap<>((a, b) -> {
+        boolean gameA = a.startsWith(GAME_EVENT_PREFIX);
+        boolean gameB = b.startsWith(GAME_EVENT_PREFIX);
+        return gameA != gameB ? (gameA ? -1 : 1) : a.compareTo(b);
+    });
+
+    private RecordingSummary() {
+    }
+
+    /**
+     * Reads a recording and sums up its events.
+     *
+     * @param recording The .jfr file.
+     * @return The summary.
+     * @throws IOException If the file cannot be read or is not a recording.
+     */
+    public static RecordingSummary read(Path recording) throws IOException {
+        RecordingSummary summary = new RecordingSummary();
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                summary.add(file.readEvent());
+            }
+        }
+        return summary;
+    }
+
+    /**
+     * Loads the bundled settings, for starting a recording from code.
+     *
+     * @return The settings.
+     * @throws IOException If the settings cannot be read.
+     */
+    public static Configuration loadSettings() throws IOException {
+        InputStream in = RecordingSummary.class.getResourceAsStream(SETTINGS_RESOURCE);
+        if (in == null) {
+            throw new IOException("Missing " + SETTINGS_RESOURCE + " on the classpath.");
+        }
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            return Configuration.create(reader);
+        } catch (ParseException e) {
+            throw new IOException("Invalid " + SETTINGS_RESOURCE + ": " + e.getMessage(), e);
+        }
+    }
+
+    private void add(RecordedEvent event) {
+        EventStats stats = statsByType.computeIfAbsent(event.getEventType().getName(), name -> new EventStats());
+        RecordedThread thread = event.getThread();
+        boolean onEdt = thread != null && thread.getJavaName() != null
+                && thread.getJavaName().startsWith(EDT_THREAD_PREFIX);
+        stats.add(event.getDuration().toNanos(), onEdt);
+    }
+
+    /**
+     * @return The names of the event types in the recording, the game's own first.
+     */
+    public Set<String> getEventTypes() {
+        return Collections.unmodifiableSet(statsByType.keySet());
+    }
+
+    /**
+     * @param eventType An event type name, for example "pdcpart2.AnswerSubmitted".
+     * @return The number of events of that type, or 0 if there were none.
+     */
+    public int getCount(String eventType) {
+        EventStats stats = statsByType.get(eventType);
+        return stats == null ? 0 : stats.count;
+    }
+
+    /**
+     * @param eventType An event type name.
+     * @return The longest duration of an event of that type in milliseconds,
+     *         or 0 if there were none.
+     */
+    public double getMaxMillis(String eventType) {
+        EventStats stats = statsByType.get(eventType);
+        return stats == null ? 0 : stats.maxNanos / 1e6;
+    }
+
+    /**
+     * Prints one line per event type.
+     *
+     * @param out Where to print the summary.
+     */
+    public void print(PrintStream out) {
+        out.printf("%-32s %8s %8s %12s %10s %10s %10s%n",
+                "Event", "Count", "On EDT", "Total ms", "Mean ms", "p99 ms", "Max ms");
+        statsByType.forEach((type, stats) -> out.printf("%-32s %8d %8d %12.1f %10.2f %10.2f %10.2f%n",
+                type, stats.count, stats.edtCount, stats.totalNanos / 1e6,
+                stats.totalNanos / 1e6 / stats.count, stats.percentileNanos(0.99) / 1e6, stats.maxNanos / 1e6));
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.err.println("Usage: RecordingSummary <recording.jfr>");
+            System.exit(2);
+        }
+        try {
+            read(Paths.get(args[0])).print(System.out);
+        } catch (IOException e) {
+            System.err.println("Error reading the recording " + args[0] + ".");
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * The durations of one event type.
+     */
+    private static final class EventStats {
+        private long[] durations = new long[16];
+        private int count;
+        private int edtCount;
+        private long totalNanos;
+        private long maxNanos;
+
+        private void add(long nanos, boolean onEdt) {
+            if (count == durations.length) {
+                durations = Arrays.copyOf(durations, count * 2);
+            }
+            durations[count++] = nanos;
+            if (onEdt) {
+                edtCount++;
+            }
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        private long percentileNanos(double quantile) {
+            long[] sorted = Arrays.copyOf(durations, count);
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(quantile * count);
+            return sorted[Math.max(0, rank - 1)];
+        }
+    }
+}
@@ -0,0 +1,37 @@
+
+package pdcpart2.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event committed when the player runs out of time.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+@Name("pdcpart2.TimerExpired")
+@Label("Timer Expired")
+@Category({"PDCPart2", "Game"})
+public final class TimerExpiredEvent extends Event {
+
+    @Label("Time Limit")
+    @Timespan(Timespan.SECONDS)
+    private long timeLimit;
+
+    /**
+     * Records that a question timer ran out, if the event is enabled.
+     *
+     * @param seconds The time the player had to answer.
+     */
+    public static void emit(int seconds) {
+        TimerExpiredEvent event = new TimerExpiredEvent();
+        if (event.shouldCommit()) {
+            event.timeLimit = seconds;
+            event.commit();
+        }
+    }
+}
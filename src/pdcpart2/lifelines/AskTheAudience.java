@@ -0,0 +1,145 @@
+
+package pdcpart2.lifelines;
+
+import pdcpart2.model.Question;
+import pdcpart2.util.AnswerStatistics;
+
+/**
+ * AskTheAudience lifeline shows how the audience votes on the current
+ * question, built from how real players have answered it.
+ *
+ * The votes are read from AnswerStatistics in memory, so the lifeline never
+ * waits for the database while the countdown is running. While a question
+ * has fewer than MIN_VOTES real answers, the missing votes come from a
+ * simulated audience that leans towards the correct answer, less so the
+ * higher the question's tier; as real answers come in they take over.
+ * Options removed from the question by 50:50 get no votes; the audience
+ * only chooses between the options still on the board.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class AskTheAudience extends Lifeline {
+
+    public static final int MIN_VOTES = 100;
+
+    private static final LifelineResult ALREADY_USED =
+            new LifelineResult(false, 0, "You have already used the Ask the Audience lifeline.");
+    private static final char[] LETTERS = {'A', 'B', 'C', 'D'};
+
+    private final AnswerStatistics answerStatistics;
+    private final FiftyFifty fiftyFifty;
+
+    /**
+     * Constructor to create the lifeline over the given statistics.
+     *
+     * @param answerStatistics The answers players have given so far.
+     */
+    public AskTheAudience(AnswerStatistics answerStatistics) {
+        this(answerStatistics, null);
+    }
+
+    /**
+     * Constructor to create the lifeline for a game that also has a 50:50.
+     *
+     * @param answerStatistics The answers players have given so far.
+     * @param fiftyFifty The game's 50:50, whose removed options get no votes.
+     */
+    public AskTheAudience(AnswerStatistics answerStatistics, FiftyFifty fiftyFifty) {
+        this.answerStatistics = answerStatistics;
+        this.fiftyFifty = fiftyFifty;
+    }
+
+    /**
+     * Implements the Ask the Audience lifeline by polling the audience.
+     *
+     * @param question The current Question object.
+     * @return The result, with the percentage of the vote for each option.
+     */
+    @Override
+    protected LifelineResult apply(Question question) {
+        if (isUsed) {
+            return ALREADY_USED;
+        }
+
+        // Only count the votes for options still on the board
+        int eliminated = fiftyFifty != null ? fiftyFifty.getEliminatedOptions(question) : 0;
+        long[] votes = new long[Question.OPTION_COUNT];
+        answerStatistics.getVotes(question, votes);
+        long total = 0;
+        int remaining = 0;
+        for (int i = 0; i < votes.length; i++) {
+            if ((eliminated & (1 << i)) != 0) {
+                votes[i] = 0;
+            } else {
+                total += votes[i];
+                remaining++;
+            }
+        }
+
+        double[] shares = new double[Question.OPTION_COUNT];
+        if (total < MIN_VOTES) {
+            // Fill the missing votes from the simulated audience
+            long simulated = MIN_VOTES - total;
+            double correctShare = simulatedCorrectShare(question.getDifficulty());
+            double otherShare = (1 - correctShare) / (remaining - 1);
+            for (int i = 0; i < shares.length; i++) {
+                if ((eliminated & (1 << i)) == 0) {
+                    shares[i] = votes[i] + simulated * (question.isCorrect(i) ? correctShare : otherShare);
+                }
+            }
+            total = MIN_VOTES;
+        } else {
+            for (int i = 0; i < shares.length; i++) {
+                shares[i] = votes[i];
+            }
+        }
+
+        int[] percentages = toPercentages(shares, total);
+        StringBuilder message = new StringBuilder("The audience votes:");
+        for (int i = 0; i < percentages.length; i++) {
+            message.append(' ').append(LETTERS[i]).append(' ').append(percentages[i]).append('%');
+        }
+
+        isUsed = true;  // Mark the lifeline as used
+        return new LifelineResult(true, 0, message.toString(), percentages);
+    }
+
+    /**
+     * The simulated audience picks the correct answer 70% of the time on the
+     * first question, falling to 28% on the last. Unrated questions get 50%.
+     */
+    private static double simulatedCorrectShare(int difficulty) {
+        if (difficulty == Question.UNRATED) {
+            return 0.5;
+        }
+        return 0.7 - 0.03 * (difficulty - 1);
+    }
+
+    /**
+     * Rounds the shares to whole percentages that add up to 100, giving the
+     * points lost to rounding to the largest remainders.
+     */
+    private static int[] toPercentages(double[] shares, long total) {
+        int[] percentages = new int[shares.length];
+        double[] remainders = new double[shares.length];
+        int assigned = 0;
+        for (int i = 0; i < shares.length; i++) {
+            double exact = shares[i] * 100 / total;
+            percentages[i] = (int) exact;
+            remainders[i] = shares[i] > 0 ? exact - percentages[i] : -1; // No points for an option nobody chose
+            assigned += percentages[i];
+        }
+        for (; assigned < 100; assigned++) {
+            int largest = 0;
+            for (int i = 1; i < remainders.length; i++) {
+                if (remainders[i] > remainders[largest]) {
+                    largest = i;
+                }
+            }
+            percentages[largest]++;
+            remainders[largest] = -1;
+        }
+        return percentages;
+    }
+}
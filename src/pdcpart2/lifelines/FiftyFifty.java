@@ -2,52 +2,87 @@
 package pdcpart2.lifelines;
 
 import pdcpart2.model.Question;
-import javax.swing.JButton;
-import javax.swing.JLabel;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * FiftyFifty lifeline removes two incorrect answers from the available options.
  * It ensures that the correct answer remains enabled.
+ *
+ * The one incorrect option that is kept is drawn with a single random number,
+ * so the lifeline takes the same time on every call. The results for every
+ * possible elimination are built once and shared, so using the lifeline does
+ * not allocate. Pass a seeded SplittableRandom to make the choice repeatable.
  * 
  * Author: Setefano Muller 
  *         Tharuka Rodrigo
  */
 public class FiftyFifty extends Lifeline {
 
+    private static final LifelineResult ALREADY_USED =
+            new LifelineResult(false, 0, "You have already used the 50:50 lifeline.");
+    private static final LifelineResult[] ELIMINATIONS = new LifelineResult[1 << Question.OPTION_COUNT];
+    private static final int ALL_OPTIONS = (1 << Question.OPTION_COUNT) - 1;
+
+    static {
+        for (int mask = 0; mask < ELIMINATIONS.length; mask++) {
+            ELIMINATIONS[mask] = new LifelineResult(true, mask, "50:50 Lifeline activated!");
+        }
+    }
+
+    private final SplittableRandom random;
+    private Question usedOn; // The question the options were removed from
+    private int eliminatedOptions;
+
+    /**
+     * Constructor to create the lifeline with an unseeded random source.
+     */
+    public FiftyFifty() {
+        this(new SplittableRandom());
+    }
+
+    /**
+     * Constructor to create the lifeline with the given random source.
+     *
+     * @param random The source of the eliminated options. Not thread-safe, so
+     *               it should not be shared with another thread.
+     */
+    public FiftyFifty(SplittableRandom random) {
+        this.random = random;
+    }
+
     /**
      * Implements the 50:50 lifeline logic by removing two incorrect answers.
      * 
-     * @param question The current Question object to access correct and incorrect options.
-     * @param optionButtons The array of option buttons in the GUI.
-     * @param messageLabel The label to display messages in the GUI.
+     * @param question The current Question object to access the correct option.
+     * @return The result, with the two incorrect options that were removed.
      */
     @Override
-    public void useLifeline(Question question, JButton[] optionButtons, JLabel messageLabel) {
+    protected LifelineResult apply(Question question) {
         if (isUsed) {
-            messageLabel.setText("You have already used the 50:50 lifeline.");
-            return;
+            return ALREADY_USED;
         }
 
-        messageLabel.setText("50:50 Lifeline activated!");
-        Random random = new Random();
-        String correctAnswer = question.getCorrectAnswer();
-        int removed = 0;
-
-        // Disable two incorrect options randomly
-        while (removed < 2) {
-            int randIndex = random.nextInt(optionButtons.length);
-            JButton selectedButton = optionButtons[randIndex];
-            String selectedAnswer = selectedButton.getActionCommand(); // Use ActionCommand
-
-            if (!selectedAnswer.equals(correctAnswer) && selectedButton.isEnabled()) {
-                selectedButton.setEnabled(false); // Disable the incorrect option
-                removed++;
-            }
+        // Keep one random incorrect option: draw from the others, skipping the correct one
+        int correctIndex = question.getCorrectIndex();
+        int keptIndex = random.nextInt(Question.OPTION_COUNT - 1);
+        if (keptIndex >= correctIndex) {
+            keptIndex++;
         }
 
         isUsed = true;  // Mark the lifeline as used
+        usedOn = question;
+        eliminatedOptions = ALL_OPTIONS & ~(1 << correctIndex) & ~(1 << keptIndex);
+        return ELIMINATIONS[eliminatedOptions];
     }
-}
-
 
+    /**
+     * Returns the options this lifeline removed from a question.
+     *
+     * @param question The question to check.
+     * @return A bit mask with bit i set if option i was removed, or 0 if the
+     *         lifeline was not used on this question.
+     */
+    public int getEliminatedOptions(Question question) {
+        return question == usedOn ? eliminatedOptions : 0;
+    }
+}
@@ -6,31 +6,32 @@ package pdcpart2.lifelines;
  * 
  * @author setefanomuller
  */
-import javax.swing.*;
 import pdcpart2.model.Question;
 
 public class Hint extends Lifeline {
 
+    private static final LifelineResult ALREADY_USED =
+            new LifelineResult(false, 0, "You have already used the Hint lifeline.");
+    private static final LifelineResult NO_HINT =
+            new LifelineResult(true, 0, "No hint available for this question.");
+
     /**
-     * Implements the Hint lifeline logic by displaying a hint.
+     * Implements the Hint lifeline logic by returning the hint.
      *
      * @param question The current Question object to access the hint.
-     * @param optionButtons Not used in this lifeline.
-     * @param messageLabel The label to display the hint in the GUI.
+     * @return The result, with the hint as its message.
      */
     @Override
-    public void useLifeline(Question question, JButton[] optionButtons, JLabel messageLabel) {
+    protected LifelineResult apply(Question question) {
         if (isUsed) {
-            messageLabel.setText("You have already used the Hint lifeline.");
-            return;
+            return ALREADY_USED;
         }
 
+        isUsed = true;  // Mark the lifeline as used
         if (question.getHint() != null && !question.getHint().isEmpty()) {
-            messageLabel.setText("Hint: " + question.getHint());
-        } else {
-            messageLabel.setText("No hint available for this question.");
+            return new LifelineResult(true, 0, "Hint: " + question.getHint());
         }
-        isUsed = true;  // Mark the lifeline as used
+        return NO_HINT;
     }
 
 }
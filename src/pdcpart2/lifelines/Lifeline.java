@@ -2,21 +2,55 @@
 package pdcpart2.lifelines;
 
 /**
+ * Lifeline is the base class of the lifelines a player can use once per game.
+ * Using a lifeline returns a LifelineResult instead of changing any widgets,
+ * so lifelines can be used without Swing; the GUI applies the result to its
+ * buttons and labels through LifelineView.
+ *
+ * Every use is timed and recorded in the shared MetricsRegistry under
+ * "Lifeline." followed by the lifeline's class name, and committed as a
+ * LifelineUsedEvent for Flight Recorder.
  *
  * Author: Setefano Muller 
  *         Tharuka Rodrigo
  */
-import javax.swing.*;
+import pdcpart2.jfr.LifelineUsedEvent;
+import pdcpart2.metrics.LatencyHistogram;
+import pdcpart2.metrics.MetricsRegistry;
 import pdcpart2.model.Question;
 
 public abstract class Lifeline {
     protected boolean isUsed; // Common attribute for lifelines (whether the lifeline is used)
+    private final LatencyHistogram useLatency;
 
     /**
      * Constructor to initialize lifeline.
      */
     public Lifeline() {
         this.isUsed = false;
+        this.useLatency = MetricsRegistry.getShared().histogram("Lifeline." + getClass().getSimpleName());
+    }
+
+    /**
+     * Uses the lifeline on a question.
+     *
+     * @param question The current Question object.
+     * @return The outcome. If the lifeline had already been used, the result
+     *         is not applied and only carries a message saying so.
+     */
+    public final LifelineResult use(Question question) {
+        long start = System.nanoTime();
+        LifelineUsedEvent event = LifelineUsedEvent.start();
+        LifelineResult result = null;
+        try {
+            result = apply(question);
+            return result;
+        } finally {
+            useLatency.recordSince(start);
+            if (event != null) {
+                event.finish(getClass().getSimpleName(), result != null && result.isApplied());
+            }
+        }
     }
 
     /**
@@ -24,10 +58,9 @@ public abstract class Lifeline {
      * This will be implemented by subclasses.
      * 
      * @param question The current Question object.
-     * @param optionButtons The array of option buttons in the GUI.
-     * @param messageLabel The label to display messages in the GUI.
+     * @return The outcome, as described for use(Question).
      */
-    public abstract void useLifeline(Question question, JButton[] optionButtons, JLabel messageLabel);
+    protected abstract LifelineResult apply(Question question);
 
     /**
      * Checks if the lifeline has been used.
@@ -36,6 +69,3 @@ public abstract class Lifeline {
         return isUsed;
     }
 }
-
-
-
@@ -0,0 +1,104 @@
+
+package pdcpart2.lifelines;
+
+import pdcpart2.model.Question;
+
+/**
+ * LifelineResult is the outcome of using a lifeline: whether it was applied,
+ * which options it eliminated and the message to show the player. It has no
+ * dependency on Swing, so the GUI, the game server and headless simulations
+ * all read the same result and present it in their own way.
+ *
+ * Eliminated options are held as a bit mask, bit 0 for option A. A result may
+ * also carry the audience's vote for each option as a percentage. Results are
+ * immutable, so lifelines hand out shared instances where they can.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public final class LifelineResult {
+
+    private final boolean applied;
+    private final int eliminatedOptions;
+    private final String message;
+    private final int[] audiencePercentages;
+
+    /**
+     * Constructor to create a result.
+     *
+     * @param applied true if the lifeline was used by this call.
+     * @param eliminatedOptions The bit mask of eliminated options, bit 0 for A.
+     * @param message The message to show the player.
+     */
+    public LifelineResult(boolean applied, int eliminatedOptions, String message) {
+        this(applied, eliminatedOptions, message, null);
+    }
+
+    /**
+     * Constructor to create a result with the audience's votes.
+     *
+     * @param applied true if the lifeline was used by this call.
+     * @param eliminatedOptions The bit mask of eliminated options, bit 0 for A.
+     * @param message The message to show the player.
+     * @param audiencePercentages The percentage of the vote for each option,
+     *                            A first, or null if there was no vote. Not copied.
+     */
+    public LifelineResult(boolean applied, int eliminatedOptions, String message, int[] audiencePercentages) {
+        if (audiencePercentages != null && audiencePercentages.length != Question.OPTION_COUNT) {
+            throw new IllegalArgumentException("Need a percentage for each of the " + Question.OPTION_COUNT + " options.");
+        }
+        if ((eliminatedOptions & ~((1 << Question.OPTION_COUNT) - 1)) != 0) {
+            throw new IllegalArgumentException("Not an option mask: " + Integer.toBinaryString(eliminatedOptions));
+        }
+        this.applied = applied;
+        this.eliminatedOptions = eliminatedOptions;
+        this.message = message;
+        this.audiencePercentages = audiencePercentages;
+    }
+
+    /**
+     * @return true if the lifeline was used by this call, false if it had
+     *         already been used.
+     */
+    public boolean isApplied() {
+        return applied;
+    }
+
+    /**
+     * @return The bit mask of eliminated options, bit 0 for option A.
+     */
+    public int getEliminatedOptions() {
+        return eliminatedOptions;
+    }
+
+    /**
+     * @param optionIndex An option index, 0 for A.
+     * @return true if the lifeline eliminated that option.
+     */
+    public boolean isEliminated(int optionIndex) {
+        return (eliminatedOptions & (1 << optionIndex)) != 0;
+    }
+
+    /**
+     * @return The message to show the player.
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * @return true if the result carries the audience's votes.
+     */
+    public boolean hasAudienceVote() {
+        return audiencePercentages != null;
+    }
+
+    /**
+     * @param optionIndex An option index, 0 for A.
+     * @return The percentage of the audience that voted for that option, or 0
+     *         if the result has no vote.
+     */
+    public int getAudiencePercentage(int optionIndex) {
+        return audiencePercentages != null ? audiencePercentages[optionIndex] : 0;
+    }
+}
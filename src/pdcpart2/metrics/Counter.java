@@ -0,0 +1,100 @@
+
+package pdcpart2.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counter counts events and tracks how often they happen.
+ *
+ * The count is a LongAdder, so incrementing never takes a lock and threads
+ * counting at the same time do not contend. The one-minute rate is an
+ * exponentially weighted moving average updated every five seconds by
+ * whichever thread first notices the interval has passed; the others carry
+ * on without waiting.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class Counter implements CounterMBean {
+
+    private static final long TICK_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final double TICK_SECONDS = 5.0;
+    private static final double ONE_MINUTE_ALPHA = 1 - Math.exp(-TICK_SECONDS / 60.0);
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder uncounted = new LongAdder(); // Events since the last rate tick
+    private final long startNanos;
+    private final AtomicLong lastTickNanos;
+    private volatile double oneMinuteRate;
+    private volatile boolean rateInitialized;
+
+    /**
+     * Constructor to create a counter at zero.
+     */
+    public Counter() {
+        this.startNanos = System.nanoTime();
+        this.lastTickNanos = new AtomicLong(startNanos);
+    }
+
+    /**
+     * Counts one event.
+     */
+    public void increment() {
+        add(1);
+    }
+
+    /**
+     * Counts a number of events.
+     *
+     * @param events The number of events.
+     */
+    public void add(long events) {
+        tickIfNecessary();
+        count.add(events);
+        uncounted.add(events);
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public double getMeanRatePerSecond() {
+        double elapsedSeconds = (System.nanoTime() - startNanos) / 1e9;
+        return elapsedSeconds > 0 ? getCount() / elapsedSeconds : 0.0;
+    }
+
+    @Override
+    public double getOneMinuteRatePerSecond() {
+        tickIfNecessary();
+        return oneMinuteRate;
+    }
+
+    /**
+     * Folds the events of every full interval that has passed into the
+     * moving average. Only the thread that wins the compare-and-set does so.
+     */
+    private void tickIfNecessary() {
+        long last = lastTickNanos.get();
+        long age = System.nanoTime() - last;
+        if (age < TICK_NANOS) {
+            return;
+        }
+        long ticks = age / TICK_NANOS;
+        if (!lastTickNanos.compareAndSet(last, last + ticks * TICK_NANOS)) {
+            return; // Another thread is ticking
+        }
+        for (long i = 0; i < ticks; i++) {
+            double instantRate = (i == 0 ? uncounted.sumThenReset() : 0) / TICK_SECONDS;
+            if (rateInitialized) {
+                oneMinuteRate += ONE_MINUTE_ALPHA * (instantRate - oneMinuteRate);
+            } else {
+                oneMinuteRate = instantRate;
+                rateInitialized = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+
+package pdcpart2.metrics;
+
+/**
+ * JMX view of a Counter.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public interface CounterMBean {
+    long getCount();
+    double getMeanRatePerSecond();
+    double getOneMinuteRatePerSecond();
+}
@@ -0,0 +1,30 @@
+
+package pdcpart2.metrics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Gauge reports a value that is read when asked for, such as the number of
+ * connections in use.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class Gauge implements GaugeMBean {
+
+    private final LongSupplier value;
+
+    /**
+     * Constructor to create a gauge.
+     *
+     * @param value Supplies the current value. Must be safe to call from any thread.
+     */
+    public Gauge(LongSupplier value) {
+        this.value = value;
+    }
+
+    @Override
+    public long getValue() {
+        return value.getAsLong();
+    }
+}
@@ -0,0 +1,12 @@
+
+package pdcpart2.metrics;
+
+/**
+ * JMX view of a Gauge.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public interface GaugeMBean {
+    long getValue();
+}
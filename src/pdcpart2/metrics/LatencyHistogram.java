@@ -0,0 +1,175 @@
+
+package pdcpart2.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LatencyHistogram records how long an operation takes and reports its
+ * percentiles.
+ *
+ * Latencies are counted in log-linear buckets: each power of two is split
+ * into eight equal buckets, so a reported percentile is within 12.5% of the
+ * true value, from nanoseconds up to years, in a fixed array of 488 counters.
+ * Recording a latency is an index calculation and an atomic add, with no
+ * locks and no allocation. Reading the percentiles scans the array, so it is
+ * meant for monitoring, not for every call.
+ *
+ * The counts cover everything recorded since the histogram was created or
+ * last reset. The call rate is tracked by an embedded Counter.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class LatencyHistogram implements LatencyHistogramMBean {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = bucketIndex(Long.MAX_VALUE) + 1;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final Counter calls = new Counter();
+
+    /**
+     * Records one latency.
+     *
+     * @param nanos The latency in nanoseconds. Negative values count as zero.
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        buckets.incrementAndGet(bucketIndex(nanos));
+        totalNanos.add(nanos);
+        calls.increment();
+        long max = maxNanos.get();
+        while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+            max = maxNanos.get();
+        }
+    }
+
+    /**
+     * Records the time since a System.nanoTime() reading.
+     *
+     * @param startNanos The System.nanoTime() value when the operation started.
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    @Override
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            count += buckets.get(i);
+        }
+        return count;
+    }
+
+    @Override
+    public double getMeanRatePerSecond() {
+        return calls.getMeanRatePerSecond();
+    }
+
+    @Override
+    public double getOneMinuteRatePerSecond() {
+        return calls.getOneMinuteRatePerSecond();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        long count = getCount();
+        return count == 0 ? 0.0 : totalNanos.sum() / 1e6 / count;
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return maxNanos.get() / 1e6;
+    }
+
+    @Override
+    public double get50thPercentileMillis() {
+        return getPercentileNanos(0.50) / 1e6;
+    }
+
+    @Override
+    public double get90thPercentileMillis() {
+        return getPercentileNanos(0.90) / 1e6;
+    }
+
+    @Override
+    public double get99thPercentileMillis() {
+        return getPercentileNanos(0.99) / 1e6;
+    }
+
+    @Override
+    public double get999thPercentileMillis() {
+        return getPercentileNanos(0.999) / 1e6;
+    }
+
+    /**
+     * Returns the latency below which the given fraction of the recorded
+     * latencies fall, rounded up to the top of its bucket.
+     *
+     * @param quantile The fraction, between 0 and 1.
+     * @return The latency in nanoseconds, or 0 if nothing has been recorded.
+     */
+    public long getPercentileNanos(double quantile) {
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(i), maxNanos.get());
+            }
+        }
+        return maxNanos.get();
+    }
+
+    /**
+     * Clears the recorded latencies, for example after a deployment.
+     */
+    @Override
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        totalNanos.reset();
+        maxNanos.set(0);
+    }
+
+    /**
+     * Values below eight have a bucket each; above that, the bucket is the
+     * power of two and the next three bits.
+     */
+    private static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    private static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long mantissa = index % SUB_BUCKETS + SUB_BUCKETS;
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
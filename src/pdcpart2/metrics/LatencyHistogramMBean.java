@@ -0,0 +1,21 @@
+
+package pdcpart2.metrics;
+
+/**
+ * JMX view of a LatencyHistogram. Latencies are in milliseconds.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public interface LatencyHistogramMBean {
+    long getCount();
+    double getMeanRatePerSecond();
+    double getOneMinuteRatePerSecond();
+    double getMeanMillis();
+    double getMaxMillis();
+    double get50thPercentileMillis();
+    double get90thPercentileMillis();
+    double get99thPercentileMillis();
+    double get999thPercentileMillis();
+    void reset();
+}
@@ -0,0 +1,179 @@
+
+package pdcpart2.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * MetricsRegistry holds the game's counters, gauges and latency histograms by
+ * name and exports each one as a JMX MBean, so they can be watched with
+ * JConsole, VisualVM or any JMX client without extra dependencies.
+ *
+ * Looking a metric up is a ConcurrentHashMap read, but hot paths should look
+ * their metrics up once and keep them in a field. A metric is registered with
+ * JMX when it is first created, as domain:type=Counter|Gauge|Histogram,name=...
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class MetricsRegistry {
+
+    public static final String DEFAULT_DOMAIN = "pdcpart2";
+
+    private static MetricsRegistry shared;
+
+    private final MBeanServer mBeanServer;
+    private final String domain;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Gauge> gauges = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor to create a registry that is not exported to JMX.
+     */
+    public MetricsRegistry() {
+        this(null, DEFAULT_DOMAIN);
+    }
+
+    /**
+     * Constructor to create a registry that exports its metrics to JMX.
+     *
+     * @param mBeanServer The server to register the MBeans with, or null to not export them.
+     * @param domain The JMX domain of the MBeans.
+     */
+    public MetricsRegistry(MBeanServer mBeanServer, String domain) {
+        this.mBeanServer = mBeanServer;
+        this.domain = domain;
+    }
+
+    /**
+     * Returns the process-wide registry, exported to the platform MBean
+     * server, creating it on first use.
+     *
+     * @return The shared MetricsRegistry.
+     */
+    public static synchronized MetricsRegistry getShared() {
+        if (shared == null) {
+            shared = new MetricsRegistry(ManagementFactory.getPlatformMBeanServer(), DEFAULT_DOMAIN);
+        }
+        return shared;
+    }
+
+    /**
+     * Returns the counter with the given name, creating it if needed.
+     *
+     * @param name The metric name, for example "GameResultDAO.rows".
+     * @return The Counter.
+     */
+    public Counter counter(String name) {
+        Counter counter = counters.get(name);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(name, key -> register("Counter", key, new Counter()));
+        }
+        return counter;
+    }
+
+    /**
+     * Returns the latency histogram with the given name, creating it if needed.
+     *
+     * @param name The metric name, for example "QuestionLoader.loadQuestions".
+     * @return The LatencyHistogram.
+     */
+    public LatencyHistogram histogram(String name) {
+        LatencyHistogram histogram = histograms.get(name);
+        if (histogram == null) {
+            histogram = histograms.computeIfAbsent(name, key -> register("Histogram", key, new LatencyHistogram()));
+        }
+        return histogram;
+    }
+
+    /**
+     * Registers a gauge, replacing any gauge already registered under the name.
+     *
+     * @param name The metric name, for example "ConnectionPool.active".
+     * @param value Supplies the current value. Must be safe to call from any thread.
+     * @return The Gauge.
+     */
+    public Gauge gauge(String name, LongSupplier value) {
+        Gauge gauge = new Gauge(value);
+        synchronized (gauges) {
+            if (gauges.put(name, gauge) != null) {
+                unregister("Gauge", name);
+            }
+            register("Gauge", name, gauge);
+        }
+        return gauge;
+    }
+
+    /**
+     * Returns a snapshot of every metric's main value, sorted by name: the
+     * count of counters and histograms and the value of gauges.
+     *
+     * @return The metric names and values.
+     */
+    public Map<String, Long> snapshot() {
+        Map<String, Long> values = new TreeMap<>();
+        counters.forEach((name, counter) -> values.put(name, counter.getCount()));
+        histograms.forEach((name, histogram) -> values.put(name, histogram.getCount()));
+        gauges.forEach((name, gauge) -> values.put(name, gauge.getValue()));
+        return values;
+    }
+
+    /**
+     * Returns the JMX name a metric is registered under.
+     *
+     * @param type "Counter", "Gauge" or "Histogram".
+     * @param name The metric name.
+     * @return The ObjectName.
+     * @throws IllegalArgumentException If the name cannot be used in JMX.
+     */
+    public ObjectName objectName(String type, String name) {
+        try {
+            return new ObjectName(domain + ":type=" + type + ",name=" + ObjectName.quote(name));
+        } catch (JMException e) {
+            throw new IllegalArgumentException("Invalid metric name: " + name, e);
+        }
+    }
+
+    private <T> T register(String type, String name, T metric) {
+        if (mBeanServer == null) {
+            return metric;
+        }
+        ObjectName objectName = objectName(type, name);
+        try {
+            try {
+                mBeanServer.registerMBean(metric, objectName);
+            } catch (InstanceAlreadyExistsException e) {
+                // Left behind by an earlier registry for the same domain; replace it
+                mBeanServer.unregisterMBean(objectName);
+                mBeanServer.registerMBean(metric, objectName);
+            }
+        } catch (JMException e) {
+            System.err.println("Could not export metric " + name + " to JMX.");
+            e.printStackTrace();
+        }
+        return metric;
+    }
+
+    private void unregister(String type, String name) {
+        if (mBeanServer == null) {
+            return;
+        }
+        try {
+            mBeanServer.unregisterMBean(objectName(type, name));
+        } catch (InstanceNotFoundException e) {
+            // Never exported
+        } catch (JMException e) {
+            System.err.println("Could not remove metric " + name + " from JMX.");
+            e.printStackTrace();
+        }
+    }
+}
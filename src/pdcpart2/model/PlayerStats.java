@@ -0,0 +1,63 @@
+
+package pdcpart2.model;
+
+/**
+ * Represents the aggregated results of every game a player has finished, as
+ * stored in the Player_Stats table.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class PlayerStats {
+    private final String playerName;
+    private final int gamesPlayed;
+    private final int bestScore;
+    private final long totalScore;
+    private final long totalLevel;
+
+    // Constructors
+    public PlayerStats(String playerName, int gamesPlayed, int bestScore, long totalScore, long totalLevel) {
+        this.playerName = playerName;
+        this.gamesPlayed = gamesPlayed;
+        this.bestScore = bestScore;
+        this.totalScore = totalScore;
+        this.totalLevel = totalLevel;
+    }
+
+    /**
+     * Creates the stats contributed by a single game.
+     *
+     * @param gameResult The finished game.
+     * @return Stats for one game played.
+     */
+    public static PlayerStats of(GameResult gameResult) {
+        return new PlayerStats(gameResult.getPlayerName(), 1, gameResult.getScore(),
+                gameResult.getScore(), gameResult.getLastQuestionIndex());
+    }
+
+    /**
+     * Combines these stats with more games by the same player.
+     *
+     * @param other The stats to add.
+     * @return The combined stats.
+     */
+    public PlayerStats combine(PlayerStats other) {
+        return new PlayerStats(playerName, gamesPlayed + other.gamesPlayed, Math.max(bestScore, other.bestScore),
+                totalScore + other.totalScore, totalLevel + other.totalLevel);
+    }
+
+    // Getters
+    public String getPlayerName() { return playerName; }
+
+    public int getGamesPlayed() { return gamesPlayed; }
+
+    public int getBestScore() { return bestScore; }
+
+    public long getTotalScore() { return totalScore; }
+
+    public long getTotalLevel() { return totalLevel; }
+
+    public double getAverageScore() { return gamesPlayed == 0 ? 0.0 : (double) totalScore / gamesPlayed; }
+
+    public double getAverageLevel() { return gamesPlayed == 0 ? 0.0 : (double) totalLevel / gamesPlayed; }
+}
@@ -5,36 +5,99 @@
 package pdcpart2.model;
 
 /**
- * This is the Question Model
+ * This is the Question Model. Questions are immutable, so one instance can be
+ * shared by every game that is served the same question bank snapshot.
+ *
+ * A question's difficulty is the PrizeLevel tier it is asked at, from 1 for
+ * the first question to 15 for the last, or UNRATED if it has not been given
+ * a tier.
+ *
+ * The options are kept in an array in A to D order and the correct answer is
+ * stored as its index in that array, so answers are checked by comparing two
+ * small integers rather than the option texts.
  * 
  * Author: Setefano Muller 
  *         Tharuka Rodrigo       
  */
 public class Question {
-    private String questionText;
-    private String optionA;
-    private String optionB;
-    private String optionC;
-    private String optionD;
-    private String correctAnswer;
-    private String hint;
+    public static final int UNRATED = 0;
+    public static final int MAX_DIFFICULTY = PrizeLevel.values().length - 1;
+    public static final int OPTION_COUNT = 4;
+
+    private final String questionText;
+    private final String[] options;
+    private final String hint;
+    private final byte correctIndex;
+    private final byte difficulty;
 
     public Question(String questionText, String optionA, String optionB, String optionC, String optionD, String correctAnswer, String hint) {
+        this(questionText, optionA, optionB, optionC, optionD, correctAnswer, hint, UNRATED);
+    }
+
+    public Question(String questionText, String optionA, String optionB, String optionC, String optionD, String correctAnswer, String hint, int difficulty) {
+        this(questionText, new String[] {optionA, optionB, optionC, optionD}, correctAnswer, hint, difficulty);
+    }
+
+    private Question(String questionText, String[] options, String correctAnswer, String hint, int difficulty) {
+        this(questionText, options, indexOf(options, correctAnswer, questionText), hint, difficulty);
+    }
+
+    /**
+     * Constructor to create a question from its options and the index of the
+     * correct one.
+     *
+     * @param questionText The question.
+     * @param options The four options in A to D order. The array is copied.
+     * @param correctIndex The index of the correct option.
+     * @param hint The hint, or null if there is none.
+     * @param difficulty The difficulty tier, or UNRATED.
+     * @throws IllegalArgumentException If there are not four options, the
+     *         index is out of range or the difficulty is not a tier.
+     */
+    public Question(String questionText, String[] options, int correctIndex, String hint, int difficulty) {
+        if (options.length != OPTION_COUNT) {
+            throw new IllegalArgumentException("A question needs " + OPTION_COUNT + " options: " + options.length);
+        }
+        if (correctIndex < 0 || correctIndex >= OPTION_COUNT) {
+            throw new IllegalArgumentException("Correct option index out of range: " + correctIndex);
+        }
+        if (difficulty < UNRATED || difficulty > MAX_DIFFICULTY) {
+            throw new IllegalArgumentException("Difficulty must be between " + UNRATED + " and " + MAX_DIFFICULTY + ": " + difficulty);
+        }
         this.questionText = questionText;
-        this.optionA = optionA;
-        this.optionB = optionB;
-        this.optionC = optionC;
-        this.optionD = optionD;
-        this.correctAnswer = correctAnswer;
+        this.options = options.clone();
         this.hint = hint;
+        this.correctIndex = (byte) correctIndex;
+        this.difficulty = (byte) difficulty;
+    }
+
+    private static int indexOf(String[] options, String correctAnswer, String questionText) {
+        for (int i = 0; i < options.length; i++) {
+            if (options[i] != null && options[i].equals(correctAnswer)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("The correct answer of \"" + questionText + "\" is not one of its options.");
     }
 
     public String getQuestionText() { return questionText; }
-    public String getOptionA() { return optionA; }
-    public String getOptionB() { return optionB; }
-    public String getOptionC() { return optionC; }
-    public String getOptionD() { return optionD; }
-    public String getCorrectAnswer() { return correctAnswer; }
+    public String getOptionA() { return options[0]; }
+    public String getOptionB() { return options[1]; }
+    public String getOptionC() { return options[2]; }
+    public String getOptionD() { return options[3]; }
+    public String getOption(int index) { return options[index]; }
+    public int getCorrectIndex() { return correctIndex; }
+    public String getCorrectAnswer() { return options[correctIndex]; }
     public String getHint() { return hint; }
-}
+    public int getDifficulty() { return difficulty; }
 
+    /**
+     * Checks an answer by its option index.
+     *
+     * @param optionIndex The index of the chosen option, 0 for A.
+     * @return true if it is the correct option.
+     */
+    public boolean isCorrect(int optionIndex) {
+        return optionIndex == correctIndex;
+    }
+}
@@ -0,0 +1,560 @@
+
+package pdcpart2.server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import pdcpart2.dao.GameResultWriter;
+import pdcpart2.interfaces.TimerListener;
+import pdcpart2.model.GameResult;
+import pdcpart2.model.Question;
+import pdcpart2.util.AnswerStatistics;
+import pdcpart2.util.CountdownScheduler;
+import pdcpart2.util.DatabaseInitializer;
+import pdcpart2.util.QuestionPack;
+import pdcpart2.util.TieredQuestionPool;
+import pdcpart2.util.TieredQuestionSelector;
+
+/**
+ * GameServer lets many remote players play at once over a newline-delimited
+ * text protocol (see GameSession for the commands and replies).
+ *
+ * A single selector thread accepts connections, reads commands, runs them
+ * against each connection's GameSession and writes the replies, so a session
+ * costs a few kilobytes rather than a thread. The questions for a new game
+ * are picked on a small pool of loader threads, so a slow question source
+ * never stalls the other sessions; question time limits run on one
+ * CountdownScheduler, and finished games are handed to a GameResultWriter.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class GameServer implements Runnable, AutoCloseable, Executor {
+
+    public static final int DEFAULT_PORT = 5050;
+    public static final long DEFAULT_QUESTION_TIMEOUT_MILLIS = 15_000;
+    private static final int MAX_LINE_BYTES = 1024;
+    private static final int MAX_PENDING_OUTPUT_BYTES = 64 * 1024;
+    private static final int LOADER_THREADS = 2;
+
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final Supplier<List<Question>> questionSource;
+    private final Consumer<GameResult> resultSink;
+    private final AnswerStatistics answerStatistics;
+    private final long questionTimeoutMillis;
+    private final CountdownScheduler countdownScheduler;
+    private final ExecutorService loader;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final StringBuilder replies = new StringBuilder(); // Only used on the selector thread
+    private volatile boolean running = true;
+    private Thread selectorThread;
+
+    // Server metrics
+    private final AtomicLong sessionCount = new AtomicLong();
+    private final AtomicLong acceptedCount = new AtomicLong();
+    private final AtomicLong commandCount = new AtomicLong();
+
+    /**
+     * Constructor to open the server socket.
+     *
+     * @param address The address to listen on; port 0 picks a free port.
+     * @param questionSource Supplies the questions for each new game. Called on a loader thread, so it may
+     *                       query the database.
+     * @param resultSink Receives every finished game. Called on the selector thread, so it must not block;
+     *                   for a GameResultWriter use offer() rather than submit().
+     * @param questionTimeoutMillis Time allowed per question, or 0 for no limit.
+     * @throws IOException If the socket cannot be opened.
+     */
+    public GameServer(InetSocketAddress address, Supplier<List<Question>> questionSource,
+            Consumer<GameResult> resultSink, long questionTimeoutMillis) throws IOException {
+        this(address, questionSource, resultSink, questionTimeoutMillis, AnswerStatistics.getShared());
+    }
+
+    /**
+     * Constructor to open the server socket, counting answers in the given
+     * statistics.
+     *
+     * @param address The address to listen on; port 0 picks a free port.
+     * @param questionSource Supplies the questions for each new game. Called on a loader thread, so it may
+     *                       query the database.
+     * @param resultSink Receives every finished game. Called on the selector thread, so it must not block;
+     *                   for a GameResultWriter use offer() rather than submit().
+     * @param questionTimeoutMillis Time allowed per question, or 0 for no limit.
+     * @param answerStatistics The answer counts shared by every session.
+     * @throws IOException If the socket cannot be opened.
+     */
+    public GameServer(InetSocketAddress address, Supplier<List<Question>> questionSource,
+            Consumer<GameResult> resultSink, long questionTimeoutMillis, AnswerStatistics answerStatistics) throws IOException {
+        this.questionSource = questionSource;
+        this.resultSink = resultSink;
+        this.answerStatistics = answerStatistics;
+        this.questionTimeoutMillis = questionTimeoutMillis;
+        this.countdownScheduler = CountdownScheduler.getShared();
+        this.loader = Executors.newFixedThreadPool(LOADER_THREADS, task -> {
+            Thread thread = new Thread(task, "game-server-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address, 1024);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    /**
+     * Starts the selector loop on its own thread.
+     *
+     * @return This server.
+     */
+    public GameServer start() {
+        selectorThread = new Thread(this, "game-server");
+        selectorThread.start();
+        return this;
+    }
+
+    /**
+     * @return The port the server is listening on.
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * @return The number of connected clients.
+     */
+    public long getSessionCount() {
+        return sessionCount.get();
+    }
+
+    /**
+     * @return The number of connections accepted since the server started.
+     */
+    public long getAcceptedCount() {
+        return acceptedCount.get();
+    }
+
+    /**
+     * @return The number of commands handled since the server started.
+     */
+    public long getCommandCount() {
+        return commandCount.get();
+    }
+
+    /**
+     * Runs a task on the selector thread.
+     *
+     * @param task The task to run.
+     */
+    @Override
+    public void execute(Runnable task) {
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    /**
+     * The selector loop. Runs until close() is called.
+     */
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                selector.select();
+                runTasks();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        if (!key.isValid()) {
+                            continue;
+                        }
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else {
+                            if (key.isReadable()) {
+                                read(key);
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                write(key);
+                            }
+                        }
+                    } catch (IOException e) {
+                        // The client went away; drop the connection only
+                        closeConnection(key);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Game server stopped unexpectedly.");
+            e.printStackTrace();
+        } finally {
+            closeAll();
+        }
+    }
+
+    /**
+     * Stops the server and closes every connection. Games in progress are not
+     * recorded.
+     */
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+        if (selectorThread != null && selectorThread != Thread.currentThread()) {
+            try {
+                selectorThread.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        loader.shutdownNow();
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            key.attach(new Connection(channel, key, new GameSession(questionSource, resultSink, answerStatistics)));
+            sessionCount.incrementAndGet();
+            acceptedCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Reads what is available and handles every complete line in it.
+     */
+    private void read(SelectionKey key) throws IOException {
+        Connection connection = (Connection) key.attachment();
+        if (connection.channel.read(connection.readBuffer) < 0) {
+            closeConnection(key);
+            return;
+        }
+        handleLines(connection);
+    }
+
+    /**
+     * Handles every complete line in the read buffer, stopping early while a
+     * new game's questions are being loaded.
+     */
+    private void handleLines(Connection connection) throws IOException {
+        SelectionKey key = connection.key;
+        ByteBuffer buffer = connection.readBuffer;
+        buffer.flip();
+        byte[] bytes = buffer.array();
+        int lineStart = buffer.position();
+        for (int i = lineStart; i < buffer.limit(); i++) {
+            if (bytes[i] != '\n') {
+                continue;
+            }
+            int lineEnd = i > lineStart && bytes[i - 1] == '\r' ? i - 1 : i;
+            handleLine(connection, new String(bytes, lineStart, lineEnd - lineStart, StandardCharsets.UTF_8));
+            lineStart = i + 1;
+            if (!key.isValid() || connection.closing) {
+                return;
+            }
+            if (connection.loading) {
+                break; // The remaining lines wait for the new game
+            }
+        }
+        buffer.position(lineStart);
+        buffer.compact();
+
+        if (!connection.loading && !buffer.hasRemaining()) {
+            replies.setLength(0);
+            replies.append("ERR\tLine too long\n");
+            send(connection, replies);
+            connection.closing = true;
+            closeIfFlushed(connection);
+        }
+    }
+
+    private void handleLine(Connection connection, String line) throws IOException {
+        commandCount.incrementAndGet();
+        if (connection.session.startsGame(line)) {
+            loadGame(connection, line);
+        } else {
+            respond(connection, line, null);
+        }
+    }
+
+    /**
+     * Picks the questions for a new game on a loader thread, then answers the
+     * HELLO back on the selector thread. The connection is not read until
+     * then, so its commands stay in order.
+     */
+    private void loadGame(Connection connection, String line) {
+        connection.loading = true;
+        connection.key.interestOps(connection.key.interestOps() & ~SelectionKey.OP_READ);
+        loader.execute(() -> {
+            List<Question> questions;
+            try {
+                questions = questionSource.get();
+            } catch (RuntimeException e) {
+                System.err.println("Failed to pick the questions for a new game.");
+                e.printStackTrace();
+                questions = List.of();
+            }
+            List<Question> loaded = questions;
+            execute(() -> {
+                SelectionKey key = connection.key;
+                if (!key.isValid()) {
+                    return; // Disconnected while loading
+                }
+                connection.loading = false;
+                try {
+                    respond(connection, line, loaded);
+                    if (key.isValid() && !connection.closing) {
+                        key.interestOps(key.interestOps() | SelectionKey.OP_READ);
+                        handleLines(connection);
+                    }
+                } catch (IOException e) {
+                    closeConnection(key);
+                }
+            });
+        });
+    }
+
+    /**
+     * Runs one command against the session and sends the replies.
+     */
+    private void respond(Connection connection, String line, List<Question> questions) throws IOException {
+        GameSession session = connection.session;
+        int serial = session.getQuestionSerial();
+
+        replies.setLength(0);
+        session.handle(line, questions, replies);
+        send(connection, replies);
+
+        if (session.isClosed()) {
+            connection.closing = true;
+            closeIfFlushed(connection);
+        } else if (session.getQuestionSerial() != serial || !session.isAwaitingAnswer()) {
+            restartCountdown(connection);
+        }
+    }
+
+    /**
+     * Cancels the previous question's time limit and starts one for the new
+     * question, if there is one.
+     */
+    private void restartCountdown(Connection connection) {
+        if (connection.countdown != null) {
+            connection.countdown.cancel();
+            connection.countdown = null;
+        }
+        GameSession session = connection.session;
+        if (questionTimeoutMillis <= 0 || !session.isAwaitingAnswer()) {
+            return;
+        }
+
+        int serial = session.getQuestionSerial();
+        TimerListener timeout = () -> {
+            if (!connection.key.isValid() || session.getQuestionSerial() != serial) {
+                return; // Answered or disconnected in the meantime
+            }
+            try {
+                replies.setLength(0);
+                session.expire(replies);
+                send(connection, replies);
+            } catch (IOException e) {
+                closeConnection(connection.key);
+            }
+        };
+        connection.countdown = countdownScheduler.start(questionTimeoutMillis, TimeUnit.MILLISECONDS,
+                timeout, this, false);
+    }
+
+    /**
+     * Queues the reply bytes and writes as much as the socket accepts now.
+     */
+    private void send(Connection connection, CharSequence text) throws IOException {
+        if (text.length() == 0) {
+            return;
+        }
+        ByteBuffer bytes = StandardCharsets.UTF_8.encode(text.toString());
+        connection.pendingBytes += bytes.remaining();
+        connection.output.add(bytes);
+        if (connection.pendingBytes > MAX_PENDING_OUTPUT_BYTES) {
+            // The client is not reading its replies
+            closeConnection(connection.key);
+            return;
+        }
+        write(connection.key);
+    }
+
+    private void write(SelectionKey key) throws IOException {
+        Connection connection = (Connection) key.attachment();
+        ByteBuffer head;
+        while ((head = connection.output.peek()) != null) {
+            connection.pendingBytes -= connection.channel.write(head);
+            if (head.hasRemaining()) {
+                key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+                return;
+            }
+            connection.output.poll();
+        }
+        if (key.isValid()) {
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+        }
+        closeIfFlushed(connection);
+    }
+
+    private void closeIfFlushed(Connection connection) {
+        if (connection.closing && connection.output.isEmpty()) {
+            closeConnection(connection.key);
+        }
+    }
+
+    private void closeConnection(SelectionKey key) {
+        Connection connection = (Connection) key.attachment();
+        if (connection == null || !key.isValid()) {
+            return;
+        }
+        key.cancel();
+        if (connection.countdown != null) {
+            connection.countdown.cancel();
+        }
+        try {
+            connection.channel.close();
+        } catch (IOException e) {
+            // Already closed by the peer
+        }
+        sessionCount.decrementAndGet();
+    }
+
+    private void closeAll() {
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof Connection) {
+                closeConnection(key);
+            }
+        }
+        try {
+            serverChannel.close();
+            selector.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * The state of one client connection.
+     */
+    private static final class Connection {
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private final GameSession session;
+        private final ByteBuffer readBuffer = ByteBuffer.allocate(MAX_LINE_BYTES);
+        private final Queue<ByteBuffer> output = new ArrayDeque<>();
+        private int pendingBytes;
+        private boolean closing;
+        private boolean loading; // A new game's questions are being picked on a loader thread
+        private CountdownScheduler.Countdown countdown;
+
+        private Connection(SocketChannel channel, SelectionKey key, GameSession session) {
+            this.channel = channel;
+            this.key = key;
+            this.session = session;
+        }
+    }
+
+    /**
+     * Runs the game server against the game's database.
+     *
+     * Usage: GameServer [port] [databasePath] [nio|virtual] [questionPack]
+     *
+     * The "virtual" mode runs each session on its own virtual thread with
+     * VirtualThreadGameServer instead of on the shared selector thread. If a
+     * question pack is given, questions are served from it read-only instead
+     * of from the database; results are still recorded in the database.
+     * Otherwise each game is picked from the database by the
+     * TieredQuestionSelector on one of the server's loader threads.
+     *
+     * @param args The optional port, database path, server mode and question pack.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        String databasePath = args.length > 1 ? args[1] : "QuestionDB";
+        boolean virtualThreads = args.length > 2 && args[2].equalsIgnoreCase("virtual");
+        String packPath = args.length > 3 ? args[3] : "";
+
+        DatabaseInitializer dbInitializer = DatabaseInitializer.getInstance(databasePath);
+        Supplier<List<Question>> questionSource;
+        if (packPath.isEmpty()) {
+            questionSource = TieredQuestionSelector.getInstance(databasePath);
+        } else {
+            QuestionPack pack = QuestionPack.open(Paths.get(packPath));
+            questionSource = new TieredQuestionPool(pack);
+            System.out.println("Serving " + pack.size() + " question(s) from " + packPath);
+        }
+        GameResultWriter writer = dbInitializer.getGameResultWriter();
+        AnswerStatistics answerStatistics = dbInitializer.getAnswerStatistics();
+
+        AutoCloseable server;
+        int boundPort;
+        if (virtualThreads) {
+            // Each session has its own thread, so a full queue may write the result directly
+            Consumer<GameResult> resultSink = gameResult -> {
+                try {
+                    writer.submit(gameResult);
+                } catch (Exception e) {
+                    System.err.println("Failed to record game result for " + gameResult.getPlayerName() + ": " + e.getMessage());
+                }
+            };
+            VirtualThreadGameServer virtualServer = new VirtualThreadGameServer(new InetSocketAddress(port),
+                    questionSource, resultSink, DEFAULT_QUESTION_TIMEOUT_MILLIS, answerStatistics).start();
+            server = virtualServer;
+            boundPort = virtualServer.getPort();
+        } else {
+            // The selector thread must never wait for the database; a full queue drops the result
+            Consumer<GameResult> resultSink = gameResult -> {
+                if (!writer.offer(gameResult)) {
+                    System.err.println("Result queue full; dropped the game result for " + gameResult.getPlayerName()
+                            + " (" + writer.getDroppedCount() + " dropped so far)");
+                }
+            };
+            GameServer selectorServer = new GameServer(new InetSocketAddress(port), questionSource,
+                    resultSink, DEFAULT_QUESTION_TIMEOUT_MILLIS, answerStatistics).start();
+            server = selectorServer;
+            boundPort = selectorServer.getPort();
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+            dbInitializer.shutdownDatabase();
+        }, "game-server-shutdown"));
+        System.out.println("Game server listening on port " + boundPort
+                + (virtualThreads ? " (virtual thread per session)" : ""));
+    }
+}
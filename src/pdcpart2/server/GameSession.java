@@ -0,0 +1,341 @@
+
+package pdcpart2.server;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import pdcpart2.engine.GameEngine;
+import pdcpart2.lifelines.Lifeline;
+import pdcpart2.lifelines.LifelineResult;
+import pdcpart2.model.GameResult;
+import pdcpart2.model.Player;
+import pdcpart2.model.PrizeLevel;
+import pdcpart2.model.Question;
+import pdcpart2.util.AnswerStatistics;
+
+/**
+ * GameSession is the per-connection state of the game server. It turns the
+ * client's commands into calls on a GameEngine and writes the replies of the
+ * line protocol, without doing any I/O itself.
+ *
+ * Client commands (one per line, command word is case-insensitive):
+ *   HELLO name     start a new game for the named player
+ *   ANSWER letter  answer the current question with A, B, C or D
+ *   FIFTY          use the 50:50 lifeline
+ *   HINT           use the Hint lifeline
+ *   AUDIENCE       use the Ask the Audience lifeline
+ *   QUIT           end the connection (a game in progress is not recorded)
+ *
+ * Server replies (one per line, fields separated by tabs):
+ *   WELCOME name questionCount
+ *   QUESTION number prize text optionA optionB optionC optionD
+ *   CORRECT score | WRONG correctLetter score | TIMEOUT score
+ *   WON score | GAMEOVER score
+ *   FIFTY removedLetter removedLetter | HINT text
+ *   AUDIENCE percentA percentB percentC percentD
+ *   BYE score | ERR message
+ *
+ * A session is only ever used by one thread at a time (the server's selector
+ * thread), so it needs no locking.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class GameSession {
+
+    private static final char[] LETTERS = {'A', 'B', 'C', 'D'};
+    private static final int MAX_NAME_LENGTH = 255;
+
+    private final Supplier<List<Question>> questionSource;
+    private final Consumer<GameResult> resultSink;
+    private final AnswerStatistics answerStatistics;
+    private GameEngine engine;
+    private int removedOptions; // Bit per option removed by 50:50 on the current question
+    private int questionSerial; // Incremented every time a new question is sent
+    private boolean closed;
+
+    /**
+     * Constructor to create a session.
+     *
+     * @param questionSource Supplies the questions for each new game.
+     * @param resultSink Receives the result of every finished game.
+     */
+    public GameSession(Supplier<List<Question>> questionSource, Consumer<GameResult> resultSink) {
+        this(questionSource, resultSink, AnswerStatistics.getShared());
+    }
+
+    /**
+     * Constructor to create a session that counts its answers in the given
+     * statistics.
+     *
+     * @param questionSource Supplies the questions for each new game.
+     * @param resultSink Receives the result of every finished game.
+     * @param answerStatistics The answer counts shared by every session.
+     */
+    public GameSession(Supplier<List<Question>> questionSource, Consumer<GameResult> resultSink,
+            AnswerStatistics answerStatistics) {
+        this.questionSource = questionSource;
+        this.resultSink = resultSink;
+        this.answerStatistics = answerStatistics;
+    }
+
+    /**
+     * Handles one command line from the client.
+     *
+     * @param line The command, without its line terminator.
+     * @param out Receives the reply lines, each terminated by '\n'.
+     */
+    public void handle(String line, StringBuilder out) {
+        handle(line, null, out);
+    }
+
+    /**
+     * Handles one command line from the client. A HELLO uses the given
+     * questions instead of asking the question source, so a server can pick
+     * them on another thread first (see startsGame()).
+     *
+     * @param line The command, without its line terminator.
+     * @param questions The questions for a new game, or null to ask the question source.
+     * @param out Receives the reply lines, each terminated by '\n'.
+     */
+    public void handle(String line, List<Question> questions, StringBuilder out) {
+        String command = line.trim();
+        String argument = "";
+        int space = command.indexOf(' ');
+        if (space > 0) {
+            argument = command.substring(space + 1).trim();
+            command = command.substring(0, space);
+        }
+
+        switch (command.toUpperCase(Locale.ROOT)) {
+            case "HELLO":
+                hello(argument, questions, out);
+                break;
+            case "ANSWER":
+                answer(argument, out);
+                break;
+            case "FIFTY":
+                fiftyFifty(out);
+                break;
+            case "HINT":
+                hint(out);
+                break;
+            case "AUDIENCE":
+                askTheAudience(out);
+                break;
+            case "QUIT":
+                reply(out, "BYE", engine != null ? engine.getPlayer().getScore() : 0);
+                closed = true;
+                break;
+            default:
+                error(out, "Unknown command");
+        }
+    }
+
+    /**
+     * Tells whether a command line would start a new game, and so needs the
+     * question source.
+     *
+     * @param line The command, without its line terminator.
+     * @return true for a valid HELLO while no game is in progress.
+     */
+    public boolean startsGame(String line) {
+        String command = line.trim();
+        int space = command.indexOf(' ');
+        if (space <= 0 || !command.substring(0, space).equalsIgnoreCase("HELLO")) {
+            return false;
+        }
+        return !isAwaitingAnswer() && isValidName(command.substring(space + 1).trim());
+    }
+
+    /**
+     * Ends the current game because the player ran out of time.
+     *
+     * @param out Receives the reply lines.
+     */
+    public void expire(StringBuilder out) {
+        if (!isAwaitingAnswer()) {
+            return;
+        }
+        engine.StopGame();
+        reply(out, "TIMEOUT", engine.getPlayer().getScore());
+        finishGame(out);
+    }
+
+    /**
+     * @return true while a question has been sent and not yet answered.
+     */
+    public boolean isAwaitingAnswer() {
+        return engine != null && !engine.isGameOver();
+    }
+
+    /**
+     * @return A number that changes every time a new question is sent, so a
+     *         stale question timeout can be told apart from the current one.
+     */
+    public int getQuestionSerial() {
+        return questionSerial;
+    }
+
+    /**
+     * @return true once the client has asked to end the connection.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    private void hello(String name, List<Question> questions, StringBuilder out) {
+        if (isAwaitingAnswer()) {
+            error(out, "A game is already in progress");
+            return;
+        }
+        if (!isValidName(name)) {
+            error(out, "A player name of 1 to " + MAX_NAME_LENGTH + " characters is required");
+            return;
+        }
+
+        engine = new GameEngine(new Player(name), questions != null ? questions : questionSource.get(),
+                new SplittableRandom(), answerStatistics);
+        engine.StartGame();
+        reply(out, "WELCOME", name, engine.getQuestionCount());
+        if (engine.isGameOver()) {
+            finishGame(out); // No questions available
+        } else {
+            sendQuestion(out);
+        }
+    }
+
+    private void answer(String letter, StringBuilder out) {
+        if (!isAwaitingAnswer()) {
+            error(out, "No question is waiting for an answer");
+            return;
+        }
+        int option = letter.length() == 1 ? optionIndex(letter.charAt(0)) : -1;
+        if (option < 0) {
+            error(out, "Answer with A, B, C or D");
+            return;
+        }
+        if ((removedOptions & (1 << option)) != 0) {
+            error(out, "That option was removed by 50:50");
+            return;
+        }
+
+        Question question = engine.getCurrentQuestion();
+        if (engine.submitAnswer(option)) {
+            reply(out, "CORRECT", engine.getPlayer().getScore());
+            if (engine.isGameOver()) {
+                finishGame(out);
+            } else {
+                sendQuestion(out);
+            }
+        } else {
+            reply(out, "WRONG", LETTERS[question.getCorrectIndex()], engine.getPlayer().getScore());
+            finishGame(out);
+        }
+    }
+
+    private void fiftyFifty(StringBuilder out) {
+        if (!isAwaitingAnswer()) {
+            error(out, "No question is waiting for an answer");
+            return;
+        }
+        Lifeline lifeline = engine.getFiftyFiftyLifeline();
+        if (lifeline.isUsed()) {
+            error(out, "The 50:50 lifeline has already been used");
+            return;
+        }
+
+        LifelineResult result = lifeline.use(engine.getCurrentQuestion());
+        removedOptions |= result.getEliminatedOptions();
+
+        out.append("FIFTY");
+        for (int i = 0; i < LETTERS.length; i++) {
+            if (result.isEliminated(i)) {
+                out.append('\t').append(LETTERS[i]);
+            }
+        }
+        out.append('\n');
+    }
+
+    private void hint(StringBuilder out) {
+        if (!isAwaitingAnswer()) {
+            error(out, "No question is waiting for an answer");
+            return;
+        }
+        Lifeline lifeline = engine.getHintLifeline();
+        if (lifeline.isUsed()) {
+            error(out, "The Hint lifeline has already been used");
+            return;
+        }
+
+        reply(out, "HINT", lifeline.use(engine.getCurrentQuestion()).getMessage());
+    }
+
+    private void askTheAudience(StringBuilder out) {
+        if (!isAwaitingAnswer()) {
+            error(out, "No question is waiting for an answer");
+            return;
+        }
+        Lifeline lifeline = engine.getAskTheAudienceLifeline();
+        if (lifeline.isUsed()) {
+            error(out, "The Ask the Audience lifeline has already been used");
+            return;
+        }
+
+        LifelineResult result = lifeline.use(engine.getCurrentQuestion());
+        out.append("AUDIENCE");
+        for (int i = 0; i < LETTERS.length; i++) {
+            out.append('\t').append(result.getAudiencePercentage(i));
+        }
+        out.append('\n');
+    }
+
+    private void sendQuestion(StringBuilder out) {
+        Question question = engine.getCurrentQuestion();
+        int number = engine.getCurrentQuestionIndex() + 1;
+        removedOptions = 0;
+        questionSerial++;
+        reply(out, "QUESTION", number, PrizeLevel.getAmountByQuestionLevel(number), question.getQuestionText(),
+                question.getOptionA(), question.getOptionB(), question.getOptionC(), question.getOptionD());
+    }
+
+    /**
+     * Reports the end of the game and records its result.
+     */
+    private void finishGame(StringBuilder out) {
+        reply(out, engine.isWon() ? "WON" : "GAMEOVER", engine.getPlayer().getScore());
+        resultSink.accept(engine.createGameResult());
+    }
+
+    private static boolean isValidName(String name) {
+        return !name.isEmpty() && name.length() <= MAX_NAME_LENGTH;
+    }
+
+    private static int optionIndex(char letter) {
+        int index = Character.toUpperCase(letter) - 'A';
+        return index >= 0 && index < LETTERS.length ? index : -1;
+    }
+
+    private static void error(StringBuilder out, String message) {
+        reply(out, "ERR", message);
+    }
+
+    /**
+     * Appends one reply line. Tabs and line breaks inside fields are replaced
+     * with spaces so they cannot break the framing.
+     */
+    private static void reply(StringBuilder out, String type, Object... fields) {
+        out.append(type);
+        for (Object field : fields) {
+            out.append('\t');
+            String text = String.valueOf(field);
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                out.append(c == '\t' || c == '\n' || c == '\r' ? ' ' : c);
+            }
+        }
+        out.append('\n');
+    }
+}
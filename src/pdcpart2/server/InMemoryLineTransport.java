@@ -0,0 +1,89 @@
+
+package pdcpart2.server;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * InMemoryLineTransport connects a SessionRunner to a client in the same
+ * process through two queues, for example to run sessions without sockets in
+ * tests and benchmarks. The blocking queues park virtual threads rather than
+ * pinning them to a carrier.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class InMemoryLineTransport implements LineTransport {
+
+    // Sent by close() so a client waiting in receive() sees the end of the session
+    private static final String END_OF_STREAM = new String("\u0000end");
+
+    private final BlockingQueue<String> toSession = new LinkedBlockingQueue<>();
+    private final BlockingQueue<String> toClient = new LinkedBlockingQueue<>();
+    private volatile boolean closed;
+
+    /**
+     * Sends a command to the session, as the client.
+     *
+     * @param line The command without a line terminator.
+     */
+    public void send(String line) {
+        toSession.add(line);
+    }
+
+    /**
+     * Waits for the next reply line from the session, as the client.
+     *
+     * @param timeoutMillis The longest time to wait.
+     * @return The reply line, or null if the session has ended or the wait timed out.
+     * @throws InterruptedException If the calling thread is interrupted.
+     */
+    public String receive(long timeoutMillis) throws InterruptedException {
+        String line = toClient.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+        if (line == END_OF_STREAM) {
+            toClient.add(END_OF_STREAM); // Keep reporting the end to later calls
+            return null;
+        }
+        return line;
+    }
+
+    @Override
+    public String readLine(long timeoutMillis) throws IOException {
+        if (closed) {
+            return null;
+        }
+        try {
+            if (timeoutMillis <= 0) {
+                return toSession.take();
+            }
+            String line = toSession.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+            if (line == null) {
+                throw new SocketTimeoutException("No line within " + timeoutMillis + " ms");
+            }
+            return line;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    @Override
+    public void write(CharSequence lines) {
+        int start = 0;
+        for (int i = 0; i < lines.length(); i++) {
+            if (lines.charAt(i) == '\n') {
+                toClient.add(lines.subSequence(start, i).toString());
+                start = i + 1;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        toClient.add(END_OF_STREAM);
+    }
+}
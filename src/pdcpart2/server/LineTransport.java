@@ -0,0 +1,33 @@
+
+package pdcpart2.server;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * LineTransport carries the game protocol's lines for one session with plain
+ * blocking calls, so a SessionRunner can be written as straight-line code.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public interface LineTransport extends Closeable {
+
+    /**
+     * Waits for the next line from the client.
+     *
+     * @param timeoutMillis The longest time to wait, or 0 to wait forever.
+     * @return The line without its terminator, or null if the client has gone.
+     * @throws java.net.SocketTimeoutException If no line arrived in time.
+     * @throws IOException If the transport failed.
+     */
+    String readLine(long timeoutMillis) throws IOException;
+
+    /**
+     * Sends reply lines to the client.
+     *
+     * @param lines One or more lines, each terminated by '\n'.
+     * @throws IOException If the transport failed.
+     */
+    void write(CharSequence lines) throws IOException;
+}
@@ -0,0 +1,308 @@
+
+package pdcpart2.server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LoadGenerator plays many games against a GameServer at once to measure how
+ * many concurrent sessions a node can serve.
+ *
+ * Every simulated client runs on one client-side selector: it connects, plays
+ * the requested number of games by answering each question with a random
+ * option (using 50:50 on the first question of every other game), and quits.
+ * The time from sending an answer to receiving its verdict is recorded for
+ * every answer.
+ *
+ * Usage: LoadGenerator [host] [port] [clients] [gamesPerClient]
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class LoadGenerator {
+
+    private static final char[] LETTERS = {'A', 'B', 'C', 'D'};
+
+    private final InetSocketAddress address;
+    private final int clients;
+    private final int gamesPerClient;
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    // Results, only touched by the thread calling run()
+    private long[] latencies = new long[1024];
+    private int latencyCount;
+    private int gamesCompleted;
+    private int answers;
+    private int errors;
+    private int clientsFinished;
+
+    /**
+     * Constructor to configure a load run.
+     *
+     * @param address The server address.
+     * @param clients The number of concurrent connections.
+     * @param gamesPerClient The number of games each connection plays.
+     */
+    public LoadGenerator(InetSocketAddress address, int clients, int gamesPerClient) {
+        this.address = address;
+        this.clients = clients;
+        this.gamesPerClient = gamesPerClient;
+    }
+
+    /**
+     * Runs the load until every client has finished or the timeout passes.
+     *
+     * @param timeoutMillis The longest time to run.
+     * @return The results of the run.
+     * @throws IOException If the connections cannot be opened.
+     */
+    public Report run(long timeoutMillis) throws IOException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+
+        try (Selector selector = Selector.open()) {
+            for (int i = 0; i < clients; i++) {
+                SocketChannel channel = SocketChannel.open();
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                Client client = new Client("LoadPlayer" + i);
+                if (channel.connect(address)) {
+                    channel.register(selector, SelectionKey.OP_READ, client);
+                    send(channel, "HELLO " + client.name);
+                } else {
+                    channel.register(selector, SelectionKey.OP_CONNECT, client);
+                }
+            }
+
+            while (clientsFinished < clients && System.nanoTime() < deadline) {
+                selector.select(100);
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        handle(key);
+                    } catch (IOException e) {
+                        errors++;
+                        finish(key);
+                    }
+                }
+            }
+
+            for (SelectionKey key : selector.keys()) {
+                key.channel().close();
+            }
+        }
+        return new Report(clients, clientsFinished, gamesCompleted, answers, errors,
+                System.nanoTime() - start, Arrays.copyOf(latencies, latencyCount));
+    }
+
+    private void handle(SelectionKey key) throws IOException {
+        SocketChannel channel = (SocketChannel) key.channel();
+        Client client = (Client) key.attachment();
+
+        if (key.isConnectable()) {
+            channel.finishConnect();
+            key.interestOps(SelectionKey.OP_READ);
+            send(channel, "HELLO " + client.name);
+            return;
+        }
+        if (!key.isReadable()) {
+            return;
+        }
+
+        ByteBuffer buffer = client.readBuffer;
+        if (channel.read(buffer) < 0) {
+            errors++;
+            finish(key);
+            return;
+        }
+        buffer.flip();
+        byte[] bytes = buffer.array();
+        int lineStart = buffer.position();
+        for (int i = lineStart; i < buffer.limit(); i++) {
+            if (bytes[i] == '\n') {
+                onLine(key, client, new String(bytes, lineStart, i - lineStart, StandardCharsets.UTF_8));
+                lineStart = i + 1;
+                if (!key.isValid()) {
+                    return;
+                }
+            }
+        }
+        buffer.position(lineStart);
+        buffer.compact();
+    }
+
+    private void onLine(SelectionKey key, Client client, String line) throws IOException {
+        SocketChannel channel = (SocketChannel) key.channel();
+        int tab = line.indexOf('\t');
+        String type = tab < 0 ? line : line.substring(0, tab);
+
+        switch (type) {
+            case "QUESTION":
+                client.removed = 0;
+                if (client.gamesPlayed % 2 == 1 && line.startsWith("QUESTION\t1\t")) {
+                    send(channel, "FIFTY");
+                } else {
+                    answer(channel, client);
+                }
+                break;
+            case "FIFTY":
+                for (int i = tab + 1; i < line.length(); i++) {
+                    char c = line.charAt(i);
+                    if (c >= 'A' && c <= 'D') {
+                        client.removed |= 1 << (c - 'A');
+                    }
+                }
+                answer(channel, client);
+                break;
+            case "CORRECT":
+            case "WRONG":
+            case "TIMEOUT":
+                recordLatency(System.nanoTime() - client.answerSentAt);
+                answers++;
+                break;
+            case "WON":
+            case "GAMEOVER":
+                gamesCompleted++;
+                client.gamesPlayed++;
+                send(channel, client.gamesPlayed < gamesPerClient ? "HELLO " + client.name : "QUIT");
+                break;
+            case "BYE":
+                finish(key);
+                break;
+            case "ERR":
+                errors++;
+                break;
+            default:
+                break; // WELCOME, HINT
+        }
+    }
+
+    private void answer(SocketChannel channel, Client client) throws IOException {
+        int option;
+        do {
+            option = random.nextInt(LETTERS.length);
+        } while ((client.removed & (1 << option)) != 0);
+        client.answerSentAt = System.nanoTime();
+        send(channel, "ANSWER " + LETTERS[option]);
+    }
+
+    /**
+     * Writes a short command. Commands are far smaller than the socket buffer,
+     * so a blocking-style loop finishes immediately.
+     */
+    private void send(SocketChannel channel, String command) throws IOException {
+        ByteBuffer bytes = StandardCharsets.UTF_8.encode(command + "\n");
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+
+    private void finish(SelectionKey key) throws IOException {
+        if (key.isValid()) {
+            key.cancel();
+            key.channel().close();
+            clientsFinished++;
+        }
+    }
+
+    private void recordLatency(long nanos) {
+        if (latencyCount == latencies.length) {
+            latencies = Arrays.copyOf(latencies, latencies.length * 2);
+        }
+        latencies[latencyCount++] = nanos;
+    }
+
+    /**
+     * The state of one simulated client.
+     */
+    private static final class Client {
+        private final String name;
+        private final ByteBuffer readBuffer = ByteBuffer.allocate(4096);
+        private int gamesPlayed;
+        private int removed;
+        private long answerSentAt;
+
+        private Client(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * The results of a load run.
+     */
+    public static final class Report {
+        private final int clients;
+        private final int clientsFinished;
+        private final int gamesCompleted;
+        private final int answers;
+        private final int errors;
+        private final long elapsedNanos;
+        private final long[] latencies;
+
+        private Report(int clients, int clientsFinished, int gamesCompleted, int answers, int errors,
+                long elapsedNanos, long[] latencies) {
+            this.clients = clients;
+            this.clientsFinished = clientsFinished;
+            this.gamesCompleted = gamesCompleted;
+            this.answers = answers;
+            this.errors = errors;
+            this.elapsedNanos = elapsedNanos;
+            this.latencies = latencies;
+            Arrays.sort(this.latencies);
+        }
+
+        public int getClientsFinished() { return clientsFinished; }
+
+        public int getGamesCompleted() { return gamesCompleted; }
+
+        public int getAnswers() { return answers; }
+
+        public int getErrors() { return errors; }
+
+        public double getElapsedSeconds() { return elapsedNanos / 1e9; }
+
+        /**
+         * @param percentile A percentile between 0 and 100.
+         * @return The answer latency at that percentile, in microseconds.
+         */
+        public double getLatencyMicros(double percentile) {
+            if (latencies.length == 0) {
+                return 0.0;
+            }
+            int index = (int) Math.min(latencies.length - 1, Math.ceil(percentile / 100.0 * latencies.length) - 1);
+            return latencies[Math.max(0, index)] / 1000.0;
+        }
+
+        @Override
+        public String toString() {
+            double seconds = getElapsedSeconds();
+            return String.format("clients=%d finished=%d games=%d answers=%d errors=%d time=%.2fs "
+                    + "games/s=%.0f answers/s=%.0f latency p50=%.0fus p99=%.0fus max=%.0fus",
+                    clients, clientsFinished, gamesCompleted, answers, errors, seconds,
+                    gamesCompleted / seconds, answers / seconds,
+                    getLatencyMicros(50), getLatencyMicros(99), getLatencyMicros(100));
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : GameServer.DEFAULT_PORT;
+        int clients = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        int games = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+
+        Report report = new LoadGenerator(new InetSocketAddress(host, port), clients, games).run(TimeUnit.MINUTES.toMillis(5));
+        System.out.println(report);
+    }
+}
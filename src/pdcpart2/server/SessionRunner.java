@@ -0,0 +1,72 @@
+
+package pdcpart2.server;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SessionRunner plays one client's session from start to finish as ordinary
+ * blocking code: wait for a command, handle it, send the replies, repeat.
+ * The question time limit is simply the timeout of the read that waits for
+ * the answer, so no separate timer is needed.
+ *
+ * Meant to run on its own virtual thread, where each blocking read parks the
+ * thread instead of holding an OS thread.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class SessionRunner implements Runnable {
+
+    private final LineTransport transport;
+    private final GameSession session;
+    private final long questionTimeoutMillis;
+
+    /**
+     * Constructor to create a runner for one session.
+     *
+     * @param transport The connection to the client. Closed when the session ends.
+     * @param session The session state.
+     * @param questionTimeoutMillis Time allowed per question, or 0 for no limit.
+     */
+    public SessionRunner(LineTransport transport, GameSession session, long questionTimeoutMillis) {
+        this.transport = transport;
+        this.session = session;
+        this.questionTimeoutMillis = questionTimeoutMillis;
+    }
+
+    @Override
+    public void run() {
+        StringBuilder replies = new StringBuilder();
+        int serial = session.getQuestionSerial();
+        long deadline = 0;
+
+        try (LineTransport client = transport) {
+            while (!session.isClosed()) {
+                if (session.getQuestionSerial() != serial) {
+                    serial = session.getQuestionSerial(); // A new question was sent
+                    deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(questionTimeoutMillis);
+                }
+                long waitMillis = 0;
+                if (questionTimeoutMillis > 0 && session.isAwaitingAnswer()) {
+                    waitMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+                }
+
+                replies.setLength(0);
+                try {
+                    String line = client.readLine(waitMillis);
+                    if (line == null) {
+                        return; // The client went away
+                    }
+                    session.handle(line, replies);
+                } catch (SocketTimeoutException e) {
+                    session.expire(replies);
+                }
+                client.write(replies);
+            }
+        } catch (IOException e) {
+            // The connection failed; a game in progress is not recorded
+        }
+    }
+}
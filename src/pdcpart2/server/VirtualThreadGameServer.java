@@ -0,0 +1,222 @@
+
+package pdcpart2.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import pdcpart2.model.GameResult;
+import pdcpart2.model.Question;
+import pdcpart2.util.AnswerStatistics;
+
+/**
+ * VirtualThreadGameServer serves the same protocol as GameServer, but runs
+ * every connection as a SessionRunner on its own virtual thread with plain
+ * blocking socket I/O. A session waiting for its player parks its virtual
+ * thread, which costs a small heap object instead of an OS thread, so the
+ * session logic stays straight-line code.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class VirtualThreadGameServer implements Runnable, AutoCloseable {
+
+    private static final int MAX_LINE_BYTES = 1024;
+
+    private final ServerSocket serverSocket;
+    private final Supplier<List<Question>> questionSource;
+    private final Consumer<GameResult> resultSink;
+    private final AnswerStatistics answerStatistics;
+    private final long questionTimeoutMillis;
+    private final ExecutorService sessions = Executors.newVirtualThreadPerTaskExecutor();
+    private Thread acceptThread;
+
+    // Server metrics
+    private final AtomicLong sessionCount = new AtomicLong();
+    private final AtomicLong acceptedCount = new AtomicLong();
+
+    /**
+     * Constructor to open the server socket.
+     *
+     * @param address The address to listen on; port 0 picks a free port.
+     * @param questionSource Supplies the questions for each new game.
+     * @param resultSink Receives every finished game. May block; it runs on the session's virtual thread.
+     * @param questionTimeoutMillis Time allowed per question, or 0 for no limit.
+     * @throws IOException If the socket cannot be opened.
+     */
+    public VirtualThreadGameServer(InetSocketAddress address, Supplier<List<Question>> questionSource,
+            Consumer<GameResult> resultSink, long questionTimeoutMillis) throws IOException {
+        this(address, questionSource, resultSink, questionTimeoutMillis, AnswerStatistics.getShared());
+    }
+
+    /**
+     * Constructor to open the server socket, counting answers in the given
+     * statistics.
+     *
+     * @param address The address to listen on; port 0 picks a free port.
+     * @param questionSource Supplies the questions for each new game.
+     * @param resultSink Receives every finished game. May block; it runs on the session's virtual thread.
+     * @param questionTimeoutMillis Time allowed per question, or 0 for no limit.
+     * @param answerStatistics The answer counts shared by every session.
+     * @throws IOException If the socket cannot be opened.
+     */
+    public VirtualThreadGameServer(InetSocketAddress address, Supplier<List<Question>> questionSource,
+            Consumer<GameResult> resultSink, long questionTimeoutMillis, AnswerStatistics answerStatistics) throws IOException {
+        this.questionSource = questionSource;
+        this.resultSink = resultSink;
+        this.answerStatistics = answerStatistics;
+        this.questionTimeoutMillis = questionTimeoutMillis;
+        this.serverSocket = new ServerSocket();
+        serverSocket.bind(address, 1024);
+    }
+
+    /**
+     * Starts accepting connections on a virtual thread.
+     *
+     * @return This server.
+     */
+    public VirtualThreadGameServer start() {
+        acceptThread = Thread.ofVirtual().name("game-server-accept").start(this);
+        return this;
+    }
+
+    /**
+     * @return The port the server is listening on.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * @return The number of connected clients.
+     */
+    public long getSessionCount() {
+        return sessionCount.get();
+    }
+
+    /**
+     * @return The number of connections accepted since the server started.
+     */
+    public long getAcceptedCount() {
+        return acceptedCount.get();
+    }
+
+    /**
+     * The accept loop. Runs until close() is called.
+     */
+    @Override
+    public void run() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                acceptedCount.incrementAndGet();
+                sessionCount.incrementAndGet();
+                SessionRunner runner = new SessionRunner(new SocketLineTransport(socket),
+                        new GameSession(questionSource, resultSink, answerStatistics), questionTimeoutMillis);
+                sessions.execute(() -> {
+                    try {
+                        runner.run();
+                    } finally {
+                        sessionCount.decrementAndGet();
+                    }
+                });
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    System.err.println("Error accepting a connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops accepting connections and ends every session. Games in progress
+     * are not recorded.
+     */
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        sessions.shutdownNow(); // Interrupting a virtual thread closes the socket it is blocked on
+        sessions.close();
+        if (acceptThread != null) {
+            try {
+                acceptThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * A LineTransport over a blocking socket. Lines longer than the protocol
+     * allows end the connection.
+     */
+    private static final class SocketLineTransport implements LineTransport {
+        private final Socket socket;
+        private final InputStream in;
+        private final OutputStream out;
+        private final byte[] buffer = new byte[MAX_LINE_BYTES];
+        private int start;
+        private int end;
+
+        private SocketLineTransport(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = socket.getInputStream();
+            this.out = socket.getOutputStream();
+        }
+
+        @Override
+        public String readLine(long timeoutMillis) throws IOException {
+            socket.setSoTimeout((int) Math.min(Integer.MAX_VALUE, timeoutMillis));
+            while (true) {
+                for (int i = start; i < end; i++) {
+                    if (buffer[i] == '\n') {
+                        int lineEnd = i > start && buffer[i - 1] == '\r' ? i - 1 : i;
+                        String line = new String(buffer, start, lineEnd - start, StandardCharsets.UTF_8);
+                        start = i + 1;
+                        return line;
+                    }
+                }
+                if (start > 0) {
+                    System.arraycopy(buffer, start, buffer, 0, end - start);
+                    end -= start;
+                    start = 0;
+                }
+                if (end == buffer.length) {
+                    write("ERR\tLine too long\n");
+                    return null;
+                }
+                int read = in.read(buffer, end, buffer.length - end);
+                if (read < 0) {
+                    return null;
+                }
+                end += read;
+            }
+        }
+
+        @Override
+        public void write(CharSequence lines) throws IOException {
+            if (lines.length() > 0) {
+                out.write(lines.toString().getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
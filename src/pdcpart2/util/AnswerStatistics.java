@@ -0,0 +1,276 @@
+
+package pdcpart2.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import pdcpart2.model.Question;
+
+/**
+ * AnswerStatistics counts how players answer each question, per option, so
+ * the Ask the Audience lifeline can show how real players voted.
+ *
+ * Every question has one LongAdder per option. LongAdder spreads concurrent
+ * increments over striped cells, so many sessions answering the same question
+ * at once do not contend on a single counter, and reading the counts is a
+ * handful of memory reads with no locking or database access.
+ *
+ * When backed by a database the counts are loaded from the Answer_Stats table
+ * once, when the statistics are created, and the votes added since the last
+ * flush are written back by a background thread every flush interval, as
+ * increments in one batch and one commit. A failed flush is retried on the
+ * next one; close() writes whatever is left. Questions are identified by their
+ * text, which is the same whether they come from the database or a pack.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class AnswerStatistics implements AutoCloseable {
+
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 5000;
+
+    private static AnswerStatistics shared;
+
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+    private final ConnectionPool connectionPool;
+    private final ScheduledExecutorService flusher;
+
+    /**
+     * Constructor to create statistics that are only kept in memory.
+     */
+    public AnswerStatistics() {
+        this.connectionPool = null;
+        this.flusher = null;
+    }
+
+    /**
+     * Constructor to create statistics stored in the database, flushed at the
+     * default interval.
+     *
+     * @param connectionPool The pool to borrow connections from.
+     */
+    public AnswerStatistics(ConnectionPool connectionPool) {
+        this(connectionPool, DEFAULT_FLUSH_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Constructor to load the stored statistics and start flushing new votes
+     * in the background.
+     *
+     * @param connectionPool The pool to borrow connections from.
+     * @param flushIntervalMillis The time between flushes.
+     */
+    public AnswerStatistics(ConnectionPool connectionPool, long flushIntervalMillis) {
+        this.connectionPool = connectionPool;
+        load();
+        this.flusher = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "answer-stats-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the process-wide in-memory statistics, creating them on first
+     * use. Used by game sessions that were not given statistics of their own.
+     *
+     * @return The shared AnswerStatistics.
+     */
+    public static synchronized AnswerStatistics getShared() {
+        if (shared == null) {
+            shared = new AnswerStatistics();
+        }
+        return shared;
+    }
+
+    /**
+     * Counts one answer. Safe to call from any thread.
+     *
+     * @param question The question that was answered.
+     * @param optionIndex The index of the chosen option, 0 for A.
+     */
+    public void recordAnswer(Question question, int optionIndex) {
+        if (optionIndex < 0 || optionIndex >= Question.OPTION_COUNT) {
+            return;
+        }
+        countersFor(question.getQuestionText()).votes[optionIndex].increment();
+    }
+
+    /**
+     * Reads the vote counts for a question from memory.
+     *
+     * @param question The question.
+     * @param votes Receives the votes for each option, A first. Must have
+     *              room for Question.OPTION_COUNT values.
+     * @return The total number of votes.
+     */
+    public long getVotes(Question question, long[] votes) {
+        Counters questionCounters = counters.get(question.getQuestionText());
+        long total = 0;
+        for (int i = 0; i < Question.OPTION_COUNT; i++) {
+            votes[i] = questionCounters != null ? questionCounters.votes[i].sum() : 0;
+            total += votes[i];
+        }
+        return total;
+    }
+
+    /**
+     * Writes the votes counted since the last flush to the database.
+     *
+     * @return The number of questions whose counts were written.
+     * @throws SQLException If the write failed; the votes are kept for the next flush.
+     */
+    public synchronized int flush() throws SQLException {
+        if (connectionPool == null) {
+            return 0;
+        }
+
+        // Take a snapshot of the new votes; they are only marked as flushed after the commit
+        List<String> questions = new ArrayList<>();
+        List<long[]> totals = new ArrayList<>();
+        for (Map.Entry<String, Counters> entry : counters.entrySet()) {
+            Counters questionCounters = entry.getValue();
+            long[] total = new long[Question.OPTION_COUNT];
+            boolean changed = false;
+            for (int i = 0; i < total.length; i++) {
+                total[i] = questionCounters.votes[i].sum();
+                changed |= total[i] != questionCounters.flushed[i];
+            }
+            if (changed) {
+                questions.add(entry.getKey());
+                totals.add(total);
+            }
+        }
+        if (questions.isEmpty()) {
+            return 0;
+        }
+
+        String updateSQL = "UPDATE Answer_Stats SET votes_a = votes_a + ?, votes_b = votes_b + ?, "
+                + "votes_c = votes_c + ?, votes_d = votes_d + ? WHERE question = ?";
+        String insertSQL = "INSERT INTO Answer_Stats (votes_a, votes_b, votes_c, votes_d, question) VALUES (?, ?, ?, ?, ?)";
+        try (Connection connection = connectionPool.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement update = connection.prepareStatement(updateSQL);
+                 PreparedStatement insert = connection.prepareStatement(insertSQL)) {
+                for (int q = 0; q < questions.size(); q++) {
+                    setDeltas(update, questions.get(q), totals.get(q));
+                    update.addBatch();
+                }
+                int[] updated = update.executeBatch();
+
+                boolean inserts = false;
+                for (int q = 0; q < questions.size(); q++) {
+                    if (updated[q] == 0) {
+                        setDeltas(insert, questions.get(q), totals.get(q));
+                        insert.addBatch();
+                        inserts = true;
+                    }
+                }
+                if (inserts) {
+                    insert.executeBatch();
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+
+        for (int q = 0; q < questions.size(); q++) {
+            System.arraycopy(totals.get(q), 0, counters.get(questions.get(q)).flushed, 0, Question.OPTION_COUNT);
+        }
+        return questions.size();
+    }
+
+    /**
+     * Stops the background flushes and writes the remaining votes.
+     */
+    @Override
+    public void close() {
+        if (flusher == null) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+    }
+
+    private void setDeltas(PreparedStatement pstmt, String question, long[] total) throws SQLException {
+        long[] flushed = counters.get(question).flushed;
+        for (int i = 0; i < total.length; i++) {
+            pstmt.setLong(i + 1, total[i] - flushed[i]);
+        }
+        pstmt.setString(total.length + 1, question);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (SQLException e) {
+            System.err.println("Error writing answer statistics.");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Reads the stored counts into memory.
+     */
+    private void load() {
+        String query = "SELECT question, votes_a, votes_b, votes_c, votes_d FROM Answer_Stats";
+        try (Connection connection = connectionPool.getConnection();
+             PreparedStatement pstmt = connection.prepareStatement(query);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                Counters questionCounters = countersFor(rs.getString(1));
+                for (int i = 0; i < Question.OPTION_COUNT; i++) {
+                    long stored = rs.getLong(i + 2);
+                    questionCounters.votes[i].add(stored);
+                    questionCounters.flushed[i] = stored;
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading answer statistics.");
+            e.printStackTrace();
+        }
+    }
+
+    private Counters countersFor(String question) {
+        Counters questionCounters = counters.get(question);
+        if (questionCounters == null) {
+            questionCounters = counters.computeIfAbsent(question, key -> new Counters());
+        }
+        return questionCounters;
+    }
+
+    /**
+     * The vote counters of one question and the counts already in the
+     * database. flushed is only used while holding the statistics' lock.
+     */
+    private static final class Counters {
+        private final LongAdder[] votes = new LongAdder[Question.OPTION_COUNT];
+        private final long[] flushed = new long[Question.OPTION_COUNT];
+
+        private Counters() {
+            for (int i = 0; i < votes.length; i++) {
+                votes[i] = new LongAdder();
+            }
+        }
+    }
+}
@@ -0,0 +1,407 @@
+
+package pdcpart2.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ConnectionPool is a small bounded JDBC connection pool.
+ *
+ * Connections are checked out per thread: a thread that already holds a
+ * connection gets the same one back, so nested DAO calls share a connection
+ * and its transaction. Closing the returned Connection, which should be done
+ * by the borrowing thread, hands it back to the pool instead of closing it.
+ * Idle connections are validated before reuse and evicted once they have been
+ * idle longer than the idle timeout.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    public static final int DEFAULT_MAX_SIZE = 8;
+    public static final long DEFAULT_CHECKOUT_TIMEOUT_MILLIS = 10_000;
+    public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 5 * 60_000;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final String jdbcURL;
+    private final int maxSize;
+    private final long checkoutTimeoutMillis;
+    private final long idleTimeoutNanos;
+    private final Semaphore permits;
+    private final Deque<IdleConnection> idleConnections = new ArrayDeque<>();
+    private final ThreadLocal<Lease> currentLease = new ThreadLocal<>();
+    private volatile boolean closed;
+
+    // Pool metrics
+    private final AtomicInteger activeCount = new AtomicInteger();
+    private final LongAdder checkoutCount = new LongAdder();
+    private final LongAdder waitCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder evictedCount = new LongAdder();
+
+    /**
+     * Constructor to create a pool with the default limits.
+     *
+     * @param jdbcURL The JDBC URL used to open new connections.
+     */
+    public ConnectionPool(String jdbcURL) {
+        this(jdbcURL, DEFAULT_MAX_SIZE, DEFAULT_CHECKOUT_TIMEOUT_MILLIS, DEFAULT_IDLE_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Constructor to create a pool.
+     *
+     * @param jdbcURL The JDBC URL used to open new connections.
+     * @param maxSize The maximum number of connections checked out at once.
+     * @param checkoutTimeoutMillis How long a thread waits for a free connection.
+     * @param idleTimeoutMillis How long an unused connection is kept open.
+     */
+    public ConnectionPool(String jdbcURL, int maxSize, long checkoutTimeoutMillis, long idleTimeoutMillis) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1: " + maxSize);
+        }
+        this.jdbcURL = jdbcURL;
+        this.maxSize = maxSize;
+        this.checkoutTimeoutMillis = checkoutTimeoutMillis;
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    /**
+     * Checks out a connection for the calling thread. The caller must close it
+     * to return it to the pool, ideally with try-with-resources.
+     *
+     * @return A pooled Connection.
+     * @throws SQLException If the pool is closed, no connection became free in
+     * time, or a new connection could not be opened.
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed.");
+        }
+
+        // Reuse the connection this thread already holds
+        Lease lease = currentLease.get();
+        if (lease != null && lease.holds > 0) {
+            lease.holds++;
+            return lease.newHandle();
+        }
+        currentLease.remove(); // Drop a lease released from another thread
+
+        long waitStart = System.nanoTime();
+        try {
+            boolean acquired = permits.tryAcquire(checkoutTimeoutMillis, TimeUnit.MILLISECONDS);
+            recordWait(System.nanoTime() - waitStart);
+            if (!acquired) {
+                throw new SQLException("Timed out after " + checkoutTimeoutMillis
+                        + " ms waiting for a database connection.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection.", e);
+        }
+
+        Connection physical;
+        try {
+            physical = takeIdleConnection();
+            if (physical == null) {
+                physical = DriverManager.getConnection(jdbcURL);
+                createdCount.increment();
+            }
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+
+        lease = new Lease(physical);
+        currentLease.set(lease);
+        activeCount.incrementAndGet();
+        checkoutCount.increment();
+        return lease.newHandle();
+    }
+
+    /**
+     * Takes the most recently used idle connection that is still valid,
+     * closing any that have expired or failed validation.
+     */
+    private Connection takeIdleConnection() {
+        while (true) {
+            IdleConnection idle;
+            synchronized (idleConnections) {
+                idle = idleConnections.pollFirst();
+            }
+            if (idle == null) {
+                return null;
+            }
+            if (System.nanoTime() - idle.idleSince > idleTimeoutNanos || !isValid(idle.connection)) {
+                evict(idle.connection);
+                continue;
+            }
+            return idle.connection;
+        }
+    }
+
+    /**
+     * Returns a physical connection to the pool once the owning thread has
+     * closed every handle it was given.
+     */
+    private void release(Lease lease) {
+        if (--lease.holds > 0) {
+            return;
+        }
+        if (currentLease.get() == lease) {
+            currentLease.remove();
+        }
+        activeCount.decrementAndGet();
+
+        Connection physical = lease.physical;
+        boolean reusable = !closed;
+        try {
+            // Leave no open transaction behind for the next borrower
+            if (reusable && !physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            reusable = false;
+        }
+
+        if (reusable) {
+            synchronized (idleConnections) {
+                idleConnections.addFirst(new IdleConnection(physical, System.nanoTime()));
+            }
+        } else {
+            evict(physical);
+        }
+        permits.release();
+        evictIdleConnections();
+    }
+
+    /**
+     * Closes idle connections that have been unused longer than the idle
+     * timeout.
+     */
+    public void evictIdleConnections() {
+        List<Connection> expired = new ArrayList<>();
+        long now = System.nanoTime();
+        synchronized (idleConnections) {
+            // The oldest idle connections are at the tail of the deque
+            Iterator<IdleConnection> it = idleConnections.descendingIterator();
+            while (it.hasNext()) {
+                IdleConnection idle = it.next();
+                if (now - idle.idleSince <= idleTimeoutNanos) {
+                    break;
+                }
+                it.remove();
+                expired.add(idle.connection);
+            }
+        }
+        for (Connection connection : expired) {
+            evict(connection);
+        }
+    }
+
+    private boolean isValid(Connection connection) {
+        try {
+            return connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void evict(Connection connection) {
+        evictedCount.increment();
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            // The connection is being discarded anyway
+        }
+    }
+
+    private void recordWait(long waitNanos) {
+        waitCount.increment();
+        totalWaitNanos.add(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    /**
+     * Closes the pool and every idle connection. Connections that are still
+     * checked out are closed when they are returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        List<IdleConnection> idle;
+        synchronized (idleConnections) {
+            idle = new ArrayList<>(idleConnections);
+            idleConnections.clear();
+        }
+        for (IdleConnection connection : idle) {
+            try {
+                connection.connection.close();
+            } catch (SQLException e) {
+                System.err.println("Failed to close pooled connection: " + e.getMessage());
+            }
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return The number of connections currently checked out.
+     */
+    public int getActiveCount() {
+        return activeCount.get();
+    }
+
+    /**
+     * @return The number of open connections waiting in the pool.
+     */
+    public int getIdleCount() {
+        synchronized (idleConnections) {
+            return idleConnections.size();
+        }
+    }
+
+    /**
+     * @return The number of physical checkouts served so far.
+     */
+    public long getCheckoutCount() {
+        return checkoutCount.sum();
+    }
+
+    /**
+     * @return The total time threads have spent waiting for a connection.
+     */
+    public long getTotalWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.sum());
+    }
+
+    /**
+     * @return The average time a checkout waited for a connection.
+     */
+    public double getAverageWaitMillis() {
+        long waits = waitCount.sum();
+        return waits == 0 ? 0.0 : totalWaitNanos.sum() / 1_000_000.0 / waits;
+    }
+
+    /**
+     * @return The longest time a single checkout waited for a connection.
+     */
+    public long getMaxWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get());
+    }
+
+    /**
+     * @return The number of physical connections opened by the pool.
+     */
+    public long getCreatedCount() {
+        return createdCount.sum();
+    }
+
+    /**
+     * @return The number of connections closed because they expired or failed validation.
+     */
+    public long getEvictedCount() {
+        return evictedCount.sum();
+    }
+
+    /**
+     * A physical connection checked out by one thread, with the number of
+     * handles the thread has not closed yet.
+     */
+    private final class Lease {
+        private final Connection physical;
+        private int holds = 1;
+
+        private Lease(Connection physical) {
+            this.physical = physical;
+        }
+
+        private Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new Handle(this));
+        }
+    }
+
+    /**
+     * Invocation handler behind each Connection handed out by the pool. Calls
+     * are forwarded to the physical connection until the handle is closed.
+     */
+    private final class Handle implements InvocationHandler {
+        private final Lease lease;
+        private boolean handleClosed;
+
+        private Handle(Lease lease) {
+            this.lease = lease;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!handleClosed) {
+                        handleClosed = true;
+                        release(lease);
+                    }
+                    return null;
+                case "isClosed":
+                    return handleClosed || lease.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + lease.physical + "]";
+                default:
+                    if (handleClosed) {
+                        throw new SQLException("Connection has been returned to the pool.");
+                    }
+                    try {
+                        return method.invoke(lease.physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+    }
+
+    /**
+     * A connection waiting in the pool and the time it was returned.
+     */
+    private static final class IdleConnection {
+        private final Connection connection;
+        private final long idleSince;
+
+        private IdleConnection(Connection connection, long idleSince) {
+            this.connection = connection;
+            this.idleSince = idleSince;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+
+package pdcpart2.util;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import pdcpart2.interfaces.TimerListener;
+
+/**
+ * CountdownScheduler runs any number of question countdowns on one shared
+ * scheduler thread instead of a thread per question.
+ *
+ * Each countdown has a fixed deadline measured with System.nanoTime, so a late
+ * wake-up never makes the countdown longer. The scheduler wakes a countdown
+ * once per second to report the seconds left and once more at the deadline,
+ * and delivers the TimerListener callbacks on the executor chosen by the
+ * caller (for example SwingUtilities::invokeLater for the GUI).
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class CountdownScheduler implements AutoCloseable {
+
+    private static final long TICK_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static CountdownScheduler shared;
+
+    private final ScheduledThreadPoolExecutor executor;
+    private final AtomicInteger activeCount = new AtomicInteger();
+
+    /**
+     * Constructor to create a scheduler with its own threads.
+     *
+     * @param threads The number of scheduler threads. One is enough for many
+     *                thousands of countdowns as long as callbacks run elsewhere.
+     */
+    public CountdownScheduler(int threads) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ScheduledThreadPoolExecutor(threads, runnable -> {
+            Thread thread = new Thread(runnable, "countdown-scheduler-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Stopped countdowns should not stay in the queue until their deadline
+        executor.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Returns the process-wide scheduler, creating it on first use.
+     *
+     * @return The shared CountdownScheduler.
+     */
+    public static synchronized CountdownScheduler getShared() {
+        if (shared == null) {
+            shared = new CountdownScheduler(1);
+        }
+        return shared;
+    }
+
+    /**
+     * Starts a countdown. The listener receives timerTicked straight away and
+     * then every second, and timerExpired once the duration has passed,
+     * unless the countdown is cancelled first.
+     *
+     * @param duration The length of the countdown.
+     * @param unit The unit of duration.
+     * @param listener The listener to notify.
+     * @param callbackExecutor The executor the listener is called on.
+     * @return A handle that can cancel the countdown.
+     */
+    public Countdown start(long duration, TimeUnit unit, TimerListener listener, Executor callbackExecutor) {
+        return start(duration, unit, listener, callbackExecutor, true);
+    }
+
+    /**
+     * Starts a countdown, optionally without the per-second ticks. Servers
+     * that only need the deadline use this to wake the scheduler once per
+     * countdown instead of once per second.
+     *
+     * @param duration The length of the countdown.
+     * @param unit The unit of duration.
+     * @param listener The listener to notify.
+     * @param callbackExecutor The executor the listener is called on.
+     * @param reportTicks Whether timerTicked is called while the countdown runs.
+     * @return A handle that can cancel the countdown.
+     */
+    public Countdown start(long duration, TimeUnit unit, TimerListener listener, Executor callbackExecutor, boolean reportTicks) {
+        long durationNanos = unit.toNanos(duration);
+        Countdown countdown = new Countdown(System.nanoTime() + durationNanos, listener, callbackExecutor, reportTicks);
+        activeCount.incrementAndGet();
+        countdown.scheduleNext(reportTicks ? 0 : durationNanos);
+        return countdown;
+    }
+
+    /**
+     * @return The number of countdowns that have neither expired nor been cancelled.
+     */
+    public int getActiveCount() {
+        return activeCount.get();
+    }
+
+    /**
+     * Stops the scheduler threads. Countdowns still running never expire.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Handle to a running countdown.
+     */
+    public final class Countdown {
+        private static final int RUNNING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final long deadlineNanos;
+        private final TimerListener listener;
+        private final Executor callbackExecutor;
+        private final boolean reportTicks;
+        private final AtomicInteger state = new AtomicInteger(RUNNING);
+        private volatile ScheduledFuture<?> nextWakeUp;
+
+        private Countdown(long deadlineNanos, TimerListener listener, Executor callbackExecutor, boolean reportTicks) {
+            this.deadlineNanos = deadlineNanos;
+            this.listener = listener;
+            this.callbackExecutor = callbackExecutor;
+            this.reportTicks = reportTicks;
+        }
+
+        /**
+         * Stops the countdown. Ticks already handed to the callback executor
+         * are dropped, and timerExpired is never called afterwards.
+         *
+         * @return true if this call stopped the countdown, false if it had
+         *         already expired or been cancelled.
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(RUNNING, CANCELLED)) {
+                return false;
+            }
+            activeCount.decrementAndGet();
+            ScheduledFuture<?> wakeUp = nextWakeUp;
+            if (wakeUp != null) {
+                wakeUp.cancel(false);
+            }
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        /**
+         * @return The time left until the deadline, never negative.
+         */
+        public long getRemainingNanos() {
+            return Math.max(0, deadlineNanos - System.nanoTime());
+        }
+
+        /**
+         * @return The whole seconds left, rounded up as shown to the player.
+         */
+        public int getRemainingSeconds() {
+            return (int) ((getRemainingNanos() + TICK_NANOS - 1) / TICK_NANOS);
+        }
+
+        private void scheduleNext(long delayNanos) {
+            nextWakeUp = executor.schedule(this::wakeUp, delayNanos, TimeUnit.NANOSECONDS);
+            if (state.get() != RUNNING) {
+                nextWakeUp.cancel(false); // Cancelled while being rescheduled
+            }
+        }
+
+        /**
+         * Runs on the scheduler thread: reports the seconds left, or expires
+         * the countdown once the deadline has passed.
+         */
+        private void wakeUp() {
+            if (state.get() != RUNNING) {
+                return;
+            }
+            long remaining = deadlineNanos - System.nanoTime();
+            if (remaining <= 0) {
+                if (state.compareAndSet(RUNNING, EXPIRED)) {
+                    activeCount.decrementAndGet();
+                    callbackExecutor.execute(listener::timerExpired);
+                }
+                return;
+            }
+
+            if (!reportTicks) {
+                scheduleNext(remaining); // Woken up early; wait for the deadline
+                return;
+            }
+            int secondsLeft = (int) ((remaining + TICK_NANOS - 1) / TICK_NANOS);
+            callbackExecutor.execute(() -> {
+                if (state.get() == RUNNING) {
+                    listener.timerTicked(secondsLeft);
+                }
+            });
+
+            // Wake up when the displayed second changes, or at the deadline
+            long untilNextSecond = remaining % TICK_NANOS;
+            scheduleNext(untilNextSecond == 0 ? TICK_NANOS : untilNextSecond);
+        }
+    }
+}
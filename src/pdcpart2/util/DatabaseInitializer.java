@@ -1,6 +1,9 @@
 
 package pdcpart2.util;
 
+import pdcpart2.metrics.MetricsRegistry;
+import pdcpart2.dao.GameResultDAO;
+import pdcpart2.dao.GameResultWriter;
 import pdcpart2.model.Question;
 import pdcpart2.model.GameResult;
 import java.sql.Connection;
@@ -15,7 +18,11 @@ import java.util.ArrayList;
 /**
  * DatabaseInitializer is responsible for setting up the Apache Derby Embedded
  * database. It creates the Questions and Game_Results tables if they don't
- * exist and populates them with initial data.
+ * exist, runs SchemaMigrator to apply any pending schema changes and
+ * populates the tables with initial data. Larger banks can be imported from
+ * a QuestionPack. It also owns the connection pool that every DAO and loader
+ * borrows its connections from, and the background writer that stores game
+ * results.
  *
  * @Author: Setefano Muller
  *          Tharuka Rodrigo
@@ -23,10 +30,13 @@ import java.util.ArrayList;
 public class DatabaseInitializer {
 
     private static final String DERBY_EMBEDDED_DRIVER = "org.apache.derby.jdbc.EmbeddedDriver";
+    private static final int INSERT_BATCH_SIZE = 1000;
     private String databasePath;
     private String jdbcURL;
     private static DatabaseInitializer instance;
-    private Connection connection; // Add this field
+    private ConnectionPool connectionPool;
+    private GameResultWriter gameResultWriter;
+    private AnswerStatistics answerStatistics;
 
     /**
      * Constructor to initialize the DatabaseInitializer with the specified
@@ -64,14 +74,16 @@ public class DatabaseInitializer {
             Class.forName(DERBY_EMBEDDED_DRIVER);
             System.out.println("Derby Embedded Driver loaded successfully.");
 
-            // Establish a connection and keep it open
-            connection = DriverManager.getConnection(jdbcURL);
-            System.out.println("Database connection established.");
+            // Create the connection pool and check that the database is reachable
+            connectionPool = new ConnectionPool(jdbcURL);
+            registerPoolMetrics(connectionPool);
 
-            try (Statement stmt = connection.createStatement()) {
+            try (Connection connection = connectionPool.getConnection();
+                 Statement stmt = connection.createStatement()) {
+                System.out.println("Database connection established.");
 
                 // Create the Questions table if it doesn't exist
-                if (!doesTableExist("QUESTIONS")) {
+                if (!doesTableExist(connection, "QUESTIONS")) {
                     String createQuestionsTableSQL = "CREATE TABLE Questions ("
                             + "id INT PRIMARY KEY GENERATED ALWAYS AS IDENTITY (START WITH 1, INCREMENT BY 1),"
                             + "question VARCHAR(500) NOT NULL,"
@@ -89,7 +101,7 @@ public class DatabaseInitializer {
                 }
 
                 // Create the Game_Results table if it doesn't exist
-                if (!doesTableExist("GAME_RESULTS")) {
+                if (!doesTableExist(connection, "GAME_RESULTS")) {
                     String createGameResultsTableSQL = "CREATE TABLE Game_Results ("
                             + "id INT PRIMARY KEY GENERATED ALWAYS AS IDENTITY (START WITH 1, INCREMENT BY 1),"
                             + "player_name VARCHAR(255) NOT NULL,"
@@ -103,6 +115,12 @@ public class DatabaseInitializer {
                     System.out.println("Game_Results table already exists.");
                 }
 
+                // Bring indexes and supporting tables up to the current schema version
+                SchemaMigrator migrator = new SchemaMigrator();
+                int applied = migrator.migrate(connection);
+                System.out.println("Schema is at version " + migrator.getCurrentVersion(connection)
+                        + " (" + applied + " migration(s) applied).");
+
             } catch (SQLException e) {
                 System.err.println("Error during table creation.");
                 e.printStackTrace();
@@ -111,34 +129,33 @@ public class DatabaseInitializer {
         } catch (ClassNotFoundException e) {
             System.err.println("Derby Embedded Driver not found.");
             e.printStackTrace();
+        }
+    }
+
+    /**
+     * Populates the Questions table with initial data if it's empty.
+     */
+    public void populateDatabase() {
+        try (Connection connection = connectionPool.getConnection()) {
+            populateQuestions(connection);
         } catch (SQLException e) {
             System.err.println("Error establishing database connection.");
             e.printStackTrace();
         }
+
+        // No initial data needed for Game_Results table
     }
 
     /**
-     * Populates the Questions table with initial data if it's empty.
+     * Inserts the initial questions if the Questions table is empty.
+     *
+     * @param connection The connection to use.
      */
-    public void populateDatabase() {
+    private void populateQuestions(Connection connection) {
         // Populate Questions table if empty
-        if (isTableEmpty("Questions")) {
-            List<Question> initialQuestions = getInitialQuestions();
-            String insertQuestionsSQL = "INSERT INTO Questions (question, option_a, option_b, option_c, option_d, correct_answer, hint) "
-                    + "VALUES (?, ?, ?, ?, ?, ?, ?)";
-
-            try (PreparedStatement pstmt = connection.prepareStatement(insertQuestionsSQL)) {
-                for (Question q : initialQuestions) {
-                    pstmt.setString(1, q.getQuestionText());
-                    pstmt.setString(2, q.getOptionA());
-                    pstmt.setString(3, q.getOptionB());
-                    pstmt.setString(4, q.getOptionC());
-                    pstmt.setString(5, q.getOptionD());
-                    pstmt.setString(6, q.getCorrectAnswer());
-                    pstmt.setString(7, q.getHint());
-                    pstmt.addBatch();
-                }
-                pstmt.executeBatch();
+        if (isTableEmpty(connection, "Questions")) {
+            try {
+                insertQuestions(connection, getInitialQuestions());
                 System.out.println("Initial questions inserted successfully.");
             } catch (SQLException e) {
                 System.err.println("Error inserting initial questions.");
@@ -147,17 +164,71 @@ public class DatabaseInitializer {
         } else {
             System.out.println("Questions table is already populated.");
         }
+    }
 
-        // No initial data needed for Game_Results table
+    /**
+     * Adds every question in a question pack to the Questions table.
+     *
+     * @param pack The pack to import.
+     * @return The number of questions inserted.
+     * @throws SQLException If the import failed. Batches already committed are kept.
+     */
+    public int importQuestions(QuestionPack pack) throws SQLException {
+        try (Connection connection = connectionPool.getConnection()) {
+            return insertQuestions(connection, pack.asList());
+        }
+    }
+
+    /**
+     * Inserts questions in batches, committing each batch so a large bank
+     * does not build one huge transaction.
+     *
+     * @param connection The connection to use.
+     * @param questions The questions to insert.
+     * @return The number of questions inserted.
+     */
+    private int insertQuestions(Connection connection, List<Question> questions) throws SQLException {
+        String insertQuestionsSQL = "INSERT INTO Questions (question, option_a, option_b, option_c, option_d, correct_answer, hint, difficulty) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (PreparedStatement pstmt = connection.prepareStatement(insertQuestionsSQL)) {
+            int inserted = 0;
+            for (Question q : questions) {
+                pstmt.setString(1, q.getQuestionText());
+                pstmt.setString(2, q.getOptionA());
+                pstmt.setString(3, q.getOptionB());
+                pstmt.setString(4, q.getOptionC());
+                pstmt.setString(5, q.getOptionD());
+                pstmt.setString(6, q.getCorrectAnswer());
+                pstmt.setString(7, q.getHint());
+                pstmt.setInt(8, q.getDifficulty());
+                pstmt.addBatch();
+                if (++inserted % INSERT_BATCH_SIZE == 0) {
+                    pstmt.executeBatch();
+                    connection.commit();
+                }
+            }
+            pstmt.executeBatch();
+            connection.commit();
+            return inserted;
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
     }
 
     /**
      * Checks if a specific table exists in the database.
      *
+     * @param connection The connection to use.
      * @param tableName The name of the table to check.
      * @return true if the table exists, false otherwise.
      */
-    private boolean doesTableExist(String tableName) {
+    private boolean doesTableExist(Connection connection, String tableName) {
         try (ResultSet rs = connection.getMetaData().getTables(null, null, tableName.toUpperCase(), null)) {
             return rs.next();
         } catch (SQLException e) {
@@ -170,10 +241,11 @@ public class DatabaseInitializer {
     /**
      * Checks if a specific table is empty.
      *
+     * @param connection The connection to use.
      * @param tableName The name of the table to check.
      * @return true if the table is empty, false otherwise.
      */
-    private boolean isTableEmpty(String tableName) {
+    private boolean isTableEmpty(Connection connection, String tableName) {
         String countSQL = "SELECT COUNT(*) FROM " + tableName;
         try (Statement stmt = connection.createStatement(); ResultSet rs = stmt.executeQuery(countSQL)) {
             if (rs.next()) {
@@ -188,7 +260,8 @@ public class DatabaseInitializer {
     }
 
     /**
-     * Returns a list of initial questions to populate the database.
+     * Returns a list of initial questions to populate the database, one for
+     * each difficulty tier from easiest to hardest.
      *
      * @return List of Question objects.
      */
@@ -202,7 +275,8 @@ public class DatabaseInitializer {
                 "A changeable value",
                 "A function",
                 "A changeable value",
-                "It stores information that can be changed."
+                "It stores information that can be changed.",
+                1
         ));
 
         questions.add(new Question(
@@ -212,7 +286,8 @@ public class DatabaseInitializer {
                 "HyperLoop Machine Language",
                 "Home Tool Markup Language",
                 "HyperText Markup Language",
-                "It is used to create web pages."
+                "It is used to create web pages.",
+                2
         ));
 
         questions.add(new Question(
@@ -222,7 +297,8 @@ public class DatabaseInitializer {
                 "def",
                 "define",
                 "def",
-                "It tells Python to create a function."
+                "It tells Python to create a function.",
+                3
         ));
 
         questions.add(new Question(
@@ -232,7 +308,8 @@ public class DatabaseInitializer {
                 "Cascading Style Sheets",
                 "Colorful Style Sheets",
                 "Cascading Style Sheets",
-                "It is used for designing web pages."
+                "It is used for designing web pages.",
+                4
         ));
 
         questions.add(new Question(
@@ -242,7 +319,8 @@ public class DatabaseInitializer {
                 "To create an error",
                 "To stop the code",
                 "To repeat a block of code",
-                "Useful for iterating over data."
+                "Useful for iterating over data.",
+                5
         ));
 
         questions.add(new Question(
@@ -252,7 +330,8 @@ public class DatabaseInitializer {
                 "Ordered Object Programming",
                 "Overridden Object Properties",
                 "Object-Oriented Programming",
-                "It is a paradigm based on classes and objects."
+                "It is a paradigm based on classes and objects.",
+                6
         ));
 
         questions.add(new Question(
@@ -262,7 +341,8 @@ public class DatabaseInitializer {
                 "HTML",
                 "Java",
                 "HTML",
-                "One of these is a markup language only."
+                "One of these is a markup language only.",
+                7
         ));
 
         questions.add(new Question(
@@ -272,7 +352,8 @@ public class DatabaseInitializer {
                 "To make decisions",
                 "To terminate a program",
                 "To make decisions",
-                "Used for conditional execution."
+                "Used for conditional execution.",
+                8
         ));
 
         questions.add(new Question(
@@ -282,7 +363,8 @@ public class DatabaseInitializer {
                 ".js",
                 ".css",
                 ".js",
-                "JavaScript files use .js extension."
+                "JavaScript files use .js extension.",
+                9
         ));
 
         questions.add(new Question(
@@ -292,7 +374,8 @@ public class DatabaseInitializer {
                 "JavaScript",
                 "CSS",
                 "CSS",
-                "CSS helps in designing the visual part of the webpage."
+                "CSS helps in designing the visual part of the webpage.",
+                10
         ));
 
         questions.add(new Question(
@@ -302,7 +385,8 @@ public class DatabaseInitializer {
                 "Application Programming Interface",
                 "Automated Process Integration",
                 "Application Programming Interface",
-                "It allows different software applications to communicate with each other."
+                "It allows different software applications to communicate with each other.",
+                11
         ));
 
         questions.add(new Question(
@@ -312,7 +396,8 @@ public class DatabaseInitializer {
                 "=",
                 ":",
                 "==",
-                "Checks if two values are equal."
+                "Checks if two values are equal.",
+                12
         ));
 
         questions.add(new Question(
@@ -322,7 +407,8 @@ public class DatabaseInitializer {
                 "Structured Query Language",
                 "Standard Query Layout",
                 "Structured Query Language",
-                "It is used for managing databases."
+                "It is used for managing databases.",
+                13
         ));
 
         questions.add(new Question(
@@ -332,7 +418,8 @@ public class DatabaseInitializer {
                 "A step-by-step set of instructions to solve a problem",
                 "A database",
                 "A step-by-step set of instructions to solve a problem",
-                "It is used to solve problems systematically."
+                "It is used to solve problems systematically.",
+                14
         ));
 
         questions.add(new Question(
@@ -342,29 +429,88 @@ public class DatabaseInitializer {
                 "Integrated Development Environment",
                 "Internal Debugging Editor",
                 "Integrated Development Environment",
-                "It's a software application for developers."
+                "It's a software application for developers.",
+                15
         ));
 
         return questions;
     }
 
     /**
-     * Returns the current database connection.
+     * Checks out a connection from the pool. The caller must close it to
+     * return it to the pool.
+     *
+     * @return A pooled Connection object.
+     * @throws SQLException If no connection could be obtained.
+     */
+    public Connection getConnection() throws SQLException {
+        return connectionPool.getConnection();
+    }
+
+    /**
+     * Exports the connection pool's usage as gauges in the shared MetricsRegistry.
+     */
+    private static void registerPoolMetrics(ConnectionPool pool) {
+        MetricsRegistry metrics = MetricsRegistry.getShared();
+        metrics.gauge("ConnectionPool.active", pool::getActiveCount);
+        metrics.gauge("ConnectionPool.idle", pool::getIdleCount);
+        metrics.gauge("ConnectionPool.checkouts", pool::getCheckoutCount);
+        metrics.gauge("ConnectionPool.maxWaitMillis", pool::getMaxWaitMillis);
+    }
+
+    /**
+     * Returns the connection pool shared by the DAOs and loaders.
+     *
+     * @return The ConnectionPool for this database.
+     */
+    public ConnectionPool getConnectionPool() {
+        return connectionPool;
+    }
+
+    /**
+     * Returns the background writer for game results, starting it on first use.
      *
-     * @return The Connection object.
+     * @return The GameResultWriter for this database.
      */
-    public Connection getConnection() {
-        return connection;
+    public synchronized GameResultWriter getGameResultWriter() {
+        if (gameResultWriter == null) {
+            gameResultWriter = new GameResultWriter(new GameResultDAO(connectionPool));
+        }
+        return gameResultWriter;
     }
 
     /**
-     * Shuts down the Derby Embedded database explicitly.
+     * Returns the answer statistics stored in this database, loading them on
+     * first use.
+     *
+     * @return The AnswerStatistics for this database.
+     */
+    public synchronized AnswerStatistics getAnswerStatistics() {
+        if (answerStatistics == null) {
+            answerStatistics = new AnswerStatistics(connectionPool);
+        }
+        return answerStatistics;
+    }
+
+    /**
+     * Shuts down the Derby Embedded database explicitly. Game results still
+     * queued in the background writer, and answer statistics not yet
+     * flushed, are written first.
      */
     public synchronized void shutdownDatabase() {
         try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                System.out.println("Database connection closed.");
+            if (gameResultWriter != null) {
+                gameResultWriter.close();
+                gameResultWriter = null;
+                System.out.println("Pending game results written.");
+            }
+            if (answerStatistics != null) {
+                answerStatistics.close();
+                answerStatistics = null;
+            }
+            if (connectionPool != null && !connectionPool.isClosed()) {
+                connectionPool.close();
+                System.out.println("Database connection pool closed.");
             }
             DriverManager.getConnection("jdbc:derby:;shutdown=true");
         } catch (SQLException e) {
@@ -4,34 +4,114 @@ package pdcpart2.util;
 import java.awt.Font;
 import java.awt.FontFormatException;
 import java.awt.GraphicsEnvironment;
-import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * FontLoader is a utility class that provides methods to load custom fonts.
- * 
- * Author: Setefano Muller 
+ *
+ * It is a process-wide font registry: each font file is read from the
+ * classpath and registered with the graphics environment once, and every
+ * (style, size) variant derived from it is cached, so building a screen again
+ * for a new game neither parses the TrueType file nor derives fonts again.
+ * A font that cannot be read falls back to Serif, and the fallback is cached
+ * as well so the failure is only reported once.
+ *
+ * Author: Setefano Muller
  *         Tharuka Rodrigo
  */
 public class FontLoader {
 
     /**
-     * Loads a custom font from the specified path and size.
+     * The classpath resource of the font used by the game's screens.
+     */
+    public static final String GAME_FONT = "/pdcpart2/fonts/MesloLGS NF Regular.ttf";
+
+    private static final Map<String, Font> baseFonts = new ConcurrentHashMap<>();
+    private static final Map<FontKey, Font> derivedFonts = new ConcurrentHashMap<>();
+
+    /**
+     * Loads a custom font from the classpath in the plain style.
      *
-     * @param path The path to the font file.
+     * @param resource The classpath resource of the font file, for example GAME_FONT.
      * @param size The desired font size.
      * @return The loaded Font object.
      */
-    public static Font loadFont(String path, float size) {
-        try {
-            Font font = Font.createFont(Font.TRUETYPE_FONT, new File(path)).deriveFont(size);
+    public static Font loadFont(String resource, float size) {
+        return getFont(resource, Font.PLAIN, size);
+    }
+
+    /**
+     * Returns a font from the classpath in the given style and size, reading
+     * the font file only the first time it is asked for.
+     *
+     * @param resource The classpath resource of the font file.
+     * @param style Font.PLAIN, Font.BOLD, Font.ITALIC or BOLD | ITALIC.
+     * @param size The desired font size.
+     * @return The cached Font object.
+     */
+    public static Font getFont(String resource, int style, float size) {
+        return derivedFonts.computeIfAbsent(new FontKey(resource, style, size),
+                key -> baseFonts.computeIfAbsent(resource, FontLoader::readFont).deriveFont(style, size));
+    }
+
+    /**
+     * Returns the game's font in the given style and size.
+     *
+     * @param style Font.PLAIN, Font.BOLD, Font.ITALIC or BOLD | ITALIC.
+     * @param size The desired font size.
+     * @return The cached Font object.
+     */
+    public static Font getGameFont(int style, float size) {
+        return getFont(GAME_FONT, style, size);
+    }
+
+    /**
+     * Reads and registers a font file. Called once per resource.
+     */
+    private static Font readFont(String resource) {
+        try (InputStream in = FontLoader.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IOException("Font not found on the classpath: " + resource);
+            }
+            Font font = Font.createFont(Font.TRUETYPE_FONT, in);
             GraphicsEnvironment ge = GraphicsEnvironment.getLocalGraphicsEnvironment();
             ge.registerFont(font); // Register the font with the graphics environment
             return font;
         } catch (IOException | FontFormatException e) {
             e.printStackTrace();
-            return new Font("Serif", Font.PLAIN, (int) size); // Fallback to default font
+            return new Font("Serif", Font.PLAIN, 12); // Fallback to default font
         }
     }
-}
 
+    /**
+     * Identifies one derived font.
+     */
+    private static final class FontKey {
+        private final String resource;
+        private final int style;
+        private final float size;
+
+        private FontKey(String resource, int style, float size) {
+            this.resource = resource;
+            this.style = style;
+            this.size = size;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof FontKey)) {
+                return false;
+            }
+            FontKey key = (FontKey) other;
+            return style == key.style && Float.compare(size, key.size) == 0 && resource.equals(key.resource);
+        }
+
+        @Override
+        public int hashCode() {
+            return (resource.hashCode() * 31 + style) * 31 + Float.floatToIntBits(size);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+
+package pdcpart2.util;
+
+import java.sql.SQLException;
+import pdcpart2.dao.GameResultDAO;
+
+/**
+ * Command line tool that recomputes the Player_Stats table from Game_Results.
+ * Use it after results have been edited or removed outside the game.
+ *
+ * Usage: java -cp ... pdcpart2.util.PlayerStatsRebuilder [databasePath]
+ * or:    ant rebuild-player-stats [-Ddb.path=QuestionDB]
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class PlayerStatsRebuilder {
+
+    private static final String DEFAULT_DATABASE_PATH = "QuestionDB";
+
+    public static void main(String[] args) {
+        String databasePath = args.length > 0 ? args[0] : DEFAULT_DATABASE_PATH;
+        DatabaseInitializer dbInitializer = DatabaseInitializer.getInstance(databasePath);
+        int status = 0;
+        try {
+            long start = System.currentTimeMillis();
+            int players = new GameResultDAO(dbInitializer.getConnectionPool()).rebuildPlayerStats();
+            System.out.println("Rebuilt stats for " + players + " player(s) in "
+                    + (System.currentTimeMillis() - start) + " ms.");
+        } catch (SQLException e) {
+            System.err.println("Error rebuilding player stats.");
+            e.printStackTrace();
+            status = 1;
+        } finally {
+            dbInitializer.shutdownDatabase();
+        }
+        System.exit(status);
+    }
+}
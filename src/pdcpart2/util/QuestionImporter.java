@@ -0,0 +1,633 @@
+
+package pdcpart2.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import pdcpart2.model.Question;
+
+/**
+ * QuestionImporter streams questions from a CSV or JSON-lines file into the
+ * Questions table.
+ *
+ * The file is read one record at a time and rows are inserted with
+ * PreparedStatement batches, committing every commit interval rows, so the
+ * memory used does not depend on the size of the file. Each row is checked
+ * before it is inserted: every field but the hint is required, texts must fit
+ * their columns, and correct_answer must equal one of the four options.
+ * Rows that fail are skipped and reported with their line number.
+ *
+ * CSV files need a header row naming the columns (question, option_a,
+ * option_b, option_c, option_d, correct_answer and optionally hint and
+ * difficulty) in any order. A missing difficulty imports the row unrated.
+ * Fields may be quoted, with "" for a quote inside a quoted field.
+ * JSON-lines files hold one object per line with the same keys.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class QuestionImporter {
+
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    public static final int DEFAULT_COMMIT_INTERVAL = 10_000;
+    public static final int MAX_REPORTED_ERRORS = 100;
+
+    private static final String[] COLUMNS = {"question", "option_a", "option_b", "option_c", "option_d", "correct_answer", "hint", "difficulty"};
+    private static final int[] MAX_LENGTHS = {500, 255, 255, 255, 255, 255, 500}; // Text columns only
+    private static final int CORRECT_ANSWER = 5;
+    private static final int HINT = 6;
+    private static final int DIFFICULTY = 7;
+
+    /**
+     * The supported input formats.
+     */
+    public enum Format {
+        CSV, JSONL;
+
+        /**
+         * Picks the format from a file name: .csv is CSV, .jsonl, .ndjson and .json are JSON lines.
+         *
+         * @param file The file to import.
+         * @return The format of the file.
+         * @throws IllegalArgumentException If the extension is not recognised.
+         */
+        public static Format forFile(Path file) {
+            String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+            if (name.endsWith(".csv")) {
+                return CSV;
+            }
+            if (name.endsWith(".jsonl") || name.endsWith(".ndjson") || name.endsWith(".json")) {
+                return JSONL;
+            }
+            throw new IllegalArgumentException("Cannot tell the format of " + file + "; use .csv or .jsonl");
+        }
+    }
+
+    private final ConnectionPool connectionPool;
+    private final int batchSize;
+    private final int commitInterval;
+
+    /**
+     * Constructor to create an importer with the default batch size and commit interval.
+     *
+     * @param connectionPool The pool to borrow a connection from.
+     */
+    public QuestionImporter(ConnectionPool connectionPool) {
+        this(connectionPool, DEFAULT_BATCH_SIZE, DEFAULT_COMMIT_INTERVAL);
+    }
+
+    /**
+     * Constructor to create an importer.
+     *
+     * @param connectionPool The pool to borrow a connection from.
+     * @param batchSize The number of rows sent to the database in one JDBC batch.
+     * @param commitInterval The number of rows inserted between commits.
+     */
+    public QuestionImporter(ConnectionPool connectionPool, int batchSize, int commitInterval) {
+        if (batchSize < 1 || commitInterval < 1) {
+            throw new IllegalArgumentException("Batch size and commit interval must be at least 1: "
+                    + batchSize + ", " + commitInterval);
+        }
+        this.connectionPool = connectionPool;
+        this.batchSize = batchSize;
+        this.commitInterval = commitInterval;
+    }
+
+    /**
+     * Imports a file, choosing the format from its extension.
+     *
+     * @param file The CSV or JSON-lines file.
+     * @return The import report.
+     * @throws IOException If the file cannot be read.
+     * @throws SQLException If the database rejected a batch. Rows committed before it are kept.
+     */
+    public Report importFile(Path file) throws IOException, SQLException {
+        return importFile(file, Format.forFile(file));
+    }
+
+    /**
+     * Imports a file in the given format.
+     *
+     * @param file The file to import, in UTF-8.
+     * @param format The file's format.
+     * @return The import report.
+     */
+    public Report importFile(Path file, Format format) throws IOException, SQLException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return importFrom(reader, format);
+        }
+    }
+
+    /**
+     * Imports questions from a stream of text.
+     *
+     * @param input The text to import. Not closed by this method.
+     * @param format The text's format.
+     * @return The import report.
+     */
+    public Report importFrom(Reader input, Format format) throws IOException, SQLException {
+        RecordReader records = format == Format.CSV ? new CsvRecordReader(input) : new JsonLinesRecordReader(input);
+        Report report = new Report();
+        long start = System.nanoTime();
+
+        String insertSQL = "INSERT INTO Questions (question, option_a, option_b, option_c, option_d, correct_answer, hint, difficulty) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        try (Connection connection = connectionPool.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement pstmt = connection.prepareStatement(insertSQL)) {
+                int batched = 0;
+                int uncommitted = 0;
+                String[] row;
+                while ((row = nextRow(records, report)) != null) {
+                    for (int i = 0; i < DIFFICULTY; i++) {
+                        pstmt.setString(i + 1, row[i]);
+                    }
+                    pstmt.setInt(DIFFICULTY + 1, row[DIFFICULTY] == null ? Question.UNRATED : Integer.parseInt(row[DIFFICULTY]));
+                    pstmt.addBatch();
+                    batched++;
+                    uncommitted++;
+
+                    if (batched == batchSize || uncommitted >= commitInterval) {
+                        pstmt.executeBatch();
+                        batched = 0;
+                    }
+                    if (uncommitted >= commitInterval) {
+                        connection.commit();
+                        report.rowsImported += uncommitted;
+                        report.commits++;
+                        uncommitted = 0;
+                    }
+                }
+                if (uncommitted > 0) {
+                    pstmt.executeBatch();
+                    connection.commit();
+                    report.rowsImported += uncommitted;
+                    report.commits++;
+                }
+            } catch (SQLException | IOException | RuntimeException e) {
+                connection.rollback(); // Keeps everything committed before the failed batch
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } finally {
+            report.elapsedNanos = System.nanoTime() - start;
+        }
+        return report;
+    }
+
+    /**
+     * Reads records until one passes validation, reporting the ones that do not.
+     *
+     * @return The column values in insert order, or null at the end of the input.
+     */
+    private static String[] nextRow(RecordReader records, Report report) throws IOException {
+        while (true) {
+            Map<String, String> record;
+            try {
+                record = records.next();
+            } catch (MalformedRecordException e) {
+                report.reject(e.line, e.getMessage());
+                continue;
+            }
+            if (record == null) {
+                return null;
+            }
+            report.rowsRead++;
+
+            String[] row = new String[COLUMNS.length];
+            String problem = null;
+            for (int i = 0; i < COLUMNS.length && problem == null; i++) {
+                String value = record.get(COLUMNS[i]);
+                value = value == null ? null : value.trim();
+                if (value == null || value.isEmpty()) {
+                    if (i < HINT) {
+                        problem = "Missing " + COLUMNS[i];
+                    }
+                    value = null;
+                } else if (i < MAX_LENGTHS.length && value.length() > MAX_LENGTHS[i]) {
+                    problem = COLUMNS[i] + " is longer than " + MAX_LENGTHS[i] + " characters";
+                }
+                row[i] = value;
+            }
+            if (problem == null && !isOption(row, row[CORRECT_ANSWER])) {
+                problem = "correct_answer \"" + row[CORRECT_ANSWER] + "\" is not one of the options";
+            }
+            if (problem == null && row[DIFFICULTY] != null && !isDifficulty(row[DIFFICULTY])) {
+                problem = "difficulty \"" + row[DIFFICULTY] + "\" is not between " + Question.UNRATED
+                        + " and " + Question.MAX_DIFFICULTY;
+            }
+
+            if (problem == null) {
+                return row;
+            }
+            report.reject(records.getRecordLine(), problem);
+        }
+    }
+
+    private static boolean isDifficulty(String value) {
+        try {
+            int difficulty = Integer.parseInt(value);
+            return difficulty >= Question.UNRATED && difficulty <= Question.MAX_DIFFICULTY;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static boolean isOption(String[] row, String answer) {
+        for (int i = 1; i <= 4; i++) {
+            if (row[i].equals(answer)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The outcome of an import. Only the first MAX_REPORTED_ERRORS problems
+     * are kept, so a bad file cannot fill the heap with errors.
+     */
+    public static final class Report {
+        private long rowsRead;
+        private long rowsImported;
+        private long rowsRejected;
+        private long commits;
+        private long elapsedNanos;
+        private final List<String> errors = new ArrayList<>();
+
+        private Report() {
+        }
+
+        private void reject(long line, String message) {
+            rowsRejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("Line " + line + ": " + message);
+            }
+        }
+
+        public long getRowsRead() { return rowsRead; }
+
+        public long getRowsImported() { return rowsImported; }
+
+        public long getRowsRejected() { return rowsRejected; }
+
+        public long getCommits() { return commits; }
+
+        public double getElapsedSeconds() { return elapsedNanos / 1e9; }
+
+        public double getRowsPerSecond() {
+            return elapsedNanos > 0 ? rowsImported / (elapsedNanos / 1e9) : 0.0;
+        }
+
+        /**
+         * @return Descriptions of the first rejected rows, with their line numbers.
+         */
+        public List<String> getErrors() {
+            return Collections.unmodifiableList(errors);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("read=%d imported=%d rejected=%d commits=%d time=%.2fs rows/s=%.0f",
+                    rowsRead, rowsImported, rowsRejected, commits, getElapsedSeconds(), getRowsPerSecond());
+        }
+    }
+
+    /**
+     * Thrown by a RecordReader for a record it cannot parse. The reader is
+     * left at the start of the next record.
+     */
+    private static final class MalformedRecordException extends IOException {
+        private final long line;
+
+        private MalformedRecordException(long line, String message) {
+            super(message);
+            this.line = line;
+        }
+    }
+
+    /**
+     * Reads one record at a time as a map from column name to value.
+     */
+    private interface RecordReader {
+        Map<String, String> next() throws IOException;
+
+        long getRecordLine();
+    }
+
+    /**
+     * Reads CSV records. Quoted fields may contain commas, quotes written as
+     * "" and line breaks.
+     */
+    private static final class CsvRecordReader implements RecordReader {
+        private final Reader in;
+        private String[] header;
+        private long line = 1;
+        private long recordLine;
+        private int peeked = -2;
+
+        private CsvRecordReader(Reader in) {
+            this.in = in;
+        }
+
+        @Override
+        public long getRecordLine() {
+            return recordLine;
+        }
+
+        @Override
+        public Map<String, String> next() throws IOException {
+            if (header == null) {
+                List<String> names = readFields();
+                if (names == null) {
+                    return null;
+                }
+                header = new String[names.size()];
+                for (int i = 0; i < header.length; i++) {
+                    header[i] = names.get(i).trim().toLowerCase(Locale.ROOT);
+                }
+                for (int i = 0; i < HINT; i++) {
+                    if (!Arrays.asList(header).contains(COLUMNS[i])) {
+                        throw new IOException("The CSV header has no " + COLUMNS[i] + " column.");
+                    }
+                }
+            }
+
+            List<String> fields;
+            do {
+                fields = readFields();
+                if (fields == null) {
+                    return null;
+                }
+            } while (fields.size() == 1 && fields.get(0).isEmpty()); // Skip blank lines
+
+            if (fields.size() != header.length) {
+                throw new MalformedRecordException(recordLine, "Expected " + header.length + " fields but found " + fields.size());
+            }
+            Map<String, String> record = new HashMap<>();
+            for (int i = 0; i < header.length; i++) {
+                record.put(header[i], fields.get(i));
+            }
+            return record;
+        }
+
+        /**
+         * @return The fields of the next record, or null at the end of the input.
+         */
+        private List<String> readFields() throws IOException {
+            int c = read();
+            if (c < 0) {
+                return null;
+            }
+            recordLine = line;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c < 0) {
+                        throw new MalformedRecordException(recordLine, "Unterminated quoted field");
+                    }
+                    if (c == '"') {
+                        if (peek() == '"') {
+                            read();
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c < 0 || c == '\n' || c == '\r') {
+                    if (c == '\r' && peek() == '\n') {
+                        read();
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+
+        private int read() throws IOException {
+            int c;
+            if (peeked != -2) {
+                c = peeked;
+                peeked = -2;
+            } else {
+                c = in.read();
+            }
+            if (c == '\n') {
+                line++;
+            }
+            return c;
+        }
+
+        private int peek() throws IOException {
+            if (peeked == -2) {
+                peeked = in.read();
+            }
+            return peeked;
+        }
+    }
+
+    /**
+     * Reads JSON-lines records: one flat object per line whose values are
+     * strings, numbers or null.
+     */
+    private static final class JsonLinesRecordReader implements RecordReader {
+        private final BufferedReader in;
+        private long line;
+        private String text;
+        private int pos;
+
+        private JsonLinesRecordReader(Reader in) {
+            this.in = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in);
+        }
+
+        @Override
+        public long getRecordLine() {
+            return line;
+        }
+
+        @Override
+        public Map<String, String> next() throws IOException {
+            do {
+                text = in.readLine();
+                if (text == null) {
+                    return null;
+                }
+                line++;
+            } while (text.trim().isEmpty());
+
+            pos = 0;
+            Map<String, String> record = new HashMap<>();
+            expect('{');
+            if (peekToken() == '}') {
+                pos++;
+            } else {
+                do {
+                    String key = readString();
+                    expect(':');
+                    String value;
+                    int first = peekToken();
+                    if (text.startsWith("null", pos)) {
+                        pos += 4;
+                        value = null;
+                    } else if (first == '-' || (first >= '0' && first <= '9')) {
+                        value = readNumber();
+                    } else {
+                        value = readString();
+                    }
+                    record.put(key.toLowerCase(Locale.ROOT), value);
+                } while (consume(','));
+                expect('}');
+            }
+            if (skipSpace() != text.length()) {
+                throw malformed("Unexpected text after the object");
+            }
+            return record;
+        }
+
+        private String readString() throws MalformedRecordException {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (pos < text.length()) {
+                char c = text.charAt(pos++);
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                if (pos >= text.length()) {
+                    break;
+                }
+                char escape = text.charAt(pos++);
+                switch (escape) {
+                    case '"': case '\\': case '/': value.append(escape); break;
+                    case 'b': value.append('\b'); break;
+                    case 'f': value.append('\f'); break;
+                    case 'n': value.append('\n'); break;
+                    case 'r': value.append('\r'); break;
+                    case 't': value.append('\t'); break;
+                    case 'u':
+                        if (pos + 4 > text.length()) {
+                            throw malformed("Bad \\u escape");
+                        }
+                        try {
+                            value.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw malformed("Bad \\u escape");
+                        }
+                        pos += 4;
+                        break;
+                    default:
+                        throw malformed("Bad escape \\" + escape);
+                }
+            }
+            throw malformed("Unterminated string");
+        }
+
+        private String readNumber() {
+            int start = pos;
+            while (pos < text.length() && "+-.eE0123456789".indexOf(text.charAt(pos)) >= 0) {
+                pos++;
+            }
+            return text.substring(start, pos);
+        }
+
+        private void expect(char c) throws MalformedRecordException {
+            if (!consume(c)) {
+                throw malformed("Expected '" + c + "'");
+            }
+        }
+
+        private boolean consume(char c) {
+            if (peekToken() == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private int peekToken() {
+            int at = skipSpace();
+            return at < text.length() ? text.charAt(at) : -1;
+        }
+
+        private int skipSpace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+            return pos;
+        }
+
+        private MalformedRecordException malformed(String message) {
+            return new MalformedRecordException(line, message + " at column " + (pos + 1));
+        }
+    }
+
+    /**
+     * Imports a question file into the game's database.
+     *
+     * Usage: java -cp ... pdcpart2.util.QuestionImporter file [databasePath] [commitInterval]
+     * or:    ant import-questions -Dimport.file=bank.csv [-Ddb.path=QuestionDB] [-Dimport.commit=10000]
+     *
+     * @param args The file, and optionally the database path and commit interval.
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: QuestionImporter file [databasePath] [commitInterval]");
+            System.exit(2);
+        }
+        Path file = Paths.get(args[0]);
+        String databasePath = args.length > 1 ? args[1] : "QuestionDB";
+        int commitInterval = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_COMMIT_INTERVAL;
+
+        DatabaseInitializer dbInitializer = DatabaseInitializer.getInstance(databasePath);
+        int status = 0;
+        try {
+            QuestionImporter importer = new QuestionImporter(dbInitializer.getConnectionPool(),
+                    Math.min(DEFAULT_BATCH_SIZE, commitInterval), commitInterval);
+            Report report = importer.importFile(file);
+            for (String error : report.getErrors()) {
+                System.err.println(error);
+            }
+            if (report.getRowsRejected() > report.getErrors().size()) {
+                System.err.println("... and " + (report.getRowsRejected() - report.getErrors().size()) + " more rejected row(s)");
+            }
+            System.out.println("Imported " + file + ": " + report);
+        } catch (IOException | SQLException e) {
+            System.err.println("Error importing questions from " + file + ".");
+            e.printStackTrace();
+            status = 1;
+        } finally {
+            dbInitializer.shutdownDatabase();
+        }
+        System.exit(status);
+    }
+}
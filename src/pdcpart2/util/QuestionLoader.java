@@ -1,62 +1,116 @@
 
 package pdcpart2.util;
 
+import pdcpart2.jfr.QuestionBankLoadedEvent;
+import pdcpart2.metrics.LatencyHistogram;
+import pdcpart2.metrics.MetricsRegistry;
 import pdcpart2.model.Question;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
- * QuestionLoader loads quiz questions from the Derby embedded database.
+ * QuestionLoader loads quiz questions from the Derby embedded database using
+ * a connection borrowed from the shared connection pool.
+ *
+ * Option and hint texts that repeat across the bank ("True", "False", "None
+ * of the above") are shared, so each distinct text is held once however many
+ * questions use it.
+ *
+ * Each load is timed in the shared MetricsRegistry and committed as a
+ * QuestionBankLoadedEvent for Flight Recorder.
  * 
  * Author: Setefano Muller 
  *         Tharuka Rodrigo
  */
 public class QuestionLoader {
+    private static final LatencyHistogram LOAD_LATENCY =
+            MetricsRegistry.getShared().histogram("QuestionLoader.loadQuestions");
+
     private List<Question> questions = new ArrayList<>();
 
     // Constructor to initialize and load questions from the database
     public QuestionLoader(String databasePath) {
-        loadQuestions(databasePath);
+        this(DatabaseInitializer.getInstance(databasePath).getConnectionPool());
     }
 
-    // Load questions from the database
-    private void loadQuestions(String databasePath) {
-        String jdbcURL = "jdbc:derby:" + databasePath + ";create=true";
-        String query = "SELECT question, option_a, option_b, option_c, option_d, correct_answer, hint FROM Questions";
-
-        // Load the Derby Embedded Driver
+    // Constructor to load questions using connections from the given pool; a failed load leaves the list short
+    public QuestionLoader(ConnectionPool connectionPool) {
         try {
-            Class.forName("org.apache.derby.jdbc.EmbeddedDriver");
-        } catch (ClassNotFoundException e) {
-            System.err.println("Derby Embedded Driver not found.");
+            loadQuestions(connectionPool);
+        } catch (SQLException e) {
+            System.err.println("Error connecting to or querying the database.");
             e.printStackTrace();
-            return;
         }
+    }
+
+    private QuestionLoader() {
+    }
+
+    // Load the whole bank, throwing instead of returning a partial list if the database fails
+    public static List<Question> load(ConnectionPool connectionPool) throws SQLException {
+        QuestionLoader loader = new QuestionLoader();
+        loader.loadQuestions(connectionPool);
+        return loader.questions;
+    }
+
+    // Load questions from the database
+    private void loadQuestions(ConnectionPool connectionPool) throws SQLException {
+        String query = "SELECT question, option_a, option_b, option_c, option_d, correct_answer, hint, difficulty FROM Questions";
+        long start = System.nanoTime();
+        QuestionBankLoadedEvent event = new QuestionBankLoadedEvent();
+        event.begin();
+        int skipped = 0;
 
-        try (Connection connection = DriverManager.getConnection(jdbcURL);
+        try (Connection connection = connectionPool.getConnection();
              PreparedStatement preparedStatement = connection.prepareStatement(query);
              ResultSet resultSet = preparedStatement.executeQuery()) {
 
+            Map<String, String> sharedTexts = new HashMap<>();
             while (resultSet.next()) {
                 String question = resultSet.getString("question");
-                String optionA = resultSet.getString("option_a");
-                String optionB = resultSet.getString("option_b");
-                String optionC = resultSet.getString("option_c");
-                String optionD = resultSet.getString("option_d");
+                String[] options = {
+                    share(sharedTexts, resultSet.getString("option_a")),
+                    share(sharedTexts, resultSet.getString("option_b")),
+                    share(sharedTexts, resultSet.getString("option_c")),
+                    share(sharedTexts, resultSet.getString("option_d"))
+                };
                 String correctAnswer = resultSet.getString("correct_answer");
-                String hint = resultSet.getString("hint");
+                String hint = share(sharedTexts, resultSet.getString("hint"));
+                int difficulty = resultSet.getInt("difficulty");
 
-                questions.add(new Question(question, optionA, optionB, optionC, optionD, correctAnswer, hint));
+                int correctIndex = -1;
+                for (int i = 0; i < options.length; i++) {
+                    if (options[i] != null && options[i].equals(correctAnswer)) {
+                        correctIndex = i;
+                        break;
+                    }
+                }
+                if (correctIndex < 0) {
+                    System.err.println("Skipping question with no matching answer: " + question);
+                    skipped++;
+                    continue;
+                }
+                questions.add(new Question(question, options, correctIndex, hint, difficulty));
             }
-        } catch (SQLException e) {
-            System.err.println("Error connecting to or querying the database.");
-            e.printStackTrace();
+        } finally {
+            LOAD_LATENCY.recordSince(start);
+            event.finish(questions.size(), skipped);
+        }
+    }
+
+    // Return the shared copy of a text, remembering it if it is new
+    private static String share(Map<String, String> sharedTexts, String text) {
+        if (text == null) {
+            return null;
         }
+        String shared = sharedTexts.putIfAbsent(text, text);
+        return shared != null ? shared : text;
     }
 
     // Return the list of questions
@@ -0,0 +1,367 @@
+
+package pdcpart2.util;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+import pdcpart2.model.Question;
+
+/**
+ * QuestionPack is a read-only question bank stored in a compact binary file
+ * and read through a MappedByteBuffer. Opening a pack only maps the file and
+ * checks its header; each Question is decoded when it is asked for, so a bank
+ * of hundreds of thousands of questions costs neither a JDBC load nor a heap
+ * full of Question objects.
+ *
+ * File layout (all numbers big-endian):
+ *
+ *   Header (24 bytes)
+ *     int    magic            "QPK" followed by a zero byte
+ *     short  format version
+ *     short  record size      bytes per entry in the offset table
+ *     int    question count
+ *     int    pool offset      start of the string pool in the file
+ *     int    pool length
+ *     int    CRC32            of every byte after the header
+ *   Offset table, one fixed-size record per question
+ *     int    question, option A, option B, option C, option D, hint
+ *                             string pool offsets; the hint is -1 if absent
+ *     byte   correct option   0 to 3 for A to D
+ *     byte   difficulty       the question's tier, 0 if unrated
+ *     byte[2] reserved
+ *   String pool
+ *     unsigned short length, then that many bytes of UTF-8, per string.
+ *     Equal strings are stored once.
+ *
+ * Packs are written with QuestionPack.Writer and can seed the Questions
+ * table (see DatabaseInitializer.importQuestions) or serve questions directly.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class QuestionPack {
+
+    public static final int MAGIC = 0x51504B00;
+    public static final short FORMAT_VERSION = 1;
+
+    private static final int HEADER_SIZE = 24;
+    private static final int CRC_OFFSET = 20;
+    private static final int RECORD_SIZE = 28;
+    private static final int STRING_FIELDS = 6;
+    private static final int HINT_FIELD = 5;
+    private static final int CORRECT_OFFSET = STRING_FIELDS * Integer.BYTES;
+    private static final int DIFFICULTY_OFFSET = CORRECT_OFFSET + 1;
+    private static final int NO_STRING = -1;
+    private static final int MAX_STRING_BYTES = 0xFFFF;
+
+    private final Path path;
+    private final ByteBuffer buffer;
+    private final int questionCount;
+    private final int poolOffset;
+    private final List<Question> questions = new PackList();
+
+    private QuestionPack(Path path, ByteBuffer buffer, int questionCount, int poolOffset) {
+        this.path = path;
+        this.buffer = buffer;
+        this.questionCount = questionCount;
+        this.poolOffset = poolOffset;
+    }
+
+    /**
+     * Maps a question pack and checks its header and checksum.
+     *
+     * @param path The pack file.
+     * @return The opened pack.
+     * @throws IOException If the file cannot be read or is not a valid pack.
+     */
+    public static QuestionPack open(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException(path + " is not a question pack (size " + size + ").");
+            }
+            // The mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException(path + " is not a question pack.");
+        }
+        short version = buffer.getShort(4);
+        if (version != FORMAT_VERSION) {
+            throw new IOException(path + " has pack format " + version + "; this build reads format " + FORMAT_VERSION + ".");
+        }
+        int recordSize = buffer.getShort(6);
+        int count = buffer.getInt(8);
+        int poolOffset = buffer.getInt(12);
+        int poolLength = buffer.getInt(16);
+        if (recordSize != RECORD_SIZE || count < 0
+                || poolOffset != HEADER_SIZE + (long) count * RECORD_SIZE
+                || (long) poolOffset + poolLength != buffer.capacity()) {
+            throw new IOException(path + " has an invalid question pack header.");
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(HEADER_SIZE, buffer.capacity() - HEADER_SIZE));
+        if ((int) crc.getValue() != buffer.getInt(CRC_OFFSET)) {
+            throw new IOException(path + " is corrupt (checksum mismatch).");
+        }
+        return new QuestionPack(path, buffer, count, poolOffset);
+    }
+
+    /**
+     * @return The pack file.
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * @return The number of questions in the pack.
+     */
+    public int size() {
+        return questionCount;
+    }
+
+    /**
+     * Decodes one question from the pack. Safe to call from any thread.
+     *
+     * @param index The question's position in the pack.
+     * @return A new Question.
+     * @throws IndexOutOfBoundsException If there is no question at that index.
+     */
+    public Question get(int index) {
+        if (index < 0 || index >= questionCount) {
+            throw new IndexOutOfBoundsException("Question " + index + " of " + questionCount);
+        }
+        int record = HEADER_SIZE + index * RECORD_SIZE;
+        String text = readString(buffer.getInt(record));
+        String[] options = new String[4];
+        for (int i = 0; i < options.length; i++) {
+            options[i] = readString(buffer.getInt(record + (i + 1) * Integer.BYTES));
+        }
+        String hint = readString(buffer.getInt(record + HINT_FIELD * Integer.BYTES));
+        int correct = buffer.get(record + CORRECT_OFFSET);
+        return new Question(text, options, correct, hint, getDifficulty(index));
+    }
+
+    /**
+     * Reads a question's difficulty without decoding its texts.
+     *
+     * @param index The question's position in the pack.
+     * @return The difficulty tier, or Question.UNRATED.
+     */
+    public int getDifficulty(int index) {
+        if (index < 0 || index >= questionCount) {
+            throw new IndexOutOfBoundsException("Question " + index + " of " + questionCount);
+        }
+        return buffer.get(HEADER_SIZE + index * RECORD_SIZE + DIFFICULTY_OFFSET);
+    }
+
+    /**
+     * Returns the pack as a read-only list that decodes each question when it
+     * is read, so it can stand in for a loaded question bank.
+     *
+     * @return An unmodifiable, random access list view of the pack.
+     */
+    public List<Question> asList() {
+        return questions;
+    }
+
+    // Uses absolute reads only, so concurrent callers never share a position
+    private String readString(int offset) {
+        if (offset == NO_STRING) {
+            return null;
+        }
+        int start = poolOffset + offset;
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort(start))];
+        buffer.get(start + Short.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The lazily decoding list returned by asList().
+     */
+    private final class PackList extends AbstractList<Question> implements RandomAccess {
+        @Override
+        public Question get(int index) {
+            return QuestionPack.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return questionCount;
+        }
+    }
+
+    /**
+     * Writer builds a question pack one question at a time. finish() writes
+     * a temporary file and then moves it into place; closing the writer
+     * without finishing discards the questions, so a failed export never
+     * leaves a truncated or partial pack behind.
+     */
+    public static final class Writer implements Closeable {
+        private final Path path;
+        private final ByteArrayOutputStream records = new ByteArrayOutputStream();
+        private final DataOutputStream recordOut = new DataOutputStream(records);
+        private final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+        private final Map<String, Integer> pooledStrings = new HashMap<>();
+        private int questionCount;
+        private boolean finished;
+
+        /**
+         * Constructor to start a new pack.
+         *
+         * @param path The file to write. Replaced if it exists.
+         */
+        public Writer(Path path) {
+            this.path = path;
+        }
+
+        /**
+         * Adds a question to the pack. A rejected question leaves the pack
+         * unchanged, so the caller may skip it and carry on.
+         *
+         * @param question The question to add.
+         * @throws IllegalArgumentException If an option is missing or a text is
+         *         too long for the format.
+         */
+        public void add(Question question) throws IOException {
+            if (finished) {
+                throw new IllegalStateException("The pack has already been written");
+            }
+            checkLength(question.getQuestionText());
+            for (int i = 0; i < Question.OPTION_COUNT; i++) {
+                if (question.getOption(i) == null) {
+                    throw new IllegalArgumentException("Option " + (char) ('A' + i) + " is missing: "
+                            + question.getQuestionText());
+                }
+                checkLength(question.getOption(i));
+            }
+            if (question.getHint() != null) {
+                checkLength(question.getHint());
+            }
+            recordOut.writeInt(pool(question.getQuestionText()));
+            for (int i = 0; i < Question.OPTION_COUNT; i++) {
+                recordOut.writeInt(pool(question.getOption(i)));
+            }
+            recordOut.writeInt(question.getHint() != null ? pool(question.getHint()) : NO_STRING);
+            recordOut.writeByte(question.getCorrectIndex());
+            recordOut.writeByte(question.getDifficulty());
+            recordOut.write(new byte[RECORD_SIZE - DIFFICULTY_OFFSET - 1]);
+            questionCount++;
+        }
+
+        /**
+         * Adds every question in a list to the pack.
+         *
+         * @param questions The questions to add, in order.
+         */
+        public void addAll(List<Question> questions) throws IOException {
+            for (Question question : questions) {
+                add(question);
+            }
+        }
+
+        /**
+         * @return The number of questions added so far.
+         */
+        public int getQuestionCount() {
+            return questionCount;
+        }
+
+        /**
+         * Writes the pack file, replacing the old one in a single step.
+         */
+        public void finish() throws IOException {
+            if (finished) {
+                return;
+            }
+            finished = true;
+
+            Path dir = path.toAbsolutePath().getParent();
+            Path temp = Files.createTempFile(dir, path.getFileName().toString(), ".tmp");
+            try {
+                try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                    // The body goes after the header, computing the CRC as it is written
+                    channel.position(HEADER_SIZE);
+                    CheckedOutputStream body = new CheckedOutputStream(
+                            new BufferedOutputStream(Channels.newOutputStream(channel)), new CRC32());
+                    records.writeTo(body);
+                    pool.writeTo(body);
+                    body.flush();
+
+                    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                            .putInt(MAGIC)
+                            .putShort(FORMAT_VERSION)
+                            .putShort((short) RECORD_SIZE)
+                            .putInt(questionCount)
+                            .putInt(HEADER_SIZE + records.size())
+                            .putInt(pool.size())
+                            .putInt((int) body.getChecksum().getValue())
+                            .flip();
+                    while (header.hasRemaining()) {
+                        channel.write(header, header.position());
+                    }
+                }
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+
+        /**
+         * Discards the questions unless finish() was called, so a failed
+         * export never replaces the existing pack.
+         */
+        @Override
+        public void close() {
+            finished = true;
+            records.reset();
+            pool.reset();
+            pooledStrings.clear();
+        }
+
+        private static void checkLength(String value) {
+            // A UTF-16 unit encodes to at most 3 bytes, so short texts need no encoding
+            if (value.length() * 3 > MAX_STRING_BYTES
+                    && value.getBytes(StandardCharsets.UTF_8).length > MAX_STRING_BYTES) {
+                throw new IllegalArgumentException("Text longer than " + MAX_STRING_BYTES + " bytes: "
+                        + value.substring(0, 40) + "...");
+            }
+        }
+
+        private int pool(String value) {
+            Integer offset = pooledStrings.get(value);
+            if (offset != null) {
+                return offset;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            offset = pool.size();
+            pool.write(bytes.length >>> 8);
+            pool.write(bytes.length);
+            pool.write(bytes, 0, bytes.length);
+            pooledStrings.put(value, offset);
+            return offset;
+        }
+    }
+}
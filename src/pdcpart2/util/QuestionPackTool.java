@@ -0,0 +1,114 @@
+
+package pdcpart2.util;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import pdcpart2.model.Question;
+
+/**
+ * Command line tool that moves question banks between the database and
+ * QuestionPack files.
+ *
+ * Usage: java -cp ... pdcpart2.util.QuestionPackTool export|import|info packFile [databasePath]
+ * or:    ant question-pack -Dpack.command=export -Dquestion.pack=questions.qpk [-Ddb.path=QuestionDB]
+ *
+ *   export  writes every question in the database to the pack
+ *   import  adds every question in the pack to the database
+ *   info    prints the pack's size and first question
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class QuestionPackTool {
+
+    private static final String DEFAULT_DATABASE_PATH = "QuestionDB";
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: QuestionPackTool export|import|info packFile [databasePath]");
+            System.exit(2);
+        }
+        String command = args[0];
+        Path packPath = Paths.get(args[1]);
+        String databasePath = args.length > 2 ? args[2] : DEFAULT_DATABASE_PATH;
+
+        DatabaseInitializer dbInitializer = null;
+        int status = 0;
+        try {
+            long start = System.currentTimeMillis();
+            switch (command) {
+                case "export":
+                    dbInitializer = DatabaseInitializer.getInstance(databasePath);
+                    int exported = export(dbInitializer, packPath);
+                    System.out.println("Exported " + exported + " question(s) to " + packPath + " in "
+                            + (System.currentTimeMillis() - start) + " ms.");
+                    break;
+                case "import":
+                    QuestionPack source = QuestionPack.open(packPath);
+                    dbInitializer = DatabaseInitializer.getInstance(databasePath);
+                    int imported = dbInitializer.importQuestions(source);
+                    System.out.println("Imported " + imported + " question(s) from " + packPath + " in "
+                            + (System.currentTimeMillis() - start) + " ms.");
+                    break;
+                case "info":
+                    QuestionPack pack = QuestionPack.open(packPath);
+                    System.out.println(packPath + ": " + pack.size() + " question(s), format " + QuestionPack.FORMAT_VERSION);
+                    if (pack.size() > 0) {
+                        System.out.println("First question: " + pack.get(0).getQuestionText());
+                    }
+                    break;
+                default:
+                    System.err.println("Unknown command: " + command);
+                    status = 2;
+            }
+        } catch (IOException | SQLException e) {
+            System.err.println("Error running question pack " + command + ".");
+            e.printStackTrace();
+            status = 1;
+        } finally {
+            if (dbInitializer != null) {
+                dbInitializer.shutdownDatabase();
+            }
+        }
+        System.exit(status);
+    }
+
+    /**
+     * Streams the Questions table into a new pack without loading the bank
+     * into a list first. Rows the pack cannot hold, such as a question with
+     * a missing option, are skipped and reported. The pack is only replaced
+     * once every row has been read.
+     *
+     * @param dbInitializer The database to read.
+     * @param packPath The pack file to write.
+     * @return The number of questions written.
+     */
+    public static int export(DatabaseInitializer dbInitializer, Path packPath) throws IOException, SQLException {
+        String query = "SELECT question, option_a, option_b, option_c, option_d, correct_answer, hint, difficulty FROM Questions ORDER BY id";
+        try (QuestionPack.Writer writer = new QuestionPack.Writer(packPath);
+             Connection connection = dbInitializer.getConnection();
+             PreparedStatement pstmt = connection.prepareStatement(query);
+             ResultSet rs = pstmt.executeQuery()) {
+            int skipped = 0;
+            while (rs.next()) {
+                try {
+                    writer.add(new Question(rs.getString(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                            rs.getString(5), rs.getString(6), rs.getString(7), rs.getInt(8)));
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Skipping question: " + e.getMessage());
+                    skipped++;
+                }
+            }
+            writer.finish();
+            if (skipped > 0) {
+                System.err.println("Skipped " + skipped + " question(s) that cannot be stored in a pack.");
+            }
+            return writer.getQuestionCount();
+        }
+    }
+}
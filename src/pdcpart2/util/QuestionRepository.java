@@ -0,0 +1,145 @@
+
+package pdcpart2.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import pdcpart2.model.Question;
+
+/**
+ * QuestionRepository keeps an in-memory snapshot of the question bank that is
+ * shared by every game in the process.
+ *
+ * The bank is loaded once through QuestionLoader. Each request for questions
+ * only reads the version counter in Question_Bank_Version, which triggers bump
+ * whenever the Questions table changes, and reloads the bank only when that
+ * version differs from the snapshot's. A load that fails keeps the previous
+ * snapshot, and the next request tries again.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class QuestionRepository {
+
+    private static QuestionRepository instance;
+
+    private final ConnectionPool connectionPool;
+    private volatile Snapshot snapshot;
+
+    /**
+     * Constructor to create a repository over the given connection pool.
+     *
+     * @param connectionPool The pool to borrow connections from.
+     */
+    public QuestionRepository(ConnectionPool connectionPool) {
+        this.connectionPool = connectionPool;
+    }
+
+    /**
+     * Singleton instance retrieval method.
+     *
+     * @param databasePath The path to the Embedded Derby database.
+     * @return The process-wide QuestionRepository.
+     */
+    public static synchronized QuestionRepository getInstance(String databasePath) {
+        if (instance == null) {
+            instance = new QuestionRepository(DatabaseInitializer.getInstance(databasePath).getConnectionPool());
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the current question bank, reloading it first if the bank has
+     * changed since the last snapshot was taken.
+     *
+     * @return An unmodifiable list of questions.
+     */
+    public List<Question> getQuestions() {
+        Snapshot current = snapshot;
+        long version;
+        try {
+            version = readVersion();
+        } catch (SQLException e) {
+            System.err.println("Error reading the question bank version.");
+            e.printStackTrace();
+            // Keep serving the snapshot we have rather than failing the game
+            if (current == null) {
+                current = reload(-1);
+            }
+            return current != null ? current.questions : Collections.emptyList();
+        }
+
+        if (current == null || current.version != version) {
+            current = reload(version);
+        }
+        return current != null ? current.questions : Collections.emptyList();
+    }
+
+    /**
+     * Returns the version of the snapshot currently held.
+     *
+     * @return The snapshot version, or -1 if nothing has been loaded yet.
+     */
+    public long getSnapshotVersion() {
+        Snapshot current = snapshot;
+        return current != null ? current.version : -1;
+    }
+
+    /**
+     * Loads a new snapshot unless another thread already loaded this version.
+     * The version is read before the questions, so a change made during the
+     * load is picked up on the next call.
+     *
+     * @return The new snapshot, or the previous one (null if none) if the load failed.
+     */
+    private synchronized Snapshot reload(long version) {
+        Snapshot current = snapshot;
+        if (current != null && current.version == version) {
+            return current;
+        }
+
+        List<Question> questions;
+        try {
+            questions = QuestionLoader.load(connectionPool);
+        } catch (SQLException e) {
+            System.err.println("Error loading the question bank; keeping the previous snapshot.");
+            e.printStackTrace();
+            return current;
+        }
+        current = new Snapshot(version, Collections.unmodifiableList(new ArrayList<>(questions)));
+        snapshot = current;
+        return current;
+    }
+
+    /**
+     * Reads the current question bank version from the database.
+     */
+    private long readVersion() throws SQLException {
+        String query = "SELECT version FROM Question_Bank_Version WHERE id = 1";
+        try (Connection connection = connectionPool.getConnection();
+             PreparedStatement pstmt = connection.prepareStatement(query);
+             ResultSet rs = pstmt.executeQuery()) {
+            if (rs.next()) {
+                return rs.getLong(1);
+            }
+            throw new SQLException("Question_Bank_Version has no row.");
+        }
+    }
+
+    /**
+     * An immutable question list and the bank version it was loaded at.
+     */
+    private static final class Snapshot {
+        private final long version;
+        private final List<Question> questions;
+
+        private Snapshot(long version, List<Question> questions) {
+            this.version = version;
+            this.questions = questions;
+        }
+    }
+}
@@ -0,0 +1,278 @@
+
+package pdcpart2.util;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * SchemaMigrator brings an existing database up to the current schema by
+ * applying versioned migrations in order.
+ *
+ * Applied migrations are recorded in the SCHEMA_VERSION table together with a
+ * checksum of their SQL. Each pending migration runs in its own transaction,
+ * and a migration whose SQL has changed since it was applied is reported as
+ * an error instead of being silently skipped. The Questions and Game_Results
+ * tables created by DatabaseInitializer are the baseline (version 0).
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class SchemaMigrator {
+
+    // Derby reports "object already exists" with this SQL state
+    private static final String OBJECT_EXISTS = "X0Y32";
+
+    private final List<Migration> migrations;
+
+    /**
+     * Constructor to create a migrator for the game's own migrations.
+     */
+    public SchemaMigrator() {
+        this(defaultMigrations());
+    }
+
+    /**
+     * Constructor to create a migrator for the given migrations.
+     *
+     * @param migrations The migrations, in any order. Versions must be unique.
+     */
+    public SchemaMigrator(List<Migration> migrations) {
+        List<Migration> sorted = new ArrayList<>(migrations);
+        sorted.sort(Comparator.comparingInt(Migration::getVersion));
+        for (int i = 1; i < sorted.size(); i++) {
+            if (sorted.get(i).getVersion() == sorted.get(i - 1).getVersion()) {
+                throw new IllegalArgumentException("Duplicate migration version " + sorted.get(i).getVersion());
+            }
+        }
+        this.migrations = Collections.unmodifiableList(sorted);
+    }
+
+    /**
+     * Returns the migrations that make up the game's schema history. New
+     * migrations must be added at the end with the next version number; a
+     * migration must never be edited once it has shipped.
+     *
+     * @return The ordered list of migrations.
+     */
+    public static List<Migration> defaultMigrations() {
+        return Arrays.asList(
+                new Migration(1, "Index Game_Results(player_name, timestamp)",
+                        "CREATE INDEX IDX_GAME_RESULTS_PLAYER ON Game_Results (player_name, timestamp)"),
+                new Migration(2, "Index Game_Results(score DESC)",
+                        "CREATE INDEX IDX_GAME_RESULTS_SCORE ON Game_Results "
+                        + "(score DESC, id DESC, player_name, last_question_index, timestamp)"),
+                new Migration(3, "Index Game_Results(timestamp DESC, id DESC)",
+                        "CREATE INDEX IDX_GAME_RESULTS_RECENT ON Game_Results "
+                        + "(timestamp DESC, id DESC, player_name, score, last_question_index)"),
+                new Migration(4, "Question bank version counter",
+                        "CREATE TABLE Question_Bank_Version (id INT PRIMARY KEY, version BIGINT NOT NULL)",
+                        "INSERT INTO Question_Bank_Version (id, version) SELECT 1, 1 FROM SYSIBM.SYSDUMMY1 "
+                        + "WHERE NOT EXISTS (SELECT id FROM Question_Bank_Version)",
+                        "CREATE TRIGGER Questions_insert_version AFTER INSERT ON Questions FOR EACH STATEMENT "
+                        + "UPDATE Question_Bank_Version SET version = version + 1 WHERE id = 1",
+                        "CREATE TRIGGER Questions_update_version AFTER UPDATE ON Questions FOR EACH STATEMENT "
+                        + "UPDATE Question_Bank_Version SET version = version + 1 WHERE id = 1",
+                        "CREATE TRIGGER Questions_delete_version AFTER DELETE ON Questions FOR EACH STATEMENT "
+                        + "UPDATE Question_Bank_Version SET version = version + 1 WHERE id = 1"),
+                new Migration(5, "Player_Stats aggregate",
+                        "CREATE TABLE Player_Stats ("
+                        + "player_name VARCHAR(255) PRIMARY KEY,"
+                        + "games_played INT NOT NULL,"
+                        + "best_score INT NOT NULL,"
+                        + "total_score BIGINT NOT NULL,"
+                        + "total_level BIGINT NOT NULL"
+                        + ")",
+                        "INSERT INTO Player_Stats (player_name, games_played, best_score, total_score, total_level) "
+                        + "SELECT player_name, COUNT(*), MAX(score), SUM(CAST(score AS BIGINT)), "
+                        + "SUM(CAST(last_question_index AS BIGINT)) FROM Game_Results GROUP BY player_name"),
+                // Existing banks were asked in table order, so spread them over the tiers in that order
+                new Migration(6, "Question difficulty tiers",
+                        "ALTER TABLE Questions ADD COLUMN difficulty SMALLINT NOT NULL DEFAULT 0",
+                        "UPDATE Questions SET difficulty = 1 + ((id - (SELECT MIN(id) FROM Questions)) * 15) "
+                        + "/ ((SELECT MAX(id) FROM Questions) - (SELECT MIN(id) FROM Questions) + 1)",
+                        "CREATE INDEX IDX_QUESTIONS_DIFFICULTY ON Questions (difficulty, id)"),
+                new Migration(7, "Answer_Stats per-option vote counts",
+                        "CREATE TABLE Answer_Stats ("
+                        + "question VARCHAR(500) PRIMARY KEY,"
+                        + "votes_a BIGINT NOT NULL,"
+                        + "votes_b BIGINT NOT NULL,"
+                        + "votes_c BIGINT NOT NULL,"
+                        + "votes_d BIGINT NOT NULL"
+                        + ")")
+        );
+    }
+
+    /**
+     * Applies every migration that has not been applied yet.
+     *
+     * @param connection The connection to migrate. Its auto-commit mode is restored afterwards.
+     * @return The number of migrations applied.
+     * @throws SQLException If a migration fails or an applied migration has been changed.
+     */
+    public int migrate(Connection connection) throws SQLException {
+        createSchemaVersionTable(connection);
+        Map<Integer, Long> applied = readAppliedChecksums(connection);
+
+        int appliedCount = 0;
+        boolean autoCommit = connection.getAutoCommit();
+        try {
+            connection.setAutoCommit(false);
+            for (Migration migration : migrations) {
+                Long checksum = applied.get(migration.getVersion());
+                if (checksum != null) {
+                    if (checksum != migration.getChecksum()) {
+                        throw new SQLException("Migration " + migration.getVersion() + " ("
+                                + migration.getDescription() + ") has changed since it was applied.");
+                    }
+                    continue;
+                }
+                apply(connection, migration);
+                appliedCount++;
+            }
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+
+        int latest = migrations.isEmpty() ? 0 : migrations.get(migrations.size() - 1).getVersion();
+        for (int version : applied.keySet()) {
+            if (version > latest) {
+                System.err.println("Database has schema version " + version
+                        + " which is newer than this version of the game knows about.");
+            }
+        }
+        return appliedCount;
+    }
+
+    /**
+     * Returns the highest migration version applied to the database.
+     *
+     * @param connection The connection to use.
+     * @return The schema version, or 0 if no migration has been applied.
+     * @throws SQLException If a database access error occurs.
+     */
+    public int getCurrentVersion(Connection connection) throws SQLException {
+        createSchemaVersionTable(connection);
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MAX(version) FROM SCHEMA_VERSION")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Runs one migration and records it, all in a single transaction.
+     */
+    private void apply(Connection connection, Migration migration) throws SQLException {
+        long start = System.currentTimeMillis();
+        try (Statement stmt = connection.createStatement()) {
+            for (String sql : migration.getStatements()) {
+                try {
+                    stmt.executeUpdate(sql);
+                } catch (SQLException e) {
+                    if (!OBJECT_EXISTS.equals(e.getSQLState())) {
+                        throw e;
+                    }
+                    // Created before migrations were tracked; adopt it as is
+                    System.out.println("Migration " + migration.getVersion() + ": " + e.getMessage());
+                }
+            }
+
+            String insertSQL = "INSERT INTO SCHEMA_VERSION (version, description, checksum, execution_millis) VALUES (?, ?, ?, ?)";
+            try (PreparedStatement pstmt = connection.prepareStatement(insertSQL)) {
+                pstmt.setInt(1, migration.getVersion());
+                pstmt.setString(2, migration.getDescription());
+                pstmt.setLong(3, migration.getChecksum());
+                pstmt.setLong(4, System.currentTimeMillis() - start);
+                pstmt.executeUpdate();
+            }
+            connection.commit();
+            System.out.println("Applied migration " + migration.getVersion() + ": " + migration.getDescription());
+        } catch (SQLException e) {
+            connection.rollback();
+            throw new SQLException("Migration " + migration.getVersion() + " ("
+                    + migration.getDescription() + ") failed: " + e.getMessage(), e.getSQLState(), e);
+        }
+    }
+
+    private void createSchemaVersionTable(Connection connection) throws SQLException {
+        try (ResultSet rs = connection.getMetaData().getTables(null, null, "SCHEMA_VERSION", null)) {
+            if (rs.next()) {
+                return;
+            }
+        }
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE SCHEMA_VERSION ("
+                    + "version INT PRIMARY KEY,"
+                    + "description VARCHAR(200) NOT NULL,"
+                    + "checksum BIGINT NOT NULL,"
+                    + "execution_millis BIGINT NOT NULL,"
+                    + "installed_on TIMESTAMP DEFAULT CURRENT_TIMESTAMP"
+                    + ")");
+        }
+    }
+
+    private Map<Integer, Long> readAppliedChecksums(Connection connection) throws SQLException {
+        Map<Integer, Long> applied = new HashMap<>();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM SCHEMA_VERSION")) {
+            while (rs.next()) {
+                applied.put(rs.getInt(1), rs.getLong(2));
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * A single schema change: a version number, a description and the SQL
+     * statements that perform it.
+     */
+    public static final class Migration {
+        private final int version;
+        private final String description;
+        private final List<String> statements;
+        private final long checksum;
+
+        public Migration(int version, String description, String... statements) {
+            if (version < 1) {
+                throw new IllegalArgumentException("Migration versions start at 1: " + version);
+            }
+            this.version = version;
+            this.description = description;
+            this.statements = Collections.unmodifiableList(Arrays.asList(statements));
+
+            CRC32 crc = new CRC32();
+            for (String sql : statements) {
+                crc.update(sql.getBytes(StandardCharsets.UTF_8));
+                crc.update('\n');
+            }
+            this.checksum = crc.getValue();
+        }
+
+        public int getVersion() {
+            return version;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public List<String> getStatements() {
+            return statements;
+        }
+
+        public long getChecksum() {
+            return checksum;
+        }
+    }
+}
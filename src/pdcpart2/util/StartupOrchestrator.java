@@ -0,0 +1,151 @@
+
+package pdcpart2.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import pdcpart2.metrics.MetricsRegistry;
+
+/**
+ * StartupOrchestrator runs the independent phases of application start-up
+ * (loading fonts, booting Derby, reading results, warming caches) in
+ * parallel on a small pool of daemon threads, so the window can be shown
+ * before any of them has finished.
+ *
+ * Each phase returns a CompletableFuture, and a phase can be chained after
+ * another one to use its result. Callers apply the results to the UI with
+ * the future's async methods and SwingUtilities::invokeLater as executor.
+ * The duration of every phase, and the time to each marked point such as the
+ * first frame, is kept in order of completion, recorded in the shared
+ * MetricsRegistry under "Startup.name" and printed once all phases are done.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class StartupOrchestrator {
+
+    public static final int DEFAULT_THREADS = 3;
+
+    private final ExecutorService executor;
+    private final long startNanos = System.nanoTime();
+    private final Map<String, Long> timings = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final List<CompletableFuture<?>> phases = new ArrayList<>();
+
+    /**
+     * Constructor to create an orchestrator with the default number of threads.
+     */
+    public StartupOrchestrator() {
+        this(DEFAULT_THREADS);
+    }
+
+    /**
+     * Constructor to create an orchestrator with its own threads.
+     *
+     * @param threads The number of phases that can run at the same time.
+     */
+    public StartupOrchestrator(int threads) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "startup-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * A phase that needs the result of an earlier one.
+     */
+    public interface Step<T, R> {
+        R run(T input) throws Exception;
+    }
+
+    /**
+     * Starts a phase straight away.
+     *
+     * @param name The phase name used for its timing.
+     * @param task The work to do.
+     * @return The phase's result. Completes exceptionally if the task throws.
+     */
+    public synchronized <T> CompletableFuture<T> phase(String name, Callable<T> task) {
+        return track(CompletableFuture.supplyAsync(() -> timed(name, task), executor));
+    }
+
+    /**
+     * Starts a phase once an earlier phase has completed. If the earlier
+     * phase fails, this one is skipped and fails with the same cause.
+     *
+     * @param name The phase name used for its timing.
+     * @param after The phase to wait for.
+     * @param step The work to do with the earlier phase's result.
+     * @return The phase's result.
+     */
+    public synchronized <T, R> CompletableFuture<R> phase(String name, CompletableFuture<T> after, Step<T, R> step) {
+        return track(after.thenApplyAsync(input -> timed(name, () -> step.run(input)), executor));
+    }
+
+    /**
+     * Records the time from the orchestrator's creation to now, for example
+     * when the first frame is shown.
+     *
+     * @param name The name of the point.
+     */
+    public void mark(String name) {
+        record(name, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * @return A copy of the timings in milliseconds, in the order they were recorded.
+     */
+    public Map<String, Long> getTimings() {
+        synchronized (timings) {
+            return new LinkedHashMap<>(timings);
+        }
+    }
+
+    /**
+     * Waits for every phase started so far, then prints the timings and stops
+     * the threads. Failed phases are reported by their own callers.
+     *
+     * @return A future completed when all phases have finished.
+     */
+    public synchronized CompletableFuture<Void> whenDone() {
+        return CompletableFuture.allOf(phases.toArray(new CompletableFuture<?>[0]))
+                .handle((ignored, error) -> {
+                    mark("total");
+                    System.out.println("Startup timings (ms): " + getTimings());
+                    executor.shutdown();
+                    return null;
+                });
+    }
+
+    private <T> CompletableFuture<T> track(CompletableFuture<T> phase) {
+        phases.add(phase);
+        return phase;
+    }
+
+    private <T> T timed(String name, Callable<T> task) {
+        long start = System.nanoTime();
+        try {
+            return task.call();
+        } catch (Exception e) {
+            System.err.println("Startup phase " + name + " failed.");
+            throw new CompletionException(e);
+        } finally {
+            record(name, System.nanoTime() - start);
+        }
+    }
+
+    private void record(String name, long nanos) {
+        timings.put(name, TimeUnit.NANOSECONDS.toMillis(nanos));
+        MetricsRegistry.getShared().histogram("Startup." + name).record(nanos);
+    }
+}
@@ -0,0 +1,180 @@
+
+package pdcpart2.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Supplier;
+import pdcpart2.model.Question;
+
+/**
+ * TieredQuestionPool picks the questions for one game from a question bank
+ * held in memory or in a QuestionPack: one random question for each
+ * PrizeLevel tier, easiest first, in the same way TieredQuestionSelector does
+ * for the database.
+ *
+ * The positions of the questions in each tier are collected once into an int
+ * array per tier, so a game costs one random draw and one lookup per level.
+ * For a pack the tiers are read from the offset table without decoding any
+ * question text. A level whose tier has no questions is filled from the
+ * unrated ones, then from the nearest tier with a question left over, so a
+ * game only comes up short when the whole bank has fewer questions than
+ * there are levels.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class TieredQuestionPool implements Supplier<List<Question>> {
+
+    // For every level, the tiers to fill it from: its own, then unrated, then the nearest others
+    static final int[][] FALLBACK_TIERS = fallbackTiers();
+
+    private final IntFunction<Question> questionAt;
+    private final int[][] tiers;
+
+    /**
+     * Constructor to build the tier pools for a question pack.
+     *
+     * @param pack The pack to select from.
+     */
+    public TieredQuestionPool(QuestionPack pack) {
+        this(pack.size(), pack::getDifficulty, pack::get);
+    }
+
+    /**
+     * Constructor to build the tier pools for a list of questions.
+     *
+     * @param questions The questions to select from. Must not change afterwards.
+     */
+    public TieredQuestionPool(List<Question> questions) {
+        this(questions.size(), index -> questions.get(index).getDifficulty(), questions::get);
+    }
+
+    private TieredQuestionPool(int size, IntUnaryOperator difficultyAt, IntFunction<Question> questionAt) {
+        this.questionAt = questionAt;
+
+        int[] counts = new int[Question.MAX_DIFFICULTY + 1];
+        for (int i = 0; i < size; i++) {
+            counts[difficultyAt.applyAsInt(i)]++;
+        }
+        tiers = new int[counts.length][];
+        for (int tier = 0; tier < counts.length; tier++) {
+            tiers[tier] = new int[counts[tier]];
+        }
+        Arrays.fill(counts, 0);
+        for (int i = 0; i < size; i++) {
+            int tier = difficultyAt.applyAsInt(i);
+            tiers[tier][counts[tier]++] = i;
+        }
+    }
+
+    /**
+     * @param tier A difficulty tier, or Question.UNRATED.
+     * @return The number of questions in that tier.
+     */
+    public int getTierSize(int tier) {
+        return tiers[tier].length;
+    }
+
+    /**
+     * Picks the questions for a new game.
+     *
+     * @return An unmodifiable list with one question per level, easiest first.
+     */
+    @Override
+    public List<Question> get() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int[] chosen = new int[Question.MAX_DIFFICULTY + 1];
+        int[] used = new int[Question.MAX_DIFFICULTY];
+        int usedCount = 0;
+
+        // Every level with questions of its own takes one; tiers never share a question
+        for (int level = 1; level <= Question.MAX_DIFFICULTY; level++) {
+            int[] pool = tiers[level];
+            chosen[level] = pool.length > 0 ? pool[random.nextInt(pool.length)] : -1;
+            if (chosen[level] >= 0) {
+                used[usedCount++] = chosen[level];
+            }
+        }
+
+        // The rest borrow from unrated and then neighbouring tiers, without asking one twice
+        for (int level = 1; level <= Question.MAX_DIFFICULTY; level++) {
+            if (chosen[level] >= 0) {
+                continue;
+            }
+            int[] fallbacks = FALLBACK_TIERS[level];
+            for (int i = 1; i < fallbacks.length && chosen[level] < 0; i++) {
+                chosen[level] = pickUnused(tiers[fallbacks[i]], used, usedCount, random);
+            }
+            if (chosen[level] >= 0) {
+                used[usedCount++] = chosen[level];
+            }
+        }
+
+        List<Question> questions = new ArrayList<>(Question.MAX_DIFFICULTY);
+        for (int level = 1; level <= Question.MAX_DIFFICULTY; level++) {
+            if (chosen[level] >= 0) {
+                questions.add(questionAt.apply(chosen[level]));
+            }
+        }
+        return Collections.unmodifiableList(questions);
+    }
+
+    /**
+     * Picks a random question from the pool that has not been used yet,
+     * looking onwards from a random start so a nearly used-up pool still
+     * costs at most one pass.
+     *
+     * @return The question's position, or -1 if the whole pool is used.
+     */
+    private static int pickUnused(int[] pool, int[] used, int usedCount, ThreadLocalRandom random) {
+        if (pool.length == 0) {
+            return -1;
+        }
+        int start = random.nextInt(pool.length);
+        for (int i = 0; i < pool.length; i++) {
+            int index = pool[(start + i) % pool.length];
+            if (!contains(used, usedCount, index)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Builds the fill order for every level: the level's own tier, the
+     * unrated questions, then the other tiers by distance, easier first.
+     */
+    private static int[][] fallbackTiers() {
+        int[][] order = new int[Question.MAX_DIFFICULTY + 1][];
+        for (int level = 1; level <= Question.MAX_DIFFICULTY; level++) {
+            int[] tiersForLevel = new int[Question.MAX_DIFFICULTY + 1];
+            int count = 0;
+            tiersForLevel[count++] = level;
+            tiersForLevel[count++] = Question.UNRATED;
+            for (int distance = 1; count < tiersForLevel.length; distance++) {
+                if (level - distance >= 1) {
+                    tiersForLevel[count++] = level - distance;
+                }
+                if (level + distance <= Question.MAX_DIFFICULTY) {
+                    tiersForLevel[count++] = level + distance;
+                }
+            }
+            order[level] = tiersForLevel;
+        }
+        return order;
+    }
+}
@@ -0,0 +1,225 @@
+
+package pdcpart2.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import pdcpart2.model.Question;
+
+/**
+ * TieredQuestionSelector picks the questions for one game straight from the
+ * database: one random question for each PrizeLevel tier, easiest first.
+ *
+ * The lowest and highest id in every difficulty tier are cached and refreshed
+ * only when the question bank version changes. For each level a random id in
+ * that tier's range is drawn and the first question of the tier at or after
+ * it is read through the (difficulty, id) index. A game therefore costs one
+ * version check and one index probe per level, however large the bank is,
+ * and never sorts or loads the whole table. Questions that follow a large gap
+ * in their tier's ids are picked a little more often than the rest.
+ *
+ * A level whose tier has no questions is filled from the unrated questions,
+ * then from the nearest tier with a question that is not already in the
+ * game, in the same order as TieredQuestionPool. A game is only shorter than
+ * the number of levels when the whole bank is.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class TieredQuestionSelector implements Supplier<List<Question>> {
+
+    private static TieredQuestionSelector instance;
+
+    private final ConnectionPool connectionPool;
+    private volatile TierBounds bounds;
+
+    /**
+     * Constructor to create a selector over the given connection pool.
+     *
+     * @param connectionPool The pool to borrow connections from.
+     */
+    public TieredQuestionSelector(ConnectionPool connectionPool) {
+        this.connectionPool = connectionPool;
+    }
+
+    /**
+     * Singleton instance retrieval method.
+     *
+     * @param databasePath The path to the Embedded Derby database.
+     * @return The process-wide TieredQuestionSelector.
+     */
+    public static synchronized TieredQuestionSelector getInstance(String databasePath) {
+        if (instance == null) {
+            instance = new TieredQuestionSelector(DatabaseInitializer.getInstance(databasePath).getConnectionPool());
+        }
+        return instance;
+    }
+
+    /**
+     * Picks the questions for a new game.
+     *
+     * @return An unmodifiable list with one question per level, or an empty
+     *         list if the bank could not be read.
+     */
+    @Override
+    public List<Question> get() {
+        try {
+            return selectGame();
+        } catch (SQLException e) {
+            System.err.println("Error selecting questions for a new game.");
+            e.printStackTrace();
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Picks the questions for a new game.
+     *
+     * @return An unmodifiable list with one question per level, easiest first.
+     * @throws SQLException If the bank could not be read.
+     */
+    public List<Question> selectGame() throws SQLException {
+        String probeSQL = "SELECT id, question, option_a, option_b, option_c, option_d, correct_answer, hint, difficulty "
+                + "FROM Questions WHERE difficulty = ? AND id >= ? ORDER BY id";
+
+        try (Connection connection = connectionPool.getConnection()) {
+            TierBounds current = currentBounds(connection);
+            Question[] chosen = new Question[Question.MAX_DIFFICULTY + 1];
+            Set<Integer> chosenIds = new HashSet<>();
+
+            try (PreparedStatement probe = connection.prepareStatement(probeSQL)) {
+                // Every level with questions of its own takes one first, so none is borrowed away
+                for (int level = 1; level <= Question.MAX_DIFFICULTY; level++) {
+                    chosen[level] = pick(probe, current, level, chosenIds);
+                }
+                for (int level = 1; level <= Question.MAX_DIFFICULTY; level++) {
+                    int[] fallbacks = TieredQuestionPool.FALLBACK_TIERS[level];
+                    for (int i = 1; i < fallbacks.length && chosen[level] == null; i++) {
+                        chosen[level] = pick(probe, current, fallbacks[i], chosenIds);
+                    }
+                }
+            }
+
+            List<Question> questions = new ArrayList<>(Question.MAX_DIFFICULTY);
+            for (int level = 1; level <= Question.MAX_DIFFICULTY; level++) {
+                if (chosen[level] != null) {
+                    questions.add(chosen[level]);
+                }
+            }
+            return Collections.unmodifiableList(questions);
+        }
+    }
+
+    /**
+     * Picks a random question from a tier that is not already in the game,
+     * starting at a random id and wrapping to the start of the tier.
+     *
+     * @return The question, or null if the tier has none left.
+     */
+    private static Question pick(PreparedStatement probe, TierBounds current, int tier, Set<Integer> chosenIds) throws SQLException {
+        if (!current.hasTier(tier)) {
+            return null;
+        }
+        int from = ThreadLocalRandom.current().nextInt(current.minIds[tier], current.maxIds[tier] + 1);
+        Question question = probe(probe, tier, from, chosenIds);
+        if (question == null && from > current.minIds[tier]) {
+            question = probe(probe, tier, current.minIds[tier], chosenIds);
+        }
+        return question;
+    }
+
+    /**
+     * Reads the first question of a tier with an id of at least from that
+     * has not been chosen yet. Rows are read one at a time through the
+     * (difficulty, id) index, so usually only the first one is read.
+     *
+     * @return The question, or null if there is none. Questions whose correct
+     *         answer is not one of their options are skipped.
+     */
+    private static Question probe(PreparedStatement probe, int tier, int from, Set<Integer> chosenIds) throws SQLException {
+        probe.setInt(1, tier);
+        probe.setInt(2, from);
+        try (ResultSet rs = probe.executeQuery()) {
+            while (rs.next()) {
+                if (chosenIds.contains(rs.getInt(1))) {
+                    continue;
+                }
+                try {
+                    Question question = new Question(rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5),
+                            rs.getString(6), rs.getString(7), rs.getString(8), rs.getInt(9));
+                    chosenIds.add(rs.getInt(1));
+                    return question;
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Skipping question with no matching answer: " + rs.getString(2));
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Returns the cached tier bounds, reading them again if the bank has
+     * changed since they were read.
+     */
+    private TierBounds currentBounds(Connection connection) throws SQLException {
+        long version;
+        try (PreparedStatement pstmt = connection.prepareStatement("SELECT version FROM Question_Bank_Version WHERE id = 1");
+             ResultSet rs = pstmt.executeQuery()) {
+            if (!rs.next()) {
+                throw new SQLException("Question_Bank_Version has no row.");
+            }
+            version = rs.getLong(1);
+        }
+
+        TierBounds current = bounds;
+        if (current != null && current.version == version) {
+            return current;
+        }
+
+        current = new TierBounds(version);
+        String rangeSQL = "SELECT MIN(id), MAX(id) FROM Questions WHERE difficulty = ?";
+        try (PreparedStatement pstmt = connection.prepareStatement(rangeSQL)) {
+            for (int tier = Question.UNRATED; tier <= Question.MAX_DIFFICULTY; tier++) {
+                pstmt.setInt(1, tier);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    rs.next();
+                    int min = rs.getInt(1);
+                    if (!rs.wasNull()) {
+                        current.minIds[tier] = min;
+                        current.maxIds[tier] = rs.getInt(2);
+                    }
+                }
+            }
+        }
+        bounds = current;
+        return current;
+    }
+
+    /**
+     * The id range of every tier at one bank version. A tier whose maximum is
+     * below its minimum has no questions.
+     */
+    private static final class TierBounds {
+        private final long version;
+        private final int[] minIds = new int[Question.MAX_DIFFICULTY + 1];
+        private final int[] maxIds = new int[Question.MAX_DIFFICULTY + 1];
+
+        private TierBounds(long version) {
+            this.version = version;
+            Arrays.fill(maxIds, -1);
+        }
+
+        private boolean hasTier(int tier) {
+            return maxIds[tier] >= minIds[tier];
+        }
+    }
+}
@@ -5,21 +5,40 @@ package pdcpart2.util;
  * The CountdownTimer class manages a countdown timer for a quiz game. It
  * provides functionality to start a countdown from a specified number of
  * seconds and checks if the timer has run out. The timer stops if an answer is
- * provided before it reaches zero.
+ * provided before it reaches zero. The countdown itself runs on the shared
+ * CountdownScheduler, so no thread is started per question.
+ *
+ * Started, stopped and expired timers are counted in the shared
+ * MetricsRegistry, and the time from start to stop is recorded as the
+ * player's answer time. An expired timer is also committed as a
+ * TimerExpiredEvent for Flight Recorder.
  *
  * Author: Setefano Muller
  *         Tharuka Rodrigo
  */
 import pdcpart2.interfaces.TimerListener;
 import pdcpart2.interfaces.TimeControl;
+import pdcpart2.jfr.TimerExpiredEvent;
+import pdcpart2.metrics.Counter;
+import pdcpart2.metrics.LatencyHistogram;
+import pdcpart2.metrics.MetricsRegistry;
+import java.util.concurrent.TimeUnit;
 import javax.swing.*;
 
 public class TimeUtil implements TimeControl {
 
-    private boolean answered;
-    private boolean timerRunOut;
+    public static final int QUESTION_SECONDS = 15;
+
+    private static final Counter STARTED = MetricsRegistry.getShared().counter("TimeUtil.started");
+    private static final Counter STOPPED = MetricsRegistry.getShared().counter("TimeUtil.stopped");
+    private static final Counter EXPIRED = MetricsRegistry.getShared().counter("TimeUtil.expired");
+    private static final LatencyHistogram ANSWER_TIME = MetricsRegistry.getShared().histogram("TimeUtil.answerTime");
+
+    private volatile boolean answered;
+    private volatile boolean timerRunOut;
     private JLabel countdownLabel;
-    private Thread countdownThread;
+    private CountdownScheduler.Countdown countdown;
+    private long startNanos;
     private TimerListener listener; // Listener to notify when timer expires
 
     /**
@@ -38,44 +57,43 @@ public class TimeUtil implements TimeControl {
 
     @Override
     public void StartTimer() {
-        countdownThread = new Thread(() -> {
-            for (int i = 15; i > 0; i--) {  // Example: 15 seconds countdown
-                if (answered) {
-                    return;  // Exit the loop if the question is answered
-                }
-
-                // Update the JLabel with the remaining time on the EDT
-                final int timeLeft = i;
-                SwingUtilities.invokeLater(() -> countdownLabel.setText("Time left: " + timeLeft + " seconds"));
+        if (answered) {
+            return;
+        }
+        STARTED.increment();
+        startNanos = System.nanoTime();
+        // Callbacks run on the EDT; the scheduler drops ticks once the timer is stopped
+        countdown = CountdownScheduler.getShared().start(QUESTION_SECONDS, TimeUnit.SECONDS, new TimerListener() {
+            @Override
+            public void timerTicked(int secondsLeft) {
+                countdownLabel.setText("Time left: " + secondsLeft + " seconds");
+            }
 
-                try {
-                    Thread.sleep(1000);  // Pause for 1 second
-                } catch (InterruptedException e) {
-                    // Thread interrupted; exit gracefully
+            @Override
+            public void timerExpired() {
+                if (answered) {
                     return;
                 }
-            }
-
-            if (!answered) {
-                SwingUtilities.invokeLater(() -> {
-                    JOptionPane.showMessageDialog(null, "Time's up!"); // Show time's up message
-                    if (listener != null) {
-                        listener.timerExpired(); // Notify the listener
-                    }
-                });
                 timerRunOut = true;
                 answered = true;
+                EXPIRED.increment();
+                TimerExpiredEvent.emit(QUESTION_SECONDS);
+                JOptionPane.showMessageDialog(null, "Time's up!"); // Show time's up message
+                if (listener != null) {
+                    listener.timerExpired(); // Notify the listener
+                }
             }
-        });
-
-        countdownThread.start();  // Start the countdown thread
+        }, SwingUtilities::invokeLater);
     }
 
     @Override
     public void StopTimer() {
         answered = true;  // Stop the countdown when an answer is provided
-        if (countdownThread != null && countdownThread.isAlive()) {
-            countdownThread.interrupt();  // Interrupt the thread to stop it
+        if (countdown != null) {
+            if (countdown.cancel()) {
+                STOPPED.increment();
+                ANSWER_TIME.recordSince(startNanos);
+            }
         }
     }
 
@@ -87,18 +105,9 @@ public class TimeUtil implements TimeControl {
     }
 
     /**
-     * Pauses the execution of the program for a specified number of
-     * milliseconds. This method uses Thread.sleep to create a delay in the
-     * game, which can be used to enhance the user experience by adding dramatic
-     * pauses or allowing time for the player to read the information displayed
-     * on the screen.
-     *
-     * @param milliseconds The number of milliseconds to pause the program.
+     * @return true if the player ran out of time.
      */
-    public static void pause(int milliseconds) {
-        try {
-            Thread.sleep(milliseconds); // Pause the current thread for the specified duration
-        } catch (InterruptedException e) {
-        }
+    public boolean isTimerRunOut() {
+        return timerRunOut;
     }
 }
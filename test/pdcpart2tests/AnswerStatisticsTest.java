@@ -0,0 +1,207 @@
+package pdcpart2tests;
+
+import static org.junit.Assert.*;
+
+import pdcpart2.engine.GameEngine;
+import pdcpart2.lifelines.AskTheAudience;
+import pdcpart2.lifelines.LifelineResult;
+import pdcpart2.model.Player;
+import pdcpart2.model.Question;
+import pdcpart2.util.AnswerStatistics;
+import pdcpart2.util.DatabaseInitializer;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test suite for the AnswerStatistics class and the Ask the Audience lifeline.
+ *
+ * This class contains unit tests to verify:
+ * 1. Answers counted from many threads are not lost.
+ * 2. Counts are flushed to the database and loaded again.
+ * 3. The audience vote follows real answers once there are enough of them.
+ * 4. With no answers the vote comes from the simulated audience.
+ * 5. After 50:50 the audience only votes for the options left.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class AnswerStatisticsTest {
+
+    private static final String TEST_DATABASE_PATH = "memory:AnswerStatisticsTestDB";
+
+    private static DatabaseInitializer dbInitializer;
+
+    @BeforeClass
+    public static void setUpClass() {
+        dbInitializer = DatabaseInitializer.getInstance(TEST_DATABASE_PATH);
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        dbInitializer.shutdownDatabase();
+    }
+
+    /**
+     * Test that concurrent answers are all counted.
+     */
+    @Test
+    public void testConcurrentAnswersAreCounted() throws Exception {
+        AnswerStatistics statistics = new AnswerStatistics();
+        Question question = question("Counted from many threads?", 1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            int option = t;
+            executor.execute(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    statistics.recordAnswer(question, option);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        long[] votes = new long[Question.OPTION_COUNT];
+        assertEquals(40_000, statistics.getVotes(question, votes));
+        for (long vote : votes) {
+            assertEquals(10_000, vote);
+        }
+    }
+
+    /**
+     * Test that flushed counts are added to the stored ones and read back by
+     * new statistics.
+     */
+    @Test
+    public void testCountsAreFlushedAndLoaded() throws Exception {
+        Question question = question("Stored between runs?", 2);
+        AnswerStatistics first = new AnswerStatistics(dbInitializer.getConnectionPool(), 60_000);
+        first.recordAnswer(question, 2);
+        first.recordAnswer(question, 2);
+        first.recordAnswer(question, 0);
+        assertEquals(1, first.flush());
+        assertEquals("Nothing new to flush", 0, first.flush());
+        first.recordAnswer(question, 2);
+        first.close();
+
+        AnswerStatistics second = new AnswerStatistics(dbInitializer.getConnectionPool(), 60_000);
+        long[] votes = new long[Question.OPTION_COUNT];
+        assertEquals(4, second.getVotes(question, votes));
+        assertEquals(1, votes[0]);
+        assertEquals(3, votes[2]);
+
+        second.recordAnswer(question, 1);
+        second.close();
+        AnswerStatistics third = new AnswerStatistics(dbInitializer.getConnectionPool(), 60_000);
+        assertEquals(5, third.getVotes(question, votes));
+        third.close();
+    }
+
+    /**
+     * Test that the audience vote is built from answers given through the engine.
+     */
+    @Test
+    public void testAudienceFollowsRealAnswers() {
+        AnswerStatistics statistics = new AnswerStatistics();
+        Question question = question("What do most players pick?", 3);
+        List<Question> questions = Collections.singletonList(question);
+        for (int i = 0; i < 200; i++) {
+            GameEngine engine = new GameEngine(new Player("P" + i), questions, new SplittableRandom(i), statistics);
+            engine.StartGame();
+            engine.submitAnswer(i % 4 == 0 ? 0 : 3); // 25% A, 75% D
+        }
+
+        GameEngine engine = new GameEngine(new Player("Asker"), questions, new SplittableRandom(), statistics);
+        engine.StartGame();
+        LifelineResult result = engine.getAskTheAudienceLifeline().use(question);
+
+        assertTrue(result.hasAudienceVote());
+        assertEquals(25, result.getAudiencePercentage(0));
+        assertEquals(0, result.getAudiencePercentage(1));
+        assertEquals(0, result.getAudiencePercentage(2));
+        assertEquals(75, result.getAudiencePercentage(3));
+        assertEquals("The audience votes: A 25% B 0% C 0% D 75%", result.getMessage());
+        assertFalse(engine.getAskTheAudienceLifeline().use(question).isApplied());
+    }
+
+    /**
+     * Test that a question nobody has answered gets a simulated vote that adds
+     * up to 100% and favours the correct answer.
+     */
+    @Test
+    public void testUnansweredQuestionUsesSimulatedAudience() {
+        List<Question> questions = new ArrayList<>();
+        questions.add(question("Never asked before?", 1));
+        questions.add(new Question("Never asked before either?", new String[] {"A", "B", "C", "D"}, 0, null,
+                Question.MAX_DIFFICULTY));
+
+        for (Question question : questions) {
+            LifelineResult result = new AskTheAudience(new AnswerStatistics()).use(question);
+            int sum = 0;
+            for (int i = 0; i < Question.OPTION_COUNT; i++) {
+                sum += result.getAudiencePercentage(i);
+                if (i != question.getCorrectIndex()) {
+                    assertTrue(result.getAudiencePercentage(question.getCorrectIndex()) > result.getAudiencePercentage(i));
+                }
+            }
+            assertEquals(100, sum);
+        }
+    }
+
+    /**
+     * Test that asking the audience after a 50:50 splits the vote between the
+     * two remaining options, for real and simulated votes alike.
+     */
+    @Test
+    public void testAudienceAfterFiftyFiftyIgnoresRemovedOptions() {
+        Question question = question("Which one after 50:50?", 3);
+        List<Question> questions = Collections.singletonList(question);
+        AnswerStatistics statistics = new AnswerStatistics();
+        for (int i = 0; i < 150; i++) {
+            statistics.recordAnswer(question, 0);
+            statistics.recordAnswer(question, 1);
+            statistics.recordAnswer(question, 2);
+        }
+        for (int i = 0; i < 50; i++) {
+            statistics.recordAnswer(question, 3);
+        }
+
+        for (AnswerStatistics audience : new AnswerStatistics[] {statistics, new AnswerStatistics()}) {
+            for (int seed = 0; seed < 10; seed++) {
+                GameEngine engine = new GameEngine(new Player("Both"), questions, new SplittableRandom(seed), audience);
+                engine.StartGame();
+                LifelineResult fifty = engine.getFiftyFiftyLifeline().use(question);
+                LifelineResult vote = engine.getAskTheAudienceLifeline().use(question);
+
+                int kept = -1;
+                for (int i = 0; i < Question.OPTION_COUNT; i++) {
+                    if (fifty.isEliminated(i)) {
+                        assertEquals("A removed option should get no votes", 0, vote.getAudiencePercentage(i));
+                    } else if (i != question.getCorrectIndex()) {
+                        kept = i;
+                    }
+                }
+                assertEquals(100, vote.getAudiencePercentage(kept) + vote.getAudiencePercentage(3));
+                if (audience == statistics) {
+                    // 150 real votes for the kept option against 50 for the correct one
+                    assertEquals(75, vote.getAudiencePercentage(kept));
+                } else {
+                    assertTrue(vote.getAudiencePercentage(3) > vote.getAudiencePercentage(kept));
+                }
+            }
+        }
+    }
+
+    private static Question question(String text, int correctIndex) {
+        return new Question(text, new String[] {"A", "B", "C", "D"}, correctIndex, null, 1);
+    }
+}
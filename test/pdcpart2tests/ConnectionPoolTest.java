@@ -0,0 +1,154 @@
+
+package pdcpart2tests;
+
+import static org.junit.Assert.*;
+
+import pdcpart2.util.ConnectionPool;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Test suite for the ConnectionPool class.
+ *
+ * This class contains unit tests to verify:
+ * 1. Closed connections are returned to the pool and reused.
+ * 2. A thread that already holds a connection gets the same one back.
+ * 3. The pool is bounded and times out when exhausted.
+ * 4. Idle connections are evicted after the idle timeout.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class ConnectionPoolTest {
+
+    private static final String JDBC_URL = "jdbc:derby:memory:PoolTestDB;create=true";
+
+    private ConnectionPool pool;
+
+    @After
+    public void closePool() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    /**
+     * Shuts down the in-memory database after all tests are done.
+     */
+    @AfterClass
+    public static void tearDownClass() {
+        try {
+            DriverManager.getConnection("jdbc:derby:memory:PoolTestDB;drop=true");
+        } catch (SQLException e) {
+            // Derby reports a successful drop with an exception
+        }
+    }
+
+    /**
+     * Test that a closed connection goes back to the pool and is reused.
+     */
+    @Test
+    public void testConnectionIsReturnedAndReused() throws SQLException {
+        pool = new ConnectionPool(JDBC_URL, 2, 1000, 60_000);
+
+        Connection physical;
+        try (Connection conn = pool.getConnection()) {
+            physical = conn.unwrap(Connection.class);
+            assertEquals("One connection should be active", 1, pool.getActiveCount());
+        }
+        assertEquals("No connection should be active", 0, pool.getActiveCount());
+        assertEquals("The connection should be idle in the pool", 1, pool.getIdleCount());
+
+        try (Connection conn = pool.getConnection()) {
+            assertSame("The idle connection should be reused", physical, conn.unwrap(Connection.class));
+        }
+        assertEquals("Only one physical connection should be opened", 1, pool.getCreatedCount());
+    }
+
+    /**
+     * Test that nested checkouts on one thread share a connection.
+     */
+    @Test
+    public void testNestedCheckoutOnSameThreadSharesConnection() throws SQLException {
+        pool = new ConnectionPool(JDBC_URL, 1, 100, 60_000);
+
+        try (Connection outer = pool.getConnection()) {
+            try (Connection inner = pool.getConnection()) {
+                assertSame(outer.unwrap(Connection.class), inner.unwrap(Connection.class));
+            }
+            assertFalse("Outer handle should still be usable", outer.isClosed());
+            assertEquals(1, pool.getActiveCount());
+        }
+        assertEquals(0, pool.getActiveCount());
+    }
+
+    /**
+     * Test that a closed handle can no longer be used.
+     */
+    @Test(expected = SQLException.class)
+    public void testClosedHandleRejectsCalls() throws SQLException {
+        pool = new ConnectionPool(JDBC_URL, 1, 100, 60_000);
+
+        Connection conn = pool.getConnection();
+        conn.close();
+        assertTrue(conn.isClosed());
+        conn.createStatement();
+    }
+
+    /**
+     * Test that the pool never hands out more connections than its size.
+     */
+    @Test
+    public void testPoolIsBounded() throws Exception {
+        pool = new ConnectionPool(JDBC_URL, 1, 100, 60_000);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try (Connection conn = pool.getConnection()) {
+            assertFalse(conn.isClosed());
+            Future<?> other = executor.submit(() -> {
+                try (Connection second = pool.getConnection()) {
+                    fail("The pool should be exhausted, not hand out " + second);
+                }
+                return null;
+            });
+            try {
+                other.get();
+                fail("Checkout on another thread should time out");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof SQLException);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue("Timed out wait should be recorded", pool.getMaxWaitMillis() >= 50);
+    }
+
+    /**
+     * Test that connections idle for longer than the idle timeout are closed.
+     */
+    @Test
+    public void testIdleConnectionsAreEvicted() throws Exception {
+        pool = new ConnectionPool(JDBC_URL, 2, 100, 10);
+
+        Connection physical;
+        try (Connection conn = pool.getConnection()) {
+            physical = conn.unwrap(Connection.class);
+        }
+        Thread.sleep(50);
+        pool.evictIdleConnections();
+
+        assertEquals("No idle connections should remain", 0, pool.getIdleCount());
+        assertEquals(1, pool.getEvictedCount());
+        assertTrue("Evicted connection should be closed", physical.isClosed());
+    }
+}
@@ -0,0 +1,131 @@
+
+package pdcpart2tests;
+
+import static org.junit.Assert.*;
+
+import pdcpart2.interfaces.TimerListener;
+import pdcpart2.util.CountdownScheduler;
+import pdcpart2.util.CountdownScheduler.Countdown;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test suite for the CountdownScheduler class.
+ *
+ * This class contains unit tests to verify:
+ * 1. A countdown ticks and then expires at its deadline.
+ * 2. A cancelled countdown never expires.
+ * 3. One scheduler thread serves many concurrent countdowns.
+ * 4. Callbacks are delivered on the chosen executor.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class CountdownSchedulerTest {
+
+    private CountdownScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        scheduler = new CountdownScheduler(1);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.close();
+    }
+
+    /**
+     * Test that a countdown reports the seconds left and then expires.
+     */
+    @Test
+    public void testCountdownTicksAndExpires() throws InterruptedException {
+        CountDownLatch expired = new CountDownLatch(1);
+        List<Integer> ticks = new ArrayList<>();
+        long start = System.nanoTime();
+
+        Countdown countdown = scheduler.start(1500, TimeUnit.MILLISECONDS, new TimerListener() {
+            @Override
+            public void timerTicked(int secondsLeft) {
+                ticks.add(secondsLeft);
+            }
+
+            @Override
+            public void timerExpired() {
+                expired.countDown();
+            }
+        }, Runnable::run);
+
+        assertTrue("The countdown should expire", expired.await(5, TimeUnit.SECONDS));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue("The countdown should not expire early", elapsedMillis >= 1500);
+        assertTrue(countdown.isExpired());
+        assertEquals(2, ticks.size());
+        assertEquals(Integer.valueOf(2), ticks.get(0));
+        assertEquals(Integer.valueOf(1), ticks.get(1));
+        assertEquals(0, scheduler.getActiveCount());
+    }
+
+    /**
+     * Test that cancelling a countdown prevents it from expiring.
+     */
+    @Test
+    public void testCancelledCountdownDoesNotExpire() throws InterruptedException {
+        AtomicInteger expiries = new AtomicInteger();
+        Countdown countdown = scheduler.start(200, TimeUnit.MILLISECONDS, expiries::incrementAndGet, Runnable::run);
+
+        assertTrue(countdown.cancel());
+        assertFalse("A second cancel should have no effect", countdown.cancel());
+        Thread.sleep(400);
+
+        assertEquals(0, expiries.get());
+        assertTrue(countdown.isCancelled());
+        assertEquals(0, scheduler.getActiveCount());
+    }
+
+    /**
+     * Test that a single scheduler thread expires many countdowns.
+     */
+    @Test
+    public void testManyConcurrentCountdowns() throws InterruptedException {
+        int countdowns = 10_000;
+        CountDownLatch expired = new CountDownLatch(countdowns);
+        for (int i = 0; i < countdowns; i++) {
+            scheduler.start(100 + i % 200, TimeUnit.MILLISECONDS, expired::countDown, Runnable::run);
+        }
+
+        assertTrue("Every countdown should expire", expired.await(10, TimeUnit.SECONDS));
+        assertEquals(0, scheduler.getActiveCount());
+    }
+
+    /**
+     * Test that the listener is called on the given executor.
+     */
+    @Test
+    public void testCallbacksRunOnChosenExecutor() throws InterruptedException {
+        ExecutorService callbackExecutor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "callbacks"));
+        try {
+            CountDownLatch expired = new CountDownLatch(1);
+            String[] threadName = new String[1];
+            scheduler.start(50, TimeUnit.MILLISECONDS, () -> {
+                threadName[0] = Thread.currentThread().getName();
+                expired.countDown();
+            }, callbackExecutor);
+
+            assertTrue(expired.await(5, TimeUnit.SECONDS));
+            assertEquals("callbacks", threadName[0]);
+        } finally {
+            callbackExecutor.shutdownNow();
+        }
+    }
+}
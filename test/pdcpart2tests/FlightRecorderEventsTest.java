@@ -0,0 +1,114 @@
+
+package pdcpart2tests;
+
+import static org.junit.Assert.*;
+
+import pdcpart2.dao.GameResultDAO;
+import pdcpart2.jfr.AnswerSubmittedEvent;
+import pdcpart2.jfr.LifelineUsedEvent;
+import pdcpart2.jfr.QuestionShownEvent;
+import pdcpart2.jfr.RecordingSummary;
+import pdcpart2.jfr.TimerExpiredEvent;
+import pdcpart2.lifelines.Hint;
+import pdcpart2.model.GameResult;
+import pdcpart2.model.Question;
+import pdcpart2.util.DatabaseInitializer;
+import pdcpart2.util.QuestionLoader;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import jdk.jfr.Recording;
+
+/**
+ * Test suite for the Flight Recorder events and RecordingSummary.
+ *
+ * This class contains unit tests to verify:
+ * 1. The bundled settings load and enable the game's events.
+ * 2. Loading questions, storing results and using a lifeline commit events.
+ * 3. A recording is summed up per event type, the game's events first.
+ * 4. No lifeline event is created while no recording is running.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class FlightRecorderEventsTest {
+
+    private static final String TEST_DATABASE_PATH = "memory:FlightRecorderTestDB";
+
+    private static DatabaseInitializer dbInitializer;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void setUpClass() {
+        dbInitializer = DatabaseInitializer.getInstance(TEST_DATABASE_PATH);
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        dbInitializer.shutdownDatabase();
+    }
+
+    /**
+     * Test that a lifeline event is only started while a recording enables it.
+     */
+    @Test
+    public void testLifelineEventOnlyStartsWhenEnabled() throws Exception {
+        assertNull("Nothing should be allocated without a recording", LifelineUsedEvent.start());
+
+        try (Recording recording = new Recording(RecordingSummary.loadSettings())) {
+            recording.start();
+            assertNotNull(LifelineUsedEvent.start());
+        }
+    }
+
+    /**
+     * Test that the game's code commits its events into a recording made
+     * with the bundled settings, and that the summary counts them.
+     */
+    @Test
+    public void testGameEventsAreRecordedAndSummarized() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("game.jfr");
+        Question question = new Question("Q?", "A", "B", "C", "D", "B", "It is B");
+
+        try (Recording recording = new Recording(RecordingSummary.loadSettings())) {
+            recording.start();
+
+            List<Question> questions = new QuestionLoader(dbInitializer.getConnectionPool()).getQuestions();
+            GameResultDAO dao = new GameResultDAO(dbInitializer.getConnectionPool());
+            dao.insertGameResult(new GameResult("Recorded", 1000, 3));
+            dao.insertGameResults(Arrays.asList(new GameResult("Recorded", 500, 2), new GameResult("Other", 0, 0)));
+            new Hint().use(question);
+
+            QuestionShownEvent.emit(1, question);
+            AnswerSubmittedEvent answer = new AnswerSubmittedEvent();
+            answer.begin();
+            answer.finish(1, true, 2_000_000_000L);
+            TimerExpiredEvent.emit(15);
+
+            recording.stop();
+            recording.dump(file);
+            assertFalse(questions.isEmpty());
+        }
+
+        RecordingSummary summary = RecordingSummary.read(file);
+        assertEquals(1, summary.getCount("pdcpart2.QuestionBankLoaded"));
+        assertEquals(2, summary.getCount("pdcpart2.GameResultPersisted"));
+        assertEquals(1, summary.getCount("pdcpart2.LifelineUsed"));
+        assertEquals(1, summary.getCount("pdcpart2.QuestionShown"));
+        assertEquals(1, summary.getCount("pdcpart2.AnswerSubmitted"));
+        assertEquals(1, summary.getCount("pdcpart2.TimerExpired"));
+        assertEquals(0, summary.getCount("pdcpart2.NoSuchEvent"));
+        assertTrue(summary.getMaxMillis("pdcpart2.GameResultPersisted") > 0);
+        assertTrue("The game's events should be listed first",
+                summary.getEventTypes().iterator().next().startsWith("pdcpart2."));
+    }
+}
@@ -0,0 +1,50 @@
+
+package pdcpart2tests;
+
+import static org.junit.Assert.*;
+
+import pdcpart2.util.FontLoader;
+
+import org.junit.Test;
+
+import java.awt.Font;
+
+/**
+ * Test suite for the FontLoader class.
+ *
+ * This class contains unit tests to verify:
+ * 1. The game font is read from the classpath and derived fonts are cached.
+ * 2. A missing font falls back to Serif.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class FontLoaderTest {
+
+    /**
+     * Test that asking for the same style and size twice returns the same font.
+     */
+    @Test
+    public void testDerivedFontsAreCached() {
+        Font bold = FontLoader.getGameFont(Font.BOLD, 16f);
+
+        assertSame(bold, FontLoader.getGameFont(Font.BOLD, 16f));
+        assertSame(FontLoader.loadFont(FontLoader.GAME_FONT, 16f), FontLoader.getGameFont(Font.PLAIN, 16f));
+        assertNotSame(bold, FontLoader.getGameFont(Font.PLAIN, 16f));
+        assertTrue(bold.isBold());
+        assertEquals(16f, bold.getSize2D(), 0f);
+        assertTrue(bold.getFamily(), bold.getFamily().startsWith("MesloLGS"));
+    }
+
+    /**
+     * Test that a font that is not on the classpath falls back to Serif.
+     */
+    @Test
+    public void testMissingFontFallsBack() {
+        Font font = FontLoader.getFont("/pdcpart2/fonts/Missing.ttf", Font.ITALIC, 14f);
+
+        assertEquals("Serif", font.getName());
+        assertTrue(font.isItalic());
+        assertSame(font, FontLoader.getFont("/pdcpart2/fonts/Missing.ttf", Font.ITALIC, 14f));
+    }
+}
@@ -0,0 +1,164 @@
+
+package pdcpart2tests;
+
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import pdcpart2.engine.GameEngine;
+import pdcpart2.model.GameResult;
+import pdcpart2.model.Player;
+import pdcpart2.model.Question;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test suite for the GameEngine class.
+ *
+ * This class contains unit tests to verify:
+ * 1. Correct answers award the prize level and advance the game.
+ * 2. A wrong answer ends the game and keeps the last prize.
+ * 3. Answering every question wins the game.
+ * 4. Answers can be given by option index.
+ * 5. The engine runs without any GUI components.
+ * 6. A game without questions ends at once and is not won.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class GameEngineTest {
+
+    private List<Question> questions;
+    private Player player;
+    private GameEngine engine;
+
+    @Before
+    public void setUp() {
+        questions = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            questions.add(new Question(
+                "Question " + i + "?",
+                "A" + i,
+                "B" + i,
+                "C" + i,
+                "D" + i,
+                "B" + i, // Correct answer
+                "Hint " + i
+            ));
+        }
+
+        player = new Player("TestPlayer");
+        engine = new GameEngine(player, questions);
+        engine.StartGame();
+    }
+
+    /**
+     * Test that a correct answer updates the score and moves to the next question.
+     */
+    @Test
+    public void testCorrectAnswerAdvances() {
+        assertTrue("Correct answer should be accepted", engine.submitAnswer("B1"));
+
+        assertEquals("Score should be the level 1 prize", 100, player.getScore());
+        assertEquals("Engine should move to the second question", 1, engine.getCurrentQuestionIndex());
+        assertSame(questions.get(1), engine.getCurrentQuestion());
+        assertFalse("Game should still be in progress", engine.isGameOver());
+    }
+
+    /**
+     * Test that a wrong answer ends the game and keeps the score earned so far.
+     */
+    @Test
+    public void testWrongAnswerEndsGame() {
+        engine.submitAnswer("B1");
+
+        assertFalse("Wrong answer should be rejected", engine.submitAnswer("A2"));
+        assertTrue("Game should be over", engine.isGameOver());
+        assertFalse("Player should not have won", engine.isWon());
+
+        GameResult result = engine.createGameResult();
+        assertEquals("TestPlayer", result.getPlayerName());
+        assertEquals(100, result.getScore());
+        assertEquals(1, result.getLastQuestionIndex());
+    }
+
+    /**
+     * Test that answering all questions correctly wins the game.
+     */
+    @Test
+    public void testAllCorrectWinsGame() {
+        for (int i = 1; i <= questions.size(); i++) {
+            assertTrue(engine.submitAnswer("B" + i));
+        }
+
+        assertTrue("Game should be over", engine.isGameOver());
+        assertTrue("Player should have won", engine.isWon());
+        assertNull("There should be no current question", engine.getCurrentQuestion());
+        assertEquals(300, player.getScore());
+        assertEquals(questions.size(), engine.createGameResult().getLastQuestionIndex());
+    }
+
+    /**
+     * Test that answers are rejected once the game has been stopped.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testAnswerAfterStopIsRejected() {
+        engine.StopGame();
+        engine.submitAnswer("B1");
+    }
+
+    /**
+     * Test that restarting the engine resets the session state.
+     */
+    @Test
+    public void testStartGameResetsSession() {
+        engine.submitAnswer("B1");
+        engine.submitAnswer("A2");
+
+        engine.StartGame();
+
+        assertFalse(engine.isGameOver());
+        assertEquals(0, engine.getCurrentQuestionIndex());
+        assertEquals(0, player.getScore());
+    }
+
+    /**
+     * Test that answers given by option index are checked against the
+     * correct option, the same as answers given by text.
+     */
+    @Test
+    public void testAnswerByOptionIndex() {
+        Question first = questions.get(0);
+        assertEquals(1, first.getCorrectIndex());
+        assertEquals("B1", first.getCorrectAnswer());
+        assertTrue(first.isCorrect(1));
+        assertFalse(first.isCorrect(0));
+
+        assertTrue("Correct option should be accepted", engine.submitAnswer(1));
+        assertFalse("Wrong option should be rejected", engine.submitAnswer(3));
+        assertTrue("Game should be over", engine.isGameOver());
+        assertEquals(100, player.getScore());
+    }
+
+    /**
+     * Test that a question whose correct answer is not one of its options
+     * cannot be created.
+     */
+    /**
+     * Test that a game with no questions is over but not won.
+     */
+    @Test
+    public void testEmptyGameIsNotWon() {
+        GameEngine empty = new GameEngine(new Player("Nobody"), new ArrayList<>());
+        empty.StartGame();
+
+        assertTrue("A game without questions should end at once", empty.isGameOver());
+        assertFalse("A game without questions cannot be won", empty.isWon());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAnswerMustBeAnOption() {
+        new Question("Q?", "A", "B", "C", "D", "E", null);
+    }
+}
@@ -5,6 +5,7 @@ import static org.junit.Assert.*;
 
 import pdcpart2.dao.GameResultDAO;
 import pdcpart2.model.GameResult;
+import pdcpart2.model.PlayerStats;
 
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
@@ -12,7 +13,10 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.sql.*;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Test class for GameResultDAO using JUnit 4.
@@ -43,8 +47,17 @@ public class GameResultDAOTest {
                 + "last_question_index INT NOT NULL,"
                 + "timestamp TIMESTAMP DEFAULT CURRENT_TIMESTAMP"
                 + ")";
+        // Create the Player_Stats table maintained by every insert
+        String createStatsTableSQL = "CREATE TABLE Player_Stats ("
+                + "player_name VARCHAR(255) PRIMARY KEY,"
+                + "games_played INT NOT NULL,"
+                + "best_score INT NOT NULL,"
+                + "total_score BIGINT NOT NULL,"
+                + "total_level BIGINT NOT NULL"
+                + ")";
         try (Statement stmt = connection.createStatement()) {
             stmt.execute(createTableSQL);
+            stmt.execute(createStatsTableSQL);
         }
     }
 
@@ -56,6 +69,7 @@ public class GameResultDAOTest {
         try (Statement stmt = connection.createStatement()) {
             // DELETE is supported by Derby; TRUNCATE is not
             stmt.executeUpdate("DELETE FROM Game_Results");
+            stmt.executeUpdate("DELETE FROM Player_Stats");
         }
     }
 
@@ -64,12 +78,13 @@ public class GameResultDAOTest {
      */
     @AfterClass
     public static void tearDownClass() {
-        // Drop the Game_Results table
+        // Drop the Game_Results and Player_Stats tables
         try (Statement stmt = connection.createStatement()) {
             stmt.execute("DROP TABLE Game_Results");
+            stmt.execute("DROP TABLE Player_Stats");
         } catch (SQLException e) {
             // Log the exception, but do not fail the tests
-            System.err.println("Failed to drop table Game_Results: " + e.getMessage());
+            System.err.println("Failed to drop tables: " + e.getMessage());
         }
 
         // Close the connection
@@ -170,6 +185,124 @@ public class GameResultDAOTest {
         assertTrue("Grace should have no game results.", results.isEmpty());
     }
 
+    /**
+     * Tests that keyset paging visits every result exactly once, newest first.
+     */
+    @Test
+    public void testGetGameResultsPage() throws SQLException {
+        for (int i = 0; i < 25; i++) {
+            gameResultDAO.insertGameResult(new GameResult("Player" + i, i * 100, i % 15));
+        }
+
+        Set<Integer> seenIds = new HashSet<>();
+        GameResult previous = null;
+        GameResult last = null;
+        int pages = 0;
+        List<GameResult> page;
+        while (!(page = gameResultDAO.getGameResultsPage(last, 10)).isEmpty()) {
+            pages++;
+            assertTrue("A page should not exceed the page size", page.size() <= 10);
+            for (GameResult result : page) {
+                assertTrue("Each result should appear once", seenIds.add(result.getId()));
+                if (previous != null) {
+                    int order = result.getTimestamp().compareTo(previous.getTimestamp());
+                    assertTrue("Results should be newest first",
+                            order < 0 || (order == 0 && result.getId() < previous.getId()));
+                }
+                previous = result;
+            }
+            last = page.get(page.size() - 1);
+        }
+
+        assertEquals("Every result should be visited", 25, seenIds.size());
+        assertEquals("25 results should fill three pages", 3, pages);
+    }
+
+    /**
+     * Tests counting results and reading a page by offset.
+     */
+    @Test
+    public void testCountAndOffsetPage() throws SQLException {
+        for (int i = 0; i < 12; i++) {
+            gameResultDAO.insertGameResult(new GameResult("Player" + i, i * 100, i % 15));
+        }
+
+        assertEquals(12, gameResultDAO.countGameResults());
+        assertEquals("Player_Stats should count the same games", 12, gameResultDAO.countRecordedGames());
+
+        List<GameResult> firstPage = gameResultDAO.getGameResultsPage(null, 5);
+        List<GameResult> secondPage = gameResultDAO.getGameResultsAtOffset(5, 5);
+        List<GameResult> seekPage = gameResultDAO.getGameResultsPage(firstPage.get(4), 5);
+        assertEquals(5, secondPage.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals("Offset and keyset paging should agree",
+                    seekPage.get(i).getId(), secondPage.get(i).getId());
+        }
+        assertEquals(2, gameResultDAO.getGameResultsAtOffset(10, 5).size());
+
+        List<GameResult> skipPage = gameResultDAO.getGameResultsPage(firstPage.get(0), 4, 5);
+        assertEquals("Skipping from a known row should match the offset", secondPage.get(0).getId(), skipPage.get(0).getId());
+    }
+
+    /**
+     * Tests retrieving the highest scores.
+     */
+    @Test
+    public void testGetTopScores() throws SQLException {
+        gameResultDAO.insertGameResult(new GameResult("Low", 100, 1));
+        gameResultDAO.insertGameResult(new GameResult("High", 64000, 11));
+        gameResultDAO.insertGameResult(new GameResult("Middle", 4000, 7));
+
+        List<GameResult> top = gameResultDAO.getTopScores(2);
+        assertEquals(2, top.size());
+        assertEquals("High", top.get(0).getPlayerName());
+        assertEquals("Middle", top.get(1).getPlayerName());
+    }
+
+    /**
+     * Tests that single and batched inserts keep Player_Stats up to date.
+     */
+    @Test
+    public void testPlayerStatsMaintainedOnInsert() throws SQLException {
+        gameResultDAO.insertGameResult(new GameResult("Heidi", 1000, 4));
+        gameResultDAO.insertGameResults(Arrays.asList(
+                new GameResult("Heidi", 32000, 10),
+                new GameResult("Ivan", 500, 2),
+                new GameResult("Heidi", 0, 0)));
+
+        PlayerStats heidi = gameResultDAO.getPlayerStats("Heidi");
+        assertEquals(3, heidi.getGamesPlayed());
+        assertEquals(32000, heidi.getBestScore());
+        assertEquals(33000, heidi.getTotalScore());
+        assertEquals(14.0 / 3, heidi.getAverageLevel(), 0.0001);
+
+        assertEquals(1, gameResultDAO.getPlayerStats("Ivan").getGamesPlayed());
+        assertNull(gameResultDAO.getPlayerStats("Judy"));
+        assertEquals(2, gameResultDAO.getAllPlayerStats().size());
+    }
+
+    /**
+     * Tests that rebuilding Player_Stats recomputes it from Game_Results.
+     */
+    @Test
+    public void testRebuildPlayerStats() throws SQLException {
+        gameResultDAO.insertGameResult(new GameResult("Mallory", 2000, 5));
+        gameResultDAO.insertGameResult(new GameResult("Mallory", 8000, 8));
+        gameResultDAO.insertGameResult(new GameResult("Oscar", 100, 1));
+
+        // Remove a result behind the aggregate's back
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("DELETE FROM Game_Results WHERE score = 8000");
+        }
+        assertEquals(2, gameResultDAO.getPlayerStats("Mallory").getGamesPlayed());
+
+        assertEquals(2, gameResultDAO.rebuildPlayerStats());
+        PlayerStats mallory = gameResultDAO.getPlayerStats("Mallory");
+        assertEquals(1, mallory.getGamesPlayed());
+        assertEquals(2000, mallory.getBestScore());
+        assertEquals(5, mallory.getTotalLevel());
+    }
+
     /**
      * Tests inserting a GameResult with invalid data.
      */
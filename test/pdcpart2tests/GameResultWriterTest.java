@@ -0,0 +1,222 @@
+
+package pdcpart2tests;
+
+import static org.junit.Assert.*;
+
+import pdcpart2.dao.GameResultDAO;
+import pdcpart2.dao.GameResultWriter;
+import pdcpart2.model.GameResult;
+import pdcpart2.util.DatabaseInitializer;
+
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Test suite for the GameResultWriter class.
+ *
+ * This class contains unit tests to verify:
+ * 1. Queued results are written in batches by the background thread.
+ * 2. Closing the writer stores every result still in the queue.
+ * 3. A full queue falls back to writing on the caller's thread.
+ * 4. A bad result does not stop the rest of its batch from being stored.
+ * 5. Results submitted while the writer is closing are not lost.
+ * 6. offer() queues without writing and counts the results it drops.
+ * 7. close() does not interrupt a batch that is being written.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class GameResultWriterTest {
+
+    private static final String TEST_DATABASE_PATH = "memory:WriterTestDB";
+
+    private static DatabaseInitializer dbInitializer;
+    private static GameResultDAO gameResultDAO;
+
+    @BeforeClass
+    public static void setUpClass() {
+        dbInitializer = DatabaseInitializer.getInstance(TEST_DATABASE_PATH);
+        gameResultDAO = new GameResultDAO(dbInitializer.getConnectionPool());
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        dbInitializer.shutdownDatabase();
+    }
+
+    /**
+     * Cleans up the Game_Results table before each test to ensure test isolation.
+     */
+    @Before
+    public void cleanTable() throws SQLException {
+        try (Connection connection = dbInitializer.getConnection();
+             Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("DELETE FROM Game_Results");
+        }
+    }
+
+    /**
+     * Test that submitted results are written in batches and flush waits for them.
+     */
+    @Test
+    public void testResultsAreWrittenInBatches() throws Exception {
+        GameResultWriter writer = new GameResultWriter(gameResultDAO, 1000, 50, 20);
+        try {
+            for (int i = 0; i < 500; i++) {
+                writer.submit(new GameResult("Player" + i, i, i % 15));
+            }
+            assertTrue("Flush should complete", writer.flush(10_000));
+
+            assertEquals(500, gameResultDAO.getAllGameResults().size());
+            assertEquals(500, writer.getWrittenCount());
+            assertEquals(0, writer.getQueueDepth());
+            assertTrue("Results should be grouped into batches", writer.getFlushCount() < 500);
+            assertTrue(writer.getMaxFlushLatencyMillis() > 0);
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Test that close() writes everything still waiting in the queue.
+     */
+    @Test
+    public void testCloseWritesPendingResults() throws SQLException {
+        // A long delay keeps results in the queue until close() is called
+        GameResultWriter writer = new GameResultWriter(gameResultDAO, 1000, 1000, 60_000);
+        for (int i = 0; i < 10; i++) {
+            writer.submit(new GameResult("Pending", 100, 1));
+        }
+        long start = System.nanoTime();
+        writer.close();
+
+        assertEquals(10, gameResultDAO.getGameResultsByPlayerName("Pending").size());
+        assertTrue("close() should not wait out the maximum delay",
+                System.nanoTime() - start < TimeUnit.SECONDS.toNanos(10));
+    }
+
+    /**
+     * Test that a full queue writes the result on the calling thread.
+     */
+    @Test
+    public void testFullQueueWritesDirectly() throws SQLException {
+        GameResultWriter writer = new GameResultWriter(gameResultDAO, 1, 1000, 60_000);
+        try {
+            for (int i = 0; i < 5; i++) {
+                writer.submit(new GameResult("Overflow", 100, 1));
+            }
+            assertTrue("Some results should already be stored", writer.getWrittenCount() > 0);
+        } finally {
+            writer.close();
+        }
+        assertEquals(5, gameResultDAO.getGameResultsByPlayerName("Overflow").size());
+    }
+
+    /**
+     * Test that one invalid result is reported without losing the rest of the batch.
+     */
+    @Test
+    public void testInvalidResultDoesNotLoseBatch() throws SQLException {
+        GameResultWriter writer = new GameResultWriter(gameResultDAO, 100, 100, 60_000);
+        writer.submit(new GameResult("Valid", 100, 1));
+        writer.submit(new GameResult(null, -100, -1));
+        writer.submit(new GameResult("Valid", 200, 2));
+        writer.close();
+
+        assertEquals(2, gameResultDAO.getGameResultsByPlayerName("Valid").size());
+        assertEquals(1, writer.getFailedCount());
+    }
+
+    /**
+     * Test that results submitted from other threads while close() runs are
+     * all stored and that flush() sees them written.
+     */
+    @Test
+    public void testSubmitsRacingCloseAreStored() throws Exception {
+        GameResultWriter writer = new GameResultWriter(gameResultDAO, 1000, 1000, 60_000);
+        CountDownLatch started = new CountDownLatch(4);
+        List<Thread> submitters = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread submitter = new Thread(() -> {
+                started.countDown();
+                for (int i = 0; i < 200; i++) {
+                    try {
+                        writer.submit(new GameResult("Racing", i, 1));
+                    } catch (SQLException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            });
+            submitters.add(submitter);
+            submitter.start();
+        }
+        started.await();
+        writer.close();
+        for (Thread submitter : submitters) {
+            submitter.join();
+        }
+
+        assertTrue("Every submitted result should be written", writer.flush(10_000));
+        assertEquals(800, gameResultDAO.getGameResultsByPlayerName("Racing").size());
+    }
+
+    /**
+     * Test that offer() queues results for the writer thread and drops, rather
+     * than writes, a result it cannot queue.
+     */
+    @Test
+    public void testOfferDropsInsteadOfWriting() throws Exception {
+        GameResultWriter writer = new GameResultWriter(gameResultDAO, 100, 100, 60_000);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(writer.offer(new GameResult("Offered", 100, 1)));
+        }
+        assertEquals("Nothing should be written on the caller's thread", 0, writer.getWrittenCount());
+        writer.close();
+
+        assertFalse("A closed writer cannot queue", writer.offer(new GameResult("Offered", 100, 1)));
+        assertEquals(1, writer.getDroppedCount());
+        assertTrue("A dropped result should not hold up flush()", writer.flush(1000));
+        assertEquals(10, gameResultDAO.getGameResultsByPlayerName("Offered").size());
+    }
+
+    /**
+     * Test that closing the writer while a batch is being written lets the
+     * write finish uninterrupted.
+     */
+    @Test
+    public void testCloseDoesNotInterruptWrite() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        GameResultDAO slowDAO = new GameResultDAO(dbInitializer.getConnectionPool()) {
+            @Override
+            public void insertGameResults(List<GameResult> gameResults) throws SQLException {
+                writing.countDown();
+                try {
+                    Thread.sleep(300);
+                } catch (InterruptedException e) {
+                    interrupted.set(true);
+                }
+                super.insertGameResults(gameResults);
+            }
+        };
+        GameResultWriter writer = new GameResultWriter(slowDAO, 100, 1, 0);
+        writer.submit(new GameResult("Slow", 100, 1));
+        assertTrue(writing.await(10, TimeUnit.SECONDS));
+        writer.close();
+
+        assertFalse("The write should not be interrupted", interrupted.get());
+        assertEquals(1, gameResultDAO.getGameResultsByPlayerName("Slow").size());
+        assertEquals(0, writer.getFailedCount());
+    }
+}
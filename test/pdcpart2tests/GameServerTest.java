@@ -0,0 +1,212 @@
+
+package pdcpart2tests;
+
+import static org.junit.Assert.*;
+
+import pdcpart2.model.GameResult;
+import pdcpart2.model.Question;
+import pdcpart2.server.GameServer;
+import pdcpart2.server.GameSession;
+import pdcpart2.server.LoadGenerator;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Test suite for the game server.
+ *
+ * This class contains unit tests to verify:
+ * 1. A session plays a full game through the line protocol.
+ * 2. Lifelines and invalid commands are answered correctly.
+ * 3. A remote client can play over a socket and times out when idle.
+ * 4. The server handles many concurrent clients from the load generator.
+ * 5. A slow question source does not hold up the other clients.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class GameServerTest {
+
+    private List<Question> questions;
+    private ConcurrentLinkedQueue<GameResult> results;
+    private GameServer server;
+
+    @Before
+    public void setUp() {
+        List<Question> list = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            list.add(new Question("Question " + i + "?", "A" + i, "B" + i, "C" + i, "D" + i, "C" + i, "Hint " + i));
+        }
+        questions = Collections.unmodifiableList(list);
+        results = new ConcurrentLinkedQueue<>();
+    }
+
+    @After
+    public void tearDown() {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    /**
+     * Test that answering every question correctly wins and records the game.
+     */
+    @Test
+    public void testSessionPlaysFullGame() {
+        GameSession session = new GameSession(() -> questions, results::add);
+        StringBuilder out = new StringBuilder();
+
+        session.handle("HELLO Alice", out);
+        assertTrue(out.toString().startsWith("WELCOME\tAlice\t3\nQUESTION\t1\t100\tQuestion 1?\tA1\tB1\tC1\tD1\n"));
+
+        for (int i = 0; i < 3; i++) {
+            out.setLength(0);
+            session.handle("answer c", out);
+            assertTrue(out.toString().startsWith("CORRECT\t"));
+        }
+        assertTrue(out.toString().endsWith("WON\t300\n"));
+        assertFalse(session.isAwaitingAnswer());
+        assertEquals(1, results.size());
+        assertEquals(300, results.peek().getScore());
+    }
+
+    /**
+     * Test lifelines, removed options, wrong answers and protocol errors.
+     */
+    @Test
+    public void testSessionLifelinesAndErrors() {
+        GameSession session = new GameSession(() -> questions, results::add);
+        StringBuilder out = new StringBuilder();
+
+        session.handle("ANSWER A", out);
+        assertTrue(out.toString().startsWith("ERR\t"));
+
+        session.handle("HELLO Bob", out);
+        out.setLength(0);
+        session.handle("HINT", out);
+        assertEquals("HINT\tHint: Hint 1\n", out.toString());
+
+        out.setLength(0);
+        session.handle("FIFTY", out);
+        String[] fifty = out.toString().trim().split("\t");
+        assertEquals(3, fifty.length);
+        assertFalse("50:50 must keep the correct answer", fifty[1].equals("C") || fifty[2].equals("C"));
+
+        out.setLength(0);
+        session.handle("ANSWER " + fifty[1], out);
+        assertTrue("A removed option cannot be chosen", out.toString().startsWith("ERR\t"));
+
+        out.setLength(0);
+        session.handle("FIFTY", out);
+        assertTrue("A lifeline can only be used once", out.toString().startsWith("ERR\t"));
+
+        String wrong = "ABD".replace(fifty[1], "").replace(fifty[2], "");
+        out.setLength(0);
+        session.handle("ANSWER " + wrong, out);
+        assertEquals("WRONG\tC\t0\nGAMEOVER\t0\n", out.toString());
+        assertEquals(1, results.size());
+    }
+
+    /**
+     * Test a game over a real socket, including the question time limit.
+     */
+    @Test
+    public void testRemoteGameAndTimeout() throws Exception {
+        server = new GameServer(new InetSocketAddress("localhost", 0), () -> questions, results::add, 300).start();
+
+        try (Socket socket = new Socket("localhost", server.getPort());
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true)) {
+            out.println("HELLO Carol");
+            assertEquals("WELCOME\tCarol\t3", in.readLine());
+            assertTrue(in.readLine().startsWith("QUESTION\t1\t"));
+
+            out.println("ANSWER C");
+            assertEquals("CORRECT\t100", in.readLine());
+            assertTrue(in.readLine().startsWith("QUESTION\t2\t"));
+
+            // Do not answer the second question
+            assertEquals("TIMEOUT\t100", in.readLine());
+            assertEquals("GAMEOVER\t100", in.readLine());
+
+            out.println("QUIT");
+            assertEquals("BYE\t100", in.readLine());
+            assertNull("The server should close the connection", in.readLine());
+        }
+        assertEquals(1, results.size());
+        assertEquals(1, results.peek().getLastQuestionIndex());
+    }
+
+    /**
+     * Test that the server serves many concurrent clients to completion.
+     */
+    @Test
+    public void testManyConcurrentClients() throws Exception {
+        server = new GameServer(new InetSocketAddress("localhost", 0), () -> questions, results::add, 0).start();
+
+        LoadGenerator.Report report = new LoadGenerator(new InetSocketAddress("localhost", server.getPort()), 500, 4).run(60_000);
+
+        assertEquals(500, report.getClientsFinished());
+        assertEquals(2000, report.getGamesCompleted());
+        assertEquals(0, report.getErrors());
+        assertEquals(2000, results.size());
+    }
+
+    /**
+     * Test that a client whose questions are slow to pick does not block
+     * another client, and that its queued commands run once the game starts.
+     */
+    @Test
+    public void testSlowQuestionSourceDoesNotBlockOtherClients() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean first = new AtomicBoolean(true);
+        server = new GameServer(new InetSocketAddress("localhost", 0), () -> {
+            if (first.getAndSet(false)) {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return questions;
+        }, results::add, 0).start();
+
+        try (Socket slow = new Socket("localhost", server.getPort());
+             Socket fast = new Socket("localhost", server.getPort())) {
+            BufferedReader slowIn = new BufferedReader(new InputStreamReader(slow.getInputStream(), StandardCharsets.UTF_8));
+            PrintWriter slowOut = new PrintWriter(new OutputStreamWriter(slow.getOutputStream(), StandardCharsets.UTF_8), true);
+            BufferedReader fastIn = new BufferedReader(new InputStreamReader(fast.getInputStream(), StandardCharsets.UTF_8));
+            PrintWriter fastOut = new PrintWriter(new OutputStreamWriter(fast.getOutputStream(), StandardCharsets.UTF_8), true);
+
+            slowOut.print("HELLO Slow\nHINT\n");
+            slowOut.flush();
+            while (first.get()) {
+                Thread.sleep(5); // Wait until the slow client's pick has started
+            }
+            fastOut.println("HELLO Fast");
+            assertEquals("WELCOME\tFast\t3", fastIn.readLine());
+            assertTrue(fastIn.readLine().startsWith("QUESTION\t1\t"));
+
+            release.countDown();
+            assertEquals("WELCOME\tSlow\t3", slowIn.readLine());
+            assertTrue(slowIn.readLine().startsWith("QUESTION\t1\t"));
+            assertEquals("HINT\tHint: Hint 1", slowIn.readLine());
+        }
+    }
+}
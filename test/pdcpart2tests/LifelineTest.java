@@ -5,10 +5,13 @@ import static org.junit.Assert.*;
 import org.junit.Before;
 import org.junit.Test;
 
+import pdcpart2.gui.LifelineView;
 import pdcpart2.lifelines.FiftyFifty;
 import pdcpart2.lifelines.Hint;
+import pdcpart2.lifelines.LifelineResult;
 import pdcpart2.model.Question;
 
+import java.util.SplittableRandom;
 import javax.swing.JButton;
 import javax.swing.JLabel;
 
@@ -19,6 +22,8 @@ import javax.swing.JLabel;
  * 1. Correct functionality of each lifeline.
  * 2. Lifelines cannot be used more than once.
  * 3. Proper handling when no hint is available.
+ * 4. A seeded 50:50 eliminates the same options every time.
+ * 5. Lifeline results are applied to the option buttons and message label.
  *
  * Author: Setefano Muller 
  *         Tharuka Rodrigo
@@ -27,8 +32,6 @@ public class LifelineTest {
 
     private Question questionWithHint;
     private Question questionWithoutHint;
-    private JButton[] optionButtons;
-    private JLabel messageLabel;
 
     @Before
     public void setUp() {
@@ -53,68 +56,25 @@ public class LifelineTest {
             "Berlin", // Correct answer
             "" // No hint
         );
-
-        // Create option buttons and set their action commands
-        optionButtons = new JButton[4];
-        optionButtons[0] = new JButton(questionWithHint.getOptionA());
-        optionButtons[0].setActionCommand(questionWithHint.getOptionA());
-        optionButtons[1] = new JButton(questionWithHint.getOptionB());
-        optionButtons[1].setActionCommand(questionWithHint.getOptionB());
-        optionButtons[2] = new JButton(questionWithHint.getOptionC());
-        optionButtons[2].setActionCommand(questionWithHint.getOptionC());
-        optionButtons[3] = new JButton(questionWithHint.getOptionD());
-        optionButtons[3].setActionCommand(questionWithHint.getOptionD());
-
-        // Initially, all buttons are enabled
-        for (JButton button : optionButtons) {
-            button.setEnabled(true);
-        }
-
-        // Initialize the message label
-        messageLabel = new JLabel();
     }
 
     /**
      * Test that the FiftyFifty lifeline removes two incorrect options,
-     * leaving the correct answer enabled.
+     * leaving the correct answer available.
      */
     @Test
     public void testFiftyFiftyRemovesTwoIncorrectOptions() {
-        FiftyFifty fiftyFifty = new FiftyFifty();
+        for (int seed = 0; seed < 100; seed++) {
+            FiftyFifty fiftyFifty = new FiftyFifty(new SplittableRandom(seed));
 
-        fiftyFifty.useLifeline(questionWithHint, optionButtons, messageLabel);
-
-        // Count the number of disabled buttons
-        int disabledButtons = 0;
-        int enabledButtons = 0;
-        for (JButton button : optionButtons) {
-            if (!button.isEnabled()) {
-                disabledButtons++;
-                // Ensure that disabled buttons are incorrect options
-                assertNotEquals("Disabled button should not be the correct answer",
-                                questionWithHint.getCorrectAnswer(), button.getActionCommand());
-            } else {
-                enabledButtons++;
-            }
-        }
+            LifelineResult result = fiftyFifty.use(questionWithoutHint);
 
-        // There should be exactly two disabled buttons
-        assertEquals("Two options should be disabled", 2, disabledButtons);
-        // There should be exactly two enabled buttons
-        assertEquals("Two options should remain enabled", 2, enabledButtons);
-
-        // The correct answer should remain enabled
-        boolean correctAnswerEnabled = false;
-        for (JButton button : optionButtons) {
-            if (button.isEnabled() && button.getActionCommand().equals(questionWithHint.getCorrectAnswer())) {
-                correctAnswerEnabled = true;
-                break;
-            }
+            assertTrue("The lifeline should be applied", result.isApplied());
+            assertEquals("Two options should be removed", 2, Integer.bitCount(result.getEliminatedOptions()));
+            assertFalse("The correct answer should remain",
+                        result.isEliminated(questionWithoutHint.getCorrectIndex()));
+            assertTrue("FiftyFifty lifeline should be marked as used", fiftyFifty.isUsed());
         }
-        assertTrue("Correct answer should remain enabled", correctAnswerEnabled);
-
-        // Check that the lifeline is marked as used
-        assertTrue("FiftyFifty lifeline should be marked as used", fiftyFifty.isUsed());
     }
 
     /**
@@ -125,16 +85,31 @@ public class LifelineTest {
         FiftyFifty fiftyFifty = new FiftyFifty();
 
         // First use
-        fiftyFifty.useLifeline(questionWithHint, optionButtons, messageLabel);
-
-        // Reset the message label
-        messageLabel.setText("");
+        fiftyFifty.use(questionWithHint);
 
         // Try to use it again
-        fiftyFifty.useLifeline(questionWithHint, optionButtons, messageLabel);
+        LifelineResult result = fiftyFifty.use(questionWithHint);
 
         // The message should indicate that the lifeline has already been used
-        assertEquals("You have already used the 50:50 lifeline.", messageLabel.getText());
+        assertFalse(result.isApplied());
+        assertEquals(0, result.getEliminatedOptions());
+        assertEquals("You have already used the 50:50 lifeline.", result.getMessage());
+    }
+
+    /**
+     * Test that two lifelines with the same seed remove the same options, and
+     * that every incorrect option can be the one that is kept.
+     */
+    @Test
+    public void testFiftyFiftyIsRepeatableWithSeed() {
+        int keptOptions = 0;
+        for (int seed = 0; seed < 100; seed++) {
+            int first = new FiftyFifty(new SplittableRandom(seed)).use(questionWithHint).getEliminatedOptions();
+            int second = new FiftyFifty(new SplittableRandom(seed)).use(questionWithHint).getEliminatedOptions();
+            assertEquals("The same seed should remove the same options", first, second);
+            keptOptions |= ~first & 0b1111;
+        }
+        assertEquals("Every option should be kept by some seed", 0b1111, keptOptions);
     }
 
     /**
@@ -144,10 +119,11 @@ public class LifelineTest {
     public void testHintDisplaysHintMessage() {
         Hint hint = new Hint();
 
-        hint.useLifeline(questionWithHint, optionButtons, messageLabel);
+        LifelineResult result = hint.use(questionWithHint);
 
-        // Check that the message label displays the hint
-        assertEquals("Hint: " + questionWithHint.getHint(), messageLabel.getText());
+        // Check that the result carries the hint and removes nothing
+        assertEquals("Hint: " + questionWithHint.getHint(), result.getMessage());
+        assertEquals(0, result.getEliminatedOptions());
 
         // Check that the lifeline is marked as used
         assertTrue("Hint lifeline should be marked as used", hint.isUsed());
@@ -161,16 +137,14 @@ public class LifelineTest {
         Hint hint = new Hint();
 
         // First use
-        hint.useLifeline(questionWithHint, optionButtons, messageLabel);
-
-        // Reset the message label
-        messageLabel.setText("");
+        hint.use(questionWithHint);
 
         // Try to use it again
-        hint.useLifeline(questionWithHint, optionButtons, messageLabel);
+        LifelineResult result = hint.use(questionWithHint);
 
         // The message should indicate that the lifeline has already been used
-        assertEquals("You have already used the Hint lifeline.", messageLabel.getText());
+        assertFalse(result.isApplied());
+        assertEquals("You have already used the Hint lifeline.", result.getMessage());
     }
 
     /**
@@ -180,13 +154,34 @@ public class LifelineTest {
     public void testHintDisplaysNoHintAvailableMessageIfNoHint() {
         Hint hint = new Hint();
 
-        hint.useLifeline(questionWithoutHint, optionButtons, messageLabel);
+        LifelineResult result = hint.use(questionWithoutHint);
 
-        // Check that the message label displays the appropriate message
-        assertEquals("No hint available for this question.", messageLabel.getText());
+        // Check that the result carries the appropriate message
+        assertEquals("No hint available for this question.", result.getMessage());
 
         // Check that the lifeline is marked as used
         assertTrue("Hint lifeline should be marked as used", hint.isUsed());
     }
-}
 
+    /**
+     * Test that the Swing adapter disables the eliminated options' buttons
+     * and shows the message.
+     */
+    @Test
+    public void testLifelineViewAppliesResult() {
+        JButton[] optionButtons = new JButton[Question.OPTION_COUNT];
+        for (int i = 0; i < optionButtons.length; i++) {
+            optionButtons[i] = new JButton(questionWithHint.getOption(i));
+        }
+        JLabel messageLabel = new JLabel();
+
+        LifelineResult result = new FiftyFifty(new SplittableRandom(42)).use(questionWithHint);
+        LifelineView.apply(result, optionButtons, messageLabel);
+
+        assertEquals("50:50 Lifeline activated!", messageLabel.getText());
+        for (int i = 0; i < optionButtons.length; i++) {
+            assertEquals("Button " + i, !result.isEliminated(i), optionButtons[i].isEnabled());
+        }
+        assertTrue(optionButtons[questionWithHint.getCorrectIndex()].isEnabled());
+    }
+}
@@ -0,0 +1,111 @@
+
+package pdcpart2tests;
+
+import static org.junit.Assert.*;
+
+import pdcpart2.metrics.Counter;
+import pdcpart2.metrics.LatencyHistogram;
+import pdcpart2.metrics.MetricsRegistry;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.MBeanServer;
+
+/**
+ * Test suite for the MetricsRegistry and its metrics.
+ *
+ * This class contains unit tests to verify:
+ * 1. Counters count every increment made from several threads.
+ * 2. Histogram percentiles are within a bucket of the recorded latencies.
+ * 3. Metrics can be read over JMX and gauges can be replaced.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class MetricsRegistryTest {
+
+    private static final String TEST_DOMAIN = "pdcpart2test";
+
+    private MBeanServer mBeanServer;
+    private MetricsRegistry registry;
+
+    @Before
+    public void setUp() {
+        mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        registry = new MetricsRegistry(mBeanServer, TEST_DOMAIN);
+    }
+
+    /**
+     * Test that concurrent increments are all counted and names are shared.
+     */
+    @Test
+    public void testCounterAcrossThreads() throws Exception {
+        Counter counter = registry.counter("Test.events");
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    counter.increment();
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertSame(counter, registry.counter("Test.events"));
+        assertEquals(40_000, counter.getCount());
+        assertEquals(Long.valueOf(40_000), registry.snapshot().get("Test.events"));
+    }
+
+    /**
+     * Test that percentiles stay within 12.5% of the exact values.
+     */
+    @Test
+    public void testHistogramPercentiles() {
+        LatencyHistogram histogram = registry.histogram("Test.latency");
+        assertEquals(0, histogram.getPercentileNanos(0.5));
+
+        for (int millis = 1; millis <= 1000; millis++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500.5, histogram.getMeanMillis(), 0.01);
+        assertEquals(1000.0, histogram.getMaxMillis(), 0.01);
+        assertEquals(500.0, histogram.get50thPercentileMillis(), 500.0 * 0.125);
+        assertEquals(990.0, histogram.get99thPercentileMillis(), 990.0 * 0.125);
+        assertTrue(histogram.get99thPercentileMillis() <= histogram.getMaxMillis());
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentileNanos(0.99));
+    }
+
+    /**
+     * Test that metrics are exported over JMX and that a gauge can be replaced.
+     */
+    @Test
+    public void testJmxExportAndGaugeReplacement() throws Exception {
+        LatencyHistogram histogram = registry.histogram("Test.jmx");
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(5));
+        AtomicLong first = new AtomicLong(7);
+        AtomicLong second = new AtomicLong(42);
+
+        registry.gauge("Test.gauge", first::get);
+        assertEquals(7L, mBeanServer.getAttribute(registry.objectName("Gauge", "Test.gauge"), "Value"));
+        registry.gauge("Test.gauge", second::get);
+
+        assertEquals(1L, mBeanServer.getAttribute(registry.objectName("Histogram", "Test.jmx"), "Count"));
+        assertEquals(42L, mBeanServer.getAttribute(registry.objectName("Gauge", "Test.gauge"), "Value"));
+        assertEquals(Long.valueOf(42), registry.snapshot().get("Test.gauge"));
+
+        mBeanServer.invoke(registry.objectName("Histogram", "Test.jmx"), "reset", null, null);
+        assertEquals(0, histogram.getCount());
+    }
+}
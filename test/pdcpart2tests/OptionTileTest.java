@@ -0,0 +1,91 @@
+
+package pdcpart2tests;
+
+import static org.junit.Assert.*;
+
+import pdcpart2.gui.OptionTile;
+
+import org.junit.Test;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * Test suite for the OptionTile class.
+ *
+ * This class contains unit tests to verify:
+ * 1. Long option texts are wrapped to the tile's width.
+ * 2. The text is drawn without being set as the button's own text.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class OptionTileTest {
+
+    private static final String LONG_OPTION = "The quick brown fox jumps over the lazy dog near the river bank";
+
+    /**
+     * Test that the text wraps on a narrow tile and fits one line on a wide one.
+     */
+    @Test
+    public void testTextWrapsToWidth() {
+        OptionTile tile = tile(LONG_OPTION);
+
+        tile.setSize(120, 200);
+        paint(tile);
+        int narrowLines = tile.getLineCount();
+        tile.setSize(2000, 200);
+        paint(tile);
+
+        assertTrue("Expected several lines, got " + narrowLines, narrowLines > 2);
+        assertEquals(1, tile.getLineCount());
+
+        tile.setOptionText("Paris");
+        assertEquals("Changing the text should drop the cached lines", 0, tile.getLineCount());
+    }
+
+    /**
+     * Test that the option text is drawn and exposed for accessibility only.
+     */
+    @Test
+    public void testTextIsDrawn() {
+        OptionTile tile = tile("Paris");
+        tile.setSize(200, 80);
+
+        BufferedImage image = paint(tile);
+
+        assertEquals("", tile.getText());
+        assertEquals("Paris", tile.getOptionText());
+        assertEquals("Paris", tile.getAccessibleContext().getAccessibleName());
+        boolean textDrawn = false;
+        for (int x = 0; x < image.getWidth() && !textDrawn; x++) {
+            for (int y = 0; y < image.getHeight() && !textDrawn; y++) {
+                Color pixel = new Color(image.getRGB(x, y));
+                textDrawn = pixel.getRed() + pixel.getGreen() + pixel.getBlue() < 150;
+            }
+        }
+        assertTrue("The option text should be drawn in the dark foreground colour", textDrawn);
+    }
+
+    private static OptionTile tile(String text) {
+        OptionTile tile = new OptionTile();
+        tile.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 16));
+        tile.setForeground(Color.BLACK);
+        tile.setBackground(Color.WHITE);
+        tile.setOptionText(text);
+        return tile;
+    }
+
+    private static BufferedImage paint(OptionTile tile) {
+        BufferedImage image = new BufferedImage(tile.getWidth(), tile.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            tile.paint(g);
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+}
@@ -0,0 +1,190 @@
+
+package pdcpart2tests;
+
+import static org.junit.Assert.*;
+
+import pdcpart2.model.Question;
+import pdcpart2.util.DatabaseInitializer;
+import pdcpart2.util.QuestionImporter;
+import pdcpart2.util.QuestionRepository;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.List;
+
+/**
+ * Test suite for the QuestionImporter class.
+ *
+ * This class contains unit tests to verify:
+ * 1. CSV files with quoted fields are imported and invalid rows are reported.
+ * 2. JSON-lines files with escapes are imported.
+ * 3. Large inputs are streamed and committed in intervals.
+ * 4. Difficulties are checked by value rather than by length.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class QuestionImporterTest {
+
+    private static final String TEST_DATABASE_PATH = "memory:ImporterTestDB";
+
+    private static DatabaseInitializer dbInitializer;
+    private static QuestionRepository repository;
+
+    @BeforeClass
+    public static void setUpClass() {
+        dbInitializer = DatabaseInitializer.getInstance(TEST_DATABASE_PATH);
+        repository = new QuestionRepository(dbInitializer.getConnectionPool());
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        dbInitializer.shutdownDatabase();
+    }
+
+    /**
+     * Test CSV parsing, validation and error reporting.
+     */
+    @Test
+    public void testCsvImportReportsInvalidRows() throws Exception {
+        String csv = "hint,question,option_a,option_b,option_c,option_d,correct_answer\r\n"
+                + "\"Think \"\"big\"\"\",\"Largest planet, by mass?\",Mars,Jupiter,Venus,Earth,Jupiter\r\n"
+                + ",\"A question\nover two lines?\",Yes,No,Maybe,Never,Yes\n"
+                + "No answer,Which one?,A,B,C,D,E\n"
+                + "Missing option,Which two?,A,B,,D,A\n"
+                + "too,few,fields\n"
+                + "\n";
+        int before = repository.getQuestions().size();
+
+        QuestionImporter.Report report = new QuestionImporter(dbInitializer.getConnectionPool())
+                .importFrom(new StringReader(csv), QuestionImporter.Format.CSV);
+
+        assertEquals(2, report.getRowsImported());
+        assertEquals(3, report.getRowsRejected());
+        List<String> errors = report.getErrors();
+        assertTrue(errors.get(0), errors.get(0).startsWith("Line 5: correct_answer \"E\""));
+        assertTrue(errors.get(1), errors.get(1).startsWith("Line 6: Missing option_c"));
+        assertTrue(errors.get(2), errors.get(2).startsWith("Line 7: Expected 7 fields"));
+
+        List<Question> questions = repository.getQuestions();
+        assertEquals(before + 2, questions.size());
+        Question planet = find(questions, "Largest planet, by mass?");
+        assertEquals("Jupiter", planet.getCorrectAnswer());
+        assertEquals("Think \"big\"", planet.getHint());
+        assertNull(find(questions, "A question\nover two lines?").getHint());
+    }
+
+    /**
+     * Test JSON-lines parsing, including escapes, nulls and malformed lines.
+     */
+    @Test
+    public void testJsonLinesImport() throws Exception {
+        String jsonl = "{\"question\": \"Caf\\u00e9 \\\"quote\\\"?\", \"option_a\": \"1\", \"option_b\": \"2\", "
+                + "\"option_c\": \"3\", \"option_d\": \"4\", \"correct_answer\": \"4\", \"hint\": null, \"difficulty\": 4}\n"
+                + "\n"
+                + "{\"question\": \"Broken\n"
+                + "{\"question\": \"Tab\\tseparated?\", \"option_a\": \"x\", \"option_b\": \"y\", "
+                + "\"option_c\": \"z\", \"option_d\": \"w\", \"correct_answer\": \"z\", \"extra\": \"ignored\"}\n";
+
+        QuestionImporter.Report report = new QuestionImporter(dbInitializer.getConnectionPool())
+                .importFrom(new StringReader(jsonl), QuestionImporter.Format.JSONL);
+
+        assertEquals(2, report.getRowsImported());
+        assertEquals(1, report.getRowsRejected());
+        assertTrue(report.getErrors().get(0), report.getErrors().get(0).startsWith("Line 3: "));
+
+        List<Question> questions = repository.getQuestions();
+        assertEquals("4", find(questions, "Café \"quote\"?").getCorrectAnswer());
+        assertEquals(4, find(questions, "Café \"quote\"?").getDifficulty());
+        assertEquals(Question.UNRATED, find(questions, "Tab\tseparated?").getDifficulty());
+        assertEquals("z", find(questions, "Tab\tseparated?").getCorrectAnswer());
+    }
+
+    /**
+     * Test that a large generated input is streamed in and committed in intervals.
+     */
+    @Test
+    public void testLargeImportCommitsInIntervals() throws Exception {
+        int rows = 25_000;
+        int before = repository.getQuestions().size();
+
+        QuestionImporter.Report report = new QuestionImporter(dbInitializer.getConnectionPool(), 500, 10_000)
+                .importFrom(new GeneratedCsv(rows), QuestionImporter.Format.CSV);
+
+        assertEquals(rows, report.getRowsRead());
+        assertEquals(rows, report.getRowsImported());
+        assertEquals(0, report.getRowsRejected());
+        assertEquals(3, report.getCommits());
+        assertTrue(report.getRowsPerSecond() > 0);
+        assertEquals(before + rows, repository.getQuestions().size());
+    }
+
+    /**
+     * Test that a malformed or out-of-range difficulty gets the range message.
+     */
+    @Test
+    public void testDifficultyIsCheckedByValue() throws Exception {
+        String csv = "question,option_a,option_b,option_c,option_d,correct_answer,difficulty\n"
+                + "Decimal?,A,B,C,D,A,5.0\n"
+                + "Padded?,A,B,C,D,A, 7\n"
+                + "Too hard?,A,B,C,D,A,100\n";
+
+        QuestionImporter.Report report = new QuestionImporter(dbInitializer.getConnectionPool())
+                .importFrom(new StringReader(csv), QuestionImporter.Format.CSV);
+
+        assertEquals(1, report.getRowsImported());
+        List<String> errors = report.getErrors();
+        assertTrue(errors.get(0), errors.get(0).startsWith("Line 2: difficulty \"5.0\" is not between"));
+        assertTrue(errors.get(1), errors.get(1).startsWith("Line 4: difficulty \"100\" is not between"));
+        assertEquals(7, find(repository.getQuestions(), "Padded?").getDifficulty());
+    }
+
+    private static Question find(List<Question> questions, String text) {
+        for (Question question : questions) {
+            if (question.getQuestionText().equals(text)) {
+                return question;
+            }
+        }
+        fail("Question not imported: " + text);
+        return null;
+    }
+
+    /**
+     * A CSV input produced on demand, so the test never holds the whole file.
+     */
+    private static final class GeneratedCsv extends Reader {
+        private final int rows;
+        private int row = -1;
+        private String current = "question,option_a,option_b,option_c,option_d,correct_answer,hint\n";
+        private int pos;
+
+        private GeneratedCsv(int rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            if (pos == current.length()) {
+                if (++row >= rows) {
+                    return -1;
+                }
+                current = "Generated question " + row + "?,A" + row + ",B" + row + ",C" + row + ",D" + row
+                        + ",D" + row + ",Hint " + row + "\n";
+                pos = 0;
+            }
+            int count = Math.min(length, current.length() - pos);
+            current.getChars(pos, pos + count, buffer, offset);
+            pos += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,215 @@
+
+package pdcpart2tests;
+
+import static org.junit.Assert.*;
+
+import pdcpart2.model.Question;
+import pdcpart2.util.DatabaseInitializer;
+import pdcpart2.util.QuestionPack;
+import pdcpart2.util.QuestionPackTool;
+import pdcpart2.util.QuestionRepository;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Test suite for the QuestionPack format.
+ *
+ * This class contains unit tests to verify:
+ * 1. Questions exported from the database read back unchanged from a pack.
+ * 2. A pack can seed the Questions table.
+ * 3. Repeated texts are stored once and a large pack is read by index.
+ * 4. Corrupt packs, unanswerable questions and missing options are rejected.
+ * 5. An unfinished pack is discarded and export skips rows a pack cannot hold.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class QuestionPackTest {
+
+    private static final String TEST_DATABASE_PATH = "memory:QuestionPackTestDB";
+
+    private static DatabaseInitializer dbInitializer;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void setUpClass() {
+        dbInitializer = DatabaseInitializer.getInstance(TEST_DATABASE_PATH);
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        dbInitializer.shutdownDatabase();
+    }
+
+    /**
+     * Test that exporting the seeded bank and reading it back gives the same questions.
+     */
+    @Test
+    public void testExportRoundTrip() throws Exception {
+        Path packPath = folder.getRoot().toPath().resolve("bank.qpk");
+        List<Question> expected = new QuestionRepository(dbInitializer.getConnectionPool()).getQuestions();
+
+        int exported = QuestionPackTool.export(dbInitializer, packPath);
+        QuestionPack pack = QuestionPack.open(packPath);
+
+        assertEquals(expected.size(), exported);
+        assertEquals(expected.size(), pack.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Question want = expected.get(i);
+            Question got = pack.asList().get(i);
+            assertEquals(want.getQuestionText(), got.getQuestionText());
+            assertEquals(want.getOptionA(), got.getOptionA());
+            assertEquals(want.getOptionB(), got.getOptionB());
+            assertEquals(want.getOptionC(), got.getOptionC());
+            assertEquals(want.getOptionD(), got.getOptionD());
+            assertEquals(want.getCorrectAnswer(), got.getCorrectAnswer());
+            assertEquals(want.getHint(), got.getHint());
+            assertEquals(want.getDifficulty(), got.getDifficulty());
+        }
+
+        try {
+            pack.asList().set(0, expected.get(0));
+            fail("A pack should be read-only");
+        } catch (UnsupportedOperationException expectedException) {
+            // Expected
+        }
+    }
+
+    /**
+     * Test that importing a pack adds its questions to the database.
+     */
+    @Test
+    public void testImportSeedsDatabase() throws Exception {
+        Path packPath = folder.getRoot().toPath().resolve("seed.qpk");
+        try (QuestionPack.Writer writer = new QuestionPack.Writer(packPath)) {
+            for (int i = 0; i < 2500; i++) {
+                writer.add(question(i));
+            }
+            writer.finish();
+        }
+        QuestionRepository repository = new QuestionRepository(dbInitializer.getConnectionPool());
+        int before = repository.getQuestions().size();
+
+        int imported = dbInitializer.importQuestions(QuestionPack.open(packPath));
+
+        List<Question> after = repository.getQuestions();
+        assertEquals(2500, imported);
+        assertEquals(before + 2500, after.size());
+        assertEquals("Question 2499?", after.get(after.size() - 1).getQuestionText());
+    }
+
+    /**
+     * Test that shared texts are pooled and questions decode by index.
+     */
+    @Test
+    public void testLargePackIsPooledAndRandomAccess() throws Exception {
+        Path packPath = folder.getRoot().toPath().resolve("large.qpk");
+        int count = 100_000;
+        try (QuestionPack.Writer writer = new QuestionPack.Writer(packPath)) {
+            for (int i = 0; i < count; i++) {
+                writer.add(new Question("Question " + i + "?", "True", "False", "Maybe", "Never",
+                        i % 2 == 0 ? "True" : "False", null));
+            }
+            writer.finish();
+        }
+        QuestionPack pack = QuestionPack.open(packPath);
+
+        assertEquals(count, pack.size());
+        Question q = pack.get(77_777);
+        assertEquals("Question 77777?", q.getQuestionText());
+        assertEquals("False", q.getCorrectAnswer());
+        assertNull(q.getHint());
+
+        // 24 byte header + 28 bytes per record + each question text; the options are stored once
+        long maxSize = 24 + 28L * count + 20L * count + 64;
+        assertTrue("Repeated options should be pooled", Files.size(packPath) < maxSize);
+    }
+
+    /**
+     * Test that damaged files and questions without a matching answer are rejected.
+     */
+    @Test
+    public void testInvalidPacksAreRejected() throws Exception {
+        Path packPath = folder.getRoot().toPath().resolve("damaged.qpk");
+        try (QuestionPack.Writer writer = new QuestionPack.Writer(packPath)) {
+            writer.add(question(1));
+            writer.finish();
+        }
+        byte[] bytes = Files.readAllBytes(packPath);
+        bytes[bytes.length - 1] ^= 0x20;
+        Files.write(packPath, bytes);
+
+        try {
+            QuestionPack.open(packPath);
+            fail("A corrupt pack should not open");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("corrupt"));
+        }
+
+        try (QuestionPack.Writer writer = new QuestionPack.Writer(folder.getRoot().toPath().resolve("bad.qpk"))) {
+            writer.add(new Question("Q?", "A", "B", "C", "D", "E", null));
+            fail("A correct answer that is not an option should be rejected");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+
+        try (QuestionPack.Writer writer = new QuestionPack.Writer(folder.getRoot().toPath().resolve("missing.qpk"))) {
+            writer.add(new Question("Q?", "A", null, "C", "D", "A", null));
+            fail("A missing option should be rejected");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("Option B"));
+        }
+    }
+
+    /**
+     * Test that a writer closed without finish() keeps the old pack, and that
+     * export skips a question whose correct answer is not an option.
+     */
+    @Test
+    public void testUnfinishedPackIsDiscardedAndBadRowsSkipped() throws Exception {
+        Path packPath = folder.getRoot().toPath().resolve("kept.qpk");
+        try (QuestionPack.Writer writer = new QuestionPack.Writer(packPath)) {
+            writer.add(question(1));
+            writer.finish();
+        }
+        try (QuestionPack.Writer writer = new QuestionPack.Writer(packPath)) {
+            writer.add(question(2));
+            writer.add(question(3));
+        }
+        QuestionPack kept = QuestionPack.open(packPath);
+        assertEquals(1, kept.size());
+        assertEquals("Question 1?", kept.get(0).getQuestionText());
+
+        try (Connection connection = dbInitializer.getConnection();
+             Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("INSERT INTO Questions (question, option_a, option_b, option_c, option_d, correct_answer) "
+                    + "VALUES ('Unanswerable?', 'A', 'B', 'C', 'D', 'E')");
+        }
+        Path exportPath = folder.getRoot().toPath().resolve("export.qpk");
+        int exported = QuestionPackTool.export(dbInitializer, exportPath);
+
+        QuestionPack pack = QuestionPack.open(exportPath);
+        assertEquals(new QuestionRepository(dbInitializer.getConnectionPool()).getQuestions().size(), exported);
+        assertEquals(exported, pack.size());
+        for (Question question : pack.asList()) {
+            assertNotEquals("Unanswerable?", question.getQuestionText());
+        }
+    }
+
+    private static Question question(int i) {
+        return new Question("Question " + i + "?", "A" + i, "B" + i, "C" + i, "D" + i, "B" + i, "Hint " + i);
+    }
+}
@@ -0,0 +1,141 @@
+
+package pdcpart2tests;
+
+import static org.junit.Assert.*;
+
+import pdcpart2.model.Question;
+import pdcpart2.util.DatabaseInitializer;
+import pdcpart2.util.QuestionRepository;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test suite for the QuestionRepository class.
+ *
+ * This class contains unit tests to verify:
+ * 1. The question bank is loaded once and served from memory.
+ * 2. A change to the Questions table triggers a reload.
+ * 3. Snapshots cannot be modified by callers.
+ * 4. A reload that fails keeps the previous snapshot.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class QuestionRepositoryTest {
+
+    private static final String TEST_DATABASE_PATH = "memory:RepositoryTestDB";
+
+    private static DatabaseInitializer dbInitializer;
+    private static QuestionRepository repository;
+
+    @BeforeClass
+    public static void setUpClass() {
+        dbInitializer = DatabaseInitializer.getInstance(TEST_DATABASE_PATH);
+        repository = new QuestionRepository(dbInitializer.getConnectionPool());
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        dbInitializer.shutdownDatabase();
+    }
+
+    /**
+     * Test that repeated requests are served from the same snapshot.
+     */
+    @Test
+    public void testSnapshotIsReusedWhileBankIsUnchanged() {
+        List<Question> first = repository.getQuestions();
+        List<Question> second = repository.getQuestions();
+
+        assertFalse("The seeded bank should not be empty", first.isEmpty());
+        assertSame("An unchanged bank should not be reloaded", first, second);
+    }
+
+    /**
+     * Test that inserting a question invalidates the snapshot.
+     */
+    @Test
+    public void testChangeToQuestionsTriggersReload() throws SQLException {
+        List<Question> before = repository.getQuestions();
+        long versionBefore = repository.getSnapshotVersion();
+
+        try (Connection connection = dbInitializer.getConnection();
+             Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("INSERT INTO Questions (question, option_a, option_b, option_c, option_d, correct_answer, hint) "
+                    + "VALUES ('New question?', 'A', 'B', 'C', 'D', 'A', 'Hint')");
+        }
+
+        List<Question> after = repository.getQuestions();
+        assertNotSame("A changed bank should be reloaded", before, after);
+        assertEquals(before.size() + 1, after.size());
+        assertTrue("The version should have moved on", repository.getSnapshotVersion() > versionBefore);
+    }
+
+    /**
+     * Test that callers cannot modify the shared snapshot.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSnapshotIsUnmodifiable() {
+        repository.getQuestions().clear();
+    }
+
+    /**
+     * Test that a reload that cannot read the Questions table keeps serving
+     * the previous snapshot and tries again on the next request.
+     */
+    @Test
+    public void testFailedReloadKeepsPreviousSnapshot() throws Exception {
+        List<Question> before = repository.getQuestions();
+        long versionBefore = repository.getSnapshotVersion();
+
+        try (Connection connection = dbInitializer.getConnection();
+             Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("INSERT INTO Questions (question, option_a, option_b, option_c, option_d, correct_answer, hint) "
+                    + "VALUES ('Locked question?', 'A', 'B', 'C', 'D', 'B', 'Hint')");
+            stmt.execute("CALL SYSCS_UTIL.SYSCS_SET_DATABASE_PROPERTY('derby.locks.waitTimeout', '1')");
+        }
+
+        // Another thread holds the table, so the reload times out waiting for its lock
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread locker = new Thread(() -> {
+            try (Connection connection = dbInitializer.getConnection();
+                 Statement stmt = connection.createStatement()) {
+                connection.setAutoCommit(false);
+                stmt.execute("LOCK TABLE Questions IN EXCLUSIVE MODE");
+                locked.countDown();
+                release.await(30, TimeUnit.SECONDS);
+                connection.rollback();
+                connection.setAutoCommit(true);
+            } catch (SQLException | InterruptedException e) {
+                e.printStackTrace();
+            }
+        });
+        locker.start();
+        try {
+            assertTrue(locked.await(10, TimeUnit.SECONDS));
+            assertSame("A failed reload should keep the old snapshot", before, repository.getQuestions());
+            assertEquals(versionBefore, repository.getSnapshotVersion());
+        } finally {
+            release.countDown();
+            locker.join();
+            try (Connection connection = dbInitializer.getConnection();
+                 Statement stmt = connection.createStatement()) {
+                stmt.execute("CALL SYSCS_UTIL.SYSCS_SET_DATABASE_PROPERTY('derby.locks.waitTimeout', NULL)");
+            }
+        }
+
+        List<Question> after = repository.getQuestions();
+        assertEquals("The next request should reload", before.size() + 1, after.size());
+        assertTrue(repository.getSnapshotVersion() > versionBefore);
+    }
+}
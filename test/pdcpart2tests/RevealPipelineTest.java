@@ -0,0 +1,78 @@
+
+package pdcpart2tests;
+
+import static org.junit.Assert.*;
+
+import pdcpart2.gui.RevealPipeline;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.swing.SwingUtilities;
+
+/**
+ * Test suite for the RevealPipeline class.
+ *
+ * This class contains unit tests to verify:
+ * 1. Steps run in order on the Event Dispatch Thread after their delays.
+ * 2. Cancelling a pipeline skips the steps that have not run yet.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class RevealPipelineTest {
+
+    /**
+     * Test that every step runs in order, on the EDT, after its delay.
+     */
+    @Test
+    public void testStepsRunInOrderOnEdt() throws Exception {
+        List<String> steps = new ArrayList<>();
+        CountDownLatch finished = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        SwingUtilities.invokeAndWait(() -> new RevealPipeline()
+                .then(100, () -> steps.add("suspense:" + SwingUtilities.isEventDispatchThread()))
+                .then(0, () -> steps.add("reveal"))
+                .then(100, () -> {
+                    steps.add("next");
+                    finished.countDown();
+                })
+                .start());
+
+        assertTrue("The pipeline should finish", finished.await(5, TimeUnit.SECONDS));
+        assertTrue("The delays should add up", System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(200));
+        assertEquals(3, steps.size());
+        assertEquals("suspense:true", steps.get(0));
+        assertEquals("reveal", steps.get(1));
+        assertEquals("next", steps.get(2));
+    }
+
+    /**
+     * Test that a cancelled pipeline does not run its remaining steps.
+     */
+    @Test
+    public void testCancelSkipsRemainingSteps() throws Exception {
+        List<String> steps = new ArrayList<>();
+        RevealPipeline[] pipeline = new RevealPipeline[1];
+
+        SwingUtilities.invokeAndWait(() -> {
+            pipeline[0] = new RevealPipeline()
+                    .then(50, () -> steps.add("first"))
+                    .then(100, () -> steps.add("second"));
+            pipeline[0].start();
+        });
+        Thread.sleep(100);
+        SwingUtilities.invokeAndWait(() -> pipeline[0].cancel());
+        Thread.sleep(200);
+
+        SwingUtilities.invokeAndWait(() -> {
+            assertEquals(1, steps.size());
+            assertEquals("first", steps.get(0));
+            assertFalse(pipeline[0].isRunning());
+        });
+    }
+}
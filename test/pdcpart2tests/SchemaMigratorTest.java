@@ -0,0 +1,134 @@
+
+package pdcpart2tests;
+
+import static org.junit.Assert.*;
+
+import pdcpart2.util.DatabaseInitializer;
+import pdcpart2.util.SchemaMigrator;
+import pdcpart2.util.SchemaMigrator.Migration;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Test suite for the SchemaMigrator class.
+ *
+ * This class contains unit tests to verify:
+ * 1. A new database is migrated to the latest version with its indexes.
+ * 2. Running the migrator again applies nothing.
+ * 3. An applied migration whose SQL has changed is rejected.
+ * 4. A failing migration is rolled back and not recorded.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class SchemaMigratorTest {
+
+    private static final String TEST_DATABASE_PATH = "memory:MigratorTestDB";
+    private static final String SCRATCH_URL = "jdbc:derby:memory:MigratorScratchDB;create=true";
+
+    private static DatabaseInitializer dbInitializer;
+
+    @BeforeClass
+    public static void setUpClass() {
+        dbInitializer = DatabaseInitializer.getInstance(TEST_DATABASE_PATH);
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        dbInitializer.shutdownDatabase();
+    }
+
+    /**
+     * Test that DatabaseInitializer leaves the database at the latest version.
+     */
+    @Test
+    public void testNewDatabaseIsFullyMigrated() throws SQLException {
+        List<Migration> migrations = SchemaMigrator.defaultMigrations();
+        int latest = migrations.get(migrations.size() - 1).getVersion();
+
+        try (Connection connection = dbInitializer.getConnection()) {
+            assertEquals(latest, new SchemaMigrator().getCurrentVersion(connection));
+            assertTrue(hasIndex(connection, "GAME_RESULTS", "IDX_GAME_RESULTS_PLAYER"));
+            assertTrue(hasIndex(connection, "GAME_RESULTS", "IDX_GAME_RESULTS_SCORE"));
+            assertTrue(hasIndex(connection, "QUESTIONS", "IDX_QUESTIONS_DIFFICULTY"));
+        }
+    }
+
+    /**
+     * Test that migrating an up-to-date database does nothing.
+     */
+    @Test
+    public void testMigrateIsIdempotent() throws SQLException {
+        try (Connection connection = dbInitializer.getConnection()) {
+            assertEquals(0, new SchemaMigrator().migrate(connection));
+        }
+    }
+
+    /**
+     * Test that editing a migration after it was applied is detected.
+     */
+    @Test
+    public void testChangedMigrationIsRejected() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(SCRATCH_URL)) {
+            new SchemaMigrator(Arrays.asList(
+                    new Migration(1, "Create table", "CREATE TABLE Changed (id INT)"))).migrate(connection);
+
+            SchemaMigrator edited = new SchemaMigrator(Arrays.asList(
+                    new Migration(1, "Create table", "CREATE TABLE Changed (id BIGINT)")));
+            try {
+                edited.migrate(connection);
+                fail("A changed migration should be rejected");
+            } catch (SQLException e) {
+                assertTrue(e.getMessage().contains("changed"));
+            }
+        }
+    }
+
+    /**
+     * Test that a failing migration leaves neither its changes nor a record.
+     */
+    @Test
+    public void testFailedMigrationIsRolledBack() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(SCRATCH_URL)) {
+            SchemaMigrator migrator = new SchemaMigrator(Arrays.asList(
+                    new Migration(10, "Good", "CREATE TABLE Good (id INT)"),
+                    new Migration(11, "Bad", "CREATE TABLE Partial (id INT)", "CREATE TABLE Broken (")));
+            try {
+                migrator.migrate(connection);
+                fail("The broken migration should fail");
+            } catch (SQLException e) {
+                assertTrue(e.getMessage().contains("Migration 11"));
+            }
+
+            assertEquals(10, migrator.getCurrentVersion(connection));
+            assertTrue(hasTable(connection, "GOOD"));
+            assertFalse("The failed migration should be rolled back", hasTable(connection, "PARTIAL"));
+        }
+    }
+
+    private boolean hasIndex(Connection connection, String table, String index) throws SQLException {
+        try (ResultSet rs = connection.getMetaData().getIndexInfo(null, null, table, false, true)) {
+            while (rs.next()) {
+                if (index.equals(rs.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean hasTable(Connection connection, String table) throws SQLException {
+        try (ResultSet rs = connection.getMetaData().getTables(null, null, table, null)) {
+            return rs.next();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+
+package pdcpart2tests;
+
+import static org.junit.Assert.*;
+
+import pdcpart2.util.StartupOrchestrator;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test suite for the StartupOrchestrator class.
+ *
+ * This class contains unit tests to verify:
+ * 1. Independent phases run at the same time and dependent phases wait.
+ * 2. Every phase and marked point is timed.
+ * 3. A failed phase fails the phases that depend on it.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class StartupOrchestratorTest {
+
+    /**
+     * Test that two phases overlap and a chained phase gets the earlier result.
+     */
+    @Test
+    public void testPhasesRunInParallel() throws Exception {
+        StartupOrchestrator startup = new StartupOrchestrator(2);
+        // Each phase waits for the other, so this only completes if they overlap
+        CyclicBarrier bothRunning = new CyclicBarrier(2);
+
+        CompletableFuture<String> font = startup.phase("font", () -> {
+            bothRunning.await(5, TimeUnit.SECONDS);
+            return "font";
+        });
+        CompletableFuture<Integer> database = startup.phase("database", () -> {
+            bothRunning.await(5, TimeUnit.SECONDS);
+            return 42;
+        });
+        CompletableFuture<Integer> results = startup.phase("results", database, value -> value + 1);
+        startup.mark("firstFrame");
+
+        assertEquals("font", font.get(5, TimeUnit.SECONDS));
+        assertEquals(Integer.valueOf(43), results.get(5, TimeUnit.SECONDS));
+        startup.whenDone().get(5, TimeUnit.SECONDS);
+
+        Map<String, Long> timings = startup.getTimings();
+        assertTrue(timings.keySet().containsAll(Arrays.asList("firstFrame", "font", "database", "results", "total")));
+        assertTrue(timings.get("total") >= timings.get("results"));
+    }
+
+    /**
+     * Test that a failure is passed on and the dependent phase never runs.
+     */
+    @Test
+    public void testFailedPhaseSkipsDependents() throws Exception {
+        StartupOrchestrator startup = new StartupOrchestrator();
+        CountDownLatch dependentRan = new CountDownLatch(1);
+
+        CompletableFuture<Object> database = startup.phase("database", () -> {
+            throw new IllegalStateException("Derby did not boot");
+        });
+        CompletableFuture<Object> results = startup.phase("results", database, value -> {
+            dependentRan.countDown();
+            return value;
+        });
+        startup.whenDone().get(5, TimeUnit.SECONDS);
+
+        try {
+            results.get();
+            fail("The dependent phase should fail too");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        assertEquals(1, dependentRan.getCount());
+        assertTrue(startup.getTimings().containsKey("database"));
+        assertFalse(startup.getTimings().containsKey("results"));
+    }
+}
@@ -0,0 +1,184 @@
+
+package pdcpart2tests;
+
+import static org.junit.Assert.*;
+
+import pdcpart2.model.Question;
+import pdcpart2.util.DatabaseInitializer;
+import pdcpart2.util.TieredQuestionPool;
+import pdcpart2.util.TieredQuestionSelector;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Test suite for difficulty-tiered question selection.
+ *
+ * This class contains unit tests to verify:
+ * 1. A game gets one question per prize level, easiest first.
+ * 2. Questions added to a tier are picked up and chosen at random.
+ * 3. In-memory pools fall back to unrated questions without repeats.
+ * 4. Levels with an empty tier borrow from unrated and neighbouring tiers.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class TieredQuestionSelectorTest {
+
+    private static final String TEST_DATABASE_PATH = "memory:SelectorTestDB";
+
+    private static DatabaseInitializer dbInitializer;
+    private static TieredQuestionSelector selector;
+
+    @BeforeClass
+    public static void setUpClass() {
+        dbInitializer = DatabaseInitializer.getInstance(TEST_DATABASE_PATH);
+        selector = new TieredQuestionSelector(dbInitializer.getConnectionPool());
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        dbInitializer.shutdownDatabase();
+    }
+
+    /**
+     * Test that the seeded bank gives one question per level in tier order.
+     */
+    @Test
+    public void testGameHasOneQuestionPerLevel() throws SQLException {
+        List<Question> game = selector.selectGame();
+
+        assertEquals(Question.MAX_DIFFICULTY, game.size());
+        for (int i = 0; i < game.size(); i++) {
+            assertEquals(i + 1, game.get(i).getDifficulty());
+        }
+    }
+
+    /**
+     * Test that new questions in a tier are picked up and sampled randomly.
+     */
+    @Test
+    public void testNewQuestionsAreSampled() throws SQLException {
+        try (Connection connection = dbInitializer.getConnection();
+             PreparedStatement pstmt = connection.prepareStatement(
+                     "INSERT INTO Questions (question, option_a, option_b, option_c, option_d, correct_answer, hint, difficulty) "
+                     + "VALUES (?, 'A', 'B', 'C', 'D', 'A', NULL, 7)")) {
+            for (int i = 0; i < 50; i++) {
+                pstmt.setString(1, "Tier seven question " + i + "?");
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            List<Question> game = selector.selectGame();
+            assertEquals(Question.MAX_DIFFICULTY, game.size());
+            assertEquals(7, game.get(6).getDifficulty());
+            seen.add(game.get(6).getQuestionText());
+        }
+        assertTrue("Level 7 should draw from the whole tier, saw " + seen.size(), seen.size() > 20);
+    }
+
+    /**
+     * Test the in-memory pools, including the fallback to unrated questions.
+     */
+    @Test
+    public void testPoolFallsBackToUnrated() {
+        List<Question> bank = new ArrayList<>();
+        bank.add(new Question("Easy?", "A", "B", "C", "D", "A", null, 1));
+        bank.add(new Question("Hardest?", "A", "B", "C", "D", "B", null, Question.MAX_DIFFICULTY));
+        for (int i = 0; i < 5; i++) {
+            bank.add(new Question("Unrated " + i + "?", "A", "B", "C", "D", "C", null));
+        }
+
+        TieredQuestionPool pool = new TieredQuestionPool(bank);
+        assertEquals(5, pool.getTierSize(Question.UNRATED));
+
+        for (int round = 0; round < 50; round++) {
+            List<Question> game = pool.get();
+            assertEquals("Two rated questions and every unrated one", 7, game.size());
+            assertEquals("Easy?", game.get(0).getQuestionText());
+            assertEquals("Hardest?", game.get(game.size() - 1).getQuestionText());
+            Set<String> texts = new HashSet<>();
+            for (Question question : game) {
+                assertTrue("No question should be asked twice", texts.add(question.getQuestionText()));
+            }
+        }
+    }
+
+    /**
+     * Test that a game from a bank with empty tiers still has every level,
+     * filled from unrated questions first and then from the nearest tier.
+     */
+    @Test
+    public void testSparseTiersStillFillEveryLevel() throws SQLException {
+        try (Connection connection = dbInitializer.getConnection();
+             Statement stmt = connection.createStatement()) {
+            List<Integer> movedIds = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery("SELECT id FROM Questions WHERE difficulty = 9")) {
+                while (rs.next()) {
+                    movedIds.add(rs.getInt(1));
+                }
+            }
+
+            // Tier 3 becomes unrated and tier 9 moves into tier 10, leaving both levels empty
+            stmt.executeUpdate("UPDATE Questions SET difficulty = 0 WHERE difficulty = 3");
+            stmt.executeUpdate("UPDATE Questions SET difficulty = 10 WHERE difficulty = 9");
+            try {
+                for (int round = 0; round < 20; round++) {
+                    List<Question> game = selector.selectGame();
+                    assertEquals("Every level should get a question", Question.MAX_DIFFICULTY, game.size());
+                    assertEquals(Question.UNRATED, game.get(2).getDifficulty());
+                    assertEquals(10, game.get(8).getDifficulty());
+                    assertEquals(10, game.get(9).getDifficulty());
+                    Set<String> texts = new HashSet<>();
+                    for (Question question : game) {
+                        assertTrue("No question should be asked twice", texts.add(question.getQuestionText()));
+                    }
+                }
+            } finally {
+                stmt.executeUpdate("UPDATE Questions SET difficulty = 3 WHERE difficulty = 0");
+                for (int id : movedIds) {
+                    stmt.executeUpdate("UPDATE Questions SET difficulty = 9 WHERE id = " + id);
+                }
+            }
+        }
+    }
+
+    /**
+     * Test that an in-memory pool with no unrated questions borrows from
+     * the nearest tiers that still have a question left.
+     */
+    @Test
+    public void testPoolBorrowsFromNeighbouringTiers() {
+        List<Question> bank = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            bank.add(new Question("Easy " + i + "?", "A", "B", "C", "D", "A", null, 1));
+            bank.add(new Question("Hard " + i + "?", "A", "B", "C", "D", "B", null, Question.MAX_DIFFICULTY));
+        }
+
+        TieredQuestionPool pool = new TieredQuestionPool(bank);
+        for (int round = 0; round < 50; round++) {
+            List<Question> game = pool.get();
+            assertEquals("Every level should get a question", Question.MAX_DIFFICULTY, game.size());
+            assertEquals(1, game.get(1).getDifficulty());
+            assertEquals(Question.MAX_DIFFICULTY, game.get(Question.MAX_DIFFICULTY - 2).getDifficulty());
+            Set<String> texts = new HashSet<>();
+            for (Question question : game) {
+                assertTrue("No question should be asked twice", texts.add(question.getQuestionText()));
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+
+package pdcpart2tests;
+
+import static org.junit.Assert.*;
+
+import pdcpart2.model.GameResult;
+import pdcpart2.model.Question;
+import pdcpart2.server.GameSession;
+import pdcpart2.server.InMemoryLineTransport;
+import pdcpart2.server.LoadGenerator;
+import pdcpart2.server.SessionRunner;
+import pdcpart2.server.VirtualThreadGameServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Test suite for the virtual-thread-per-session server mode.
+ *
+ * This class contains unit tests to verify:
+ * 1. A remote client can play over a socket and times out when idle.
+ * 2. The server handles many concurrent clients from the load generator.
+ * 3. Thousands of sessions can wait for an answer at once and all finish.
+ *
+ * Author: Setefano Muller
+ *         Tharuka Rodrigo
+ */
+public class VirtualThreadGameServerTest {
+
+    private List<Question> questions;
+    private ConcurrentLinkedQueue<GameResult> results;
+    private VirtualThreadGameServer server;
+
+    @Before
+    public void setUp() {
+        List<Question> list = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            list.add(new Question("Question " + i + "?", "A" + i, "B" + i, "C" + i, "D" + i, "C" + i, "Hint " + i));
+        }
+        questions = Collections.unmodifiableList(list);
+        results = new ConcurrentLinkedQueue<>();
+    }
+
+    @After
+    public void tearDown() {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    /**
+     * Test a game over a real socket, including the question time limit.
+     */
+    @Test
+    public void testRemoteGameAndTimeout() throws Exception {
+        server = new VirtualThreadGameServer(new InetSocketAddress("localhost", 0), () -> questions, results::add, 300).start();
+
+        try (Socket socket = new Socket("localhost", server.getPort());
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true)) {
+            out.println("HELLO Dave");
+            assertEquals("WELCOME\tDave\t3", in.readLine());
+            assertTrue(in.readLine().startsWith("QUESTION\t1\t"));
+
+            out.println("ANSWER C");
+            assertEquals("CORRECT\t100", in.readLine());
+            assertTrue(in.readLine().startsWith("QUESTION\t2\t"));
+
+            // Do not answer the second question
+            assertEquals("TIMEOUT\t100", in.readLine());
+            assertEquals("GAMEOVER\t100", in.readLine());
+
+            out.println("QUIT");
+            assertEquals("BYE\t100", in.readLine());
+            assertNull("The server should close the connection", in.readLine());
+        }
+        assertEquals(1, results.size());
+        assertEquals(1, results.peek().getLastQuestionIndex());
+    }
+
+    /**
+     * Test that the server serves many concurrent clients to completion.
+     */
+    @Test
+    public void testManyConcurrentClients() throws Exception {
+        server = new VirtualThreadGameServer(new InetSocketAddress("localhost", 0), () -> questions, results::add, 0).start();
+
+        LoadGenerator.Report report = new LoadGenerator(new InetSocketAddress("localhost", server.getPort()), 500, 4).run(60_000);
+
+        assertEquals(500, report.getClientsFinished());
+        assertEquals(2000, report.getGamesCompleted());
+        assertEquals(0, report.getErrors());
+        assertEquals(2000, results.size());
+    }
+
+    /**
+     * Test that many sessions can park waiting for an answer and then finish.
+     */
+    @Test
+    public void testManyParkedSessions() throws Exception {
+        int sessions = 10_000;
+        InMemoryLineTransport[] transports = new InMemoryLineTransport[sessions];
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < sessions; i++) {
+                transports[i] = new InMemoryLineTransport();
+                transports[i].send("HELLO player" + i);
+                executor.execute(new SessionRunner(transports[i], new GameSession(() -> questions, results::add), 600_000));
+            }
+            for (InMemoryLineTransport transport : transports) {
+                assertTrue(transport.receive(30_000).startsWith("WELCOME\t"));
+                assertTrue(transport.receive(30_000).startsWith("QUESTION\t1\t"));
+            }
+
+            // Every session is now parked waiting for its first answer
+            for (InMemoryLineTransport transport : transports) {
+                transport.send("ANSWER A");
+                transport.send("QUIT");
+            }
+            for (InMemoryLineTransport transport : transports) {
+                assertEquals("WRONG\tC\t0", transport.receive(30_000));
+                assertEquals("GAMEOVER\t0", transport.receive(30_000));
+                assertEquals("BYE\t0", transport.receive(30_000));
+                assertNull("The session should end after QUIT", transport.receive(30_000));
+            }
+        }
+        assertEquals(sessions, results.size());
+    }
+}